@@ -47,6 +47,7 @@ import javax.persistence.TypedQuery;
 import org.apache.logging.log4j.Logger;
 import org.olat.basesecurity.events.NewIdentityCreatedEvent;
 import org.olat.basesecurity.manager.AuthenticationHistoryDAO;
+import org.olat.basesecurity.manager.RolesCache;
 import org.olat.basesecurity.model.OrganisationRefImpl;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.persistence.PersistenceHelper;
@@ -99,6 +100,8 @@ public class BaseSecurityManager implements BaseSecurity, UserDataDeletable {
 	private AuthenticationHistoryDAO authenticationHistoryDao;
 	@Autowired
 	private IdentityPowerSearchQueries identityPowerSearchQueries;
+	@Autowired
+	private RolesCache rolesCache;
 	
 	private static BaseSecurityManager INSTANCE;
 	private static final String GUEST_USERNAME_PREFIX = "guest_";
@@ -143,6 +146,10 @@ public class BaseSecurityManager implements BaseSecurity, UserDataDeletable {
 
 	@Override
 	public Roles getRoles(IdentityRef identity, boolean withInherited) {
+		return rolesCache.getRoles(identity, withInherited, () -> loadRoles(identity, withInherited));
+	}
+	
+	private Roles loadRoles(IdentityRef identity, boolean withInherited) {
 		StringBuilder sb = new StringBuilder(512);
 		sb.append("select org.key, org.identifier, membership.role from organisation as org ")
 		  .append(" inner join org.group baseGroup")
@@ -31,10 +31,13 @@ import org.olat.basesecurity.Grant;
 import org.olat.basesecurity.Group;
 import org.olat.basesecurity.GroupMembership;
 import org.olat.basesecurity.GroupMembershipInheritance;
+import org.olat.basesecurity.GroupRoles;
 import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.OrganisationRoles;
 import org.olat.basesecurity.model.GrantImpl;
 import org.olat.basesecurity.model.GroupImpl;
 import org.olat.basesecurity.model.GroupMembershipImpl;
+import org.olat.basesecurity.model.IdentityRefImpl;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.id.Identity;
 import org.olat.resource.OLATResource;
@@ -52,6 +55,8 @@ public class GroupDAO {
 	
 	@Autowired
 	private DB dbInstance;
+	@Autowired
+	private RolesCache rolesCache;
 	
 	public Group createGroup() {
 		GroupImpl group = new GroupImpl();
@@ -97,6 +102,7 @@ public class GroupDAO {
 		membership.setRole(role);
 		membership.setInheritanceMode(inheritanceMode);
 		dbInstance.getCurrentEntityManager().persist(membership);
+		rolesChanged(group, identity, role);
 		
 		Set<GroupMembership> members = ((GroupImpl)group).getMembers();
 		if(members == null) {
@@ -131,10 +137,12 @@ public class GroupDAO {
 		membership.setRole(role);
 		membership.setInheritanceMode(inheritanceMode);
 		dbInstance.getCurrentEntityManager().persist(membership);
+		rolesChanged(group, identity, role);
 	}
 	
 	public GroupMembership updateInheritanceMode(GroupMembership membership, GroupMembershipInheritance inheritanceMode) {
 		((GroupMembershipImpl)membership).setInheritanceMode(inheritanceMode);
+		rolesChanged(membership);
 		return dbInstance.getCurrentEntityManager().merge(membership);
 	}
 	
@@ -145,11 +153,24 @@ public class GroupDAO {
 			.getResultList();
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
+			rolesChanged(membership);
 		}
 		return memberships.size();
 	}
 	
 	public int removeMemberships(Group group, String role) {
+		if(isOrganisationRole(group, role)) {
+			String identitiesQuery = "select membership.identity.key from bgroupmember as membership where membership.group.key=:groupKey and membership.role=:role";
+			List<Long> identityKeys = dbInstance.getCurrentEntityManager()
+					.createQuery(identitiesQuery, Long.class)
+					.setParameter("groupKey", group.getKey())
+					.setParameter("role", role)
+					.getResultList();
+			for(Long identityKey:identityKeys) {
+				rolesCache.invalidate(new IdentityRefImpl(identityKey));
+			}
+		}
+		
 		return dbInstance.getCurrentEntityManager().createNamedQuery("deleteMembershipsByGroupAndRole")
 				.setParameter("groupKey", group.getKey())
 				.setParameter("role", role)
@@ -164,6 +185,7 @@ public class GroupDAO {
 			.getResultList();
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
+			rolesChanged(membership);
 		}
 		return memberships.size();
 	}
@@ -177,13 +199,14 @@ public class GroupDAO {
 			.getResultList();
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
+			rolesChanged(membership);
 		}
 		return memberships.size();
 	}
 	
 	public int removeMemberships(IdentityRef identity) {
 		String deleteQuery = "delete from bgroupmember as membership where membership.identity.key=:identityKey";
-		
+		rolesCache.invalidate(identity);
 		return dbInstance.getCurrentEntityManager()
 				.createQuery(deleteQuery).setParameter("identityKey", identity.getKey())
 				.executeUpdate();
@@ -191,6 +214,38 @@ public class GroupDAO {
 	
 	public void removeMembership(GroupMembership membership) {
 		dbInstance.getCurrentEntityManager().remove(membership);
+		rolesChanged(membership);
+	}
+	
+	private void rolesChanged(GroupMembership membership) {
+		rolesChanged(membership.getGroup(), membership.getIdentity(), membership.getRole());
+	}
+	
+	/**
+	 * The roles are only loaded from the memberships of the organisations,
+	 * the memberships of the courses and business groups don't change them.
+	 */
+	private void rolesChanged(Group group, IdentityRef identity, String role) {
+		if(isOrganisationRole(group, role)) {
+			rolesCache.invalidate(identity);
+		}
+	}
+	
+	private boolean isOrganisationRole(Group group, String role) {
+		if(!OrganisationRoles.isValue(role)) {
+			return false;
+		}
+		if(!GroupRoles.isValueOf(role)) {
+			return true;
+		}
+		// the role is used by organisations and groups (invitee)
+		List<Long> organisationKeys = dbInstance.getCurrentEntityManager()
+				.createQuery("select org.key from organisation as org where org.group.key=:groupKey", Long.class)
+				.setParameter("groupKey", group.getKey())
+				.setFirstResult(0)
+				.setMaxResults(1)
+				.getResultList();
+		return !organisationKeys.isEmpty();
 	}
 	
 	public int countMembers(Group group) {
@@ -419,17 +419,29 @@ public class OrganisationDAO {
 		return rootNode;
 	}
 	
+	/**
+	 * The keys of the parent line are in the materialized path, the
+	 * organisations are loaded by their primary keys.
+	 * 
+	 * @param organisation The organisation
+	 * @return The parent line, the root first and the organisation itself at the end
+	 */
 	public List<Organisation> getParentLine(Organisation organisation) {
+		List<Long> parentLineKeys = PersistenceHelper.materializedPathKeysToList(organisation.getMaterializedPathKeys());
+		if(parentLineKeys.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
 		StringBuilder sb = new StringBuilder(256);
 		sb.append("select org from organisation as org")
 		  .append(" inner join org.group as baseGroup")
 		  .append(" left join fetch org.parent as parent")
 		  .append(" left join fetch org.type as type")
-		  .append(" where locate(org.materializedPathKeys,:materializedPath) = 1");
+		  .append(" where org.key in (:parentLineKeys)");
 		  
 		List<Organisation> levels = dbInstance.getCurrentEntityManager()
 			.createQuery(sb.toString(), Organisation.class)
-			.setParameter("materializedPath", organisation.getMaterializedPathKeys() + "%")
+			.setParameter("parentLineKeys", parentLineKeys)
 			.getResultList();
 		Collections.sort(levels, new PathMaterializedPathLengthComparator());
 		return levels;
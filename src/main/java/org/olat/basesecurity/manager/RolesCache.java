@@ -0,0 +1,195 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.basesecurity.manager;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.events.RolesChangedEvent;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.id.Roles;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.resource.OresHelper;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of the roles of the identities. The roles are removed from the
+ * cache if a membership of the identity in an organisation changes, a
+ * second time at the end of the transaction (commit, rollback or close
+ * of the session) and after the commit on all the nodes of the cluster
+ * with a {@link RolesChangedEvent}. Without the second eviction, a
+ * concurrent request can load the roles before the commit, or the
+ * transaction itself can load the roles before a rollback, and cache
+ * them again.<br>
+ * With the consistency check (roles.cache.check=true), the roles are
+ * loaded from the database on every hit and compared with the cached
+ * ones. It's for testing, not for production.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class RolesCache implements InitializingBean, GenericEventListener {
+	
+	private static final Logger log = Tracing.createLoggerFor(RolesCache.class);
+	
+	public static final OLATResourceable ROLES_EVENT_CHANNEL = OresHelper.createOLATResourceableType(RolesCache.class);
+	
+	@Value("${roles.cache.check:false}")
+	private boolean consistencyCheck;
+	
+	private CacheWrapper<RolesKey,Roles> rolesCache;
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong inconsistencies = new AtomicLong();
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		rolesCache = coordinatorManager.getCoordinator().getCacher().getCache(RolesCache.class.getSimpleName(), "roles");
+		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, ROLES_EVENT_CHANNEL);
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	public long getInconsistencies() {
+		return inconsistencies.get();
+	}
+	
+	public boolean isConsistencyCheck() {
+		return consistencyCheck;
+	}
+	
+	public void setConsistencyCheck(boolean consistencyCheck) {
+		this.consistencyCheck = consistencyCheck;
+	}
+	
+	/**
+	 * @param identity The identity
+	 * @param withInherited Include the inherited memberships
+	 * @param loader Load the roles from the database
+	 * @return The roles of the identity
+	 */
+	public Roles getRoles(IdentityRef identity, boolean withInherited, Supplier<Roles> loader) {
+		RolesKey key = new RolesKey(identity.getKey(), withInherited);
+		Roles roles = rolesCache.get(key);
+		if(roles == null) {
+			misses.incrementAndGet();
+			roles = loader.get();
+			if(roles != null) {
+				rolesCache.put(key, roles);
+			}
+		} else {
+			hits.incrementAndGet();
+			if(consistencyCheck) {
+				Roles loadedRoles = loader.get();
+				if(!roles.equals(loadedRoles)) {
+					inconsistencies.incrementAndGet();
+					log.error("Cached roles of identity {} are not up-to-date", identity.getKey());
+					rolesCache.put(key, loadedRoles);
+					roles = loadedRoles;
+				}
+			}
+		}
+		return roles;
+	}
+	
+	/**
+	 * Remove the roles of the identity from the cache, now for the current
+	 * transaction, at the end of the current transaction (committed or not),
+	 * and after the commit on all the nodes.
+	 * 
+	 * @param identity The identity
+	 */
+	public void invalidate(IdentityRef identity) {
+		if(identity == null || identity.getKey() == null) return;
+		
+		final Long identityKey = identity.getKey();
+		remove(identityKey);
+		dbInstance.afterCommit(() -> coordinatorManager.getCoordinator().getEventBus()
+				.fireEventToListenersOf(new RolesChangedEvent(identityKey), ROLES_EVENT_CHANNEL));
+		dbInstance.afterCompletion(() -> remove(identityKey));
+	}
+
+	@Override
+	public void event(Event event) {
+		if(event instanceof RolesChangedEvent) {
+			remove(((RolesChangedEvent)event).getIdentityKey());
+		}
+	}
+	
+	private void remove(Long identityKey) {
+		rolesCache.remove(new RolesKey(identityKey, true));
+		rolesCache.remove(new RolesKey(identityKey, false));
+	}
+	
+	private static class RolesKey implements Serializable {
+
+		private static final long serialVersionUID = 8402734565019617034L;
+		
+		private final Long identityKey;
+		private final boolean withInherited;
+		
+		public RolesKey(Long identityKey, boolean withInherited) {
+			this.identityKey = identityKey;
+			this.withInherited = withInherited;
+		}
+
+		@Override
+		public int hashCode() {
+			return identityKey.hashCode() + (withInherited ? 1231 : 1237);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof RolesKey) {
+				RolesKey key = (RolesKey)obj;
+				return identityKey.equals(key.identityKey) && withInherited == key.withInherited;
+			}
+			return false;
+		}
+	}
+}
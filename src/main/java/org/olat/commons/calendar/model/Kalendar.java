@@ -31,7 +31,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class Kalendar implements Serializable {
+import org.olat.core.util.cache.Weighted;
+
+public class Kalendar implements Weighted, Serializable {
 
 	private static final long serialVersionUID = -2179014489859413340L;
 	
@@ -59,6 +61,11 @@ public class Kalendar implements Serializable {
 		return events.size();
 	}
 	
+	@Override
+	public long getWeight() {
+		return 1l + events.size();
+	}
+	
 	public boolean hasManagedEvents() {
 		return managedEvent > 0;
 	}
@@ -25,11 +25,16 @@
 package org.olat.commons.coordinate.cluster.jms;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
@@ -72,10 +77,18 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	// settings
 	private long sendInterval = 1000; // 1000 miliseconds between each "ping/alive/info" message, can be set using spring
 	private long jmsMsgDelayLimit = 5000;  // max duration of ClusterInfoEvent send-receive time in ms
+	private long batchDelay = 5; // miliseconds to wait for more events to send them in the same message, can be set using spring
+	private int maxBatchSize = 100; // max. number of events sent in the same message, can be set using spring
+	// the older nodes cannot read the batches, enable them when all the nodes are upgraded
+	private boolean batchEnabled = false;
+	private int maxQueueSize = 10000; // max. number of events waiting to be sent, can be set using spring
+	private long enqueueTimeout = 100; // miliseconds to wait for a place in a full queue before sending the event directly, can be set using spring
 	
 	// counters
 	private long latestSentMsgId = -1;
 	private long numOfSentMessages = 0;
+	private final AtomicLong numOfDirectlySentEvents = new AtomicLong();
+	private final AtomicLong numOfLocalOnlyEvents = new AtomicLong();
 	
 	// stats
 	private List<String> msgsSent = new ArrayList<>(); 
@@ -105,8 +118,11 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	private final SimpleProbe mrtgProbeJMSProcessingTime_ = new SimpleProbe();
 	
 	private final SimpleProbe mrtgProbeJMSEnqueueTime_ = new SimpleProbe();
+	private final SimpleProbe batchSizeProbe = new SimpleProbe();
+	private final EventTypeStatistics receivedEventsStatistics = new EventTypeStatistics();
 	
 	private ExecutorService jmsExecutor;
+	private BlockingQueue<JMSWrapper> sendQueue;
 	
 	/**
 	 * [used by spring]
@@ -118,6 +134,7 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	}
 
 	public void springInit() throws JMSException {
+		sendQueue = new LinkedBlockingQueue<>(maxQueueSize);
 		jmsExecutor = Executors.newSingleThreadExecutor();
 		
 		connection = connectionFactory.createConnection();
@@ -128,7 +145,8 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		producer = sessionProducer.createProducer(destination);
 
 		connection.start();
-		log.info("ClusterEventBus JMS started");
+		jmsExecutor.execute(this::sendLoop);
+		log.info("ClusterEventBus JMS started (batches of events {})", batchEnabled ? "enabled" : "disabled");
 
 		final Integer nodeId = clusterConfig.getNodeId();
 		Thread t = new Thread(new Runnable() {
@@ -141,12 +159,7 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 						if (log.isDebugEnabled()) log.debug("sent via jms clusterInfoEvent with timestamp:"+cie.getCreated()+" from node:"+nodeId);
 					} catch (Exception e) {
 						// log error, but do not throw exception, but retry.
-						try {
-							log.error("error while sending ClusterInfoEvent", e);
-						} catch (NullPointerException nex) {
-							// ignore, could happen when shutting down
-							System.err.println("ClusterEventBus : error while sending ClusterInfoEvent, could happen in shutting down, Ex=" + e);
-						}
+						log.error("error while sending ClusterInfoEvent", e);
 					}
 					try {
 						Thread.sleep(sendInterval);
@@ -154,11 +167,7 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 						// ignore
 					}
 				}
-				try {
-					log.info("ClusterEventBus stopped, do no longer send ClusterInfoEvents");
-				} catch (NullPointerException nex) {
-					System.err.println("ClusterEventBus stopped, do no longer send ClusterInfoEvents");
-				}
+				log.info("ClusterEventBus stopped, do no longer send ClusterInfoEvents");
 			}});
 		t.setDaemon(true); // VM can shutdown even when this thread is still running
 		t.start();
@@ -182,6 +191,10 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		return mrtgProbeJMSEnqueueTime_;
 	}
 	
+	public SimpleProbe getBatchSizeProbe() {
+		return batchSizeProbe;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.olat.core.util.event.GenericEventListener#event(org.olat.core.gui.control.Event)
 	 */
@@ -222,29 +235,23 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		final long msgId = ++latestSentMsgId;
 		final Integer nodeId = clusterConfig.getNodeId();
 		
-		jmsExecutor.execute(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					ObjectMessage message = sessionProducer.createObjectMessage();
-					message.setObject(new JMSWrapper(nodeId, msgId, ores, event));
-					producer.send(message);
-				} catch (Exception e) {
-					log.error("Cannot send JMS message", e);
-					// cluster:::: what shall we do here: the JMS bus is broken! and we thus cannot know if other nodes are alive.
-					// if we are the only node running, then we could continue.
-					// a) either throw an exception - meaning olat doesn't really run at all and produces redscreens all the time and logging in is not possible.
-					// b) or warn in the log/jmx - but surveillance is critical here!!
-					// -> do the more fail-fast option a) at the moment for correctness reasons.
-					System.err.println("###############################################################################################");
-					System.err.println("### ClusterEventBus: communication error with JMS - cannot send messages!!!" + e);
-					System.err.println("###############################################################################################");
-					
-					throw new OLATRuntimeException("communication error with JMS - cannot send messages!!!", e);
-				}
-				numOfSentMessages++;
+		JMSWrapper wrapper = new JMSWrapper(nodeId, msgId, ores, event);
+		if(!enqueue(wrapper)) {
+			// JMS is too slow, don't fill the heap but never lose the event: the listeners
+			// of this node too receive it only through JMS. The event can overtake the ones in the queue.
+			long directlySent = numOfDirectlySentEvents.incrementAndGet();
+			if(directlySent == 1 || directlySent % 1000 == 0) {
+				log.warn("ClusterEventBus: the queue of events to send is full ({}), {} events sent directly", maxQueueSize, directlySent);
 			}
-		});
+			try {
+				send(Collections.singletonList(wrapper));
+			} catch (Exception e) {
+				// JMS is down, at least the listeners of this node get the event
+				long localOnly = numOfLocalOnlyEvents.incrementAndGet();
+				log.error("ClusterEventBus: cannot send the event, only delivered to this node ({} events until now): {}", localOnly, event, e);
+				doFire(event, ores);
+			}
+		}
 
 		// store it for later access by the admin controller
 		String sentMsg = "sent msg: from node:" + nodeId + ", olat-id:" + msgId + ", ores:"	+ ores.getResourceableTypeName() + ":" + ores.getResourceableId()+", event:"+event;
@@ -252,6 +259,67 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		if (log.isDebugEnabled()) log.debug(sentMsg);
 	}
 
+	private boolean enqueue(JMSWrapper wrapper) {
+		try {
+			return sendQueue.offer(wrapper, enqueueTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * The loop of the sender thread. It waits for an event, collects the events
+	 * fired within the batch delay and sends them together in one message. A single
+	 * event is sent as is. If the batches are disabled, every event is sent alone.
+	 */
+	private void sendLoop() {
+		final int batchSize = batchEnabled ? maxBatchSize : 1;
+		List<JMSWrapper> batch = new ArrayList<>(batchSize);
+		while(isClusterInfoEventThreadRunning) {
+			try {
+				batch.add(sendQueue.take());
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDelay);
+				while(batch.size() < batchSize) {
+					long wait = deadline - System.nanoTime();
+					JMSWrapper next = wait > 0 ? sendQueue.poll(wait, TimeUnit.NANOSECONDS) : sendQueue.poll();
+					if(next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				send(batch);
+			} catch (InterruptedException e) {
+				log.info("ClusterEventBus sender thread interrupted");
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				// cluster:::: what shall we do here: the JMS bus is broken! and we thus cannot know if other nodes are alive.
+				// if we are the only node running, then we could continue.
+				// -> the sender thread logs the error and retries with the next events.
+				log.error("ClusterEventBus: communication error with JMS - cannot send messages!!!", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+	
+	/**
+	 * Used by the sender thread and by the threads which cannot put their events
+	 * in the full queue. The JMS session must be used by one thread at a time.
+	 */
+	private synchronized void send(List<JMSWrapper> batch) throws JMSException {
+		ObjectMessage message = sessionProducer.createObjectMessage();
+		if(batch.size() == 1) {
+			message.setObject(batch.get(0));
+		} else {
+			message.setObject(new JMSWrapperBatch(batch));
+		}
+		producer.send(message);
+		numOfSentMessages += batch.size();
+		batchSizeProbe.addMeasurement(batch.size());
+	}
+
 	/**
 	 * called by springs org.springframework.jms.listener.DefaultMessageListenerContainer, see coredefaultconfig.xml
 	 * we receive a message here on the topic reserved for olat system bus messages. 
@@ -303,43 +371,15 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		ObjectMessage om = (ObjectMessage) message;
 		try {
 			// unpack
-			JMSWrapper jmsWrapper = (JMSWrapper) om.getObject();
-			Integer nodeId = jmsWrapper.getNodeId();			
-			MultiUserEvent event = jmsWrapper.getMultiUserEvent();
-			OLATResourceable ores = jmsWrapper.getOres();
-			boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
-
-			String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
-			nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
-			", event:"+event+"}";
-
-			// stats
+			Object payload = om.getObject();
 			final long jmsTimestamp = om.getJMSTimestamp();
-			if (jmsTimestamp!=0) {
-				final long deliveryTime = receiveTime - jmsTimestamp;
-				if (deliveryTime>1500) {
-					// then issue a log statement
-					log.warn("message received with long delivery time (longer than 1500ms: {}): {}", deliveryTime, recMsg);
+			if(payload instanceof JMSWrapperBatch) {
+				for(JMSWrapper jmsWrapper:((JMSWrapperBatch)payload).getWrappers()) {
+					serveWrapper(jmsWrapper, jmsTimestamp, receiveTime);
 				}
-				mrtgProbeJMSDeliveryTime_.addMeasurement(deliveryTime);
+			} else {
+				serveWrapper((JMSWrapper)payload, jmsTimestamp, receiveTime);
 			}
-			
-			addToReceivedScreen(recMsg);
-			if (log.isDebugEnabled()) log.debug(recMsg);
-			
-			// message with destination and source both having this vm are ignored here, since they were already 
-			// "inline routed" when having been sent (direct call within the vm).
-			// distribute the unmarshalled event to all JVM wide listeners for this channel.
-			doFire(event, ores);
-			
-			// stats
-			final long doneTime = System.currentTimeMillis();
-			final long processingTime = doneTime - receiveTime;
-			if (processingTime>500) {
-				// then issue a log statement
-				log.warn("message received with long processing time (longer than 500ms: {}): {}", processingTime, recMsg);
-			}
-			mrtgProbeJMSProcessingTime_.addMeasurement(processingTime);
 		} catch (Error er) {
 			log.error("Uncaught Error in ClusterEventBus.onMessage!", er);
 			throw er;
@@ -355,6 +395,47 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 			lastOnMessageFinishTime_ = System.currentTimeMillis();
 		}
 	}
+	
+	private void serveWrapper(JMSWrapper jmsWrapper, long jmsTimestamp, long receiveTime) {
+		final long startTime = System.currentTimeMillis();
+		Integer nodeId = jmsWrapper.getNodeId();			
+		MultiUserEvent event = jmsWrapper.getMultiUserEvent();
+		OLATResourceable ores = jmsWrapper.getOres();
+		boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
+
+		String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
+		nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
+		", event:"+event+"}";
+
+		// stats
+		long deliveryTime = -1;
+		if (jmsTimestamp!=0) {
+			deliveryTime = receiveTime - jmsTimestamp;
+			if (deliveryTime>1500) {
+				// then issue a log statement
+				log.warn("message received with long delivery time (longer than 1500ms: {}): {}", deliveryTime, recMsg);
+			}
+			mrtgProbeJMSDeliveryTime_.addMeasurement(deliveryTime);
+		}
+		
+		addToReceivedScreen(recMsg);
+		if (log.isDebugEnabled()) log.debug(recMsg);
+		
+		// message with destination and source both having this vm are ignored here, since they were already 
+		// "inline routed" when having been sent (direct call within the vm).
+		// distribute the unmarshalled event to all JVM wide listeners for this channel.
+		doFire(event, ores);
+		
+		// stats
+		final long doneTime = System.currentTimeMillis();
+		final long processingTime = doneTime - startTime;
+		if (processingTime>500) {
+			// then issue a log statement
+			log.warn("message received with long processing time (longer than 500ms: {}): {}", processingTime, recMsg);
+		}
+		mrtgProbeJMSProcessingTime_.addMeasurement(processingTime);
+		receivedEventsStatistics.addMeasurement(event.getClass().getName(), deliveryTime, processingTime);
+	}
 
 	private NodeInfo getNodeInfoFor(Integer nodeId) {
 		synchronized (nodeInfos) {//cluster_ok node info is per vm only
@@ -393,6 +474,25 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		return latestSentMsgId;
 	}
 	
+	/**
+	 * @return The number of events sent by the firing thread because the queue was full
+	 */
+	public long getNumOfDirectlySentEvents() {
+		return numOfDirectlySentEvents.get();
+	}
+	
+	/**
+	 * @return The number of events which couldn't be sent and were only delivered
+	 * 		to the listeners of this node
+	 */
+	public long getNumOfLocalOnlyEvents() {
+		return numOfLocalOnlyEvents.get();
+	}
+	
+	public int getSendQueueSize() {
+		return sendQueue == null ? 0 : sendQueue.size();
+	}
+	
 	Map<Integer, NodeInfo> getNodeInfos() {
 		return nodeInfos;
 	}
@@ -401,12 +501,19 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		List<PerfItem> l = new ArrayList<>(2);
 		l.add(new PerfItem("Cluster Events Sent", -1, -1, 1, -1, -1, -1, -1, -1, -1, -1, -1, msgsSentCount));
 		l.add(new PerfItem("Cluster Events Received",  -1, -1, 1, -1, -1, -1, -1,  -1, -1, -1, -1, msgsReceivedCount));
+		l.add(new PerfItem("Cluster Events Sent Directly", -1, -1, 1, -1, -1, -1, -1, -1, -1, -1, -1, numOfDirectlySentEvents.get()));
+		l.add(new PerfItem("Cluster Events Local Only", -1, -1, 1, -1, -1, -1, -1, -1, -1, -1, -1, numOfLocalOnlyEvents.get()));
+		l.add(new PerfItem("Cluster Events per Message Sent", -1, batchSizeProbe.getMax(), -1, batchSizeProbe.getNum() == 0 ? -1 : batchSizeProbe.getAvg(),
+				-1, -1, -1, -1, -1, -1, -1, -1, batchSizeProbe.getNum()));
+		l.addAll(receivedEventsStatistics.getPerfItems());
 		return l;
 	}
 	
 	void resetStats() {
 		msgsSentCount = 0;
 		msgsReceivedCount = 0;
+		batchSizeProbe.reset();
+		receivedEventsStatistics.reset();
 	}
 	
 	private void addToSentScreen(String msg) {
@@ -486,6 +593,43 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		this.jmsMsgDelayLimit = jmsMsgDelayLimit;
 	}
 
+	/**
+	 * [used by spring]
+	 */
+	public void setBatchDelay(long batchDelay) {
+		this.batchDelay = batchDelay;
+	}
+
+	/**
+	 * [used by spring]
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+	}
+
+	/**
+	 * [used by spring] The nodes without the batches cannot read them. Enable
+	 * them only when all the nodes of the cluster are upgraded.
+	 */
+	public void setBatchEnabled(boolean batchEnabled) {
+		this.batchEnabled = batchEnabled;
+	}
+
+	/**
+	 * [used by spring]
+	 */
+	public void setMaxQueueSize(int maxQueueSize) {
+		this.maxQueueSize = Math.max(1, maxQueueSize);
+	}
+	
+	/**
+	 * [used by spring]
+	 * @param enqueueTimeout Time in miliseconds to wait for a place in the queue
+	 */
+	public void setEnqueueTimeout(long enqueueTimeout) {
+		this.enqueueTimeout = Math.max(0l, enqueueTimeout);
+	}
+
 	/**
 	 * [used by spring]
 	 */
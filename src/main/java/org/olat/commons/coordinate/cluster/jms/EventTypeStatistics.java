@@ -0,0 +1,103 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collect the number of received events, their delivery and processing
+ * times per type of event. The numbers are for the administration of
+ * the cluster.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class EventTypeStatistics {
+	
+	private volatile long since = System.currentTimeMillis();
+	private final Map<String,TypeProbe> probes = new ConcurrentHashMap<>();
+	
+	void addMeasurement(String eventType, long deliveryTime, long processingTime) {
+		probes.computeIfAbsent(eventType, type -> new TypeProbe())
+			.addMeasurement(deliveryTime, processingTime);
+	}
+	
+	void reset() {
+		probes.clear();
+		since = System.currentTimeMillis();
+	}
+	
+	/**
+	 * @return One line for the delivery and one for the processing time per type of event
+	 */
+	List<PerfItem> getPerfItems() {
+		float seconds = Math.max(1.0f, (System.currentTimeMillis() - since) / 1000.0f);
+		List<PerfItem> items = new ArrayList<>(probes.size() * 2);
+		for(Map.Entry<String,TypeProbe> entry:probes.entrySet()) {
+			String type = entry.getKey();
+			TypeProbe probe = entry.getValue();
+			synchronized(probe) {
+				float frequency = probe.count / seconds;
+				items.add(new PerfItem(type + " (delivery)", probe.minDelivery, probe.maxDelivery, probe.lastDelivery,
+						probe.avg(probe.totalDelivery), -1, -1, -1, frequency, -1, -1, -1, probe.count));
+				items.add(new PerfItem(type + " (processing)", probe.minProcessing, probe.maxProcessing, probe.lastProcessing,
+						probe.avg(probe.totalProcessing), -1, -1, -1, frequency, -1, -1, -1, probe.count));
+			}
+		}
+		return items;
+	}
+	
+	private static class TypeProbe {
+		
+		private long count;
+		private long totalDelivery;
+		private long minDelivery = -1;
+		private long maxDelivery = -1;
+		private long lastDelivery = -1;
+		private long totalProcessing;
+		private long minProcessing = -1;
+		private long maxProcessing = -1;
+		private long lastProcessing = -1;
+		
+		synchronized void addMeasurement(long deliveryTime, long processingTime) {
+			count++;
+			
+			if(deliveryTime >= 0) {
+				totalDelivery += deliveryTime;
+				lastDelivery = deliveryTime;
+				minDelivery = minDelivery < 0 ? deliveryTime : Math.min(minDelivery, deliveryTime);
+				maxDelivery = Math.max(maxDelivery, deliveryTime);
+			}
+
+			totalProcessing += processingTime;
+			lastProcessing = processingTime;
+			minProcessing = minProcessing < 0 ? processingTime : Math.min(minProcessing, processingTime);
+			maxProcessing = Math.max(maxProcessing, processingTime);
+		}
+		
+		float avg(long total) {
+			return count == 0 ? -1 : (float)total / count;
+		}
+	}
+}
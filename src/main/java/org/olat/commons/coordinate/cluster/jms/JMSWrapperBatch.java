@@ -0,0 +1,53 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of events fired within a few milliseconds and sent
+ * together in one JMS message. The order of the events is the
+ * order in which they were fired. The serialization of the batch
+ * writes the class descriptors shared by the events only once.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class JMSWrapperBatch implements Serializable {
+
+	private static final long serialVersionUID = 2874950363381730297L;
+	
+	private final ArrayList<JMSWrapper> wrappers;
+	
+	JMSWrapperBatch(List<JMSWrapper> wrappers) {
+		this.wrappers = new ArrayList<>(wrappers);
+	}
+	
+	public List<JMSWrapper> getWrappers() {
+		return wrappers;
+	}
+	
+	public int size() {
+		return wrappers.size();
+	}
+}
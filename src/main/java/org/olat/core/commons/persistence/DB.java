@@ -93,6 +93,24 @@ public interface DB {
 	 */
 	public void commit();
 	
+	/**
+	 * Run the task after the current transaction is successfully committed,
+	 * immediately if there isn't any transaction. The task is dropped if the
+	 * transaction is rolled back.
+	 * 
+	 * @param task The task to run after the commit
+	 */
+	public void afterCommit(Runnable task);
+	
+	/**
+	 * Run the task after the current transaction ends, committed or rolled back,
+	 * or after the session is closed. Immediately if there isn't any transaction.
+	 * The tasks run after the ones registered with {@link #afterCommit(Runnable)}.
+	 * 
+	 * @param task The task to run at the end of the transaction
+	 */
+	public void afterCompletion(Runnable task);
+	
 	/**
 	 * Checks if the transaction needs to be committed and does so if this is the case,
 	 * plus closes the connection in any case guaranteed.
@@ -29,7 +29,9 @@ package org.olat.core.commons.persistence;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Properties;
 
 import javax.persistence.Cache;
@@ -139,6 +141,10 @@ public class DBImpl implements DB, Destroyable {
 		private int commitCounter = 0;
 		
 		private EntityManager em;
+		// tasks to run after the commit of the current transaction
+		private List<Runnable> afterCommitTasks;
+		// tasks to run at the end of the current transaction, commit or rollback
+		private List<Runnable> afterCompletionTasks;
 		
 		private ThreadLocalData() {
 		// don't let any other class instantiate ThreadLocalData.
@@ -232,6 +238,38 @@ public class DBImpl implements DB, Destroyable {
 		protected void resetCommitCounter() {
 			this.commitCounter = 0;
 		}
+		
+		protected void addAfterCommitTask(Runnable task) {
+			if(afterCommitTasks == null) {
+				afterCommitTasks = new ArrayList<>(4);
+			}
+			afterCommitTasks.add(task);
+		}
+		
+		/**
+		 * @return The tasks to run after the commit, the list is cleared
+		 */
+		protected List<Runnable> drainAfterCommitTasks() {
+			List<Runnable> tasks = afterCommitTasks;
+			afterCommitTasks = null;
+			return tasks;
+		}
+		
+		protected void addAfterCompletionTask(Runnable task) {
+			if(afterCompletionTasks == null) {
+				afterCompletionTasks = new ArrayList<>(4);
+			}
+			afterCompletionTasks.add(task);
+		}
+		
+		/**
+		 * @return The tasks to run at the end of the transaction, the list is cleared
+		 */
+		protected List<Runnable> drainAfterCompletionTasks() {
+			List<Runnable> tasks = afterCompletionTasks;
+			afterCompletionTasks = null;
+			return tasks;
+		}
 	}
 
 	private void setData(ThreadLocalData data) {
@@ -301,12 +339,15 @@ public class DBImpl implements DB, Destroyable {
 		//  that was closed underneath by hibernate (not noticed by DBImpl).
 		//  in order to be robust for any similar situation, we check if the 
 		//  connection is open, otherwise we shouldn't worry about doing any commit/rollback anyway
+		List<Runnable> afterCommitTasks = null;
+		List<Runnable> afterCompletionTasks = getData().drainAfterCompletionTasks();
 		EntityManager s = getData().getEntityManager(false);
 		if(s != null) {
 			EntityTransaction trx = s.getTransaction();
 			if(trx.isActive()) {
 				try {
 					trx.commit();
+					afterCommitTasks = getData().drainAfterCommitTasks();
 				} catch (RollbackException ex) {
 					//possible if trx setRollbackonly
 					log.warn("Close session with transaction set with setRollbackOnly", ex);
@@ -318,6 +359,51 @@ public class DBImpl implements DB, Destroyable {
 			s.close();
 		}
 		data.remove();
+		// after the data are removed, the tasks can open a new session
+		runAfterCommitTasks(afterCommitTasks);
+		runAfterCompletionTasks(afterCompletionTasks);
+	}
+	
+	@Override
+	public void afterCommit(Runnable task) {
+		if(getData().hasTransaction()) {
+			getData().addAfterCommitTask(task);
+		} else {
+			task.run();
+		}
+	}
+	
+	@Override
+	public void afterCompletion(Runnable task) {
+		if(getData().hasTransaction()) {
+			getData().addAfterCompletionTask(task);
+		} else {
+			task.run();
+		}
+	}
+	
+	private void runAfterCompletionTasks(List<Runnable> tasks) {
+		if(tasks == null) return;
+		
+		for(Runnable task:tasks) {
+			try {
+				task.run();
+			} catch (Exception e) {
+				log.error("Task after the end of the transaction failed", e);
+			}
+		}
+	}
+	
+	private void runAfterCommitTasks(List<Runnable> tasks) {
+		if(tasks == null) return;
+		
+		for(Runnable task:tasks) {
+			try {
+				task.run();
+			} catch (Exception e) {
+				log.error("Task after commit failed", e);
+			}
+		}
 	}
   
 	private boolean contains(Object object) {
@@ -529,6 +615,8 @@ public class DBImpl implements DB, Destroyable {
 				if(trx != null) {
 					trx.commit();
 				}
+				runAfterCommitTasks(getData().drainAfterCommitTasks());
+				runAfterCompletionTasks(getData().drainAfterCompletionTasks());
 
 				if (debug) log.debug("Commit DONE hasTransaction()=" + hasTransaction());
 			} else if(hasTransaction() && isError()) {
@@ -548,6 +636,7 @@ public class DBImpl implements DB, Destroyable {
 				log.warn("Caught Exception in DBImpl.commit.", e);
 			}
 			// Error when trying to commit
+			getData().drainAfterCommitTasks();
 			try {
 				if (hasTransaction()) {
 					EntityTransaction trx = getCurrentEntityManager().getTransaction();
@@ -569,6 +658,8 @@ public class DBImpl implements DB, Destroyable {
 			} catch (Exception ex) {
 				log.warn("Could not rollback transaction after commit!", ex);
 				throw new DBRuntimeException("rollback after commit failed", e);
+			} finally {
+				runAfterCompletionTasks(getData().drainAfterCompletionTasks());
 			}
 			throw new DBRuntimeException("commit failed, rollback transaction", e);
 		}
@@ -580,6 +671,7 @@ public class DBImpl implements DB, Destroyable {
 	@Override
 	public void rollback() {
 		if (log.isDebugEnabled()) log.debug("rollback start...");
+		getData().drainAfterCommitTasks();
 		try {
 			// see closeSession() and OLAT-4318: more robustness with commit/rollback/close, therefore
 			// we check if the connection is open at this stage at all
@@ -599,7 +691,9 @@ public class DBImpl implements DB, Destroyable {
 		} catch (Exception ex) {
 			log.warn("Could not rollback transaction!",ex);
 			throw new DBRuntimeException("rollback failed", ex);
-		}		
+		} finally {
+			runAfterCompletionTasks(getData().drainAfterCompletionTasks());
+		}
 	}
 
 	/**
@@ -384,6 +384,25 @@ public class PersistenceHelper {
 		return stringList;
 	}
 	
+	/**
+	 * Split a materialized path of keys like /1/34/56/ in a list of keys.
+	 * The ancestors come first, the key of the object itself is the last one.
+	 * 
+	 * @param materializedPathKeys The materialized path
+	 * @return The list of keys, never null
+	 */
+	public static List<Long> materializedPathKeysToList(String materializedPathKeys) {
+		List<Long> keys = new ArrayList<>();
+		if(StringHelper.containsNonWhitespace(materializedPathKeys)) {
+			for(String key:materializedPathKeys.split("[/]")) {
+				if(StringHelper.isLong(key)) {
+					keys.add(Long.valueOf(key));
+				}
+			}
+		}
+		return keys;
+	}
+	
 	public static Long extractLong(Object[] results, int pos) {
 		if(results == null || pos >= results.length) return null;
 		Object obj = results[pos];
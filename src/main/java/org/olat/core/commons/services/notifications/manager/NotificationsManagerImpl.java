@@ -41,6 +41,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
@@ -117,12 +123,13 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	private final OLATResourceable oresMyself = OresHelper.lookupType(NotificationsManagerImpl.class);
 	private final OLATResourceable asyncSubscription = OresHelper.createOLATResourceableType("NotificationsManagerAsyncSub");
 
-	private Map<String, NotificationsHandler> notificationHandlers;
+	private volatile Map<String, NotificationsHandler> notificationHandlers;
 	
 	private List<String> notificationIntervals;
 	private String defaultNotificationInterval;
 	private static final Map<String, Integer> INTERVAL_DEF_MAP = buildIntervalMap();
 	private Object lockObject = new Object();
+	private int emailWorkers = 1;
 	
 	private DB dbInstance;
 	private BaseSecurity securityManager;
@@ -160,6 +167,14 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	public void setCoordinatorManager(CoordinatorManager coordinatorManager) {
 		this.coordinatorManager = coordinatorManager;
 	}
+	
+	/**
+	 * [used by Spring]
+	 * @param emailWorkers Number of threads (and database connections) used to send the notification emails
+	 */
+	public void setEmailWorkers(int emailWorkers) {
+		this.emailWorkers = Math.max(1, emailWorkers);
+	}
 
 
 	@Override
@@ -332,40 +347,134 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		log.info(Tracing.M_AUDIT, "starting notification cronjob to send email");
 		WorkThreadInformations.setLongRunningTask("sendNotifications");
 		
-		int counter = 0;
-		int closeConnection = 0;
-		List<Identity> identities;
-		do {
-			identities = securityManager.loadVisibleIdentities(counter, BATCH_SIZE);
-			for(Identity identity:identities) {
-				Roles roles = securityManager.getRoles(identity);
-				if(roles.isGuestOnly()) {
-					continue;
+		long start = System.currentTimeMillis();
+		AtomicInteger processed = new AtomicInteger();
+		AtomicInteger mailed = new AtomicInteger();
+		ExecutorService workers = null;
+		if(emailWorkers > 1) {
+			workers = Executors.newFixedThreadPool(emailWorkers, new NotificationsThreadFactory());
+		}
+		
+		try {
+			Long lastIdentityKey = Long.valueOf(-1l);
+			List<Long> identityKeys;
+			do {
+				identityKeys = getIdentityKeysWithSubscriptions(lastIdentityKey, BATCH_SIZE);
+				dbInstance.commitAndCloseSession();
+				if(!identityKeys.isEmpty()) {
+					lastIdentityKey = identityKeys.get(identityKeys.size() - 1);
+					processSubscribersByEmail(identityKeys, workers, processed, mailed);
+					log.info(Tracing.M_AUDIT, "Notifications: {} users processed, {} emails sent in {}ms (last user: {})",
+							processed.get(), mailed.get(), (System.currentTimeMillis() - start), lastIdentityKey);
 				}
+			} while(identityKeys.size() == BATCH_SIZE && !Thread.currentThread().isInterrupted());
+		} finally {
+			if(workers != null) {
+				workers.shutdownNow();
+			}
+			// done, purge last entry
+			WorkThreadInformations.unsetLongRunningTask("sendNotifications");
+		}
+		log.info(Tracing.M_AUDIT, "end notification cronjob to send email: {} users processed, {} emails sent in {}ms",
+				processed.get(), mailed.get(), (System.currentTimeMillis() - start));
+	}
 	
-				closeConnection++;
-				processSubscribersByEmail(identity);
-				if(closeConnection % 20 == 0) {
-					dbInstance.commitAndCloseSession();
+	/**
+	 * Only the identities which have at least an enabled subscription are
+	 * interesting. The list is paged by key, the key of the last identity
+	 * is the only state needed to continue.
+	 * 
+	 * @param lastIdentityKey Key of the last identity of the previous batch
+	 * @param maxResults Max. number of keys
+	 * @return A list of identity keys ordered by key
+	 */
+	List<Long> getIdentityKeysWithSubscriptions(Long lastIdentityKey, int maxResults) {
+		StringBuilder q = new StringBuilder();
+		q.append("select distinct ident.key from notisub sub")
+		 .append(" inner join sub.identity ident")
+		 .append(" where sub.enabled=true and ident.status<:visibleLimit and ident.key>:lastIdentityKey")
+		 .append(" order by ident.key");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(q.toString(), Long.class)
+				.setParameter("visibleLimit", Identity.STATUS_VISIBLE_LIMIT)
+				.setParameter("lastIdentityKey", lastIdentityKey)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
+	/**
+	 * Process a batch of identities, split in partitions if some workers are
+	 * available. Every partition uses its own database session. The handlers
+	 * of the notifications are called concurrently by the workers and must
+	 * not hold any state of a subscription in their fields.
+	 */
+	void processSubscribersByEmail(List<Long> identityKeys, ExecutorService workers,
+			AtomicInteger processed, AtomicInteger mailed) {
+		if(workers == null) {
+			processSubscribersByEmail(identityKeys, processed, mailed);
+			return;
+		}
+		
+		int partitionSize = (identityKeys.size() + emailWorkers - 1) / emailWorkers;
+		List<Future<?>> futures = new ArrayList<>(emailWorkers);
+		for(int i=0; i<identityKeys.size(); i+=partitionSize) {
+			final List<Long> partition = identityKeys.subList(i, Math.min(i + partitionSize, identityKeys.size()));
+			futures.add(workers.submit(() -> {
+				try {
+					processSubscribersByEmail(partition, processed, mailed);
+				} catch(Exception e) {
+					log.error("Error while sending notifications", e);
+					dbInstance.rollbackAndCloseSession();
 				}
-			}
-			counter += identities.size();
-			dbInstance.commitAndCloseSession();
-		} while(identities.size() == BATCH_SIZE);
+			}));
+		}
 		
-		// done, purge last entry
-		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
-		log.info(Tracing.M_AUDIT, "end notification cronjob to send email");
+		for(Future<?> future:futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.error("Notifications interrupted", e);
+				return;
+			} catch (ExecutionException e) {
+				log.error("Error while sending notifications", e);
+			}
+		}
+	}
+	
+	private void processSubscribersByEmail(List<Long> identityKeys, AtomicInteger processed, AtomicInteger mailed) {
+		int closeConnection = 0;
+		List<Identity> identities = securityManager.loadIdentityByKeys(identityKeys);
+		for(Identity identity:identities) {
+			Roles roles = securityManager.getRoles(identity);
+			if(roles.isGuestOnly()) {
+				continue;
+			}
+
+			closeConnection++;
+			if(processSubscribersByEmail(identity)) {
+				mailed.incrementAndGet();
+			}
+			processed.incrementAndGet();
+			if(closeConnection % 20 == 0) {
+				dbInstance.commitAndCloseSession();
+			}
+		}
+		dbInstance.commitAndCloseSession();
 	}
 	
-	private void processSubscribersByEmail(Identity ident) {
+	/**
+	 * @param ident The identity
+	 * @return true if an email was sent
+	 */
+	private boolean processSubscribersByEmail(Identity ident) {
 		if(ident.getStatus().compareTo(Identity.STATUS_VISIBLE_LIMIT) >= 0) {
-			return;//send only to active user
+			return false;//send only to active user
 		}
 		
 		String userInterval = getUserIntervalOrDefault(ident);
 		if("never".equals(userInterval)) {
-			return;
+			return false;
 		}
 
 		long start = System.currentTimeMillis();
@@ -374,14 +483,14 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		if(p != null) {
 		  	Date latestEmail = new Date(p.getLongValue());
 		  	if(latestEmail.after(compareDate)) {
-		  		return;//nothing to do
+		  		return false;//nothing to do
 		  	}
 		}
 
 		Date defaultCompareDate = getDefaultCompareDate();
 		List<Subscriber> subscribers = getSubscribers(ident, true);
 		if(subscribers.isEmpty()) {
-			return;
+			return false;
 		}
 		
 		String langPrefs = null;
@@ -423,10 +532,11 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		}
 		
 		Translator translator = Util.createPackageTranslator(NotificationSubscriptionController.class, locale);
-		notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
+		return notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
 	}
 	
-	private void notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
+	private boolean notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
+		boolean sent = false;
 		if(veto) {
 			if(latestSub != null) {
 				log.info(Tracing.M_AUDIT, latestSub.getIdentity().getKey() + " already received notification email within prefs interval");
@@ -435,6 +545,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 			Identity curIdent = latestSub.getIdentity();
 			boolean sentOk = sendMailToUserAndUpdateSubscriber(curIdent, items, translator, subsToUpdate);
 			if (sentOk) {
+				sent = true;
 				Property p = propertyManager.findProperty(curIdent, null, null, null, LATEST_EMAIL_USER_PROP);
 				if(p == null) {
 					p = propertyManager.createUserPropertyInstance(curIdent, null, LATEST_EMAIL_USER_PROP, null, null, null, null);
@@ -454,6 +565,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		}
 		//collecting the SubscriptionItem can potentially make a lot of DB calls
 		dbInstance.intermediateCommit();
+		return sent;
 	}
 
 	@Override
@@ -850,13 +962,15 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		if (notificationHandlers == null) {
 			synchronized(lockObject) {
 				if (notificationHandlers == null) { // check again in synchronized-block, only one may create list
-					notificationHandlers = new HashMap<>();
+					// the map is published only when complete, the workers sending the emails read it concurrently
+					Map<String, NotificationsHandler> handlers = new HashMap<>();
 					Map<String, NotificationsHandler> notificationsHandlerMap = CoreSpringFactory.getBeansOfType(NotificationsHandler.class);
 					Collection<NotificationsHandler> notificationsHandlerValues = notificationsHandlerMap.values();
 					for (NotificationsHandler notificationsHandler : notificationsHandlerValues) {
 						log.debug("initNotificationUpgrades notificationsHandler=" + notificationsHandler);
-						notificationHandlers.put(notificationsHandler.getType(), notificationsHandler);
+						handlers.put(notificationsHandler.getType(), notificationsHandler);
 					}
+					notificationHandlers = handlers;
 				}
 			}	
 		}
@@ -1463,4 +1577,16 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	public List<String> getEnabledNotificationIntervals() {
 		return notificationIntervals;
 	}
-}
\ No newline at end of file
+	
+	private static class NotificationsThreadFactory implements ThreadFactory {
+		
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "notifications-worker-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs;
+
+import java.io.File;
+
+/**
+ * Hook to check the files uploaded in chunks before they are saved
+ * in the folder, for example with a virus scanner. Every bean which
+ * implements this interface is called when the last chunk of an
+ * upload is received.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface VFSUploadScanner {
+
+	/**
+	 * @param file The complete uploaded file, not yet in the folder
+	 * @param filename The name of the file in the folder
+	 * @return true if the file can be saved, false to delete it
+	 */
+	public boolean accept(File file, String filename);
+
+}
@@ -0,0 +1,474 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.commons.services.vfs.VFSUploadScanner;
+import org.olat.core.commons.services.vfs.model.ChunkedUpload;
+import org.olat.core.commons.services.vfs.model.ChunkedUpload.Status;
+import org.olat.core.id.Identity;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.core.util.vfs.LocalFileImpl;
+import org.olat.core.util.vfs.Quota;
+import org.olat.core.util.vfs.VFSConstants;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSItem;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.core.util.vfs.VFSLockApplicationType;
+import org.olat.core.util.vfs.VFSLockManager;
+import org.olat.core.util.vfs.VFSManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resumable uploads in chunks. The chunks are appended to a hidden file
+ * in the target folder, the offset of an upload is the size of this file.
+ * The quota of the folder is checked for every chunk and the file is
+ * moved to its name, with its metadata, only when the last chunk is
+ * received and the scanners accepted it. The state of the upload is
+ * saved in a small properties file in the directory {@link #UPLOADS_DIR}
+ * of the shared folder root, the upload can be resumed from any node of
+ * the cluster.<br>
+ * Only one request can write in an upload at the same time, in the whole
+ * cluster. The writer claims the upload with a lock file next to the state,
+ * the claim is made within the cluster-wide syncer and the lock file is
+ * refreshed while the chunk is written. A lock file not refreshed for
+ * {@link #LOCK_TIMEOUT} milliseconds is left by a crashed writer and can
+ * be claimed again.<br>
+ * The uploads abandoned for more than {@link #MAX_AGE} milliseconds are
+ * deleted by the {@link ChunkedUploadCleanupJob}.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class ChunkedUploadManager {
+
+	private static final Logger log = Tracing.createLoggerFor(ChunkedUploadManager.class);
+
+	private static final String UPLOADS_DIR = ".uploads";
+	private static final String UPLOAD_PREFIX = "._oo_upload_";
+	private static final String STATE_SUFFIX = ".properties";
+	private static final String LOCK_SUFFIX = ".lock";
+	private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+	private static final long LOCK_TIMEOUT = TimeUnit.MINUTES.toMillis(2);
+	private static final long LOCK_REFRESH = TimeUnit.SECONDS.toMillis(10);
+	private static final Pattern ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+	private static final OLATResourceable LOCK_ORES = OresHelper.createOLATResourceableType(ChunkedUploadManager.class);
+
+	@Autowired
+	private FolderModule folderModule;
+	@Autowired
+	private VFSLockManager vfsLockManager;
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+	@Autowired
+	private VFSRepositoryService vfsRepositoryService;
+	@Autowired(required=false)
+	private List<VFSUploadScanner> scanners = Collections.emptyList();
+
+	/**
+	 * @param container The target folder
+	 * @param length The size of the file in bytes
+	 * @return true if the quota of the folder allows to upload the file
+	 */
+	public boolean hasQuotaFor(VFSContainer container, long length) {
+		long quotaLeftKB = VFSManager.getQuotaLeftKB(container);
+		return quotaLeftKB == Quota.UNLIMITED || length <= quotaLeftKB * 1024l;
+	}
+
+	/**
+	 * Start a new upload.
+	 *
+	 * @param container The target folder, must be a local folder
+	 * @param filename The name of the file in the folder
+	 * @param length The size of the file in bytes
+	 * @param identity The identity which uploads the file
+	 * @return The upload or null if the folder is not a local folder or the filename not valid
+	 */
+	public ChunkedUpload create(VFSContainer container, String filename, long length, Identity identity) {
+		File directory = VFSManager.getRealFile(container);
+		String relativeDirectory = getRelativeDirectory(directory);
+		if(relativeDirectory == null || !FileUtils.validateFilename(filename) || length < 0) {
+			return null;
+		}
+
+		String id = UUID.randomUUID().toString().replace("-", "");
+		Properties state = new Properties();
+		state.setProperty("directory", relativeDirectory);
+		state.setProperty("filename", filename);
+		state.setProperty("length", Long.toString(length));
+		state.setProperty("identityKey", identity.getKey().toString());
+		File stateFile = getStateFile(id);
+		stateFile.getParentFile().mkdirs();
+		try(OutputStream out = new FileOutputStream(stateFile)) {
+			state.store(out, null);
+			Files.createFile(getPartFile(directory, id).toPath());
+		} catch(IOException e) {
+			log.error("Cannot create upload of {} in {}", filename, directory, e);
+			deleteUpload(directory, id);
+			return null;
+		}
+		return new ChunkedUpload(id, filename, length, 0l, identity.getKey());
+	}
+
+	/**
+	 * @param container The target folder
+	 * @param uploadId The id of the upload
+	 * @return The upload with its current offset or null if not found
+	 */
+	public ChunkedUpload getUpload(VFSContainer container, String uploadId) {
+		File directory = VFSManager.getRealFile(container);
+		String relativeDirectory = getRelativeDirectory(directory);
+		if(relativeDirectory == null || uploadId == null || !ID_PATTERN.matcher(uploadId).matches()) {
+			return null;
+		}
+
+		File stateFile = getStateFile(uploadId);
+		File partFile = getPartFile(directory, uploadId);
+		if(!stateFile.exists() || !partFile.exists()) {
+			return null;
+		}
+
+		Properties state = loadState(stateFile);
+		if(state == null || !relativeDirectory.equals(state.getProperty("directory"))) {
+			return null;
+		}
+		try {
+			return new ChunkedUpload(uploadId, state.getProperty("filename"),
+					Long.parseLong(state.getProperty("length")), partFile.length(),
+					Long.valueOf(state.getProperty("identityKey")));
+		} catch(RuntimeException e) {
+			log.error("Cannot read upload: {}", stateFile, e);
+			return null;
+		}
+	}
+
+	private Properties loadState(File stateFile) {
+		Properties state = new Properties();
+		try(InputStream in = new FileInputStream(stateFile)) {
+			state.load(in);
+			return state;
+		} catch(IOException e) {
+			log.error("Cannot read upload: {}", stateFile, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Append a chunk to the upload. If the chunk is the last one,
+	 * the file is saved in the folder.
+	 *
+	 * @param container The target folder
+	 * @param upload The upload
+	 * @param offset The offset of the chunk, must be the current offset of the upload
+	 * @param in The content of the chunk
+	 * @param identity The identity which uploads the file
+	 * @return The status of the upload after this chunk
+	 */
+	public Status append(VFSContainer container, ChunkedUpload upload, long offset, InputStream in, Identity identity) {
+		File directory = VFSManager.getRealFile(container);
+		if(directory == null) {
+			return Status.error;
+		}
+		String token = lock(upload.getId());
+		if(token == null) {
+			return Status.conflict;
+		}
+
+		try {
+			File partFile = getPartFile(directory, upload.getId());
+			if(!partFile.exists() || partFile.length() != offset) {
+				return Status.conflict;
+			}
+
+			long quotaLeftKB = VFSManager.getQuotaLeftKB(container);
+			long quotaLeft = quotaLeftKB == Quota.UNLIMITED ? Long.MAX_VALUE : quotaLeftKB * 1024l;
+			Status status = copy(in, new LocalFileImpl(partFile), upload.getLength() - offset, quotaLeft, upload.getId(), token);
+			if(status == Status.ok && partFile.length() >= upload.getLength()) {
+				status = complete(container, directory, upload, identity);
+			}
+			return status;
+		} finally {
+			unlock(upload.getId(), token);
+		}
+	}
+
+	/**
+	 * Claim the upload for the whole cluster.
+	 *
+	 * @param uploadId The id of the upload
+	 * @return The token of the claim or null if an other request writes in the upload
+	 */
+	private String lock(String uploadId) {
+		File lockFile = getLockFile(uploadId);
+		String token = UUID.randomUUID().toString();
+		boolean locked = coordinatorManager.getCoordinator().getSyncer().doInSync(LOCK_ORES, () -> {
+			if(lockFile.exists() && lockFile.lastModified() > System.currentTimeMillis() - LOCK_TIMEOUT) {
+				return Boolean.FALSE;
+			}
+			try {
+				Files.write(lockFile.toPath(), token.getBytes(StandardCharsets.UTF_8));
+				return Boolean.TRUE;
+			} catch(IOException e) {
+				log.error("Cannot lock upload: {}", lockFile, e);
+				return Boolean.FALSE;
+			}
+		}).booleanValue();
+		return locked ? token : null;
+	}
+
+	/**
+	 * @return true if the claim is still owned by the token and was refreshed
+	 */
+	private boolean refreshLock(String uploadId, String token) {
+		File lockFile = getLockFile(uploadId);
+		return isLockedBy(lockFile, token) && lockFile.setLastModified(System.currentTimeMillis());
+	}
+
+	private void unlock(String uploadId, String token) {
+		File lockFile = getLockFile(uploadId);
+		if(isLockedBy(lockFile, token)) {
+			try {
+				Files.deleteIfExists(lockFile.toPath());
+			} catch(IOException e) {
+				log.warn("Cannot unlock upload: {}", lockFile, e);
+			}
+		}
+	}
+
+	private boolean isLockedBy(File lockFile, String token) {
+		try {
+			return lockFile.exists()
+					&& token.equals(new String(Files.readAllBytes(lockFile.toPath()), StandardCharsets.UTF_8));
+		} catch(IOException e) {
+			log.warn("Cannot read lock of upload: {}", lockFile, e);
+			return false;
+		}
+	}
+
+	private Status copy(InputStream in, VFSLeaf partLeaf, long remaining, long quotaLeft, String uploadId, String token) {
+		Status status = Status.ok;
+		long written = 0l;
+		long lastRefresh = System.currentTimeMillis();
+		byte[] buffer = new byte[FileUtils.BSIZE];
+		try(OutputStream out = partLeaf.getOutputStream(true)) {
+			int read;
+			while((read = in.read(buffer)) != -1) {
+				if(System.currentTimeMillis() - lastRefresh > LOCK_REFRESH) {
+					if(!refreshLock(uploadId, token)) {
+						// the claim timed out and an other request took the upload
+						log.warn("Upload {} claimed by an other request after {} bytes", uploadId, written);
+						status = Status.conflict;
+						break;
+					}
+					lastRefresh = System.currentTimeMillis();
+				}
+				if(written + read > quotaLeft) {
+					status = Status.quotaExceeded;
+					break;
+				}
+				if(written + read > remaining) {
+					// more data than announced, keep what the length allows
+					out.write(buffer, 0, (int)(remaining - written));
+					written = remaining;
+					break;
+				}
+				out.write(buffer, 0, read);
+				written += read;
+			}
+		} catch(IOException e) {
+			// the client can resume at the offset of the bytes saved until now
+			log.warn("Chunk interrupted after {} bytes: {}", written, e.getMessage());
+			status = Status.error;
+		}
+		return status;
+	}
+
+	private Status complete(VFSContainer container, File directory, ChunkedUpload upload, Identity identity) {
+		String filename = upload.getFilename();
+		File partFile = getPartFile(directory, upload.getId());
+		for(VFSUploadScanner scanner:scanners) {
+			if(!scanner.accept(partFile, filename)) {
+				log.warn("Upload of {} in {} rejected by {}", filename, directory, scanner.getClass().getSimpleName());
+				deleteUpload(directory, upload.getId());
+				return Status.rejected;
+			}
+		}
+
+		VFSLeaf leaf;
+		VFSItem existingItem = container.resolve(filename);
+		if(existingItem instanceof VFSContainer
+				|| (existingItem != null && vfsLockManager.isLockedForMe(existingItem, identity, VFSLockApplicationType.vfs, null))) {
+			deleteUpload(directory, upload.getId());
+			return Status.rejected;
+		} else if(existingItem instanceof VFSLeaf && existingItem.canVersion() == VFSConstants.YES) {
+			leaf = (VFSLeaf)existingItem;
+			try(InputStream in = new FileInputStream(partFile)) {
+				vfsRepositoryService.addVersion(leaf, identity, "Upload", in);
+			} catch(IOException e) {
+				log.error("Cannot save upload of {} in {}", filename, directory, e);
+				return Status.error;
+			}
+			deleteUpload(directory, upload.getId());
+		} else {
+			if(existingItem != null) {
+				existingItem.delete();
+			}
+			try {
+				Files.move(partFile.toPath(), new File(directory, filename).toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch(IOException e) {
+				log.error("Cannot save upload of {} in {}", filename, directory, e);
+				return Status.error;
+			}
+			deleteUpload(directory, upload.getId());
+			leaf = (VFSLeaf)container.resolve(filename);
+		}
+
+		if(leaf != null && leaf.canMeta() == VFSConstants.YES) {
+			VFSMetadata metadata = leaf.getMetaInfo();
+			metadata.setAuthor(identity);
+			vfsRepositoryService.updateMetadata(metadata);
+		}
+		return Status.completed;
+	}
+
+	/**
+	 * Delete the partial file and the state of the upload.
+	 *
+	 * @param container The target folder
+	 * @param upload The upload
+	 */
+	public void cancel(VFSContainer container, ChunkedUpload upload) {
+		File directory = VFSManager.getRealFile(container);
+		if(directory != null) {
+			deleteUpload(directory, upload.getId());
+		}
+	}
+
+	private void deleteUpload(File directory, String uploadId) {
+		try {
+			File partFile = getPartFile(directory, uploadId);
+			if(partFile.exists()) {
+				// update the usage of the folder
+				new LocalFileImpl(partFile).deleteSilently();
+			}
+			Files.deleteIfExists(getStateFile(uploadId).toPath());
+			Files.deleteIfExists(getLockFile(uploadId).toPath());
+		} catch(IOException e) {
+			log.warn("Cannot delete upload {} in {}", uploadId, directory, e);
+		}
+	}
+
+	/**
+	 * Delete the uploads of all folders which didn't receive any chunk
+	 * for more than {@link #MAX_AGE} milliseconds.
+	 *
+	 * @return The number of deleted uploads
+	 */
+	public int deleteExpiredUploads() {
+		File[] stateFiles = getUploadsDirectory().listFiles((dir, name) -> name.endsWith(STATE_SUFFIX));
+		if(stateFiles == null) return 0;
+
+		int count = 0;
+		long limit = System.currentTimeMillis() - MAX_AGE;
+		for(File stateFile:stateFiles) {
+			String name = stateFile.getName();
+			String uploadId = name.substring(0, name.length() - STATE_SUFFIX.length());
+			Properties state = loadState(stateFile);
+			File directory = state == null || state.getProperty("directory") == null
+					? null : Paths.get(folderModule.getCanonicalRoot(), state.getProperty("directory")).toFile();
+			File partFile = directory == null ? null : getPartFile(directory, uploadId);
+			long lastModified = partFile == null ? stateFile.lastModified()
+					: Math.max(stateFile.lastModified(), partFile.lastModified());
+			if(lastModified < limit && lock(uploadId) != null) {
+				log.info("Delete abandoned upload {} in {}", uploadId, directory);
+				if(directory == null) {
+					FileUtils.deleteFile(stateFile);
+					FileUtils.deleteFile(getLockFile(uploadId));
+				} else {
+					deleteUpload(directory, uploadId);
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @param directory A directory in the folder root
+	 * @return The path of the directory relative to the folder root or null
+	 */
+	private String getRelativeDirectory(File directory) {
+		if(directory == null) return null;
+
+		try {
+			Path root = Paths.get(folderModule.getCanonicalRoot());
+			Path path = directory.getCanonicalFile().toPath();
+			return path.startsWith(root) ? root.relativize(path).toString() : null;
+		} catch(IOException e) {
+			log.error("Cannot resolve directory: {}", directory, e);
+			return null;
+		}
+	}
+
+	private File getUploadsDirectory() {
+		return Paths.get(folderModule.getCanonicalRoot(), UPLOADS_DIR).toFile();
+	}
+
+	private File getPartFile(File directory, String uploadId) {
+		return new File(directory, UPLOAD_PREFIX + uploadId);
+	}
+
+	private File getStateFile(String uploadId) {
+		return new File(getUploadsDirectory(), uploadId + STATE_SUFFIX);
+	}
+
+	private File getLockFile(String uploadId) {
+		return new File(getUploadsDirectory(), uploadId + LOCK_SUFFIX);
+	}
+}
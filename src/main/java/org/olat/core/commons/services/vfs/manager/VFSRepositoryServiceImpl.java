@@ -19,13 +19,9 @@
  */
 package org.olat.core.commons.services.vfs.manager;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -91,6 +87,7 @@ import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.core.util.event.GenericEventListener;
 import org.olat.core.util.io.ShieldInputStream;
 import org.olat.core.util.resource.OresHelper;
+import org.olat.core.util.vfs.FolderUsageCache;
 import org.olat.core.util.vfs.LocalFileImpl;
 import org.olat.core.util.vfs.LocalFolderImpl;
 import org.olat.core.util.vfs.VFSConstants;
@@ -127,6 +124,8 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Autowired
 	private VFSRevisionDAO revisionDao;
 	@Autowired
+	private VFSRevisionStore revisionStore;
+	@Autowired
 	private VFSMetadataDAO metadataDao;
 	@Autowired
 	private VFSStatsDAO statsDao;
@@ -482,7 +481,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			File revFile = getRevisionFile(revision);
 			if(revFile != null && revFile.exists()) {
 				try {
-					Files.delete(revFile.toPath());
+					revisionStore.delete(revFile);
 				} catch (IOException e) {
 					log.error("Cannot delete thumbnail: {}", revFile, e);
 				}
@@ -568,12 +567,12 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 
 		boolean allOk = true;
 		for (VFSRevision sourceRevision : sourceRevisions) {
-			VFSLeaf sourceRevFile = getRevisionLeaf(sourceMetadata, (VFSRevisionImpl)sourceRevision);
+			File sourceRevFile = getRevisionFile(sourceRevision);
 			if(sourceRevFile != null && sourceRevFile.exists()) {
 				VFSRevision targetRevision = revisionDao.createRevisionCopy(sourceRevision.getAuthor(), sourceRevision.getRevisionComment(),
 						sourceRevision, targetMetadata);
-				VFSLeaf targetRevFile = getRevisionLeaf(targetMetadata, (VFSRevisionImpl)targetRevision);
-				VFSManager.copyContent(sourceRevFile, targetRevFile, false);
+				File targetRevFile = getRevisionFile(targetRevision);
+				allOk &= revisionStore.copy(sourceRevFile, targetRevFile);
 			}
 		}
 		return allOk;
@@ -836,6 +835,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			try {
 				VFSLeaf revFile = getRevisionLeaf(metadata, ((VFSRevisionImpl)revision));
 				if (FileUtils.copyToFile(revFile.getInputStream(), currentFile, "Restore")) {
+					FolderUsageCache.changed(currentFile, currentFile.length());
 					deleteRevisions(metadata, Collections.singletonList(revision));
 					allOk = true;
 				}
@@ -929,7 +929,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		}
 
 		File revFile = new File(currentFile.getParentFile(), uuid);
-		if (sameFile || copyContent(currentFile, revFile)) {
+		if (sameFile || revisionStore.copy(currentFile, revFile)) {
 			if(pruneRevision && maxNumOfVersions >= 0 && revisions.size() > maxNumOfVersions) {
 				int numOfVersionsToDelete = Math.min(revisions.size(), (revisions.size() - maxNumOfVersions));
 				if(numOfVersionsToDelete > 0) {
@@ -948,25 +948,6 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		return false;
 	}
 	
-	/**
-	 * The method only copy and overwrite the file.
-	 * 
-	 * @param currentFile The file to copy
-	 * @param targetFile The target
-	 * @return true if successful
-	 */
-	private boolean copyContent(File currentFile, File targetFile) {
-		try(InputStream in = new FileInputStream(currentFile);
-				OutputStream out = new FileOutputStream(targetFile);
-				OutputStream bout = new BufferedOutputStream(out)) {
-			FileUtils.cpio(in, bout, "Copy revisions");
-			return true;
-		} catch(IOException e) {
-			log.error("", e);
-			return false;
-		}
-	}
-	
 	@Override
 	public boolean deleteRevisions(Identity identity, List<VFSRevision> revisions) {
 		if(revisions == null || revisions.isEmpty()) return true;// ok, nothing to do
@@ -1019,7 +1000,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		for(String fileToDelete:filenamesToDelete.keySet()) {
 			try {
 				File file = new File(directory, fileToDelete);
-				Files.deleteIfExists(file.toPath());
+				revisionStore.delete(file);
 			} catch (IOException e) {
 				log.error("Cannot the version of a file", e);
 			}
@@ -1115,7 +1096,9 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 				String newRevFilename = generateFilenameForRevision(newTargetName, revision.getRevisionNr());
 				Path targetRevPath = getRevisionPath(targetRelativePath, newRevFilename);
 				try {
+					long size = revFile.length();
 					Files.move(path, targetRevPath, StandardCopyOption.REPLACE_EXISTING);
+					FolderUsageCache.moved(revFile, targetRevPath.toFile(), size);
 				} catch (IOException e) {
 					log.error("", e);
 				}
@@ -0,0 +1,444 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.vfs.FolderUsageCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Content addressed store for the files of the revisions. The content
+ * is saved once under its SHA-256 hash in the directory /.revisions
+ * of the folder root and the files of the revisions are hard links to
+ * it. The resolution of the revisions doesn't change, the revision
+ * files stay at the same place, but identical contents (saved several
+ * times, copied courses, imports) use the disk space only once. The
+ * file system counts the references: a content which is only linked
+ * by the store is not used anymore.<br>
+ * The files of the revisions are never written in place, they are
+ * replaced. A probe link at the first use checks that the file system
+ * supports hard links, and the revision must be on the same device as
+ * the store. Else the revisions are plain copies as before.<br>
+ * The revisions saved as plain copies before the store existed are
+ * linked to the store by a background migration, started by the upgrade
+ * and resumed every night until the whole folder root was walked through.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class VFSRevisionStore {
+
+	private static final Logger log = Tracing.createLoggerFor(VFSRevisionStore.class);
+
+	private static final String STORE_DIR = ".revisions";
+	private static final String REVISION_PREFIX = "._oo_vr_";
+	private static final String PROBE_PREFIX = "._oo_probe_";
+	private static final String MIGRATION_MARKER = "migration.pending";
+	private static final Pattern CONTENT_NAME = Pattern.compile("[0-9a-f]{64}");
+	private static final long MIN_AGE_CLEANUP = TimeUnit.DAYS.toMillis(1);
+
+	private final boolean unix = FileSystems.getDefault().supportedFileAttributeViews().contains("unix");
+	private Boolean linksSupported;
+	private Object storeDevice;
+
+	@Autowired
+	private FolderModule folderModule;
+
+	/**
+	 * Copy the content of the source to the target file of a revision. If
+	 * the content is already in the store, the target is a link to it, else
+	 * the source is copied and the copy is added to the store. The content
+	 * is written only once.
+	 *
+	 * @param source The file to copy
+	 * @param target The file of the revision
+	 * @return true if successful
+	 */
+	public boolean copy(File source, File target) {
+		Path sourcePath = source.toPath();
+		Path targetPath = target.toPath();
+		long previousSize = target.length();
+		try {
+			String hash = isLinkable(targetPath.getParent()) ? hash(sourcePath) : null;
+			if(hash != null) {
+				Path content = getContentPath(hash);
+				if(Files.exists(content) && link(content, targetPath)) {
+					FolderUsageCache.changed(target, target.length() - previousSize);
+					return true;
+				}
+			}
+			Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+			if(hash != null) {
+				addToStore(targetPath, hash);
+			}
+			FolderUsageCache.changed(target, target.length() - previousSize);
+			return true;
+		} catch(IOException e) {
+			log.error("Cannot copy revision: {}", target, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Delete the file of a revision and the content in the store
+	 * if no other revision uses it.
+	 *
+	 * @param revisionFile The file of the revision
+	 * @throws IOException
+	 */
+	public void delete(File revisionFile) throws IOException {
+		Path path = revisionFile.toPath();
+		long size = revisionFile.length();
+		if(unix && getLinkCount(path) == 2) {
+			// the revision and the store, maybe the last one
+			String hash = hash(path);
+			deleteRevisionFile(revisionFile, size);
+			if(hash != null) {
+				Path content = getContentPath(hash);
+				if(getLinkCount(content) == 1) {
+					Files.deleteIfExists(content);
+				}
+			}
+		} else {
+			deleteRevisionFile(revisionFile, size);
+		}
+	}
+	
+	private void deleteRevisionFile(File revisionFile, long size) throws IOException {
+		if(Files.deleteIfExists(revisionFile.toPath())) {
+			FolderUsageCache.changed(revisionFile, -size);
+		}
+	}
+
+	/**
+	 * Replace the file of an existing revision by a link to the
+	 * store. Used to migrate the revisions saved as plain copies.
+	 *
+	 * @param revisionFile The file of the revision
+	 * @return true if the file is linked to the store
+	 */
+	public boolean deduplicate(File revisionFile) {
+		Path path = revisionFile.toPath();
+		if(!Files.isRegularFile(path) || !isLinkable(path.getParent())) {
+			return false;
+		}
+		if(getLinkCount(path) > 1) {
+			return true;// already done
+		}
+
+		String hash = hash(path);
+		if(hash == null) {
+			return false;
+		}
+
+		Path content = getContentPath(hash);
+		try {
+			if(Files.exists(content)) {
+				Path tmp = path.resolveSibling("._oo_tmp_" + UUID.randomUUID());
+				Files.createLink(tmp, content);
+				Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				return true;
+			}
+			return addToStore(path, hash);
+		} catch (IOException | UnsupportedOperationException e) {
+			log.warn("Cannot deduplicate revision: {}", revisionFile, e);
+			return false;
+		}
+	}
+
+	/**
+	 * Start the migration of the revisions saved as plain copies. The
+	 * migration runs in the background, see {@link #migrate(long)}.
+	 */
+	public void startMigration() {
+		Path marker = getStorePath().resolve(MIGRATION_MARKER);
+		try {
+			Files.createDirectories(marker.getParent());
+			if(!Files.exists(marker)) {
+				Files.createFile(marker);
+			}
+		} catch (IOException e) {
+			log.error("Cannot start the migration of the revisions", e);
+		}
+	}
+
+	public boolean isMigrationPending() {
+		return Files.exists(getStorePath().resolve(MIGRATION_MARKER));
+	}
+
+	/**
+	 * Walk through the folder root and link the files of the revisions
+	 * to the store, for the specified time at most. The files already
+	 * linked are skipped without reading them, the next call resumes
+	 * the migration where it stopped. The migration is done when the
+	 * whole folder root was walked through.
+	 *
+	 * @param maxDuration The maximum duration in milliseconds
+	 * @return The number of files of revisions linked to the store
+	 */
+	public int migrate(long maxDuration) {
+		if(!isMigrationPending()) {
+			return 0;
+		}
+
+		Path rootPath = Paths.get(folderModule.getCanonicalRoot());
+		if(!isLinksSupported() || !Files.isDirectory(rootPath)) {
+			stopMigration();
+			return 0;
+		}
+
+		final long deadline = System.currentTimeMillis() + maxDuration;
+		final Path storePath = getStorePath();
+		final AtomicInteger count = new AtomicInteger();
+		final AtomicBoolean completed = new AtomicBoolean(true);
+		try {
+			Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					return dir.equals(storePath) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if(attrs.isRegularFile() && file.getFileName().toString().startsWith(REVISION_PREFIX)) {
+						if(System.currentTimeMillis() > deadline) {
+							completed.set(false);
+							return FileVisitResult.TERMINATE;
+						}
+						if(deduplicate(file.toFile()) && count.incrementAndGet() % 1000 == 0) {
+							log.info("Revision store: {} files of revisions linked", count.get());
+						}
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			log.error("Cannot migrate the revisions", e);
+			completed.set(false);
+		}
+
+		if(completed.get()) {
+			stopMigration();
+			log.info("Migration of the revisions done");
+		} else {
+			log.info("Migration of the revisions paused, it will resume with the next run");
+		}
+		return count.get();
+	}
+
+	private void stopMigration() {
+		try {
+			Files.deleteIfExists(getStorePath().resolve(MIGRATION_MARKER));
+		} catch (IOException e) {
+			log.error("Cannot stop the migration of the revisions", e);
+		}
+	}
+
+	/**
+	 * Delete the contents which are not linked by a revision anymore,
+	 * for example after a folder was deleted.
+	 *
+	 * @return The number of deleted contents
+	 */
+	public int cleanup() {
+		return cleanup(MIN_AGE_CLEANUP);
+	}
+
+	protected int cleanup(long minAge) {
+		Path storePath = getStorePath();
+		if(!unix || !Files.isDirectory(storePath)) {
+			return 0;
+		}
+
+		final long limit = System.currentTimeMillis() - minAge;
+		final AtomicInteger deleted = new AtomicInteger();
+		try {
+			Files.walkFileTree(storePath, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					if(CONTENT_NAME.matcher(file.getFileName().toString()).matches()
+							&& attrs.lastModifiedTime().toMillis() < limit && getLinkCount(file) == 1) {
+						Files.deleteIfExists(file);
+						deleted.incrementAndGet();
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			log.error("Cannot cleanup the revision store", e);
+		}
+		return deleted.get();
+	}
+
+	/**
+	 * Link the file to the store if the content is not already there.
+	 * 
+	 * @param file The file with the content
+	 * @param hash The hash of the content
+	 * @return true if the file is linked to the store
+	 */
+	private boolean addToStore(Path file, String hash) {
+		Path content = getContentPath(hash);
+		try {
+			Files.createDirectories(content.getParent());
+			Files.createLink(content, file);
+			return true;
+		} catch (IOException | UnsupportedOperationException e) {
+			// an other revision added the same content in the meantime
+			log.debug("Cannot add to the revision store: {}", file, e);
+			return false;
+		}
+	}
+
+	private boolean link(Path content, Path target) {
+		try {
+			Files.deleteIfExists(target);
+			Files.createLink(target, content);
+			return true;
+		} catch (IOException | UnsupportedOperationException e) {
+			// the content can be deleted by the cleanup in the meantime
+			log.debug("Cannot link revision: {}", target, e);
+			return false;
+		}
+	}
+
+	/**
+	 * @param dir The directory of the revision
+	 * @return true if the revisions in the directory can be linked to the store
+	 */
+	private boolean isLinkable(Path dir) {
+		if(dir == null || !isLinksSupported()) {
+			return false;
+		}
+		Object device = getDevice(dir);
+		return device != null && device.equals(storeDevice);
+	}
+
+	protected synchronized boolean isLinksSupported() {
+		if(linksSupported == null) {
+			linksSupported = Boolean.valueOf(probeLinks());
+		}
+		return linksSupported.booleanValue();
+	}
+
+	/**
+	 * Only for the tests: false disables the hard links, null probes
+	 * the file system again.
+	 * 
+	 * @param supported The support of the hard links
+	 */
+	protected synchronized void setLinksSupported(Boolean supported) {
+		linksSupported = supported;
+	}
+
+	private boolean probeLinks() {
+		if(!unix) {
+			return false;
+		}
+
+		Path storePath = getStorePath();
+		String probeName = PROBE_PREFIX + UUID.randomUUID();
+		Path probe = storePath.resolve(probeName);
+		Path probeLink = storePath.getParent().resolve(probeName);
+		try {
+			Files.createDirectories(storePath);
+			Files.createFile(probe);
+			Files.createLink(probeLink, probe);
+			storeDevice = getDevice(storePath);
+			return storeDevice != null && getLinkCount(probe) == 2;
+		} catch (IOException | UnsupportedOperationException | SecurityException e) {
+			log.info("The file system doesn't support hard links, the revisions are plain copies: {}", e.getMessage());
+			return false;
+		} finally {
+			deleteQuietly(probeLink);
+			deleteQuietly(probe);
+		}
+	}
+
+	private void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			log.warn("Cannot delete: {}", path, e);
+		}
+	}
+
+	private Object getDevice(Path path) {
+		try {
+			return Files.getAttribute(path, "unix:dev");
+		} catch (IOException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	protected int getLinkCount(Path path) {
+		try {
+			Object nlink = Files.getAttribute(path, "unix:nlink");
+			return nlink instanceof Number ? ((Number)nlink).intValue() : -1;
+		} catch (IOException | UnsupportedOperationException e) {
+			return -1;
+		}
+	}
+
+	protected String hash(Path path) {
+		try(InputStream in = Files.newInputStream(path)) {
+			return DigestUtils.sha256Hex(in);
+		} catch (IOException e) {
+			log.warn("Cannot calculate the hash of: {}", path, e);
+			return null;
+		}
+	}
+
+	private Path getStorePath() {
+		return Paths.get(folderModule.getCanonicalRoot(), STORE_DIR);
+	}
+
+	protected Path getContentPath(String hash) {
+		return getStorePath().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+	}
+}
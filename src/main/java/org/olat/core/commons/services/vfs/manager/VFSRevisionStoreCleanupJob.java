@@ -0,0 +1,50 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.util.concurrent.TimeUnit;
+
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.commons.services.scheduler.JobWithDB;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+/**
+ * Migrate the revisions saved as plain copies to the store for at most
+ * an hour and delete the contents of the revision store which are not
+ * used anymore.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@DisallowConcurrentExecution
+public class VFSRevisionStoreCleanupJob extends JobWithDB {
+	
+	private static final long MAX_MIGRATION_DURATION = TimeUnit.HOURS.toMillis(1);
+
+	@Override
+	public void executeWithDB(JobExecutionContext arg0) throws JobExecutionException {
+		VFSRevisionStore revisionStore = CoreSpringFactory.getImpl(VFSRevisionStore.class);
+		revisionStore.migrate(MAX_MIGRATION_DURATION);
+		revisionStore.cleanup();
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.model;
+
+/**
+ * The state of a chunked upload: the file is uploaded in several
+ * requests, each one appends its chunk at the offset where the
+ * previous one stopped.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ChunkedUpload {
+
+	private final String id;
+	private final String filename;
+	private final long length;
+	private final long offset;
+	private final Long identityKey;
+
+	public ChunkedUpload(String id, String filename, long length, long offset, Long identityKey) {
+		this.id = id;
+		this.filename = filename;
+		this.length = length;
+		this.offset = offset;
+		this.identityKey = identityKey;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return The name of the file in the target folder
+	 */
+	public String getFilename() {
+		return filename;
+	}
+
+	/**
+	 * @return The size of the whole file in bytes
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * @return The number of bytes already received
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	public Long getIdentityKey() {
+		return identityKey;
+	}
+
+	public boolean isCompleted() {
+		return offset >= length;
+	}
+
+	public enum Status {
+		/** The chunk is saved, the upload is not completed */
+		ok,
+		/** The last chunk is saved and the file is in the folder */
+		completed,
+		/** The offset doesn't match or an other request is writing */
+		conflict,
+		/** The chunk exceeds the quota of the folder */
+		quotaExceeded,
+		/** The file was refused by a scanner or is locked */
+		rejected,
+		error
+	}
+}
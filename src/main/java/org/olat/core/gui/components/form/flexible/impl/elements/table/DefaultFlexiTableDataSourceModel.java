@@ -178,6 +178,16 @@ public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableD
 		}
 	}
 
+	@Override
+	public void unload(int firstResult, int maxResults) {
+		if(rows == null) return;
+		
+		int lastResult = Math.min(rows.size(), firstResult + maxResults);
+		for(int i=Math.max(0, firstResult); i<lastResult; i++) {
+			rows.set(i, null);
+		}
+	}
+
 	@Override
 	public ResultInfos<U> load(String query, List<FlexiTableFilter> filters, List<String> addQueries, int firstResult, int maxResults, SortKey... orderBy) {
 		return loadDatas(query, filters, addQueries, false, firstResult, maxResults, orderBy);
@@ -52,5 +52,14 @@ public interface FlexiTableDataSource<U> extends FlexiTableDataModel<U> {
 	 * @param orderBy
 	 */
 	public ResultInfos<U> load(String query, List<FlexiTableFilter> filters, List<String> addQueries, int firstResult, int maxResults, SortKey... orderBy);
+	
+	/**
+	 * Release the loaded rows, they will be loaded again if needed. Used to
+	 * stream the rows of the table page by page.
+	 * 
+	 * @param firstResult The first row to release
+	 * @param maxResults The number of rows to release
+	 */
+	public void unload(int firstResult, int maxResults);
 
 }
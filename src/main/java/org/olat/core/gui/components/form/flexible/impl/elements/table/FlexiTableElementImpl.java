@@ -123,6 +123,8 @@ public class FlexiTableElementImpl extends FormItemImpl implements FlexiTableEle
 	private ExtendedFlexiTableSearchController extendedSearchCtrl;
 	
 	private final FlexiTableDataModel<?> dataModel;
+	// the copy of the data model used by the export running in the current thread
+	private final ThreadLocal<FlexiTableDataModel<?>> exportDataModel = new ThreadLocal<>();
 	private final FlexiTableDataSource<?> dataSource;
 	private final FlexiTableComponent component;
 	private FlexiTableComponentDelegate componentDelegate;
@@ -1318,13 +1320,10 @@ public class FlexiTableElementImpl extends FormItemImpl implements FlexiTableEle
 	}
 	
 	private void doExport(UserRequest ureq) {
-		// ensure the all rows are loaded to export
-		if(dataSource != null) {
-			if(dataModel instanceof FlexiTableDataSource) {
-				((FlexiTableDataSource<?>)dataModel).load(getSearchText(), getSelectedFilters(), getConditionalQueries(), 0, -1, orderBy);
-			} else {
-				dataSource.load(getSearchText(), getSelectedFilters(), getConditionalQueries(), 0, -1, orderBy);
-			}
+		// the exportable models need all the rows, the standard exporter
+		// pages through a copy of the data source itself
+		if(dataSource != null && dataModel instanceof ExportableFlexiTableDataModel) {
+			dataSource.load(getSearchText(), getSelectedFilters(), getConditionalQueries(), 0, -1, orderBy);
 		}
 		
 		MediaResource resource;
@@ -1911,8 +1910,27 @@ public class FlexiTableElementImpl extends FormItemImpl implements FlexiTableEle
 		return getRowCount();
 	}
 	
+	/**
+	 * @return The model of the table or, in the thread of an export which
+	 * 		pages through a copy of the data source, the copy
+	 */
 	public FlexiTableDataModel<?> getTableDataModel() {
-		return dataModel;
+		FlexiTableDataModel<?> exportModel = exportDataModel.get();
+		return exportModel == null ? dataModel : exportModel;
+	}
+	
+	/**
+	 * The exporters and the cell renderers read the rows from the copy
+	 * of the data source in the current thread only.
+	 * 
+	 * @param exportModel The copy of the data model or null to end the export
+	 */
+	protected void setExportDataModel(FlexiTableDataModel<?> exportModel) {
+		if(exportModel == null) {
+			exportDataModel.remove();
+		} else {
+			exportDataModel.set(exportModel);
+		}
 	}
 	
 	public FlexiTreeTableDataModel<?> getTreeTableDataModel() {
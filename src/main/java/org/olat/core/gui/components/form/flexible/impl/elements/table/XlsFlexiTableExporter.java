@@ -23,9 +23,13 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DBFactory;
+import org.olat.core.commons.persistence.SortKey;
 import org.olat.core.gui.components.form.flexible.FormItem;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableFilter;
 import org.olat.core.gui.media.MediaResource;
 import org.olat.core.gui.render.EmptyURLBuilder;
 import org.olat.core.gui.render.StringOutput;
@@ -51,6 +55,7 @@ import org.olat.core.util.openxml.OpenXMLWorksheet.Row;
 public class XlsFlexiTableExporter implements FlexiTableExporter {
 	private static final Logger log = Tracing.createLoggerFor(XlsFlexiTableExporter.class);
 	private static final URLBuilder ubu = new EmptyURLBuilder();
+	static final int EXPORT_PAGE_SIZE = 500;
 	
 	@Override
 	public MediaResource export(FlexiTableComponent ftC, List<FlexiColumnModel> columns, Translator translator) {
@@ -59,13 +64,30 @@ public class XlsFlexiTableExporter implements FlexiTableExporter {
 				+ Formatter.formatDatetimeFilesystemSave(new Date(System.currentTimeMillis()))
 				+ ".xlsx";
 		
+		FlexiTableElementImpl ftE = ftC.getFlexiTableElement();
+		FlexiTableDataModel<?> dataModel = ftE.getTableDataModel();
+		final DefaultFlexiTableDataSourceModel<?> exportSource = createExportSource(dataModel);
+		final String searchText = ftE.getSearchText();
+		final List<FlexiTableFilter> filters = ftE.getSelectedFilters();
+		final List<String> conditionalQueries = ftE.getConditionalQueries();
+		final SortKey[] orderBy = ftE.getOrderBy();
+		if(exportSource == null && dataModel instanceof FlexiTableDataSource) {
+			// cannot be copied, load all the rows in the table
+			((FlexiTableDataSource<?>)dataModel).load(searchText, filters, conditionalQueries, 0, -1, orderBy);
+		}
+		
 		return new OpenXMLWorkbookResource(label){
 			@Override
 			protected void generate(OutputStream out) {
 				try(OpenXMLWorkbook workbook = new OpenXMLWorkbook(out, 1)) {
 					OpenXMLWorksheet sheet = workbook.nextWorksheet();
 					createHeader(columns, translator, sheet, workbook);
-					createData(ftC, columns, translator, sheet, workbook);
+					if(exportSource == null) {
+						createData(ftC, columns, translator, sheet, workbook);
+					} else {
+						createPagedData(ftC, exportSource, searchText, filters, conditionalQueries, orderBy,
+								columns, translator, sheet, workbook);
+					}
 					if(ftC.getFlexiTableElement().getTableDataModel() instanceof FlexiTableFooterModel) {
 						createFooter(ftC, columns, translator, sheet, workbook);
 					}
@@ -92,7 +114,6 @@ public class XlsFlexiTableExporter implements FlexiTableExporter {
 	protected void createData(FlexiTableComponent ftC, List<FlexiColumnModel> columns, Translator translator,
 			OpenXMLWorksheet sheet, OpenXMLWorkbook workbook) {
 		FlexiTableDataModel<?> dataModel = ftC.getFlexiTableElement().getTableDataModel();
-		
 		int numOfRow = dataModel.getRowCount();
 		int numOfColumns = columns.size();
 		for (int r=0; r<numOfRow; r++) {
@@ -104,6 +125,92 @@ public class XlsFlexiTableExporter implements FlexiTableExporter {
 		}
 	}
 	
+	/**
+	 * Write the rows of a copy of the data source, loaded page by page. The
+	 * model of the table is not changed, but in this thread the table element
+	 * returns the copy as data model: {@link #createCell(FlexiTableComponent, FlexiColumnModel, Row, int, int, Translator, OpenXMLWorkbook)}
+	 * and the cell renderers read the rows of the copy. The database session
+	 * is closed after every page to release the loaded entities.
+	 */
+	private void createPagedData(FlexiTableComponent ftC, DefaultFlexiTableDataSourceModel<?> exportSource,
+			String searchText, List<FlexiTableFilter> filters, List<String> conditionalQueries, SortKey[] orderBy,
+			List<FlexiColumnModel> columns, Translator translator, OpenXMLWorksheet sheet, OpenXMLWorkbook workbook) {
+		int numOfColumns = columns.size();
+		FlexiTableElementImpl ftE = ftC.getFlexiTableElement();
+		try {
+			ftE.setExportDataModel(exportSource);
+			forEachPagedRow(exportSource, searchText, filters, conditionalQueries, orderBy, r -> {
+				Row dataRow = sheet.newRow();
+				for (int c = 0; c<numOfColumns; c++) {
+					FlexiColumnModel cd = columns.get(c);
+					createCell(ftC, cd, dataRow, r, c, translator, workbook);
+				}
+			}, () -> DBFactory.getInstance().commitAndCloseSession());
+		} finally {
+			ftE.setExportDataModel(null);
+		}
+	}
+	
+	static int forEachPagedRow(FlexiTableDataSource<?> exportSource, String searchText, List<FlexiTableFilter> filters,
+			List<String> conditionalQueries, SortKey[] orderBy, IntConsumer rowConsumer) {
+		return forEachPagedRow(exportSource, searchText, filters, conditionalQueries, orderBy, rowConsumer, null);
+	}
+	
+	/**
+	 * Load the rows of the data source page by page and release them, only
+	 * one page of rows is in memory at a time.
+	 * 
+	 * @param exportSource A data source which is not used by a table
+	 * @param rowConsumer Called with the index of every loaded row
+	 * @param pageDone Called after every page (optional)
+	 * @return The number of rows
+	 */
+	static int forEachPagedRow(FlexiTableDataSource<?> exportSource, String searchText, List<FlexiTableFilter> filters,
+			List<String> conditionalQueries, SortKey[] orderBy, IntConsumer rowConsumer, Runnable pageDone) {
+		int numOfRows = 0;
+		int numOfPageRows;
+		int firstResult = 0;
+		do {
+			exportSource.load(searchText, filters, conditionalQueries, firstResult, EXPORT_PAGE_SIZE, orderBy);
+			
+			numOfPageRows = 0;
+			int lastResult = firstResult + EXPORT_PAGE_SIZE;
+			for (int r=firstResult; r<lastResult && exportSource.isRowLoaded(r); r++) {
+				rowConsumer.accept(r);
+				numOfPageRows++;
+			}
+			
+			exportSource.unload(firstResult, EXPORT_PAGE_SIZE);
+			if(pageDone != null) {
+				pageDone.run();
+			}
+			numOfRows += numOfPageRows;
+			firstResult += EXPORT_PAGE_SIZE;
+		} while(numOfPageRows == EXPORT_PAGE_SIZE);
+		return numOfRows;
+	}
+	
+	/**
+	 * @param dataModel The model of the table
+	 * @return A copy of the data source with an empty list or null if the
+	 * 		model is not a data source or cannot be copied
+	 */
+	static DefaultFlexiTableDataSourceModel<?> createExportSource(FlexiTableDataModel<?> dataModel) {
+		if(dataModel instanceof DefaultFlexiTableDataSourceModel) {
+			return copyDataSource((DefaultFlexiTableDataSourceModel<?>)dataModel);
+		}
+		return null;
+	}
+	
+	private static <U> DefaultFlexiTableDataSourceModel<U> copyDataSource(DefaultFlexiTableDataSourceModel<U> dataModel) {
+		DefaultFlexiTableDataSourceModel<U> copy = dataModel.createCopyWithEmptyList();
+		if(copy != null) {
+			// some copies are made without the delegate
+			copy.setSource(dataModel.getSourceDelegate());
+		}
+		return copy;
+	}
+	
 	protected void createFooter(FlexiTableComponent ftC, List<FlexiColumnModel> columns, Translator translator,
 			OpenXMLWorksheet sheet, OpenXMLWorkbook workbook) {
 		
@@ -33,10 +33,10 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.velocity.Template;
-import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
 import org.apache.velocity.exception.MethodInvocationException;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
 import org.olat.core.helpers.Settings;
 import org.olat.core.logging.AssertException;
 import org.olat.core.logging.OLATRuntimeException;
@@ -53,7 +53,8 @@ public class VelocityHelper {
 	private static final Logger log = Tracing.createLoggerFor(VelocityHelper.class);
 	private static final VelocityHelper INSTANCE = new VelocityHelper();
 	
-	private VelocityEngine ve;
+	private RuntimeInstance ve;
+	private VelocityTemplateCache vtlCache;
 	
 	private Set<String> resourcesNotFound = ConcurrentHashMap.newKeySet();
 
@@ -75,7 +76,7 @@ public class VelocityHelper {
 	private void init() {
 		Properties p = null;
 		try {
-			ve = new VelocityEngine();
+			ve = new RuntimeInstance();
 			p = new Properties();
 			p.setProperty(RuntimeConstants.INPUT_ENCODING, VelocityModule.getInputEncoding());	
 			p.setProperty(RuntimeConstants.PARSER_POOL_SIZE, VelocityModule.getParserPoolSize());
@@ -102,6 +103,7 @@ public class VelocityHelper {
 			p.setProperty(RuntimeConstants.VM_LIBRARY, "velocity/olat_velocimacros.vm");
 			p.setProperty(RuntimeConstants.VM_LIBRARY_AUTORELOAD, "false");
 			ve.init(p);
+			vtlCache = new VelocityTemplateCache(ve, 500);
 		} catch (Exception e) {
 			throw new RuntimeException("config error " + p);
 		}
@@ -133,7 +135,7 @@ public class VelocityHelper {
 				
 				if (!notFound) {
 					// never tried before -> try to load it
-					if (!ve.resourceExists(themedTemplatePath)) {
+					if (ve.getLoaderNameForResource(themedTemplatePath) == null) {
 						// remember not found (since velocity doesn't) then try fallback.
 						// this will happen once for each theme when a resource does not exist in its themed variant but only in the default theme.
 						if (!Settings.isDebuging()) {
@@ -183,7 +185,7 @@ public class VelocityHelper {
 		StringWriter wOut = new StringWriter(10000);
 
 		try {
-			ve.evaluate(c, wOut, "internalEvaluator", vtlInput);
+			vtlCache.evaluate(c, wOut, "internalEvaluator", vtlInput);
 		} catch (MethodInvocationException me) {
 			throw new OLATRuntimeException(VelocityHelper.class, "MethodInvocationException occured while merging template: methName:"
 					+ me.getMethodName() + ", refName:" + me.getReferenceName(), me);
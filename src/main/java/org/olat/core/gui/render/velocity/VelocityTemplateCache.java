@@ -0,0 +1,157 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.render.velocity;
+
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.Logger;
+import org.apache.velocity.Template;
+import org.apache.velocity.context.Context;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.ParseException;
+import org.olat.core.logging.Tracing;
+
+/**
+ * Cache of the parsed templates evaluated from strings (mail templates,
+ * VTL snippets). The same subject and body are evaluated for every
+ * recipient of a mail, the cache parses them once. The key is the
+ * SHA-256 of the template, the least recently used templates are
+ * removed if the cache is full.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class VelocityTemplateCache {
+
+	private static final Logger log = Tracing.createLoggerFor(VelocityTemplateCache.class);
+
+	private final RuntimeInstance runtime;
+	private final Map<String,CachedTemplate> templates;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public VelocityTemplateCache(RuntimeInstance runtime, final int maxEntries) {
+		this.runtime = runtime;
+		templates = Collections.synchronizedMap(new LinkedHashMap<String,CachedTemplate>(64, 0.75f, true) {
+			private static final long serialVersionUID = -6027584402355325813L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,CachedTemplate> eldest) {
+				return size() > maxEntries;
+			}
+		});
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int size() {
+		return templates.size();
+	}
+
+	/**
+	 * Same as VelocityEngine.evaluate() but with a cached template.
+	 *
+	 * @param context The context
+	 * @param writer The writer
+	 * @param logTag The name used in the logs and error messages
+	 * @param template The template
+	 * @return true if successful
+	 */
+	public boolean evaluate(Context context, Writer writer, String logTag, String template) {
+		if(template == null) {
+			return false;
+		}
+
+		String key = DigestUtils.sha256Hex(template);
+		CachedTemplate cachedTemplate = templates.get(key);
+		if(cachedTemplate == null) {
+			misses.incrementAndGet();
+			cachedTemplate = new CachedTemplate(parse(logTag, template));
+			templates.put(key, cachedTemplate);
+		} else {
+			hits.incrementAndGet();
+		}
+
+		long start = System.nanoTime();
+		cachedTemplate.getTemplate().merge(context, writer);
+		long duration = cachedTemplate.rendered(System.nanoTime() - start);
+		if(log.isDebugEnabled()) {
+			log.debug("Template {} ({}) rendered {} times in {} ms", logTag, key,
+					cachedTemplate.getRenderCount(), duration / 1000000l);
+		}
+		return true;
+	}
+
+	private Template parse(String logTag, String template) {
+		try {
+			Template vtemplate = new Template();
+			vtemplate.setName(logTag);
+			vtemplate.setRuntimeServices(runtime);
+			vtemplate.setData(runtime.parse(new StringReader(template), vtemplate));
+			vtemplate.initDocument();
+			return vtemplate;
+		} catch (ParseException e) {
+			throw new ParseErrorException(e, logTag);
+		}
+	}
+
+	private static class CachedTemplate {
+
+		private final Template template;
+		private final AtomicLong renderCount = new AtomicLong();
+		private final AtomicLong renderTime = new AtomicLong();
+
+		public CachedTemplate(Template template) {
+			this.template = template;
+		}
+
+		public Template getTemplate() {
+			return template;
+		}
+
+		public long getRenderCount() {
+			return renderCount.get();
+		}
+
+		/**
+		 * @param nanos The time to render the template
+		 * @return The total time used to render the template in nanoseconds
+		 */
+		public long rendered(long nanos) {
+			renderCount.incrementAndGet();
+			return renderTime.addAndGet(nanos);
+		}
+	}
+}
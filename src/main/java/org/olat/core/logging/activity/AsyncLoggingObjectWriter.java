@@ -0,0 +1,271 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.persistence.DBFactory;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Optional asynchronous writer for the user activity log. The logging
+ * objects are queued in a bounded queue and a single thread writes
+ * them in batches with its own database session. If the queue is full,
+ * the logging object is written synchronously as before, nothing is
+ * lost. If a batch cannot be written, its logging objects are written
+ * one by one. The queue is flushed when the application shuts down,
+ * before the database (see depends-on in the configuration). The
+ * counters are available in JMX.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class AsyncLoggingObjectWriter implements InitializingBean, DisposableBean, Runnable, AsyncLoggingObjectWriterMBean {
+
+	private static final Logger log = Tracing.createLoggerFor(AsyncLoggingObjectWriter.class);
+
+	private static volatile AsyncLoggingObjectWriter instance;
+
+	private final boolean enabled;
+	private final int batchSize;
+	private final BlockingQueue<LoggingObject> queue;
+
+	private Thread writerThread;
+	private ObjectName objectName;
+	private volatile boolean running = false;
+
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong synchronousWrites = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+
+	/**
+	 * [used by Spring]
+	 *
+	 * @param enabled Enable the asynchronous mode
+	 * @param queueSize The max. number of logging objects waiting to be written
+	 * @param batchSize The max. number of logging objects written in one transaction
+	 */
+	public AsyncLoggingObjectWriter(boolean enabled, int queueSize, int batchSize) {
+		this.enabled = enabled;
+		this.batchSize = Math.max(1, batchSize);
+		queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+	}
+
+	/**
+	 * Queue the logging object if the asynchronous mode is enabled
+	 * and the queue is not full.
+	 *
+	 * @param logObj The logging object
+	 * @return true if the logging object will be written by the writer thread,
+	 * 		false if the caller must write it itself.
+	 */
+	public static boolean offer(LoggingObject logObj) {
+		AsyncLoggingObjectWriter writer = instance;
+		return writer != null && writer.enqueue(logObj);
+	}
+
+	public static AsyncLoggingObjectWriter getInstance() {
+		return instance;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(enabled) {
+			open();
+			startWriter();
+			instance = this;
+			registerMBean();
+			log.info("Asynchronous user activity logging enabled");
+		}
+	}
+	
+	/**
+	 * Accept the logging objects in the queue.
+	 */
+	void open() {
+		running = true;
+	}
+	
+	/**
+	 * Start the thread which writes the queued logging objects.
+	 */
+	void startWriter() {
+		writerThread = new Thread(this, "user-activity-log-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+	
+	private void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			objectName = new ObjectName("org.olat.core.logging:type=AsyncLoggingObjectWriter");
+			if(server.isRegistered(objectName)) {
+				// registered by a previous deployment of the application
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(this, objectName);
+		} catch (JMException | SecurityException e) {
+			objectName = null;
+			log.warn("Cannot register the user activity log writer in JMX", e);
+		}
+	}
+	
+	private void unregisterMBean() {
+		if(objectName != null) {
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				if(server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+			} catch (JMException | SecurityException e) {
+				log.warn("Cannot unregister the user activity log writer from JMX", e);
+			}
+			objectName = null;
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(instance == this) {
+			instance = null;
+		}
+		running = false;
+		if(writerThread != null) {
+			writerThread.join(TimeUnit.SECONDS.toMillis(30));
+			log.info("User activity log writer stopped: {} written, {} written synchronously, {} errors, {} not flushed",
+					written.get(), synchronousWrites.get(), errors.get(), queue.size());
+		}
+		unregisterMBean();
+	}
+
+	boolean enqueue(LoggingObject logObj) {
+		if(!running) {
+			return false;
+		}
+		if(logObj.getCreationDate() == null) {
+			logObj.setCreationDate(new Date());
+		}
+		if(queue.offer(logObj)) {
+			return true;
+		}
+		synchronousWrites.incrementAndGet();
+		return false;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	@Override
+	public long getWritten() {
+		return written.get();
+	}
+
+	@Override
+	public long getSynchronousWrites() {
+		return synchronousWrites.get();
+	}
+
+	@Override
+	public long getErrors() {
+		return errors.get();
+	}
+
+	@Override
+	public void run() {
+		List<LoggingObject> batch = new ArrayList<>(batchSize);
+		while(running || !queue.isEmpty()) {
+			try {
+				LoggingObject first = queue.poll(1, TimeUnit.SECONDS);
+				if(first != null) {
+					batch.add(first);
+					queue.drainTo(batch, batchSize - 1);
+					write(batch);
+					batch.clear();
+				}
+			} catch (InterruptedException e) {
+				log.warn("User activity log writer interrupted");
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				log.error("", e);
+				errors.addAndGet(batch.size());
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<LoggingObject> batch) {
+		DB db = DBFactory.getInstance();
+		try {
+			EntityManager em = db.getCurrentEntityManager();
+			em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			for(LoggingObject logObj:batch) {
+				em.persist(logObj);
+			}
+			db.commitAndCloseSession();
+			written.addAndGet(batch.size());
+		} catch (Exception e) {
+			db.rollbackAndCloseSession();
+			log.warn("Cannot write {} user activity logs in one transaction, write them one by one", batch.size(), e);
+			for(LoggingObject logObj:batch) {
+				writeOne(logObj);
+			}
+		}
+	}
+	
+	/**
+	 * The logging object can have a key from the failed batch, merge
+	 * saves a copy of it as a new row.
+	 * 
+	 * @param logObj The logging object to write
+	 */
+	private void writeOne(LoggingObject logObj) {
+		DB db = DBFactory.getInstance();
+		try {
+			db.getCurrentEntityManager().merge(logObj);
+			db.commitAndCloseSession();
+			written.incrementAndGet();
+		} catch (Exception e) {
+			db.rollbackAndCloseSession();
+			errors.incrementAndGet();
+			log.error("Cannot write the user activity log of session {}", logObj.getSessionId(), e);
+		}
+	}
+}
@@ -720,7 +720,9 @@ public class UserActivityLoggerImpl implements IUserActivityLogger {
 		
 		// and store it
 		DB db = DBFactory.getInstance();
-		if (db!=null && db.isError()) {
+		if (AsyncLoggingObjectWriter.offer(logObj)) {
+			// written later by the writer thread, outside of the request transaction
+		} else if (db!=null && db.isError()) {
 			// then we would run into an ERROR when we'd do more with this DB
 			// hence we just issue a log.info here with the details
 			//@TODO: lower to log_.info once we checked that it doesn't occur very often (best for 6.4)
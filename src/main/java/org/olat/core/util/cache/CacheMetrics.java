@@ -0,0 +1,216 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The metrics of a cache, shared by all the wrappers of the same cache:
+ * hits and misses of the get and computeIfAbsent methods, the time needed
+ * to load the missing values, the number of evicted and expired entries
+ * and the total weight of the cached values (see {@link Weighted}).<br>
+ * The weight is an estimation, the values changed after they were put
+ * in the cache are not weighted again. The metrics are local to the node:
+ * for a clustered cache, the weight counts the values put on this node
+ * only, not the replicated values nor the whole cache of the cluster.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CacheMetrics implements CacheMetricsMBean {
+	
+	/**
+	 * Upper bounds in milliseconds of the buckets of the load time
+	 * histogram, the last bucket is for the longer loads.
+	 */
+	public static final long[] LOAD_TIME_BUCKETS = new long[] { 1l, 10l, 100l, 1000l, 10000l };
+	
+	private final String name;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong loads = new AtomicLong();
+	private final AtomicLong loadTime = new AtomicLong();
+	private final AtomicLong maxLoadTime = new AtomicLong();
+	private final AtomicLongArray loadTimeHistogram = new AtomicLongArray(LOAD_TIME_BUCKETS.length + 1);
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong expirations = new AtomicLong();
+	private final AtomicLong weight = new AtomicLong();
+	
+	public CacheMetrics(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getHits() {
+		return hits.get();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return total == 0l ? 0.0d : h / (double)total;
+	}
+
+	@Override
+	public long getLoads() {
+		return loads.get();
+	}
+
+	/**
+	 * @return The average time to load a value in milliseconds
+	 */
+	@Override
+	public long getAverageLoadTime() {
+		long l = loads.get();
+		return l == 0l ? 0l : TimeUnit.NANOSECONDS.toMillis(loadTime.get() / l);
+	}
+
+	/**
+	 * @return The longest time to load a value in milliseconds
+	 */
+	@Override
+	public long getMaxLoadTime() {
+		return TimeUnit.NANOSECONDS.toMillis(maxLoadTime.get());
+	}
+
+	/**
+	 * @return The number of loads per bucket of {@link #LOAD_TIME_BUCKETS}
+	 */
+	@Override
+	public long[] getLoadTimeHistogram() {
+		long[] histogram = new long[loadTimeHistogram.length()];
+		for(int i=histogram.length; i-->0; ) {
+			histogram[i] = loadTimeHistogram.get(i);
+		}
+		return histogram;
+	}
+
+	@Override
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	@Override
+	public long getExpirations() {
+		return expirations.get();
+	}
+
+	@Override
+	public long getWeight() {
+		return Math.max(0l, weight.get());
+	}
+
+	@Override
+	public void reset() {
+		hits.set(0l);
+		misses.set(0l);
+		loads.set(0l);
+		loadTime.set(0l);
+		maxLoadTime.set(0l);
+		for(int i=loadTimeHistogram.length(); i-->0; ) {
+			loadTimeHistogram.set(i, 0l);
+		}
+		evictions.set(0l);
+		expirations.set(0l);
+	}
+	
+	public void hit() {
+		hits.incrementAndGet();
+	}
+	
+	public void miss() {
+		misses.incrementAndGet();
+	}
+	
+	/**
+	 * @param nanos The time needed to load the value in nanoseconds
+	 */
+	public void loaded(long nanos) {
+		loads.incrementAndGet();
+		loadTime.addAndGet(nanos);
+		maxLoadTime.accumulateAndGet(nanos, Math::max);
+		
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		int bucket = 0;
+		while(bucket < LOAD_TIME_BUCKETS.length && millis >= LOAD_TIME_BUCKETS[bucket]) {
+			bucket++;
+		}
+		loadTimeHistogram.incrementAndGet(bucket);
+	}
+	
+	public void evicted(Object value) {
+		evictions.incrementAndGet();
+		removed(value);
+	}
+	
+	public void expired(Object value) {
+		expirations.incrementAndGet();
+		removed(value);
+	}
+	
+	/**
+	 * @param newValue The value put in the cache
+	 * @param oldValue The value replaced
+	 */
+	public void replaced(Object newValue, Object oldValue) {
+		weight.addAndGet(weightOf(newValue) - weightOf(oldValue));
+	}
+	
+	public void removed(Object value) {
+		weight.addAndGet(-weightOf(value));
+	}
+	
+	public void cleared() {
+		weight.set(0l);
+	}
+	
+	public static long weightOf(Object value) {
+		if(value == null) {
+			return 0l;
+		}
+		if(value instanceof Weighted) {
+			return Math.max(1l, ((Weighted)value).getWeight());
+		}
+		if(value instanceof Collection) {
+			return Math.max(1l, ((Collection<?>)value).size());
+		}
+		if(value instanceof Map) {
+			return Math.max(1l, ((Map<?,?>)value).size());
+		}
+		return 1l;
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.cache;
+
+/**
+ * The JMX interface of the metrics of a cache.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface CacheMetricsMBean {
+	
+	public String getName();
+	
+	public long getHits();
+	
+	public long getMisses();
+	
+	public double getHitRatio();
+	
+	public long getLoads();
+	
+	public long getAverageLoadTime();
+	
+	public long getMaxLoadTime();
+	
+	public long[] getLoadTimeHistogram();
+	
+	public long getEvictions();
+	
+	public long getExpirations();
+	
+	/**
+	 * @return The estimated weight of the values put in the cache on this
+	 * 		node, a clustered cache is not weighted across the nodes
+	 */
+	public long getWeight();
+	
+	public void reset();
+
+}
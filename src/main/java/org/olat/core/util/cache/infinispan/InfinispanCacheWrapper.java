@@ -32,6 +32,7 @@ import java.util.function.Function;
 
 import org.infinispan.Cache;
 import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.util.cache.CacheMetrics;
 import org.olat.core.util.cache.CacheWrapper;
 
 /**
@@ -45,12 +46,19 @@ import org.olat.core.util.cache.CacheWrapper;
 public class InfinispanCacheWrapper<U,V> implements CacheWrapper<U,V> {
 
 	private Cache<U,V> cache;
+	private final CacheMetrics metrics;
 
 	/**
-	 * @param cache
+	 * @param cache The cache
+	 * @param metrics The metrics of the cache
 	 */
-	protected InfinispanCacheWrapper(Cache<U,V> cache) {
+	protected InfinispanCacheWrapper(Cache<U,V> cache, CacheMetrics metrics) {
 		this.cache = cache;
+		this.metrics = metrics;
+	}
+	
+	public CacheMetrics getMetrics() {
+		return metrics;
 	}
 	
 	@Override
@@ -79,12 +87,19 @@ public class InfinispanCacheWrapper<U,V> implements CacheWrapper<U,V> {
 		} catch (Exception e) {//don't catch CacheException to be compatible with infinispan 5.2 to 6.0
 			throw new OLATRuntimeException("cache error for cache " + cache.getName(), e);
 		}
+		if(elem == null) {
+			metrics.miss();
+		} else {
+			metrics.hit();
+		}
 		return elem;
 	}
 
 	@Override
 	public V remove(Object key) {
-		return cache.remove(key);
+		V removed = cache.remove(key);
+		metrics.removed(removed);
+		return removed;
 	}
 	
 	@Override
@@ -95,27 +110,52 @@ public class InfinispanCacheWrapper<U,V> implements CacheWrapper<U,V> {
 		} else {
 			reloaded = cache.put(key, value);
 		}
+		metrics.replaced(value, reloaded);
 		return reloaded;
 	}
 
 	@Override
 	public V put(U key, V value) {
-		return cache.put(key, value);
+		V previous = cache.put(key, value);
+		metrics.replaced(value, previous);
+		return previous;
 	}
 
 	@Override
 	public V putIfAbsent(U key, V value) {
-		return cache.putIfAbsent(key, value);
+		V previous = cache.putIfAbsent(key, value);
+		if(previous == null) {
+			metrics.replaced(value, null);
+		}
+		return previous;
 	}
 
 	@Override
 	public V replace(U key, V value) {
-		return cache.replace(key, value);
+		V previous = cache.replace(key, value);
+		if(previous != null) {
+			metrics.replaced(value, previous);
+		}
+		return previous;
 	}
 
 	@Override
 	public V computeIfAbsent(U key, Function<? super U, ? extends V> mappingFunction) {
-		return cache.computeIfAbsent(key, mappingFunction);
+		final boolean[] loaded = new boolean[] { false };
+		V value = cache.computeIfAbsent(key, k -> {
+			long start = System.nanoTime();
+			V loadedValue = mappingFunction.apply(k);
+			metrics.loaded(System.nanoTime() - start);
+			metrics.replaced(loadedValue, null);
+			loaded[0] = true;
+			return loadedValue;
+		});
+		if(loaded[0]) {
+			metrics.miss();
+		} else {
+			metrics.hit();
+		}
+		return value;
 	}
 
 	@Override
@@ -126,6 +166,7 @@ public class InfinispanCacheWrapper<U,V> implements CacheWrapper<U,V> {
 	@Override
 	public void clear() {
 		cache.clear();
+		metrics.cleared();
 	}
 
 	@Override
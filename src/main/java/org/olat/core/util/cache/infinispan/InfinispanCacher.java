@@ -25,6 +25,18 @@
 */ 
 package org.olat.core.util.cache.infinispan;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.Logger;
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -34,6 +46,8 @@ import org.infinispan.eviction.EvictionType;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.transaction.TransactionMode;
 import org.infinispan.util.concurrent.IsolationLevel;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.cache.CacheMetrics;
 import org.olat.core.util.cache.CacheWrapper;
 import org.olat.core.util.coordinate.Cacher;
 
@@ -47,7 +61,11 @@ import org.olat.core.util.coordinate.Cacher;
  */
 public class InfinispanCacher implements Cacher {
 	
+	private static final Logger log = Tracing.createLoggerFor(InfinispanCacher.class);
+	
 	private EmbeddedCacheManager cacheManager;
+	private final ConcurrentMap<String,CacheMetrics> metrics = new ConcurrentHashMap<>();
+	private final List<ObjectName> registeredMBeans = new CopyOnWriteArrayList<>();
 	
 	public InfinispanCacher(EmbeddedCacheManager cacheManager) {
 		this.cacheManager = cacheManager;
@@ -66,7 +84,49 @@ public class InfinispanCacher implements Cacher {
 		}
 		
 		Cache<U, V> cache = cacheManager.getCache(cacheName);
-		return new InfinispanCacheWrapper<>(cache);
+		CacheMetrics cacheMetrics = metrics.computeIfAbsent(cacheName, n -> createMetrics(n, cache));
+		return new InfinispanCacheWrapper<>(cache, cacheMetrics);
+	}
+	
+	@Override
+	public List<CacheMetrics> getMetrics() {
+		return new ArrayList<>(metrics.values());
+	}
+	
+	/**
+	 * [used by Spring] Unregister the metrics from JMX, the MBean server
+	 * outlives a redeployment of the application.
+	 */
+	public void stop() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for(ObjectName objectName:registeredMBeans) {
+			try {
+				if(server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+			} catch (JMException | SecurityException e) {
+				log.warn("Cannot unregister {} from JMX", objectName, e);
+			}
+		}
+		registeredMBeans.clear();
+	}
+	
+	private CacheMetrics createMetrics(String cacheName, Cache<?,?> cache) {
+		CacheMetrics cacheMetrics = new CacheMetrics(cacheName);
+		cache.addListener(new InfinispanMetricsListener(cacheMetrics));
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName("org.olat.core.util.cache:type=CacheMetrics,name=" + ObjectName.quote(cacheName));
+			if(server.isRegistered(objectName)) {
+				// metrics of a previous deployment of the application
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(cacheMetrics, objectName);
+			registeredMBeans.add(objectName);
+		} catch (JMException | SecurityException e) {
+			log.warn("Cannot register the metrics of cache {} in JMX", cacheName, e);
+		}
+		return cacheMetrics;
 	}
 	
 	private void createInfinispanConfiguration(String cacheName) {	
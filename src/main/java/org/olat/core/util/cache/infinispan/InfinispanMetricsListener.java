@@ -0,0 +1,57 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.cache.infinispan;
+
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryExpiredEvent;
+import org.olat.core.util.cache.CacheMetrics;
+
+/**
+ * Count the evicted and expired entries of a cache and remove
+ * their weight from the metrics.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Listener
+public class InfinispanMetricsListener {
+	
+	private final CacheMetrics metrics;
+	
+	public InfinispanMetricsListener(CacheMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	@CacheEntriesEvicted
+	public void evicted(CacheEntriesEvictedEvent<Object,Object> event) {
+		for(Object value:event.getEntries().values()) {
+			metrics.evicted(value);
+		}
+	}
+	
+	@CacheEntryExpired
+	public void expired(CacheEntryExpiredEvent<Object,Object> event) {
+		metrics.expired(event.getValue());
+	}
+}
@@ -25,7 +25,10 @@
 */ 
 package org.olat.core.util.coordinate;
 
+import java.util.List;
+
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.olat.core.util.cache.CacheMetrics;
 import org.olat.core.util.cache.CacheWrapper;
 
 /**
@@ -63,4 +66,9 @@ public interface Cacher {
 	
 	public EmbeddedCacheManager getCacheContainer();
 	
+	/**
+	 * @return The metrics of the caches used through {@link #getCache(String, String)}
+	 */
+	public List<CacheMetrics> getMetrics();
+	
 }
@@ -24,11 +24,13 @@
 */
 package org.olat.core.util.event;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.gui.control.Controller;
@@ -45,67 +47,67 @@ import org.olat.core.util.event.businfo.BusListenerInfo;
  */
 public abstract class AbstractEventBus implements EventBus {
 
-	private final Map<String, EventAgency> infocenter;
-	private final Map<String, EventAgency> typeInfocenter;
+	private final ConcurrentMap<String, EventAgency> infocenter;
+	private final ConcurrentMap<String, EventAgency> typeInfocenter;
 	private final Logger log = Tracing.createLoggerFor(this.getClass());
 
 	public AbstractEventBus() {
-		infocenter = new HashMap<>();
-		typeInfocenter = new HashMap<>();
+		infocenter = new ConcurrentHashMap<>();
+		typeInfocenter = new ConcurrentHashMap<>();
 	}
 
+	/**
+	 * The agencies are created and removed in the compute methods of the
+	 * concurrent maps which lock only the entry of the resource. This
+	 * prevents a listener to be added to an agency which is currently
+	 * removed from the map because it's empty.
+	 */
 	@Override
 	public void registerFor(GenericEventListener gel, Identity identity, OLATResourceable ores) {
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) {
-			EventAgency ea = null;
-			if (oresId == null) {
-				// return the eventagency which listens to all events with the type of
-				// the ores
-				ea = typeInfocenter.get(typeName);
-				if (ea == null) { // we are the first listener -> create an agency
-					ea = new EventAgency();
-					typeInfocenter.put(typeName, ea);
-				}
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				ea = infocenter.get(oresStr);
-				if (ea == null) { // we are the first listener
-					ea = new EventAgency();
-					infocenter.put(oresStr, ea);
-				}
+		
+		final ConcurrentMap<String, EventAgency> center;
+		final String key;
+		if (oresId == null) {
+			// the eventagency which listens to all events with the type of the ores
+			center = typeInfocenter;
+			key = typeName;
+		} else {
+			// type and id
+			center = infocenter;
+			key = typeName + "::" + oresId;
+		}
+		
+		center.compute(key, (k, ea) -> {
+			if (ea == null) { // we are the first listener -> create an agency
+				ea = new EventAgency();
 			}
 			ea.addListener(gel, identity);
-		}
+			return ea;
+		});
 	}
 
 	@Override
 	public void deregisterFor(GenericEventListener gel, OLATResourceable ores) {
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) {
-			if (oresId == null) {
-				EventAgency ea = typeInfocenter.get(typeName);
-				if (ea != null) {
-					ea.removeListener(gel);
-					if(ea.getListenerCount() == 0) {
-						typeInfocenter.remove(typeName);
-					}
-				}
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				EventAgency ea = infocenter.get(oresStr);
-				if (ea != null) {
-					ea.removeListener(gel);
-					if(ea.getListenerCount() == 0) {
-						infocenter.remove(typeName);
-					}
-				}
-			}
+		
+		final ConcurrentMap<String, EventAgency> center;
+		final String key;
+		if (oresId == null) {
+			center = typeInfocenter;
+			key = typeName;
+		} else {
+			// type and id
+			center = infocenter;
+			key = typeName + "::" + oresId;
 		}
+		
+		center.computeIfPresent(key, (k, ea) -> {
+			ea.removeListener(gel);
+			return ea.getListenerCount() == 0 ? null : ea;
+		});
 	}
 
 	public abstract int getListeningIdentityCntFor(OLATResourceable ores);
@@ -123,20 +125,19 @@ public abstract class AbstractEventBus implements EventBus {
 		final String typeName = ores.getResourceableTypeName();
 
 		GenericEventListener[] listenersArr = null;
-		GenericEventListener[] listenersTypeArr = null;
-		synchronized (infocenter) {  
-			if (oresId != null) {
-				String oresStr = typeName + "::" + oresId;
-				EventAgency ea = infocenter.get(oresStr);
-				if (ea != null) {
-					listenersArr = ea.getListeners();
-				}
-			}
-			EventAgency ea = typeInfocenter.get(typeName);
+		if (oresId != null) {
+			String oresStr = typeName + "::" + oresId;
+			EventAgency ea = infocenter.get(oresStr);
 			if (ea != null) {
-				listenersTypeArr = ea.getListeners();
+				listenersArr = ea.getListeners();
 			}
 		}
+		
+		GenericEventListener[] listenersTypeArr = null;
+		EventAgency typeEa = typeInfocenter.get(typeName);
+		if (typeEa != null) {
+			listenersTypeArr = typeEa.getListeners();
+		}
 
 		doFire(event, listenersArr);
 		doFire(event, listenersTypeArr);
@@ -180,74 +181,106 @@ public abstract class AbstractEventBus implements EventBus {
 	
 	protected final BusListenerInfo createBusListenerInfo() {
 		BusListenerInfo bii = new BusListenerInfo();
-		synchronized(infocenter) { // o_clusterOK by:fj: extract quickly so that we can later serialize and send across the wire. data affects only one vm.
-			// for all types: the name of the type + "::"+ the id (integer) is used as key
-			List<String> infocenterKeys = new ArrayList<>(infocenter.keySet());
-			for (String derivedOres: infocenterKeys) {
-				EventAgency ea = infocenter.get(derivedOres);
-				int cnt = ea.getListenerCount();
-				// only add those with at least one current listener. Telling that a resource has no listeners is unneeded since we update 
-				// the whole table on each clusterInfoEvent (cluster:: could be improved by only sending the delta of listeners)
-				if (cnt > 0) {
-					bii.addEntry(derivedOres, cnt);
-				} else {
-					infocenter.remove(derivedOres);
-				}
-			}
-			infocenterKeys = null;
-			
-			// for all types: the name of the type is used as key
-			List<String> typeInfocenterKeys = new ArrayList<>(typeInfocenter.keySet());
-			for (String derivedOres: typeInfocenterKeys) {
-				EventAgency ea = typeInfocenter.get(derivedOres);
+		// o_clusterOK by:fj: extract quickly so that we can later serialize and send across the wire. data affects only one vm.
+		// for all types: the name of the type + "::"+ the id (integer) is used as key
+		collectListenerInfos(infocenter, bii);
+		// for all types: the name of the type is used as key
+		collectListenerInfos(typeInfocenter, bii);
+		return bii;
+	}
+	
+	/**
+	 * Only add those with at least one current listener. Telling that a resource has no listeners is unneeded since we update 
+	 * the whole table on each clusterInfoEvent (cluster:: could be improved by only sending the delta of listeners). The
+	 * agencies without listeners, because their listeners were garbage collected, are removed.
+	 * 
+	 * @param center The map of agencies
+	 * @param bii The informations to fill
+	 */
+	private void collectListenerInfos(ConcurrentMap<String, EventAgency> center, BusListenerInfo bii) {
+		for (String derivedOres: new ArrayList<>(center.keySet())) {
+			EventAgency ea = center.computeIfPresent(derivedOres, (k, agency) -> agency.getListenerCount() == 0 ? null : agency);
+			if (ea != null) {
 				int cnt = ea.getListenerCount();
 				if (cnt > 0) {
 					bii.addEntry(derivedOres, cnt);
-				} else {
-					typeInfocenter.remove(derivedOres);
 				}
 			}
 		}
-		return bii;
 	}
 	
 	protected final int getLocalListeningIdentityCntFor(OLATResourceable ores) {
 		int cnt = 0;
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) { 
-			EventAgency ea = null;
-			if (oresId == null) {
-				ea = typeInfocenter.get(typeName);	
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				ea = infocenter.get(oresStr);
-			}
-			if (ea != null) {
-				cnt = ea.getListenerCount();
-			}
+		EventAgency ea = null;
+		if (oresId == null) {
+			ea = typeInfocenter.get(typeName);	
+		} else {
+			// type and id
+			String oresStr = typeName + "::" + oresId;
+			ea = infocenter.get(oresStr);
+		}
+		if (ea != null) {
+			cnt = ea.getListenerCount();
 		}
 		return cnt;
 	}
 	
 	/**
 	 * Description: <br>
-	 * The listeners map is not synchronized, but need to be. The synchronization
-	 * is done by the infocenter map. Make sure that you always access instances of
-	 * this class in a synchronized(infocenter).
+	 * The listeners are held in a weak hash map guarded by the agency itself. As
+	 * the events are fired much more often than the listeners change, an array of
+	 * the listeners is cached and only rebuilt after a change. The array holds weak
+	 * references to not prevent the listeners to be garbage collected.
 	 * 
 	 * @author Felix Jost
 	 * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
 	 */
 	private static class EventAgency {
-		private WeakHashMap<GenericEventListener, Long> listeners = new WeakHashMap<>();
+		
+		private static final GenericEventListener[] NO_LISTENERS = new GenericEventListener[0];
+		
+		private final WeakHashMap<GenericEventListener, Long> listeners = new WeakHashMap<>();
+		private volatile WeakReference<GenericEventListener>[] snapshot;
 		
 		/**
-		 * @param event
+		 * @return The listeners still alive
 		 */
 		GenericEventListener[] getListeners() {
-			return listeners.keySet().toArray(new GenericEventListener[listeners.size()]);
+			WeakReference<GenericEventListener>[] refs = snapshot;
+			if (refs == null) {
+				refs = buildSnapshot();
+			}
+			if (refs.length == 0) {
+				return NO_LISTENERS;
+			}
+			
+			int count = 0;
+			GenericEventListener[] listenersArr = new GenericEventListener[refs.length];
+			for (WeakReference<GenericEventListener> ref:refs) {
+				GenericEventListener listener = ref.get();
+				if (listener != null) {
+					listenersArr[count++] = listener;
+				}
+			}
+			return count == listenersArr.length ? listenersArr : Arrays.copyOf(listenersArr, count);
+		}
+		
+		@SuppressWarnings("unchecked")
+		private synchronized WeakReference<GenericEventListener>[] buildSnapshot() {
+			WeakReference<GenericEventListener>[] refs = snapshot;
+			if (refs == null) {
+				List<WeakReference<GenericEventListener>> refList = new ArrayList<>(listeners.size());
+				for (GenericEventListener listener:listeners.keySet()) {
+					if (listener != null) {
+						refList.add(new WeakReference<>(listener));
+					}
+				}
+				refs = refList.toArray(new WeakReference[refList.size()]);
+				snapshot = refs;
+			}
+			return refs;
 		}
 
 		/**
@@ -259,25 +292,29 @@ public abstract class AbstractEventBus implements EventBus {
 		 * @param identity the identity belonging to the listener, or null if there is
 		 *          none (e.g. the LockManager = the 'System')
 		 */
-		void addListener(GenericEventListener gel, Identity identity) {
+		synchronized void addListener(GenericEventListener gel, Identity identity) {
 			if (!listeners.containsKey(gel)) {
 				Long identityKey = (identity != null? identity.getKey() : null);
 				listeners.put(gel, identityKey);
+				snapshot = null;
 			}
 		}
 
 		/**
 		 * @param gel
 		 */
-		void removeListener(GenericEventListener gel) {
-			listeners.remove(gel);
+		synchronized void removeListener(GenericEventListener gel) {
+			if (listeners.containsKey(gel)) {
+				listeners.remove(gel);
+				snapshot = null;
+			}
 		}
 		
 		/**
 		 * 
 		 * @return the current number of listeners listening to this channel/eventagency 
 		 */
-		int getListenerCount() {
+		synchronized int getListenerCount() {
 			return listeners.size();	
 		}
 	}
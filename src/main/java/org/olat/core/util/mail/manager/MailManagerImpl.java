@@ -56,7 +56,6 @@ import javax.mail.MessagingException;
 import javax.mail.Multipart;
 import javax.mail.SendFailedException;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeBodyPart;
@@ -69,9 +68,9 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Logger;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
 import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.RuntimeInstance;
 import org.olat.basesecurity.IdentityImpl;
 import org.olat.basesecurity.IdentityRef;
 import org.olat.core.CoreSpringFactory;
@@ -80,6 +79,7 @@ import org.olat.core.commons.services.notifications.NotificationsManager;
 import org.olat.core.commons.services.notifications.PublisherData;
 import org.olat.core.commons.services.notifications.SubscriptionContext;
 import org.olat.core.commons.services.taskexecutor.model.DBSecureRunnable;
+import org.olat.core.gui.render.velocity.VelocityTemplateCache;
 import org.olat.core.helpers.GUISettings;
 import org.olat.core.helpers.Settings;
 import org.olat.core.id.Identity;
@@ -113,9 +113,11 @@ import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
 import org.olat.core.util.vfs.VFSLeaf;
 import org.olat.core.util.vfs.VFSManager;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.sun.mail.smtp.SMTPMessage;
@@ -132,13 +134,13 @@ import com.sun.mail.smtp.SMTPMessage;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  */
 @Service("mailManager")
-public class MailManagerImpl implements MailManager, InitializingBean  {
+public class MailManagerImpl implements MailManager, InitializingBean, DisposableBean  {
 	
 	private static final Logger log = Tracing.createLoggerFor(MailManagerImpl.class);
 
 	public static final String MAIL_TEMPLATE_FOLDER = "/customizing/mail/";
 	
-	private VelocityEngine velocityEngine;
+	private VelocityTemplateCache templateCache;
 
 	@Autowired
 	private DB dbInstance;
@@ -152,6 +154,12 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 
 	private FileStorage attachmentStorage;
 	
+	@Value("${smtp.pool.maxConnections:4}")
+	private int smtpPoolMaxConnections;
+	@Value("${smtp.pool.maxMessagesPerConnection:100}")
+	private int smtpPoolMaxMessagesPerConnection;
+	private SMTPTransportPool transportPool;
+	
 	@Autowired
 	public MailManagerImpl(MailModule mailModule) {
 		this.mailModule = mailModule;
@@ -161,6 +169,7 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	public void afterPropertiesSet() throws Exception {
 		VFSContainer root = mailModule.getRootForAttachments();
 		attachmentStorage = new FileStorage(root);
+		transportPool = new SMTPTransportPool(smtpPoolMaxConnections, smtpPoolMaxMessagesPerConnection);
 		
 		PublisherData pdata = getPublisherData();
 		SubscriptionContext scontext = getSubscriptionContext();
@@ -168,14 +177,24 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 		
 		Properties p = new Properties();
 		try {
-			velocityEngine = new VelocityEngine();
+			RuntimeInstance velocityRuntime = new RuntimeInstance();
 			p.setProperty(RuntimeConstants.RESOURCE_MANAGER_CACHE_CLASS, "org.olat.core.gui.render.velocity.InfinispanResourceCache");
-			velocityEngine.init(p);
+			velocityRuntime.init(p);
+			templateCache = new VelocityTemplateCache(velocityRuntime, 500);
 		} catch (Exception e) {
 			throw new RuntimeException("config error " + p);
 		}
 	}
 	
+	@Override
+	public void destroy() throws Exception {
+		if(transportPool != null) {
+			transportPool.shutdown();
+			log.info("SMTP connections closed: {} messages sent with {} connections",
+					transportPool.getSentMessages(), transportPool.getOpenedConnections());
+		}
+	}
+	
 	@Override
 	public SubscriptionContext getSubscriptionContext() {
 		return new SubscriptionContext("Inbox", 0l, "");
@@ -835,7 +854,7 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	protected void evaluate(Context context, String template, StringWriter writer, MailerResult mailerResult) {
 		try {
 			if(StringHelper.containsNonWhitespace(template)) {
-				boolean result = velocityEngine.evaluate(context, writer, "mailTemplate", template);
+				boolean result = templateCache.evaluate(context, writer, "mailTemplate", template);
 				if (result) {
 					mailerResult.setReturnCode(MailerResult.OK);
 				} else {
@@ -1821,7 +1840,7 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 				if(Settings.isDebuging()) {
 					logMessage(msg);
 				}
-				Transport.send(msg);
+				transportPool.send(msg);
 			} else if(Settings.isDebuging() && result.getReturnCode() == MailerResult.OK) {
 				logMessage(msg);
 			} else {
@@ -0,0 +1,297 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * A small pool of connected SMTP transports. Transport.send() opens and
+ * closes a connection for every message, which is slow for the bulk sends
+ * and is throttled by some relays. The pooled connections send up to
+ * maxMessagesPerConnection messages before they are closed. The idle
+ * connections are closed after {@link #DEFAULT_MAX_IDLE_TIME} milliseconds
+ * by a background task, before the SMTP server closes them itself.
+ * <p>
+ * A pooled connection is checked (NOOP) before it is reused. A message is
+ * never sent twice: if the sending fails, the error is reported as with
+ * Transport.send(), the server may have accepted the message already.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class SMTPTransportPool {
+
+	private static final Logger log = Tracing.createLoggerFor(SMTPTransportPool.class);
+
+	static final long DEFAULT_MAX_IDLE_TIME = TimeUnit.SECONDS.toMillis(30);
+
+	private final long maxIdleTime;
+	private final int maxIdleConnections;
+	private final int maxMessagesPerConnection;
+	private final Deque<PooledTransport> idleTransports = new LinkedList<>();
+	private final ScheduledExecutorService reaper;
+
+	private final AtomicLong sentMessages = new AtomicLong();
+	private final AtomicLong openedConnections = new AtomicLong();
+
+	SMTPTransportPool(int maxIdleConnections, int maxMessagesPerConnection) {
+		this(maxIdleConnections, maxMessagesPerConnection, DEFAULT_MAX_IDLE_TIME);
+	}
+
+	SMTPTransportPool(int maxIdleConnections, int maxMessagesPerConnection, long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+		this.maxIdleConnections = maxIdleConnections;
+		this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+		if(maxIdleConnections > 0) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("oo-smtp-pool-");
+			threadFactory.setDaemon(true);
+			reaper = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			long period = Math.max(1000l, maxIdleTime / 2);
+			reaper.scheduleWithFixedDelay(this::closeIdleConnections, period, period, TimeUnit.MILLISECONDS);
+		} else {
+			reaper = null;
+		}
+	}
+
+	public long getSentMessages() {
+		return sentMessages.get();
+	}
+
+	public long getOpenedConnections() {
+		return openedConnections.get();
+	}
+
+	public synchronized int getIdleConnections() {
+		return idleTransports.size();
+	}
+
+	/**
+	 * Send the message with a pooled connection, same semantic as Transport.send().
+	 *
+	 * @param msg The message
+	 * @throws MessagingException
+	 */
+	public void send(MimeMessage msg) throws MessagingException {
+		if(maxIdleConnections <= 0) {
+			Transport.send(msg);
+			sentMessages.incrementAndGet();
+			return;
+		}
+
+		msg.saveChanges();
+		Address[] recipients = msg.getAllRecipients();
+		if(recipients == null || recipients.length == 0) {
+			throw new SendFailedException("No recipient addresses");
+		}
+
+		Session session = msg.getSession();
+		String protocol = getProtocol(session);
+		String key = getKey(session, protocol);
+		PooledTransport transport = borrow(key);
+		if(transport == null) {
+			transport = connect(session, protocol, key);
+		}
+		send(transport, msg, recipients);
+	}
+
+	private void send(PooledTransport transport, MimeMessage msg, Address[] recipients)
+	throws MessagingException {
+		try {
+			transport.getTransport().sendMessage(msg, recipients);
+			sentMessages.incrementAndGet();
+			release(transport);
+		} catch(MessagingException e) {
+			// don't reuse a connection in an unknown state
+			close(transport);
+			throw e;
+		}
+	}
+
+	/**
+	 * Close all the idle connections.
+	 */
+	public void closeAll() {
+		List<PooledTransport> transports;
+		synchronized(this) {
+			transports = new ArrayList<>(idleTransports);
+			idleTransports.clear();
+		}
+		for(PooledTransport transport:transports) {
+			close(transport);
+		}
+	}
+	
+	/**
+	 * Stop the background task and close all the idle connections.
+	 */
+	public void shutdown() {
+		if(reaper != null) {
+			reaper.shutdownNow();
+		}
+		closeAll();
+	}
+
+	/**
+	 * Close the connections which are idle since more than the max. idle time.
+	 */
+	public void closeIdleConnections() {
+		long now = System.currentTimeMillis();
+		List<PooledTransport> expiredTransports = new ArrayList<>();
+		synchronized(this) {
+			for(Iterator<PooledTransport> it=idleTransports.iterator(); it.hasNext(); ) {
+				PooledTransport transport = it.next();
+				if(now - transport.getLastUsed() >= maxIdleTime) {
+					it.remove();
+					expiredTransports.add(transport);
+				}
+			}
+		}
+		for(PooledTransport transport:expiredTransports) {
+			close(transport);
+		}
+	}
+
+	/**
+	 * @param key The key of the server
+	 * @return A connection which answers to NOOP or null
+	 */
+	private PooledTransport borrow(String key) {
+		PooledTransport transport;
+		while((transport = poll(key)) != null) {
+			// isConnected() sends a NOOP to the server
+			if(transport.getTransport().isConnected()) {
+				return transport;
+			}
+			close(transport);
+		}
+		return null;
+	}
+	
+	private synchronized PooledTransport poll(String key) {
+		long now = System.currentTimeMillis();
+		for(Iterator<PooledTransport> it=idleTransports.iterator(); it.hasNext(); ) {
+			PooledTransport transport = it.next();
+			if(key.equals(transport.getKey()) && now - transport.getLastUsed() < maxIdleTime) {
+				it.remove();
+				return transport;
+			}
+		}
+		return null;
+	}
+
+	private void release(PooledTransport transport) {
+		if(transport.incrementMessages() >= maxMessagesPerConnection) {
+			close(transport);
+			return;
+		}
+
+		synchronized(this) {
+			if(idleTransports.size() < maxIdleConnections) {
+				idleTransports.addFirst(transport);
+				return;
+			}
+		}
+		close(transport);
+	}
+
+	private PooledTransport connect(Session session, String protocol, String key) throws MessagingException {
+		Transport transport = session.getTransport(protocol);
+		transport.connect();
+		openedConnections.incrementAndGet();
+		return new PooledTransport(key, transport);
+	}
+
+	private void close(PooledTransport transport) {
+		try {
+			transport.getTransport().close();
+		} catch (MessagingException e) {
+			log.debug("Cannot close SMTP connection", e);
+		}
+	}
+	
+	private String getProtocol(Session session) {
+		String protocol = session.getProperty("mail.transport.protocol");
+		return StringHelper.containsNonWhitespace(protocol) ? protocol : "smtp";
+	}
+
+	/**
+	 * The connections can only be shared between sessions with the
+	 * same protocol, server and credentials.
+	 */
+	private String getKey(Session session, String protocol) {
+		Properties p = session.getProperties();
+		String prefix = "mail." + protocol + ".";
+		return protocol + ":" + p.get(prefix + "host") + ":" + p.get(prefix + "port")
+			+ ":" + p.get(prefix + "ssl.enable") + ":" + p.get(prefix + "starttls.enable")
+			+ ":" + p.get(prefix + "auth") + ":" + p.get(prefix + "user");
+	}
+
+	private static class PooledTransport {
+
+		private final String key;
+		private final Transport transport;
+		private int messages = 0;
+		private long lastUsed;
+
+		public PooledTransport(String key, Transport transport) {
+			this.key = key;
+			this.transport = transport;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public Transport getTransport() {
+			return transport;
+		}
+
+		public long getLastUsed() {
+			return lastUsed;
+		}
+
+		public int incrementMessages() {
+			lastUsed = System.currentTimeMillis();
+			return ++messages;
+		}
+	}
+}
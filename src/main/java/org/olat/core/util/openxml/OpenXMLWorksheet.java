@@ -64,6 +64,7 @@ public class OpenXMLWorksheet {
 	private Row row;
 	private int rowPosition = 0;
 	private Map<Integer,Integer> columnsWidth = new HashMap<>();
+	private final List<String> columnNames = new ArrayList<>();
 	
 	public OpenXMLWorksheet(String id, OpenXMLWorkbook workbook, ZipOutputStream zout) {
 		this.id = id;
@@ -126,7 +127,7 @@ public class OpenXMLWorksheet {
 				Cell cell = row.getCell(j);
 				if(cell != null && cell.getValue() != null) {
 					writer.writeStartElement("c");
-					writer.writeAttribute("r", getColumn(j).concat(rowId));
+					writer.writeAttribute("r", getColumnName(j).concat(rowId));
 					
 					CellStyle style = cell.getStyle();
 					if(style != null && style.getIndex() > 0) {
@@ -325,6 +326,20 @@ public class OpenXMLWorksheet {
                        - 460;      // leap days in previous 1900 years
         return 365 * (yr - (use1904windowing ? 1904 : 1900)) + leapDays;
     }
+	/**
+	 * The names of the columns are the same for every row,
+	 * calculate them only once per worksheet.
+	 * 
+	 * @param c The column position, start with zero
+	 * @return The name of the column
+	 */
+	private String getColumnName(int c) {
+		for(int i=columnNames.size(); i<=c; i++) {
+			columnNames.add(getColumn(i));
+		}
+		return columnNames.get(c);
+	}
+	
 	/**
 	 * Thanks to POI project and the argument c is zero based.
 	 * @param c The column position, start with zero
@@ -349,7 +364,7 @@ public class OpenXMLWorksheet {
     
 	public class Row {
 		
-		private List<Cell> cells = new ArrayList<>(255);
+		private List<Cell> cells = new ArrayList<>(Math.max(10, columnNames.size()));
 		
 		public boolean isEmpty() {
 			return cells == null || cells.isEmpty();
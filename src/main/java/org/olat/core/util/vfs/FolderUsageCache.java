@@ -0,0 +1,297 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.vfs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.resource.OresHelper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remember the size of the folders used to check the quotas. The size
+ * is calculated once by walking the file tree, and then the changes made
+ * through the local VFS implementations and the revisions (write, copy,
+ * move, delete) are added or subtracted. In a cluster, the changed folders
+ * are collected and sent every second to the other nodes with a single
+ * {@link FolderUsageChangedEvent}. The other nodes don't apply deltas, they
+ * forget the usages of the changed folders and calculate them again when
+ * needed, a lost event doesn't leave a wrong usage for ever. The files
+ * written outside of the VFS are not seen, the cache (FolderUsageCache@usages)
+ * calculates the size again after the lifespan of its entries.<br>
+ * Without Spring (unit tests, tools), the size is calculated every time.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class FolderUsageCache implements InitializingBean, DisposableBean, GenericEventListener {
+
+	private static final Logger log = Tracing.createLoggerFor(FolderUsageCache.class);
+	
+	private static final OLATResourceable USAGE_EVENT_CHANNEL = OresHelper.createOLATResourceableType(FolderUsageCache.class);
+	
+	private static FolderUsageCache INSTANCE;
+
+	private CacheWrapper<String,Usage> usages;
+	private ScheduledExecutorService notifier;
+	/** Folders changed since the last event, the usages of their parents changed too */
+	private final Set<String> changedFolders = ConcurrentHashMap.newKeySet();
+	/** Directories invalidated since the last event, the usages of their sub-folders too */
+	private final Set<String> invalidatedFolders = ConcurrentHashMap.newKeySet();
+	
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		usages = coordinatorManager.getCoordinator().getCacher().getCache(FolderUsageCache.class.getSimpleName(), "usages");
+		if(coordinatorManager.getCoordinator().isClusterMode()) {
+			coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, USAGE_EVENT_CHANNEL);
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("oo-folder-usage-");
+			threadFactory.setDaemon(true);
+			notifier = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			notifier.scheduleWithFixedDelay(this::fireChanged, 1, 1, TimeUnit.SECONDS);
+		}
+		INSTANCE = this;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		INSTANCE = null;
+		if(notifier != null) {
+			notifier.shutdownNow();
+		}
+	}
+
+	/**
+	 * @param directory The directory
+	 * @return The size of the directory and its content in bytes
+	 */
+	public static long getUsage(File directory) {
+		Path path = toPath(directory);
+		if(INSTANCE == null) {
+			return calculateUsage(path);
+		}
+		return INSTANCE.usages.computeIfAbsent(path.toString(), p -> new Usage(calculateUsage(path))).get();
+	}
+
+	/**
+	 * Add the delta to the cached size of every parent folder of the file.
+	 *
+	 * @param file The file which changed
+	 * @param delta The change of size in bytes
+	 */
+	public static void changed(File file, long delta) {
+		if(delta == 0l || INSTANCE == null) return;
+
+		Path path = toPath(file);
+		INSTANCE.add(path, delta);
+		if(INSTANCE.notifier != null && path.getParent() != null) {
+			INSTANCE.changedFolders.add(path.getParent().toString());
+		}
+	}
+	
+	/**
+	 * Subtract the size of the file from the parent folders of the source
+	 * and add it to the parent folders of the target. A file renamed within
+	 * its folder doesn't change any usage.
+	 * 
+	 * @param source The file before the move
+	 * @param target The file after the move
+	 * @param size The size of the file in bytes
+	 */
+	public static void moved(File source, File target, long size) {
+		if(Objects.equals(toPath(source).getParent(), toPath(target).getParent())) return;
+		
+		changed(source, -size);
+		changed(target, size);
+	}
+
+	/**
+	 * Forget the size of the parents of the specified file or directory, and
+	 * of all folders within it.
+	 *
+	 * @param file A file or a directory
+	 */
+	public static void invalidate(File file) {
+		if(INSTANCE == null) return;
+
+		String path = toPath(file).toString();
+		INSTANCE.removeWithParents(path);
+		INSTANCE.removeChildren(path);
+		if(INSTANCE.notifier != null) {
+			INSTANCE.invalidatedFolders.add(path);
+		}
+	}
+
+	@Override
+	public void event(Event event) {
+		if(event instanceof FolderUsageChangedEvent) {
+			FolderUsageChangedEvent fuce = (FolderUsageChangedEvent)event;
+			if(fuce.isEventOnThisNode()) {
+				return;// already done
+			}
+			for(String folder:fuce.getChangedFolders()) {
+				removeWithParents(folder);
+			}
+			for(String folder:fuce.getInvalidatedFolders()) {
+				removeWithParents(folder);
+				removeChildren(folder);
+			}
+		}
+	}
+	
+	/**
+	 * Send the folders changed since the last run in one event.
+	 */
+	private void fireChanged() {
+		try {
+			List<String> changed = drain(changedFolders);
+			List<String> invalidated = drain(invalidatedFolders);
+			if(!changed.isEmpty() || !invalidated.isEmpty()) {
+				coordinatorManager.getCoordinator().getEventBus()
+					.fireEventToListenersOf(new FolderUsageChangedEvent(changed, invalidated), USAGE_EVENT_CHANNEL);
+			}
+		} catch (Exception e) {
+			log.error("Cannot send the changed folder usages", e);
+		}
+	}
+	
+	private static List<String> drain(Set<String> folders) {
+		List<String> drained = new ArrayList<>(folders.size());
+		for(Iterator<String> it=folders.iterator(); it.hasNext(); ) {
+			drained.add(it.next());
+			it.remove();
+		}
+		return drained;
+	}
+	
+	private void add(Path path, long delta) {
+		if(usages.size() == 0) return;
+		
+		for(Path parent=path.getParent(); parent != null; parent=parent.getParent()) {
+			Usage usage = usages.get(parent.toString());
+			if(usage != null) {
+				usage.add(delta);
+			}
+		}
+	}
+	
+	private void removeWithParents(String path) {
+		if(usages.size() == 0) return;
+		
+		for(Path parent=Paths.get(path); parent != null; parent=parent.getParent()) {
+			usages.remove(parent.toString());
+		}
+	}
+	
+	private void removeChildren(String path) {
+		if(usages.size() == 0) return;
+		
+		String prefix = path + File.separator;
+		List<String> keys = usages.getKeys();
+		for(String key:keys) {
+			if(key.startsWith(prefix)) {
+				usages.remove(key);
+			}
+		}
+	}
+
+	private static Path toPath(File file) {
+		return file.toPath().toAbsolutePath().normalize();
+	}
+
+	private static long calculateUsage(Path directory) {
+		if(!Files.isDirectory(directory)) {
+			return 0l;
+		}
+
+		final AtomicLong size = new AtomicLong();
+		try {
+			Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if(attrs.isRegularFile()) {
+						size.addAndGet(attrs.size());
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException exc) {
+					// deleted during the walk
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			log.warn("Cannot calculate the size of: {}", directory, e);
+		}
+		return size.get();
+	}
+
+	private static class Usage implements Serializable {
+
+		private static final long serialVersionUID = -2960380862591740367L;
+		
+		private final AtomicLong size;
+
+		public Usage(long size) {
+			this.size = new AtomicLong(size);
+		}
+
+		public long get() {
+			return Math.max(0l, size.get());
+		}
+
+		public void add(long delta) {
+			size.addAndGet(delta);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.vfs;
+
+import java.util.List;
+
+import org.olat.core.util.event.MultiUserEvent;
+
+/**
+ * Fired with the folders changed on a node, the other nodes of the cluster
+ * forget the usages of these folders and of their parents. For the invalidated
+ * folders, the usages of their sub-folders are forgotten too.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class FolderUsageChangedEvent extends MultiUserEvent {
+
+	private static final long serialVersionUID = 5160946392307411287L;
+	
+	private final List<String> changedFolders;
+	private final List<String> invalidatedFolders;
+	
+	public FolderUsageChangedEvent(List<String> changedFolders, List<String> invalidatedFolders) {
+		super("folder-usage-changed");
+		this.changedFolders = changedFolders;
+		this.invalidatedFolders = invalidatedFolders;
+	}
+
+	/**
+	 * @return The absolute paths of the folders which content changed
+	 */
+	public List<String> getChangedFolders() {
+		return changedFolders;
+	}
+
+	/**
+	 * @return The absolute paths of the folders which usages must be calculated again
+	 */
+	public List<String> getInvalidatedFolders() {
+		return invalidatedFolders;
+	}
+}
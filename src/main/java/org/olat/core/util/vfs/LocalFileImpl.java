@@ -31,6 +31,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -115,7 +116,10 @@ public class LocalFileImpl extends LocalImpl implements VFSLeaf {
 	public OutputStream getOutputStream(boolean append) {
 		OutputStream os = null;
 		try {
-			os = new FileOutputStream(getBasefile(), append);
+			File file = getBasefile();
+			// the size must be read before the stream truncates the file
+			long initialSize = file.length();
+			os = new UsageOutputStream(new FileOutputStream(file, append), file, initialSize);
 		} catch (FileNotFoundException e) {
 			log.warn("Could not create output stream for file::" + getBasefile().getAbsolutePath(), e);
 		}
@@ -135,8 +139,10 @@ public class LocalFileImpl extends LocalImpl implements VFSLeaf {
 
 		File par = f.getParentFile();
 		File nf = new File(par, newname);
+		long size = f.length();
 		boolean ren = f.renameTo(nf);
 		if (ren) {
+			FolderUsageCache.moved(f, nf, size);
 			// f.renameTo() does NOT modify the path contained in the object f!!
 			// The guys at sun consider this a feature and not a bug...
 			// http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=4094022
@@ -171,7 +177,11 @@ public class LocalFileImpl extends LocalImpl implements VFSLeaf {
 	private VFSStatus deleteBasefile() {
 		VFSStatus status = VFSConstants.NO;
 		try {
-			if(!Files.deleteIfExists(getBasefile().toPath())) {
+			File file = getBasefile();
+			long size = file.length();
+			if(Files.deleteIfExists(file.toPath())) {
+				FolderUsageCache.changed(file, -size);
+			} else {
 				log.debug("Cannot delete base file because it doesn't exist: {}", this);
 			}
 			status = VFSConstants.YES;
@@ -197,5 +207,38 @@ public class LocalFileImpl extends LocalImpl implements VFSLeaf {
 	public String toString() {
 		return "LFile [file="+getBasefile()+"] ";
 	}
-}
+	
+	/**
+	 * Report the change of size of the file to the folder usage
+	 * cache when the stream is closed.
+	 */
+	private static class UsageOutputStream extends FilterOutputStream {
+		
+		private final File file;
+		private final long initialSize;
+		private boolean closed = false;
+		
+		public UsageOutputStream(FileOutputStream out, File file, long initialSize) {
+			super(out);
+			this.file = file;
+			this.initialSize = initialSize;
+		}
 
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if(!closed) {
+					closed = true;
+					FolderUsageCache.changed(file, file.length() - initialSize);
+				}
+			}
+		}
+	}
+}
@@ -213,8 +213,10 @@ public class LocalFolderImpl extends LocalImpl implements VFSContainer {
 			try(InputStream in=s.getInputStream()) {
 				FileUtils.bcopy(in, fTarget, "VFScopyFrom");
 			} catch (Exception e) {
+				FolderUsageCache.invalidate(fTarget);
 				return VFSConstants.ERROR_FAILED;
 			}
+			FolderUsageCache.changed(fTarget, fTarget.length());
 
 			if(s.canMeta() == VFSConstants.YES || s.canVersion() == VFSConstants.YES) {
 				VFSItem target = resolve(sourcename);
@@ -250,6 +252,7 @@ public class LocalFolderImpl extends LocalImpl implements VFSContainer {
 		File nf = new File(par, newname);
 		boolean ren = f.renameTo(nf);
 		if (ren) {
+			FolderUsageCache.invalidate(f);
 			// f.renameTo() does NOT modify the path contained in the object f!!
 			// The guys at sun consider this a feature and not a bug...
 			// http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=4094022
@@ -301,6 +304,8 @@ public class LocalFolderImpl extends LocalImpl implements VFSContainer {
 	
 	private VFSStatus deleteBasefile() {
 		VFSStatus status = VFSConstants.NO;
+		// not all files are deleted through the VFS (versions, hidden files...)
+		FolderUsageCache.invalidate(getBasefile());
 		try {
 			// walk tree make sure the directory is deleted once all files,
 			// versions files and others are properly deleted
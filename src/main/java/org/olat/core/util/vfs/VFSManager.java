@@ -414,7 +414,8 @@ public class VFSManager {
 	}
 	
 	/**
-	 * Recursively traverse the container and sum up all leafs' sizes.
+	 * Recursively traverse the container and sum up all leafs' sizes. The size
+	 * of local folders is cached and updated by the writes made through the VFS.
 	 * 
 	 * @param container
 	 * @return
@@ -423,7 +424,7 @@ public class VFSManager {
 		if (vfsItem instanceof VFSContainer) {
 			// VFSContainer
 			if (vfsItem instanceof LocalFolderImpl)
-				return FileUtils.getDirSize(((LocalFolderImpl)vfsItem).getBasefile()) / 1024;
+				return FolderUsageCache.getUsage(((LocalFolderImpl)vfsItem).getBasefile()) / 1024;
 			long usageKB = 0;
 			List<VFSItem> children = ((VFSContainer)vfsItem).getItems();
 			for (VFSItem child:children) {
@@ -766,7 +767,9 @@ public class VFSManager {
 		if(source instanceof LocalImpl && target instanceof LocalImpl) {
 			File localSourceFile = ((LocalImpl)source).getBasefile();
 			File localTargetFile = ((LocalImpl)target).getBasefile();
-			return FileUtils.copyDirContentsToDir(localSourceFile, localTargetFile, false, "VFScopyDir");
+			boolean copied = FileUtils.copyDirContentsToDir(localSourceFile, localTargetFile, false, "VFScopyDir");
+			FolderUsageCache.invalidate(localTargetFile);
+			return copied;
 		}
 		return false;
 	}
@@ -519,8 +519,9 @@ public class CourseFactory {
 		LocalFolderImpl courseBaseContainer = newCourse.getCourseBaseContainer();
 		File fCanonicalCourseBasePath = courseBaseContainer.getBasefile();
 		if (ZipUtil.unzip(zipFile, fCanonicalCourseBasePath)) {
-			// Load course structure now
+			// Load course structure now, only from the XML files of the archive
 			try {
+				new RunStructureSnapshot(fCanonicalCourseBasePath).delete();
 				newCourse.load();
 				CourseConfig cc = courseConfigMgr.loadConfigFor(newCourse);
 				//newCourse is not in cache yet, so we cannot call setCourseConfig()
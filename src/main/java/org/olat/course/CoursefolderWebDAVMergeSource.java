@@ -53,6 +53,9 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 	
 	private final IdentityEnvironment identityEnv;
 	
+	private Map<String,CoursefolderWebDAVNamedContainer> courseContainers = new HashMap<>();
+	private Map<String,CoursefolderWebDAVNamedContainer> previousCourseContainers = new HashMap<>();
+	
 	private final WebDAVModule webDAVModule;
 	private final RepositoryManager repositoryManager;
 	private final CurriculumService curriculumService;
@@ -79,6 +82,8 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 	protected List<VFSContainer> loadMergedContainers() {
 		List<VFSContainer> containers = new ArrayList<>();
 		Map<String, VFSContainer> terms = new HashMap<>();
+		previousCourseContainers = courseContainers;
+		courseContainers = new HashMap<>();
 	
 		boolean useSemestersTerms = webDAVModule.isTermsFoldersEnabled();
 		boolean useCurriculumElementsTerms = webDAVModule.isCurriculumElementFoldersEnabled();
@@ -116,9 +121,30 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 			addContainerToList(noTermContainer.getFinishedContainer(), containers);
 		}
 
+		previousCourseContainers = new HashMap<>();
 		return containers;
 	}
 	
+	/**
+	 * Reuse the container of the previous load if it shows the same
+	 * course folder, the course is not loaded again.
+	 */
+	private CoursefolderWebDAVNamedContainer getCourseContainer(String name, RepositoryEntry re, boolean editor) {
+		IdentityEnvironment courseIdentityEnv = editor ? null : identityEnv;
+		String key = re.getKey() + ":" + name;
+		if(courseContainers.containsKey(key)) {
+			// the same course in several terms
+			return new CoursefolderWebDAVNamedContainer(name, re, courseIdentityEnv);
+		}
+		
+		CoursefolderWebDAVNamedContainer container = previousCourseContainers.get(key);
+		if(container == null || !container.isSameCourseFolder(re, courseIdentityEnv)) {
+			container = new CoursefolderWebDAVNamedContainer(name, re, courseIdentityEnv);
+		}
+		courseContainers.put(key, container);
+		return container;
+	}
+	
 	private Map<Long,List<CurriculumElementWebDAVInfos>> getCurriculumElementWebDAVInfosMap() {
 		List<CurriculumElementWebDAVInfos> infos = curriculumService.getCurriculumElementInfosForWebDAV(getIdentity());
 		Map<Long,List<CurriculumElementWebDAVInfos>> infoMap = new HashMap<>();
@@ -146,14 +172,14 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 			if(namingAndGrouping.isUseFinished() && re.getEntryStatus() == RepositoryEntryStatusEnum.closed) {
 				String courseTitle = getCourseTitle(re, namingAndGrouping.isPrependReference());
 				String name = namingAndGrouping.getFinishedUniqueName(courseTitle);
-				NamedContainerImpl cfContainer = new CoursefolderWebDAVNamedContainer(name, re, editor ? null : identityEnv);
+				NamedContainerImpl cfContainer = getCourseContainer(name, re, editor);
 				noTermContainer.addToFinished(cfContainer);
 			} else if (namingAndGrouping.isUseSemesterTerms() || namingAndGrouping.isUseCurriculumElementsTerms()) {
 				appendCoursesWithTerms(re, containers, noTermContainer, terms, namingAndGrouping, editor);
 			} else {
 				String courseTitle = getCourseTitle(re, namingAndGrouping.isPrependReference());
 				String name = namingAndGrouping.getContainersUniqueName(courseTitle);
-				NamedContainerImpl cfContainer = new CoursefolderWebDAVNamedContainer(name, re, editor ? null : identityEnv);
+				NamedContainerImpl cfContainer = getCourseContainer(name, re, editor);
 				addContainerToList(cfContainer, containers);
 			}
 			if(++count % 5 == 0) {
@@ -179,7 +205,7 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 
 			String courseTitle = getCourseTitle(re, namingAndGrouping.isPrependReference());
 			String name = namingAndGrouping.getTermUniqueName(termSoftKey, courseTitle);
-			NamedContainerImpl cfContainer = new CoursefolderWebDAVNamedContainer(name, re, editor ? null : identityEnv);
+			NamedContainerImpl cfContainer = getCourseContainer(name, re, editor);
 			termContainer.getItems().add(cfContainer);
 			termed = true;
 		}
@@ -187,7 +213,7 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 		if(namingAndGrouping.isUseManaged() && re.getEntryStatus() == RepositoryEntryStatusEnum.closed) {
 			String courseTitle = getCourseTitle(re, namingAndGrouping.isPrependReference());
 			String name = namingAndGrouping.getNoTermUniqueName(courseTitle);
-			NamedContainerImpl cfContainer = new CoursefolderWebDAVNamedContainer(name, re, editor ? null : identityEnv);
+			NamedContainerImpl cfContainer = getCourseContainer(name, re, editor);
 			noTermContainer.add(re, cfContainer);
 			termed = true;
 		} else if(namingAndGrouping.isUseCurriculumElementsTerms() && namingAndGrouping.hasCurriculumElements(re)) {
@@ -203,7 +229,7 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 
 				String courseTitle = getCourseTitle(re, false);
 				String name = namingAndGrouping.getTermUniqueName(termSoftKey, courseTitle);
-				NamedContainerImpl cfContainer = new CoursefolderWebDAVNamedContainer(name, re, editor ? null : identityEnv);
+				NamedContainerImpl cfContainer = getCourseContainer(name, re, editor);
 				termContainer.getItems().add(cfContainer);
 				termed = true;
 			}
@@ -213,7 +239,7 @@ class CoursefolderWebDAVMergeSource extends WebDAVMergeSource {
 			// no semester term found, add to no-term folder
 			String courseTitle = getCourseTitle(re, namingAndGrouping.isPrependReference());
 			String name = namingAndGrouping.getNoTermUniqueName(courseTitle);
-			NamedContainerImpl cfContainer = new CoursefolderWebDAVNamedContainer(name, re, editor ? null : identityEnv);
+			NamedContainerImpl cfContainer = getCourseContainer(name, re, editor);
 			noTermContainer.add(re, cfContainer);
 		}
 	}
@@ -19,6 +19,8 @@
  */
 package org.olat.course;
 
+import java.util.Objects;
+
 import org.apache.logging.log4j.Logger;
 import org.olat.core.id.IdentityEnvironment;
 import org.olat.core.logging.Tracing;
@@ -34,10 +36,12 @@ import org.olat.repository.RepositoryEntry;
 class CoursefolderWebDAVNamedContainer extends NamedContainerImpl {
 	
 	private static final Logger log = Tracing.createLoggerFor(CoursefolderWebDAVNamedContainer.class);
+	private static final long MAX_DELEGATE_AGE = 5 * 60 * 1000l;
 	
 	private RepositoryEntry entry;
 	private VFSContainer parentContainer;
 	private IdentityEnvironment identityEnv;
+	private long delegateLoadTime;
 	
 	public CoursefolderWebDAVNamedContainer(String courseTitle, RepositoryEntry entry, IdentityEnvironment identityEnv) {
 		super(courseTitle, null);
@@ -45,6 +49,16 @@ class CoursefolderWebDAVNamedContainer extends NamedContainerImpl {
 		this.identityEnv = identityEnv;
 	}
 	
+	/**
+	 * @param otherEntry The repository entry
+	 * @param otherIdentityEnv The identity environment (null for editors)
+	 * @return true if the container shows the same course folder
+	 */
+	public boolean isSameCourseFolder(RepositoryEntry otherEntry, IdentityEnvironment otherIdentityEnv) {
+		return entry.equals(otherEntry)
+				&& (identityEnv == null) == (otherIdentityEnv == null)
+				&& Objects.equals(entry.getLastModified(), otherEntry.getLastModified());
+	}
 
 	@Override
 	public VFSItemFilter getDefaultItemFilter() {
@@ -61,13 +75,23 @@ class CoursefolderWebDAVNamedContainer extends NamedContainerImpl {
 		return true;
 	}
 
+	/**
+	 * The course folder is loaded on demand and loaded again after some
+	 * minutes to see the changes of the published course.
+	 */
 	@Override
 	public VFSContainer getDelegate() {
-		if(super.getDelegate() == null) {
+		VFSContainer delegate = super.getDelegate();
+		if(delegate != null && System.currentTimeMillis() - delegateLoadTime > MAX_DELEGATE_AGE) {
+			parentContainer = delegate.getParentContainer();
+			delegate = null;
+		}
+		if(delegate == null) {
 			try {
 				ICourse course = CourseFactory.loadCourse(entry);
 				VFSContainer courseFolder = course.getCourseFolderContainer(identityEnv);
 				setDelegate(courseFolder);
+				delegateLoadTime = System.currentTimeMillis();
 				if(parentContainer != null) {
 					super.setParentContainer(parentContainer);
 					parentContainer = null;
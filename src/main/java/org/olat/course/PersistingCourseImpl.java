@@ -38,6 +38,7 @@ import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.AssertException;
 import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.cache.Weighted;
 import org.olat.core.util.nodes.INode;
 import org.olat.core.util.tree.Visitor;
 import org.olat.core.util.vfs.LocalFolderImpl;
@@ -76,7 +77,7 @@ import com.thoughtworks.xstream.XStream;
  * Initial Date:  12.08.2005 <br>
  * @author Felix Jost
  */
-public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializable {
+public class PersistingCourseImpl implements ICourse, OLATResourceable, Weighted, Serializable {
 
 	private static final long serialVersionUID = -1022498371474445868L;
 
@@ -90,13 +91,14 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 	private Long resourceableId;
 	private Structure runStructure;
 	private boolean hasAssessableNodes = false;
-	private CourseEditorTreeModel editorTreeModel;
+	private volatile CourseEditorTreeModel editorTreeModel;
 	private CourseConfig courseConfig;
 	private final CourseEnvironmentImpl courseEnvironment;
 	private LocalFolderImpl courseRootContainer;
 	private String courseTitle = null;
 	/** courseTitleSyncObj is a final Object only used for synchronizing the courseTitle getter - see OLAT-5654 */
 	private final Object courseTitleSyncObj = new Object();
+	private final Object editorTreeModelSyncObj = new Object();
 	private static final Logger log = Tracing.createLoggerFor(PersistingCourseImpl.class);
 	
 	//an PersistingCourseImpl instance could be readOnly if readAndWrite == false, or readAndWrite 
@@ -139,9 +141,23 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		return runStructure;
 	}
 
+	/**
+	 * The editor tree model is only needed by the editor and the publish
+	 * process, it's loaded on demand.
+	 */
 	@Override
 	public CourseEditorTreeModel getEditorTreeModel() {
-		return editorTreeModel;
+		CourseEditorTreeModel model = editorTreeModel;
+		if(model == null) {
+			synchronized(editorTreeModelSyncObj) {
+				model = editorTreeModel;
+				if(model == null) {
+					model = loadEditorTreeModel();
+					editorTreeModel = model;
+				}
+			}
+		}
+		return model;
 	}
 
 	@Override
@@ -270,6 +286,7 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 	 */
 	void saveRunStructure() {
 		writeObject(RUNSTRUCTURE_XML, getRunStructure());
+		new RunStructureSnapshot(courseRootContainer.getBasefile()).write(getRunStructure());
 		log.debug("saveRunStructure");
 	}
 
@@ -303,6 +320,33 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		saveEditorTreeModel();
 	}
 	
+	/**
+	 * The weight of the course in the cache is its number of nodes,
+	 * in the run structure and in the editor tree model if loaded.
+	 */
+	@Override
+	public long getWeight() {
+		long weight = 1l;
+		if(runStructure != null) {
+			weight += countNodes(runStructure.getRootNode());
+		}
+		CourseEditorTreeModel model = editorTreeModel;
+		if(model != null) {
+			weight += countNodes(model.getRootNode());
+		}
+		return weight;
+	}
+	
+	private long countNodes(INode node) {
+		if(node == null) return 0l;
+		
+		long count = 1l;
+		for(int i=node.getChildCount(); i-->0; ) {
+			count += countNodes(node.getChildAt(i));
+		}
+		return count;
+	}
+	
 	private void visit(Visitor visitor, INode node) {
 		visitor.visit(node);
 		for(int i=node.getChildCount(); i-->0; ) {
@@ -312,22 +356,34 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 	}
 
 	/**
-	 * Load the course from disk/database, load the run structure from xml file etc.
+	 * Load the course from disk/database, load the run structure from the binary
+	 * snapshot if it's up to date or from the xml file. The editor tree model is
+	 * loaded lazily.
 	 */
 	void load() {
 		/*
 		 * remember that loading of the courseConfiguration is already done within
 		 * the constructor !
 		 */
-		Object obj;
-		obj = readObject(RUNSTRUCTURE_XML);
-		if (!(obj instanceof Structure)) throw new AssertException("Error reading course run structure.");
-		runStructure = (Structure) obj;
+		RunStructureSnapshot snapshot = new RunStructureSnapshot(courseRootContainer.getBasefile());
+		Structure structure = snapshot.read();
+		if(structure == null) {
+			Object obj = readObject(RUNSTRUCTURE_XML);
+			if (!(obj instanceof Structure)) throw new AssertException("Error reading course run structure.");
+			structure = (Structure) obj;
+			snapshot.write(structure);
+		}
+		runStructure = structure;
 		initHasAssessableNodes();
-		
-		obj = readObject(EDITORTREEMODEL_XML);
+	}
+	
+	private CourseEditorTreeModel loadEditorTreeModel() {
+		if(getCourseBaseContainer().resolve(EDITORTREEMODEL_XML) == null) {
+			return null;// new course, not saved yet
+		}
+		Object obj = readObject(EDITORTREEMODEL_XML);
 		if (!(obj instanceof CourseEditorTreeModel)) throw new AssertException("Error reading course editor tree model.");
-		editorTreeModel = (CourseEditorTreeModel) obj;	
+		return (CourseEditorTreeModel) obj;
 	}
 
 	/**
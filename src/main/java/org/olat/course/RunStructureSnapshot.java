@@ -0,0 +1,228 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+
+/**
+ * A compact binary copy of the run structure, written next to
+ * the runstructure.xml. The XML stays the reference and the interchange
+ * format (export, import, versioning), the binary file is only a faster
+ * way to load the structure in the course cache. It's only used if
+ * the header matches the XML file (same last modification date, length
+ * and SHA-256 hash of the content), else it's silently ignored and rewritten.
+ * Only the classes of OpenOLAT and of the core packages of the JDK can be
+ * deserialized from the binary file.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class RunStructureSnapshot {
+
+	private static final Logger log = Tracing.createLoggerFor(RunStructureSnapshot.class);
+
+	static final String RUNSTRUCTURE_BIN = "runstructure.bin";
+
+	static final int MAGIC = 0x4F4F5253;
+	static final int FORMAT_VERSION = 2;
+	
+	/**
+	 * The packages of the classes allowed in a run structure: the course
+	 * nodes, their conditions and configurations and the standard types.
+	 */
+	private static final String[] ALLOWED_PACKAGES = new String[] {
+		"org.olat.", "de.bps.", "java.lang.", "java.util.", "java.math.", "java.time."
+	};
+
+	private final File xmlFile;
+	private final File binFile;
+
+	RunStructureSnapshot(File courseBaseDir) {
+		xmlFile = new File(courseBaseDir, PersistingCourseImpl.RUNSTRUCTURE_XML);
+		binFile = new File(courseBaseDir, RUNSTRUCTURE_BIN);
+	}
+
+	/**
+	 * @return The structure or null if the binary file doesn't exist, is outdated
+	 * 		or cannot be read.
+	 */
+	Structure read() {
+		if(!binFile.exists() || !xmlFile.exists()) {
+			return null;
+		}
+
+		try(InputStream in = new BufferedInputStream(Files.newInputStream(binFile.toPath()));
+				DataInputStream din = new DataInputStream(in)) {
+			if(din.readInt() != MAGIC || din.readInt() != FORMAT_VERSION
+					|| din.readLong() != xmlFile.lastModified() || din.readLong() != xmlFile.length()) {
+				return null;
+			}
+			byte[] xmlHash = new byte[din.readUnsignedShort()];
+			din.readFully(xmlHash);
+			if(!Arrays.equals(xmlHash, hash(xmlFile))) {
+				return null;
+			}
+
+			try(ObjectInputStream oin = new StructureInputStream(new GZIPInputStream(din))) {
+				Object obj = oin.readObject();
+				return obj instanceof Structure ? (Structure)obj : null;
+			}
+		} catch (InvalidClassException e) {
+			// class changes between releases and not allowed classes land here, the XML is the reference
+			log.warn("Cannot read binary run structure, fallback to XML: {} ({})", binFile, e.getMessage());
+			return null;
+		} catch (Exception e) {
+			// the XML is the reference
+			log.info("Cannot read binary run structure, fallback to XML: {} ({})", binFile, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Write the structure. The XML file must be saved first, the binary
+	 * file is bound to its current state.
+	 *
+	 * @param structure The run structure
+	 */
+	void write(Structure structure) {
+		if(structure == null || !xmlFile.exists()) {
+			delete();
+			return;
+		}
+
+		File tmpFile = new File(binFile.getParentFile(), RUNSTRUCTURE_BIN + ".tmp");
+		try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()));
+				DataOutputStream dout = new DataOutputStream(out)) {
+			dout.writeInt(MAGIC);
+			dout.writeInt(FORMAT_VERSION);
+			dout.writeLong(xmlFile.lastModified());
+			dout.writeLong(xmlFile.length());
+			byte[] xmlHash = hash(xmlFile);
+			dout.writeShort(xmlHash.length);
+			dout.write(xmlHash);
+
+			GZIPOutputStream zout = new GZIPOutputStream(dout);
+			ObjectOutputStream oout = new ObjectOutputStream(zout);
+			oout.writeObject(structure);
+			oout.flush();
+			zout.finish();
+		} catch (Exception e) {
+			log.warn("Cannot write binary run structure: {}", binFile, e);
+			FileUtils.deleteFile(tmpFile);
+			delete();
+			return;
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), binFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			log.warn("Cannot move binary run structure: {}", binFile, e);
+			FileUtils.deleteFile(tmpFile);
+			delete();
+		}
+	}
+
+	void delete() {
+		if(binFile.exists()) {
+			FileUtils.deleteFile(binFile);
+		}
+	}
+	
+	static byte[] hash(File file) throws IOException {
+		try(InputStream in = Files.newInputStream(file.toPath())) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = in.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+			return digest.digest();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+	
+	static boolean isAllowed(String className) {
+		String name = className;
+		int arrayIndex = name.lastIndexOf('[');
+		if(arrayIndex >= 0) {
+			name = name.substring(arrayIndex + 1);
+			if(name.length() == 1) {
+				return true;// array of primitives
+			}
+			if(name.startsWith("L") && name.endsWith(";")) {
+				name = name.substring(1, name.length() - 1);
+			}
+		}
+		for(String allowedPackage:ALLOWED_PACKAGES) {
+			if(name.startsWith(allowedPackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Check the classes before they are loaded, the binary file is on the
+	 * file system and must not be used to instantiate arbitrary classes.
+	 */
+	private static class StructureInputStream extends ObjectInputStream {
+		
+		public StructureInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if(!isAllowed(desc.getName())) {
+				throw new InvalidClassException(desc.getName(), "Class not allowed in a run structure");
+			}
+			return super.resolveClass(desc);
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			throw new InvalidClassException("Proxy not allowed in a run structure");
+		}
+	}
+}
@@ -46,7 +46,6 @@ import org.olat.core.util.StringHelper;
 import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.core.util.coordinate.SyncerExecutor;
 import org.olat.core.util.resource.OresHelper;
-import org.olat.core.util.xml.XStreamHelper;
 import org.olat.course.CourseFactory;
 import org.olat.course.CourseModule;
 import org.olat.course.ICourse;
@@ -76,8 +75,6 @@ import org.olat.user.manager.ManifestBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.thoughtworks.xstream.XStream;
-
 /**
  * Description:<br>
  * Methods to update a users efficiency statement and to retrieve such statements
@@ -101,8 +98,6 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 	@Autowired
 	private UserManager userManager;
 	
-	private final XStream xstream = XStreamHelper.createXStreamInstance();
-
 	/**
 	 * Updates the users efficiency statement for this course. <p>
 	 * Called in AssessmentManager in a <code>doInSync</code> block, toghether with the saveScore.
@@ -319,7 +314,7 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 		}
 
 		efficiencyProperty.setLastModified(new Date());
-		efficiencyProperty.setStatementXml(xstream.toXML(efficiencyStatement));
+		efficiencyProperty.setStatementXml(EfficiencyStatementSerializer.toJson(efficiencyStatement));
 	}
 	
 	/**
@@ -355,7 +350,7 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 		if(s == null || s.getStatementXml() == null) {
 			return null;
 		}
-		return (EfficiencyStatement)xstream.fromXML(s.getStatementXml());
+		return EfficiencyStatementSerializer.fromString(s.getStatementXml());
 	}
 	
 	public EfficiencyStatement getUserEfficiencyStatementByResourceKey(Long resourceKey, Identity identity){
@@ -371,7 +366,7 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 		if(statement.isEmpty() || statement.get(0).getStatementXml() == null) {
 			return null;
 		}
-		return (EfficiencyStatement)xstream.fromXML(statement.get(0).getStatementXml());
+		return EfficiencyStatementSerializer.fromString(statement.get(0).getStatementXml());
 	}
 	
 
@@ -510,7 +505,7 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 		if(statement.isEmpty() || !StringHelper.containsNonWhitespace(statement.get(0).getStatementXml())) {
 			return null;
 		}
-		return (EfficiencyStatement)xstream.fromXML(statement.get(0).getStatementXml());
+		return EfficiencyStatementSerializer.fromString(statement.get(0).getStatementXml());
 	}
 	
 	public UserEfficiencyStatementLight getUserEfficiencyStatementLightByKey(Long key) {
@@ -626,7 +621,7 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 				.getResultList();
 		for(UserEfficiencyStatementImpl statement:statements) {
 			if(StringHelper.containsNonWhitespace(statement.getStatementXml())) {
-				EfficiencyStatement s = (EfficiencyStatement)xstream.fromXML(statement.getStatementXml());
+				EfficiencyStatement s = EfficiencyStatementSerializer.fromString(statement.getStatementXml());
 				efficiencyStatements.add(s);
 			}
 		}
@@ -0,0 +1,258 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.assessment.manager;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.xml.XStreamHelper;
+import org.olat.course.assessment.AssessmentHelper;
+import org.olat.course.assessment.EfficiencyStatement;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * Serialize the efficiency statements in a compact JSON format. The
+ * values of the assessment nodes are read back with the type used
+ * by AssessmentNodeData (Integer, Float, Boolean, Date, String). The
+ * format is versioned with the field "v".<br>
+ * The statements saved before with XStream are recognized by the
+ * first character and are still read, they are saved as JSON at
+ * the next update.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class EfficiencyStatementSerializer {
+
+	private static final Logger log = Tracing.createLoggerFor(EfficiencyStatementSerializer.class);
+
+	public static final int VERSION = 1;
+
+	private static final String VERSION_FIELD = "v";
+	private static final String COURSE_TITLE = "courseTitle";
+	private static final String COURSE_REPO_ENTRY_KEY = "courseRepoEntryKey";
+	private static final String DISPLAYABLE_USER_INFO = "displayableUserInfo";
+	private static final String LAST_UPDATED = "lastUpdated";
+	private static final String LAST_USER_MODIFIED = "lastUserModified";
+	private static final String LAST_COACH_MODIFIED = "lastCoachModified";
+	private static final String ASSESSMENT_NODES = "assessmentNodes";
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+	private static final XStream legacyXStream = XStreamHelper.createXStreamInstance();
+
+	private EfficiencyStatementSerializer() {
+		//
+	}
+
+	/**
+	 * @param content The serialized statement
+	 * @return true if the statement was saved by XStream
+	 */
+	public static boolean isLegacyXml(String content) {
+		if(content == null) return false;
+
+		for(int i=0; i<content.length(); i++) {
+			char ch = content.charAt(i);
+			if(!Character.isWhitespace(ch)) {
+				return ch == '<';
+			}
+		}
+		return false;
+	}
+
+	public static String toJson(EfficiencyStatement statement) {
+		StringWriter writer = new StringWriter(2048);
+		try(JsonGenerator gen = jsonFactory.createGenerator(writer)) {
+			gen.writeStartObject();
+			gen.writeNumberField(VERSION_FIELD, VERSION);
+			if(statement.getCourseTitle() != null) {
+				gen.writeStringField(COURSE_TITLE, statement.getCourseTitle());
+			}
+			if(statement.getCourseRepoEntryKey() != null) {
+				gen.writeNumberField(COURSE_REPO_ENTRY_KEY, statement.getCourseRepoEntryKey().longValue());
+			}
+			if(statement.getDisplayableUserInfo() != null) {
+				gen.writeStringField(DISPLAYABLE_USER_INFO, statement.getDisplayableUserInfo());
+			}
+			gen.writeNumberField(LAST_UPDATED, statement.getLastUpdated());
+			gen.writeNumberField(LAST_USER_MODIFIED, statement.getLastUserModified());
+			gen.writeNumberField(LAST_COACH_MODIFIED, statement.getLastCoachModified());
+
+			List<Map<String,Object>> assessmentNodes = statement.getAssessmentNodes();
+			if(assessmentNodes != null) {
+				gen.writeArrayFieldStart(ASSESSMENT_NODES);
+				for(Map<String,Object> nodeData:assessmentNodes) {
+					gen.writeStartObject();
+					for(Map.Entry<String,Object> entry:nodeData.entrySet()) {
+						writeValue(gen, entry.getKey(), entry.getValue());
+					}
+					gen.writeEndObject();
+				}
+				gen.writeEndArray();
+			}
+			gen.writeEndObject();
+		} catch(IOException e) {
+			throw new OLATRuntimeException(EfficiencyStatementSerializer.class, "Cannot serialize efficiency statement", e);
+		}
+		return writer.toString();
+	}
+
+	private static void writeValue(JsonGenerator gen, String key, Object value) throws IOException {
+		if(value == null) {
+			gen.writeNullField(key);
+		} else if(value instanceof String) {
+			gen.writeStringField(key, (String)value);
+		} else if(value instanceof Boolean) {
+			gen.writeBooleanField(key, ((Boolean)value).booleanValue());
+		} else if(value instanceof Integer) {
+			gen.writeNumberField(key, ((Integer)value).intValue());
+		} else if(value instanceof Long) {
+			gen.writeNumberField(key, ((Long)value).longValue());
+		} else if(value instanceof Float) {
+			gen.writeNumberField(key, ((Float)value).floatValue());
+		} else if(value instanceof Double) {
+			gen.writeNumberField(key, ((Double)value).doubleValue());
+		} else if(value instanceof Date) {
+			gen.writeNumberField(key, ((Date)value).getTime());
+		} else {
+			gen.writeStringField(key, value.toString());
+		}
+	}
+
+	/**
+	 * Read a statement saved as JSON or as XML by XStream.
+	 *
+	 * @param content The serialized statement
+	 * @return The statement or null if the content is empty
+	 */
+	public static EfficiencyStatement fromString(String content) {
+		if(!StringHelper.containsNonWhitespace(content)) {
+			return null;
+		}
+		if(isLegacyXml(content)) {
+			return (EfficiencyStatement)legacyXStream.fromXML(content);
+		}
+
+		try(JsonParser parser = jsonFactory.createParser(content)) {
+			return readStatement(parser);
+		} catch(IOException e) {
+			throw new OLATRuntimeException(EfficiencyStatementSerializer.class, "Cannot read efficiency statement", e);
+		}
+	}
+
+	private static EfficiencyStatement readStatement(JsonParser parser) throws IOException {
+		if(parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new IOException("Efficiency statement must be a JSON object");
+		}
+
+		EfficiencyStatement statement = new EfficiencyStatement();
+		while(parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if(token == JsonToken.VALUE_NULL) {
+				continue;
+			}
+
+			switch(field) {
+				case VERSION_FIELD:
+					int version = parser.getIntValue();
+					if(version > VERSION) {
+						log.warn("Efficiency statement with unknown version: {}", version);
+					}
+					break;
+				case COURSE_TITLE: statement.setCourseTitle(parser.getText()); break;
+				case COURSE_REPO_ENTRY_KEY: statement.setCourseRepoEntryKey(Long.valueOf(parser.getLongValue())); break;
+				case DISPLAYABLE_USER_INFO: statement.setDisplayableUserInfo(parser.getText()); break;
+				case LAST_UPDATED: statement.setLastUpdated(parser.getLongValue()); break;
+				case LAST_USER_MODIFIED: statement.setLastUserModified(parser.getLongValue()); break;
+				case LAST_COACH_MODIFIED: statement.setLastCoachModified(parser.getLongValue()); break;
+				case ASSESSMENT_NODES: statement.setAssessmentNodes(readAssessmentNodes(parser)); break;
+				default: parser.skipChildren(); break;
+			}
+		}
+		return statement;
+	}
+
+	private static List<Map<String,Object>> readAssessmentNodes(JsonParser parser) throws IOException {
+		List<Map<String,Object>> assessmentNodes = new ArrayList<>();
+		if(parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return assessmentNodes;
+		}
+
+		while(parser.nextToken() == JsonToken.START_OBJECT) {
+			Map<String,Object> nodeData = new HashMap<>();
+			while(parser.nextToken() == JsonToken.FIELD_NAME) {
+				String key = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				nodeData.put(key, readValue(parser, key, token));
+			}
+			assessmentNodes.add(nodeData);
+		}
+		return assessmentNodes;
+	}
+
+	/**
+	 * Read the values of the assessment nodes with the type of AssessmentNodeData.
+	 */
+	private static Object readValue(JsonParser parser, String key, JsonToken token) throws IOException {
+		if(token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+			switch(key) {
+				case AssessmentHelper.KEY_INDENT:
+				case AssessmentHelper.KEY_ATTEMPTS:
+					return Integer.valueOf(parser.getIntValue());
+				case AssessmentHelper.KEY_SCORE_F:
+				case AssessmentHelper.KEY_MIN:
+				case AssessmentHelper.KEY_MAX:
+					return Float.valueOf(parser.getFloatValue());
+				case AssessmentHelper.KEY_LAST_USER_MODIFIED:
+				case AssessmentHelper.KEY_LAST_COACH_MODIFIED:
+					return new Date(parser.getLongValue());
+				default:
+					return token == JsonToken.VALUE_NUMBER_INT ? parser.getNumberValue() : Double.valueOf(parser.getDoubleValue());
+			}
+		}
+
+		switch(token) {
+			case VALUE_STRING: return parser.getText();
+			case VALUE_TRUE: return Boolean.TRUE;
+			case VALUE_FALSE: return Boolean.FALSE;
+			case VALUE_NULL: return null;
+			default:
+				parser.skipChildren();
+				return null;
+		}
+	}
+}
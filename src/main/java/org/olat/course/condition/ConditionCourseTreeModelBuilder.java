@@ -19,6 +19,8 @@
  */
 package org.olat.course.condition;
 
+import org.olat.core.gui.components.tree.GenericTreeModel;
+import org.olat.course.condition.interpreter.ConditionInterpreter;
 import org.olat.course.nodes.CourseNode;
 import org.olat.course.run.userview.CourseTreeModelBuilder;
 import org.olat.course.run.userview.CourseTreeNode;
@@ -37,6 +39,17 @@ public class ConditionCourseTreeModelBuilder extends CourseTreeModelBuilder {
 		super(userCourseEnv);
 	}
 
+	@Override
+	public GenericTreeModel build() {
+		ConditionInterpreter ci = userCourseEnv.getConditionInterpreter();
+		ci.startEvaluationPass();
+		try {
+			return super.build();
+		} finally {
+			ci.endEvaluationPass();
+		}
+	}
+
 	@Override
 	protected CourseTreeNode createCourseTreeNode(CourseNode courseNode, int treeLevel) {
 		NodeEvaluation nodeEval = new NodeEvaluation();
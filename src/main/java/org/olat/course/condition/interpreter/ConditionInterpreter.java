@@ -26,6 +26,11 @@
 package org.olat.course.condition.interpreter;
 
 import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.gui.translator.Translator;
@@ -45,6 +50,7 @@ import org.olat.course.run.userview.UserCourseEnvironment;
 
 import com.neemsoft.jmep.Environment;
 import com.neemsoft.jmep.Expression;
+import com.neemsoft.jmep.FunctionCB;
 import com.neemsoft.jmep.XExpression;
 import com.neemsoft.jmep.XIllegalOperation;
 import com.neemsoft.jmep.XIllegalStatus;
@@ -70,6 +76,10 @@ public class ConditionInterpreter {
 	protected Environment env;
 	protected Translator translator;
 	protected UserCourseEnvironment uce;
+	
+	private final boolean runMode;
+	private final Map<String,Queue<Expression>> expressionCache = new ConcurrentHashMap<>();
+	private final ThreadLocal<EvaluationPass> evaluationPass = new ThreadLocal<>();
 
 	/**
 	 * ConditionInterpreter interpretes course conditions.
@@ -83,6 +93,8 @@ public class ConditionInterpreter {
 		if (cev != null) {
 			translator = Util.createPackageTranslator(ConditionInterpreter.class, cev.getEditorEnvLocale());
 		}
+		// the editor collects errors and references while evaluating, never cache there
+		runMode = cev == null;
 
 		env = new Environment();
 
@@ -98,11 +110,11 @@ public class ConditionInterpreter {
 
 		// functions
 		env.addFunction(DateFunction.name, new DateFunction(userCourseEnv));
-		env.addFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
-		env.addFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
+		addMemoizedFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
+		addMemoizedFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
 		env.addFunction("isLearningGroupFull", new IsLearningGroupFullFunction(userCourseEnv));
-		env.addFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
-		env.addFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
+		addMemoizedFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
+		addMemoizedFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
 		env.addFunction(IsUserFunction.name, new IsUserFunction(userCourseEnv));
 		env.addFunction(IsGuestFunction.name, new IsGuestFunction(userCourseEnv));
 		env.addFunction(IsGlobalAuthorFunction.name, new IsGlobalAuthorFunction(userCourseEnv));
@@ -137,9 +149,9 @@ public class ConditionInterpreter {
 		env.addFunction(GetUserCourseDBFunction.name, new GetUserCourseDBFunction(userCourseEnv));
 		env.addFunction(HasLanguageFunction.name, new HasLanguageFunction(userCourseEnv));
 		env.addFunction(InInstitutionFunction.name, new InInstitutionFunction(userCourseEnv));
-		env.addFunction(IsCourseCoachFunction.name, new IsCourseCoachFunction(userCourseEnv));
-		env.addFunction(IsCourseParticipantFunction.name, new IsCourseParticipantFunction(userCourseEnv));
-		env.addFunction(IsCourseAdministratorFunction.name, new IsCourseAdministratorFunction(userCourseEnv));
+		addMemoizedFunction(IsCourseCoachFunction.name, new IsCourseCoachFunction(userCourseEnv));
+		addMemoizedFunction(IsCourseParticipantFunction.name, new IsCourseParticipantFunction(userCourseEnv));
+		addMemoizedFunction(IsCourseAdministratorFunction.name, new IsCourseAdministratorFunction(userCourseEnv));
 		env.addFunction(IsInOrganisationFunction.name, new IsInOrganisationFunction(userCourseEnv));
 		
 		env.addFunction(IsAssessmentModeFunction.name, new IsAssessmentModeFunction(userCourseEnv));
@@ -148,19 +160,19 @@ public class ConditionInterpreter {
 		env.addFunction(GetInitialCourseLaunchDateFunction.name, new GetInitialCourseLaunchDateFunction(userCourseEnv));
 		env.addFunction(GetRecentCourseLaunchDateFunction.name, new GetRecentCourseLaunchDateFunction(userCourseEnv));
 
-		env.addFunction(GetAttemptsFunction.name, new GetAttemptsFunction(userCourseEnv));
-		env.addFunction(GetLastAttemptDateFunction.name, new GetLastAttemptDateFunction(userCourseEnv));
+		addMemoizedFunction(GetAttemptsFunction.name, new GetAttemptsFunction(userCourseEnv));
+		addMemoizedFunction(GetLastAttemptDateFunction.name, new GetLastAttemptDateFunction(userCourseEnv));
 
 		// enrollment building block specific functions
 		env.addFunction(GetInitialEnrollmentDateFunction.name, new GetInitialEnrollmentDateFunction(userCourseEnv));
 		env.addFunction(GetRecentEnrollmentDateFunction.name, new GetRecentEnrollmentDateFunction(userCourseEnv));
 
 		// functions to calculate score
-		env.addFunction(GetPassedFunction.name, new GetPassedFunction(userCourseEnv));
-		env.addFunction(GetScoreFunction.name, new GetScoreFunction(userCourseEnv));
-		env.addFunction(GetAverageScoreFunction.NAME, new GetAverageScoreFunction(userCourseEnv));
-		env.addFunction(GetPassedWithCourseIdFunction.name, new GetPassedWithCourseIdFunction(userCourseEnv));
-		env.addFunction(GetScoreWithCourseIdFunction.name, new GetScoreWithCourseIdFunction(userCourseEnv));
+		addMemoizedFunction(GetPassedFunction.name, new GetPassedFunction(userCourseEnv));
+		addMemoizedFunction(GetScoreFunction.name, new GetScoreFunction(userCourseEnv));
+		addMemoizedFunction(GetAverageScoreFunction.NAME, new GetAverageScoreFunction(userCourseEnv));
+		addMemoizedFunction(GetPassedWithCourseIdFunction.name, new GetPassedWithCourseIdFunction(userCourseEnv));
+		addMemoizedFunction(GetScoreWithCourseIdFunction.name, new GetScoreWithCourseIdFunction(userCourseEnv));
 
 	  
 		env.addFunction(GetOnyxTestOutcomeNumFunction.name, new GetOnyxTestOutcomeNumFunction(userCourseEnv));
@@ -176,9 +188,103 @@ public class ConditionInterpreter {
 	}
 	
 
+	/**
+	 * The functions which make database queries or calculate scores are
+	 * wrapped in run mode to remember their results during an evaluation pass.
+	 * 
+	 * @param name The name of the function
+	 * @param function The function
+	 */
+	private void addMemoizedFunction(String name, FunctionCB function) {
+		if(runMode) {
+			env.addFunction(name, new MemoizedFunction(name, function, this::getEvaluationPassResults));
+		} else {
+			env.addFunction(name, function);
+		}
+	}
+
 	public UserCourseEnvironment getUserCourseEnvironment() {
 		return uce;
 	}
+	
+	/**
+	 * Start an evaluation pass, for example to build the whole course tree.
+	 * Within the pass, the results of the expensive functions (scores,
+	 * attempts, group memberships...) are computed only once for a set
+	 * of arguments. The pass is bound to the current thread, the other
+	 * threads using the interpreter don't see its results. Every call must
+	 * be followed by a call to {@link #endEvaluationPass()} in a finally
+	 * block of the same thread. The passes can be nested, only the outer
+	 * most one is relevant.
+	 */
+	public void startEvaluationPass() {
+		EvaluationPass pass = evaluationPass.get();
+		if(pass == null) {
+			evaluationPass.set(new EvaluationPass());
+		} else {
+			pass.depth++;
+		}
+	}
+	
+	public void endEvaluationPass() {
+		EvaluationPass pass = evaluationPass.get();
+		if(pass != null && --pass.depth == 0) {
+			evaluationPass.remove();
+		}
+	}
+	
+	/**
+	 * @return The results of the functions in the evaluation pass of the
+	 * 		current thread or null if no pass was started
+	 */
+	protected Map<String,Object> getEvaluationPassResults() {
+		EvaluationPass pass = evaluationPass.get();
+		return pass == null ? null : pass.results;
+	}
+	
+	/**
+	 * The expressions are parsed only once in run mode, they are bound
+	 * to the environment of this interpreter and can be evaluated again
+	 * and again. A parsed expression holds the state of its evaluation
+	 * and is used by only one thread at a time: it is taken from the cache
+	 * for the evaluation and given back after. Concurrent evaluations of
+	 * the same expression parse their own copy.
+	 * 
+	 * @param expression The expression
+	 * @return The result of the evaluation
+	 * @throws XExpression
+	 */
+	private Object evaluate(String expression) throws XExpression {
+		if(!runMode) {
+			return new Expression(expression, env).evaluate();
+		}
+
+		Queue<Expression> parsedExpressions = expressionCache
+				.computeIfAbsent(expression, exp -> new ConcurrentLinkedQueue<>());
+		Expression exp = parsedExpressions.poll();
+		if(exp == null) {
+			exp = new Expression(expression, env);
+		}
+		Object result = exp.evaluate();
+		parsedExpressions.offer(exp);
+		return result;
+	}
+	
+	/**
+	 * Number of parsed copies of the expression available in the cache.
+	 * 
+	 * @param expression The expression
+	 * @return The number of copies
+	 */
+	protected int getNumOfCachedExpressions(String expression) {
+		Queue<Expression> parsedExpressions = expressionCache.get(expression);
+		return parsedExpressions == null ? 0 : parsedExpressions.size();
+	}
+	
+	private static class EvaluationPass {
+		private int depth = 1;
+		private final Map<String,Object> results = new HashMap<>();
+	}
 
 	/**
 	 * @param expression
@@ -322,8 +428,7 @@ public class ConditionInterpreter {
 
 	private float doEvaluateCalculation(String calculation) throws ParseException {
 		try {
-			Expression exp = new Expression(calculation, env);
-			Object result = exp.evaluate();
+			Object result = evaluate(calculation);
 			if (result instanceof Double) {
 				return ((Double) result).floatValue();
 			} else if (result instanceof Integer) {
@@ -343,8 +448,7 @@ public class ConditionInterpreter {
 	 */
 	private boolean doEvaluateCondition(String condition) throws ParseException {
 		try {
-			Expression exp = new Expression(condition, env);
-			Object result = exp.evaluate();
+			Object result = evaluate(condition);
 			if (result instanceof Double) {
 				return (((Double) result).doubleValue() == 1.0);
 			} else if (result instanceof Integer) {
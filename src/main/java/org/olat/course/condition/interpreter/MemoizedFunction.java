@@ -0,0 +1,74 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.condition.interpreter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.neemsoft.jmep.FunctionCB;
+
+/**
+ * Wrap a function which does some expensive lookups (database,
+ * score accounting...) and remember its results as long as the
+ * condition interpreter is in an evaluation pass, typically
+ * the build of the course tree. Outside of a pass, the calls are
+ * delegated as is. The results are given by the interpreter and
+ * belong to the pass of the current thread.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MemoizedFunction extends FunctionCB {
+
+	private final String name;
+	private final FunctionCB delegate;
+	private final Supplier<Map<String,Object>> passResults;
+
+	/**
+	 * @param name The name of the function
+	 * @param delegate The function
+	 * @param passResults Give the results of the current evaluation pass or null if there is no pass
+	 */
+	public MemoizedFunction(String name, FunctionCB delegate, Supplier<Map<String,Object>> passResults) {
+		this.name = name;
+		this.delegate = delegate;
+		this.passResults = passResults;
+	}
+
+	@Override
+	public Object call(Object[] inStack) {
+		Map<String,Object> results = passResults.get();
+		if(results == null) {
+			return delegate.call(inStack);
+		}
+
+		String key = name + Arrays.toString(inStack);
+		Object result = results.get(key);
+		if(result == null) {
+			result = delegate.call(inStack);
+			if(result != null) {
+				results.put(key, result);
+			}
+		}
+		return result;
+	}
+}
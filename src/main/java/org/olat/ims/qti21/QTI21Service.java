@@ -387,6 +387,14 @@ public interface QTI21Service {
 	
 	public Map<Identifier, AssessmentResponse> getAssessmentResponses(AssessmentItemSession assessmentItemSession);
 	
+	/**
+	 * Save the responses and the item session. The modification date of the
+	 * test session is not updated, the caller updates the test session in the
+	 * same transaction.
+	 * 
+	 * @param assessmentItemSession The item session
+	 * @param responses The responses
+	 */
 	public void recordTestAssessmentResponses(AssessmentItemSession assessmentItemSession, Collection<AssessmentResponse> responses);
 	
 
@@ -30,6 +30,7 @@ import org.olat.ims.qti21.AssessmentItemSession;
 import org.olat.ims.qti21.AssessmentTestSession;
 import org.olat.ims.qti21.model.ParentPartItemRefs;
 import org.olat.ims.qti21.model.jpa.AssessmentItemSessionImpl;
+import org.olat.ims.qti21.model.jpa.AssessmentTestSessionImpl;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRef;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -167,7 +168,35 @@ public class AssessmentItemSessionDAO {
 		return query.executeUpdate();
 	}
 	
+	/**
+	 * Merge the item session and update its modification date. The test
+	 * session is not changed, use it if the test session is updated in the
+	 * same transaction, as the test runner does after every response.
+	 * 
+	 * @param itemSession The item session
+	 * @return The merged item session
+	 */
 	public AssessmentItemSession merge(AssessmentItemSession itemSession) {
+		((AssessmentItemSessionImpl)itemSession).setLastModified(new Date());
 		return dbInstance.getCurrentEntityManager().merge(itemSession);
 	}
+	
+	/**
+	 * Merge the item session and update the modification date of the item
+	 * session and of its test session. The statistics use the modification
+	 * date of the test sessions as version, the changes made outside of the
+	 * test runner (correction...) must use this method.
+	 * 
+	 * @param itemSession The item session
+	 * @return The merged item session
+	 */
+	public AssessmentItemSession mergeWithTestSession(AssessmentItemSession itemSession) {
+		Date now = new Date();
+		((AssessmentItemSessionImpl)itemSession).setLastModified(now);
+		AssessmentItemSession mergedItemSession = dbInstance.getCurrentEntityManager().merge(itemSession);
+		if(mergedItemSession.getAssessmentTestSession() instanceof AssessmentTestSessionImpl) {
+			((AssessmentTestSessionImpl)mergedItemSession.getAssessmentTestSession()).setLastModified(now);
+		}
+		return mergedItemSession;
+	}
 }
@@ -211,6 +211,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	private CoordinatorManager coordinatorManager;
 	@Autowired
 	private MailManager mailManager;
+	@Autowired
+	private TestSessionStateJournal testSessionStateJournal;
 	
 
 	private JqtiExtensionManager jqtiExtensionManager;
@@ -533,8 +535,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		if(session == null || session.isExploded() || session.getFinishTime() != null || session.getTerminationTime() != null) {
 			session = null;
 		} else {
-			File sessionFile = getTestSessionStateFile(session);
-			if(!sessionFile.exists()) {
+			File myStore = testSessionDao.getSessionStorage(session);
+			if(!testSessionStateJournal.exists(myStore)) {
 				session = null;
 			}
 		}
@@ -621,14 +623,10 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 
 	@Override
 	public TestSessionState loadTestSessionState(AssessmentTestSession candidateSession) {
-        Document document = loadStateDocument(candidateSession);
+		File myStore = testSessionDao.getSessionStorage(candidateSession);
+        Document document = testSessionStateJournal.loadDocument(myStore);
         return document == null ? null: TestSessionStateXmlMarshaller.unmarshal(document.getDocumentElement());
     }
-	
-    private Document loadStateDocument(AssessmentTestSession candidateSession) {
-        File sessionFile = getTestSessionStateFile(candidateSession);
-        return loadStateDocument(sessionFile);
-    }
     
     @Override
 	public ItemSessionState loadItemSessionState(AssessmentTestSession session, AssessmentItemSession itemSession) {
@@ -698,7 +696,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	
 	@Override
 	public AssessmentItemSession updateAssessmentItemSession(AssessmentItemSession itemSession) {
-		return itemSessionDao.merge(itemSession);
+		return itemSessionDao.mergeWithTestSession(itemSession);
 	}
 
 	@Override
@@ -1006,7 +1004,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 			if(currentTestPartKey != null) {
 				testSessionState.setCurrentTestPartKey(currentTestPartKey);
 				testSessionState.setCurrentItemKey(lastEntryItemKey);
-				storeTestSessionState(reloadedSession, testSessionState);
+				storeTestSessionState(reloadedSession, testSessionState, true);
 				
 				reloadedSession.setFinishTime(null);
 				reloadedSession.setTerminationTime(null);
@@ -1055,7 +1053,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 			if(partKey != null) {
 				testSessionState.setCurrentTestPartKey(partKey);
 				testSessionState.setCurrentItemKey(lastEntryItemKey);
-				storeTestSessionState(reloadedSession, testSessionState);
+				storeTestSessionState(reloadedSession, testSessionState, true);
 				
 				reloadedSession.setFinishTime(null);
 				reloadedSession.setTerminationTime(null);
@@ -1164,6 +1162,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		}
 		
 		storeAssessmentResultFile(candidateSession, assessmentResult);
+		testSessionStateJournal.compact(testSessionDao.getSessionStorage(candidateSession));
 		if(qtiModule.isDigitalSignatureEnabled() && digitalSignature.isDigitalSignature()) {
     		signAssessmentResult(candidateSession, digitalSignature, assessedIdentity);
     	}
@@ -1181,13 +1180,10 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	@Override
 	public void cancelTestSession(AssessmentTestSession candidateSession, TestSessionState testSessionState) {
 		final File myStore = testSessionDao.getSessionStorage(candidateSession);
-        final File sessionState = new File(myStore, "testSessionState.xml");
         final File resultFile = getAssessmentResultFile(candidateSession);
 
 		testSessionDao.deleteTestSession(candidateSession);
-		if(sessionState != null && sessionState.exists()) {
-			sessionState.delete();
-		}
+		testSessionStateJournal.delete(myStore);
 		if(resultFile != null && resultFile.exists()) {
 			resultFile.delete();
 		}
@@ -1312,30 +1308,21 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		if (itemKey != null) {
             event.setTestItemKey(itemKey.toString());
         }
-		storeTestSessionState(event, testSessionState);
+		storeTestSessionState(candidateSession, testSessionState, false);
 		return event;
 	}
 	
-	private void storeTestSessionState(CandidateEvent candidateEvent, TestSessionState testSessionState) {
-		Document stateDocument = TestSessionStateXmlMarshaller.marshal(testSessionState);
-		File sessionFile = getTestSessionStateFile(candidateEvent);
-		storeStateDocument(stateDocument, sessionFile);
-	}
-	
-	private void storeTestSessionState(AssessmentTestSession candidateSession, TestSessionState testSessionState) {
+	/**
+	 * Save the state of the test session in the journal.
+	 * 
+	 * @param candidateSession The test session
+	 * @param testSessionState The state
+	 * @param snapshot true to write the whole state in a new snapshot
+	 */
+	private void storeTestSessionState(AssessmentTestSession candidateSession, TestSessionState testSessionState, boolean snapshot) {
 		Document stateDocument = TestSessionStateXmlMarshaller.marshal(testSessionState);
-		File sessionFile = getTestSessionStateFile(candidateSession);
-		storeStateDocument(stateDocument, sessionFile);
-	}
-
-	private File getTestSessionStateFile(CandidateEvent candidateEvent) {
-		AssessmentTestSession candidateSession = candidateEvent.getCandidateSession();
-		return getTestSessionStateFile(candidateSession);
-	}
-    
-	private File getTestSessionStateFile(AssessmentTestSession candidateSession) {
 		File myStore = testSessionDao.getSessionStorage(candidateSession);
-		return new File(myStore, "testSessionState.xml");
+		testSessionStateJournal.store(myStore, stateDocument, snapshot);
 	}
 	
     @Override
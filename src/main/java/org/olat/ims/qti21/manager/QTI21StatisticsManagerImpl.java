@@ -20,12 +20,16 @@
  */
 package org.olat.ims.qti21.manager;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.DoubleAdder;
@@ -33,9 +37,13 @@ import java.util.concurrent.atomic.DoubleAdder;
 import javax.persistence.TypedQuery;
 
 import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.Group;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.persistence.PersistenceHelper;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.CodeHelper;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.ims.qti.statistics.manager.Statistics;
 import org.olat.ims.qti.statistics.model.StatisticAssessment;
 import org.olat.ims.qti.statistics.model.StatisticsItem;
@@ -53,6 +61,7 @@ import org.olat.ims.qti21.model.xml.QtiNodesExtractor;
 import org.olat.ims.qti21.model.xml.interactions.FIBAssessmentItemBuilder;
 import org.olat.ims.qti21.model.xml.interactions.FIBAssessmentItemBuilder.NumericalEntry;
 import org.olat.modules.vitero.model.GroupRole;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -87,12 +96,217 @@ import uk.ac.ed.ph.jqtiplus.value.StringValue;
  *
  */
 @Service
-public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
+public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager, InitializingBean {
 	
 	private static final Logger log = Tracing.createLoggerFor(QTI21StatisticsManagerImpl.class);
+	/**
+	 * Max. number of characters of the responses kept in the snapshot. Above
+	 * (a lot of essays by example), the responses are loaded item per item.
+	 */
+	private static final long MAX_CACHED_RESPONSES_LENGTH = 1000000l;
+	
+	private CacheWrapper<StatisticsKey,StatisticsData> statisticsCache;
 	
 	@Autowired
 	private DB dbInstance;
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		statisticsCache = coordinatorManager.getCoordinator().getCacher().getCache(QTI21StatisticsManager.class.getSimpleName(), "statistics");
+	}
+	
+	/**
+	 * The datas of the statistics are loaded in one pass for all the items
+	 * of the test: the finished test sessions, the scores of all items and
+	 * all the responses. The snapshot is cached with the number and the
+	 * last modification date of the test sessions as version. The item
+	 * sessions and the responses update the modification date of their
+	 * test session, a new or an updated session produces a new snapshot.
+	 * 
+	 * @param searchParams The search parameters
+	 * @return The snapshot of the datas of the statistics
+	 */
+	private StatisticsData getStatisticsData(QTI21StatisticSearchParams searchParams) {
+		StatisticsKey key = new StatisticsKey(searchParams, getVersion(searchParams));
+		return statisticsCache.computeIfAbsent(key, k -> new StatisticsData());
+	}
+	
+	private StatisticsVersion getVersion(QTI21StatisticSearchParams searchParams) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select count(asession.key), max(asession.lastModified) from qtiassessmenttestsession asession");
+		decorateVersion(sb, searchParams);
+		TypedQuery<Object[]> sessionQuery = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class);
+		decorateVersionQuery(sessionQuery, searchParams);
+		List<Object[]> sessionVersions = sessionQuery.getResultList();
+		
+		Long numOfSessions = null;
+		Date lastModified = null;
+		if(!sessionVersions.isEmpty()) {
+			numOfSessions = PersistenceHelper.extractLong(sessionVersions.get(0), 0);
+			lastModified = (Date)sessionVersions.get(0)[1];
+		}
+		return new StatisticsVersion(numOfSessions, lastModified);
+	}
+	
+	private void decorateVersion(StringBuilder sb, QTI21StatisticSearchParams searchParams) {
+		sb.append(" where asession.testEntry.key=:testEntryKey and asession.repositoryEntry.key=:repositoryEntryKey");
+		if(searchParams.getNodeIdent() != null ) {
+			sb.append(" and asession.subIdent=:subIdent");
+		} else {
+			sb.append(" and asession.subIdent is null");
+		}
+		sb.append(" and asession.authorMode=false");
+	}
+	
+	private void decorateVersionQuery(TypedQuery<?> query, QTI21StatisticSearchParams searchParams) {
+		query.setParameter("testEntryKey", searchParams.getTestEntry().getKey());
+		if(searchParams.getCourseEntry() == null) {
+			query.setParameter("repositoryEntryKey", searchParams.getTestEntry().getKey());
+		} else {
+			query.setParameter("repositoryEntryKey", searchParams.getCourseEntry().getKey());
+		}
+		if(searchParams.getNodeIdent() != null ) {
+			query.setParameter("subIdent", searchParams.getNodeIdent());
+		}
+	}
+	
+	private List<Object[]> getTestSessionDatas(QTI21StatisticSearchParams searchParams) {
+		StatisticsData data = getStatisticsData(searchParams);
+		synchronized(data) {
+			if(data.testSessions == null) {
+				data.testSessions = loadTestSessionDatas(searchParams);
+			}
+			return data.testSessions;
+		}
+	}
+	
+	private List<Object[]> loadTestSessionDatas(QTI21StatisticSearchParams searchParams) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select asession.score, asession.manualScore, asession.passed, asession.duration from qtiassessmenttestsession asession ");
+		decorateRSet(sb, searchParams, true);
+		sb.append(" order by asession.key asc");
+
+		TypedQuery<Object[]> rawDataQuery = dbInstance.getCurrentEntityManager()
+			.createQuery(sb.toString(), Object[].class);
+		decorateRSetQuery(rawDataQuery, searchParams);
+		return rawDataQuery.getResultList();
+	}
+	
+	/**
+	 * @param searchParams The search parameters
+	 * @return A map item identifier to rows: score, manual score, number of item sessions, average duration
+	 */
+	private Map<String,List<Object[]>> getItemScoreDatas(QTI21StatisticSearchParams searchParams) {
+		StatisticsData data = getStatisticsData(searchParams);
+		synchronized(data) {
+			if(data.itemScores == null) {
+				data.itemScores = loadItemScoreDatas(searchParams);
+			}
+			return data.itemScores;
+		}
+	}
+	
+	private Map<String,List<Object[]>> loadItemScoreDatas(QTI21StatisticSearchParams searchParams) {
+		long start = System.nanoTime();
+		StringBuilder sb = new StringBuilder();
+		sb.append("select isession.assessmentItemIdentifier, isession.score, isession.manualScore, count(isession.key), avg(isession.duration) from qtiassessmentitemsession isession ")
+		  .append(" inner join isession.assessmentTestSession asession");
+		decorateRSet(sb, searchParams, true);
+		sb.append(" and isession.duration > 0")
+		  .append(" group by isession.assessmentItemIdentifier, isession.score, isession.manualScore");
+
+		TypedQuery<Object[]> query = dbInstance.getCurrentEntityManager()
+			.createQuery(sb.toString(), Object[].class);
+		decorateRSetQuery(query, searchParams);
+		List<Object[]> results = query.getResultList();
+
+		Map<String,List<Object[]>> itemScores = new HashMap<>();
+		for(Object[] result:results) {
+			String itemIdent = PersistenceHelper.extractString(result, 0);
+			if(itemIdent != null) {
+				itemScores.computeIfAbsent(itemIdent, ident -> new ArrayList<>())
+					.add(new Object[] { result[1], result[2], result[3], result[4] });
+			}
+		}
+		log.debug("Statistics: scores of {} items loaded in (ms) {}", itemScores.size(), CodeHelper.nanoToMilliTime(start));
+		return itemScores;
+	}
+	
+	private List<RawData> getRawDatas(String itemRefIdent, String responseIdentifier, QTI21StatisticSearchParams searchParams) {
+		StatisticsData data = getStatisticsData(searchParams);
+		Map<String,List<RawData>> responses;
+		synchronized(data) {
+			if(data.responses == null && !data.responsesTooLarge) {
+				ResponsesLength length = new ResponsesLength();
+				responses = loadRawDatas(searchParams, null, length);
+				if(length.get() <= MAX_CACHED_RESPONSES_LENGTH) {
+					data.responses = responses;
+				} else {
+					data.responsesTooLarge = true;
+					log.debug("Statistics: responses too large to be cached ({} characters)", length.get());
+				}
+			} else if(data.responses != null) {
+				responses = data.responses;
+			} else {
+				responses = loadRawDatas(searchParams, itemRefIdent, new ResponsesLength());
+			}
+		}
+		List<RawData> datas = responses.get(toResponseKey(itemRefIdent, responseIdentifier));
+		return datas == null ? new ArrayList<>() : new ArrayList<>(datas);
+	}
+	
+	/**
+	 * Load the responses of all the items of the test in one query.
+	 * 
+	 * @param searchParams The search parameters
+	 * @param itemRefIdent Limit to an item (optional)
+	 * @param length Sums the length of the responses
+	 * @return A map item identifier and response identifier to the responses
+	 */
+	private Map<String,List<RawData>> loadRawDatas(QTI21StatisticSearchParams searchParams, String itemRefIdent, ResponsesLength length) {
+		long start = System.nanoTime();
+		StringBuilder sb = new StringBuilder();
+		sb.append("select isession.assessmentItemIdentifier, isession.key, aresponse.responseIdentifier, aresponse.stringuifiedResponse, count(aresponse.key) from qtiassessmentresponse aresponse ")
+		  .append(" inner join aresponse.assessmentItemSession isession")
+		  .append(" inner join isession.assessmentTestSession asession");
+		decorateRSet(sb, searchParams, true);
+		sb.append(" and isession.duration > 0");
+		if(itemRefIdent != null) {
+			sb.append(" and isession.assessmentItemIdentifier=:itemIdent");
+		}
+		sb.append(" group by isession.assessmentItemIdentifier, isession.key, aresponse.responseIdentifier, aresponse.stringuifiedResponse");
+
+		TypedQuery<Object[]> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class);
+		decorateRSetQuery(query, searchParams);
+		if(itemRefIdent != null) {
+			query.setParameter("itemIdent", itemRefIdent);
+		}
+		List<Object[]> results = query.getResultList();
+		
+		Map<String,List<RawData>> responses = new HashMap<>();
+		for(Object[] result:results) {
+			String itemIdent = PersistenceHelper.extractString(result, 0);
+			Long itemSessionKey = PersistenceHelper.extractLong(result, 1);
+			String responseIdentifier = PersistenceHelper.extractString(result, 2);
+			String stringuifiedResponse = PersistenceHelper.extractString(result, 3);
+			Long count = PersistenceHelper.extractLong(result, 4);
+			if(stringuifiedResponse != null) {
+				length.add(stringuifiedResponse.length());
+			}
+			responses.computeIfAbsent(toResponseKey(itemIdent, responseIdentifier), key -> new ArrayList<>())
+				.add(new RawData(itemSessionKey, responseIdentifier, stringuifiedResponse, count));
+		}
+		log.debug("Statistics: {} responses loaded in (ms) {}", results.size(), CodeHelper.nanoToMilliTime(start));
+		return responses;
+	}
+	
+	private static String toResponseKey(String itemIdent, String responseIdentifier) {
+		return itemIdent + "/" + responseIdentifier;
+	}
 	
 	private StringBuilder decorateRSet(StringBuilder sb, QTI21StatisticSearchParams searchParams, boolean finished) {
 		sb.append(" where asession.testEntry.key=:testEntryKey and asession.repositoryEntry.key=:repositoryEntryKey");
@@ -171,15 +385,7 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 
 	@Override
 	public StatisticAssessment getAssessmentStatistics(QTI21StatisticSearchParams searchParams, Double cutValue) {
-		StringBuilder sb = new StringBuilder();
-		sb.append("select asession.score, asession.manualScore, asession.passed, asession.duration from qtiassessmenttestsession asession ");
-		decorateRSet(sb, searchParams, true);
-		sb.append(" order by asession.key asc");
-
-		TypedQuery<Object[]> rawDataQuery = dbInstance.getCurrentEntityManager()
-			.createQuery(sb.toString(), Object[].class);
-		decorateRSetQuery(rawDataQuery, searchParams);
-		List<Object[]> rawDatas =	rawDataQuery.getResultList();
+		List<Object[]> rawDatas = getTestSessionDatas(searchParams);
 		
 		int numOfPassed = 0;
 		int numOfFailed = 0;
@@ -267,20 +473,8 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 	@Override
 	public StatisticsItem getAssessmentItemStatistics(String itemIdent, double maxScore,
 			QTI21StatisticSearchParams searchParams) {
-		
-		StringBuilder sb = new StringBuilder();
-		sb.append("select isession.score, isession.manualScore, count(isession.key), avg(isession.duration) from qtiassessmentitemsession isession ")
-		  .append(" inner join isession.assessmentTestSession asession");
-		decorateRSet(sb, searchParams, true);
-		sb.append(" and isession.assessmentItemIdentifier=:itemIdent and isession.duration > 0")
-		  .append(" group by isession.score, isession.manualScore");
-
-		TypedQuery<Object[]> query = dbInstance.getCurrentEntityManager()
-			.createQuery(sb.toString(), Object[].class)
-			.setParameter("itemIdent", itemIdent);
-		decorateRSetQuery(query, searchParams);
-		List<Object[]> results = query.getResultList();
-		if(results.isEmpty()) {
+		List<Object[]> results = getItemScoreDatas(searchParams).get(itemIdent);
+		if(results == null || results.isEmpty()) {
 			return new StatisticsItem();
 		}
 
@@ -624,49 +818,10 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 		return new TextEntryInteractionStatistics(responseIdentifier, caseSensitive, correctResponse, alternatives, points);
 	}
 	
-	private List<RawData> getRawDatas(String itemRefIdent, String responseIdentifier, QTI21StatisticSearchParams searchParams) {
-		StringBuilder sb = new StringBuilder();
-		sb.append("select isession.key, aresponse.responseIdentifier, aresponse.stringuifiedResponse, count(aresponse.key) from qtiassessmentresponse aresponse ")
-		  .append(" inner join aresponse.assessmentItemSession isession")
-		  .append(" inner join isession.assessmentTestSession asession");
-		decorateRSet(sb, searchParams, true);
-		sb.append(" and isession.assessmentItemIdentifier=:itemIdent and aresponse.responseIdentifier=:responseIdentifier and isession.duration > 0")
-		  .append(" group by isession.key, aresponse.responseIdentifier, aresponse.stringuifiedResponse");
-
-		TypedQuery<Object[]> query = dbInstance.getCurrentEntityManager()
-				.createQuery(sb.toString(), Object[].class)
-				.setParameter("itemIdent", itemRefIdent)
-				.setParameter("responseIdentifier", responseIdentifier);
-		decorateRSetQuery(query, searchParams);
-		List<Object[]> results = query.getResultList();
-		if(results.isEmpty()) {
-			return new ArrayList<>();
-		}
-		
-		List<RawData> datas = new ArrayList<>(results.size());
-		for(Object[] result:results) {
-			Long itemSessionKey = PersistenceHelper.extractLong(result, 0);
-			String stringuifiedResponse = PersistenceHelper.extractString(result, 2);
-			Long count = PersistenceHelper.extractLong(result, 3);
-			datas.add(new RawData(itemSessionKey, responseIdentifier, stringuifiedResponse, count));
-		}
-		return datas;
-	}
-	
 	@Override
 	public List<AssessmentItemStatistic> getStatisticPerItem(ResolvedAssessmentTest resolvedAssessmentTest, QTI21StatisticSearchParams searchParams, double numOfParticipants) {
-		StringBuilder sb = new StringBuilder();
-		sb.append("select isession.assessmentItemIdentifier, isession.score, isession.manualScore, count(*) from qtiassessmentitemsession isession")
-		  .append(" inner join isession.assessmentTestSession asession");
-		decorateRSet(sb, searchParams, true);
-		sb.append(" and isession.duration > 0")
-		  .append(" group by isession.assessmentItemIdentifier, isession.score, isession.manualScore");
-		
-		TypedQuery<Object[]> query = dbInstance.getCurrentEntityManager()
-				.createQuery(sb.toString(), Object[].class);
-		decorateRSetQuery(query, searchParams);
-		List<Object[]> results = query.getResultList();
-		if(results.isEmpty()) {
+		Map<String,List<Object[]>> itemScores = getItemScoreDatas(searchParams);
+		if(itemScores.isEmpty()) {
 			return new ArrayList<>();
 		}
 		
@@ -677,42 +832,10 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 		}
 
 		Map<String, AssessmentItemHelper> identifierToHelpers = new HashMap<>();
-		for(Object[] result:results) {
-			int pos = 0;
-			String identifier = PersistenceHelper.extractString(result, pos++);
-			BigDecimal score = (BigDecimal)result[pos++];
-			BigDecimal manualScore = (BigDecimal)result[pos++];
-			Long count = PersistenceHelper.extractLong(result, pos++);
-			if(score == null || identifier == null || count == null) {
-				continue;
-			}
-
-			AssessmentItemHelper helper = identifierToHelpers.get(identifier);
-			if(helper == null) {
-				AssessmentItemRef itemRef = itemMap.get(identifier);
-				if(itemRef == null) {
-					continue;
-				} 
-				ResolvedAssessmentItem item = resolvedAssessmentTest.getResolvedAssessmentItem(itemRef);
-				if(item == null) {
-					continue;
-				}
-				helper = new AssessmentItemHelper(item.getRootNodeLookup().extractIfSuccessful());
-				identifierToHelpers.put(identifier, helper);
-			}
-			
-			helper.addCount(count);
-			if(manualScore != null) {
-				helper.addTotalScore(count, manualScore);
-			} else {
-				helper.addTotalScore(count, score);
-			}
-
-			if(helper.getMaxScore() != null) {
-				double maxValue = helper.getMaxScore().doubleValue();
-				if(Math.abs(score.doubleValue() - maxValue) < 0.0001) {
-					helper.addCorrectAnswers(count);
-				}
+		for(Map.Entry<String,List<Object[]>> itemScore:itemScores.entrySet()) {
+			String identifier = itemScore.getKey();
+			for(Object[] result:itemScore.getValue()) {
+				addItemScore(identifier, result, itemMap, identifierToHelpers, resolvedAssessmentTest);
 			}
 		}
 		
@@ -735,6 +858,44 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 		return statistics;
 	}
 	
+	private void addItemScore(String identifier, Object[] result, Map<String,AssessmentItemRef> itemMap,
+			Map<String, AssessmentItemHelper> identifierToHelpers, ResolvedAssessmentTest resolvedAssessmentTest) {
+		BigDecimal score = (BigDecimal)result[0];
+		BigDecimal manualScore = (BigDecimal)result[1];
+		Long count = PersistenceHelper.extractLong(result, 2);
+		if(score == null || count == null) {
+			return;
+		}
+
+		AssessmentItemHelper helper = identifierToHelpers.get(identifier);
+		if(helper == null) {
+			AssessmentItemRef itemRef = itemMap.get(identifier);
+			if(itemRef == null) {
+				return;
+			} 
+			ResolvedAssessmentItem item = resolvedAssessmentTest.getResolvedAssessmentItem(itemRef);
+			if(item == null) {
+				return;
+			}
+			helper = new AssessmentItemHelper(item.getRootNodeLookup().extractIfSuccessful());
+			identifierToHelpers.put(identifier, helper);
+		}
+		
+		helper.addCount(count);
+		if(manualScore != null) {
+			helper.addTotalScore(count, manualScore);
+		} else {
+			helper.addTotalScore(count, score);
+		}
+
+		if(helper.getMaxScore() != null) {
+			double maxValue = helper.getMaxScore().doubleValue();
+			if(Math.abs(score.doubleValue() - maxValue) < 0.0001) {
+				helper.addCorrectAnswers(count);
+			}
+		}
+	}
+	
 	public static class AssessmentItemHelper {
 		private long count = 0l;
 		private double totalScore = 0.0d;
@@ -776,7 +937,9 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 		}
 	}
 	
-	public static class RawData {
+	public static class RawData implements Serializable {
+		
+		private static final long serialVersionUID = 3311236539213880456L;
 		
 		private final Long itemSessionKey;
 		private final String responseIdentifier;
@@ -806,4 +969,119 @@ public class QTI21StatisticsManagerImpl implements QTI21StatisticsManager {
 			return count;
 		}
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * The snapshot of the datas, the parts are loaded on demand.
+	 */
+	private static class StatisticsData implements Serializable {
+
+		private static final long serialVersionUID = -3675231578204446717L;
+		
+		private List<Object[]> testSessions;
+		private Map<String,List<Object[]>> itemScores;
+		private Map<String,List<RawData>> responses;
+		private boolean responsesTooLarge;
+		
+	}
+	
+	private static class ResponsesLength {
+		
+		private long length = 0l;
+		
+		public void add(int responseLength) {
+			length += responseLength;
+		}
+		
+		public long get() {
+			return length;
+		}
+	}
+	
+	private static class StatisticsVersion implements Serializable {
+
+		private static final long serialVersionUID = 6620358617426380133L;
+		
+		private final Long numOfSessions;
+		private final Long lastModified;
+		
+		public StatisticsVersion(Long numOfSessions, Date lastModified) {
+			this.numOfSessions = numOfSessions;
+			this.lastModified = lastModified == null ? null : Long.valueOf(lastModified.getTime());
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(numOfSessions, lastModified);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof StatisticsVersion) {
+				StatisticsVersion version = (StatisticsVersion)obj;
+				return Objects.equals(numOfSessions, version.numOfSessions)
+						&& Objects.equals(lastModified, version.lastModified);
+			}
+			return false;
+		}
+	}
+	
+	private static class StatisticsKey implements Serializable {
+
+		private static final long serialVersionUID = -5028826613795240712L;
+		
+		private final Long testEntryKey;
+		private final Long repositoryEntryKey;
+		private final String subIdent;
+		private final boolean viewAllUsers;
+		private final boolean viewAnonymUsers;
+		private final boolean viewNonMembers;
+		private final List<Long> groupKeys;
+		private final StatisticsVersion version;
+		
+		public StatisticsKey(QTI21StatisticSearchParams searchParams, StatisticsVersion version) {
+			testEntryKey = searchParams.getTestEntry().getKey();
+			repositoryEntryKey = searchParams.getCourseEntry() == null
+					? searchParams.getTestEntry().getKey() : searchParams.getCourseEntry().getKey();
+			subIdent = searchParams.getNodeIdent();
+			viewAllUsers = searchParams.isViewAllUsers();
+			viewAnonymUsers = searchParams.isViewAnonymUsers();
+			viewNonMembers = searchParams.isViewNonMembers();
+			groupKeys = new ArrayList<>();
+			if(searchParams.getLimitToGroups() != null) {
+				for(Group group:searchParams.getLimitToGroups()) {
+					groupKeys.add(group.getKey());
+				}
+				Collections.sort(groupKeys);
+			}
+			this.version = version;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(testEntryKey, repositoryEntryKey, subIdent, groupKeys, version)
+					+ (viewAllUsers ? 1 : 0) + (viewAnonymUsers ? 2 : 0) + (viewNonMembers ? 4 : 0);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof StatisticsKey) {
+				StatisticsKey key = (StatisticsKey)obj;
+				return testEntryKey.equals(key.testEntryKey)
+						&& repositoryEntryKey.equals(key.repositoryEntryKey)
+						&& Objects.equals(subIdent, key.subIdent)
+						&& viewAllUsers == key.viewAllUsers
+						&& viewAnonymUsers == key.viewAnonymUsers
+						&& viewNonMembers == key.viewNonMembers
+						&& groupKeys.equals(key.groupKeys)
+						&& version.equals(key.version);
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,592 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.filter.FilterFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import uk.ac.ed.ph.jqtiplus.xmlutils.XmlFactories;
+import uk.ac.ed.ph.jqtiplus.xmlutils.xslt.XsltSerializationOptions;
+import uk.ac.ed.ph.jqtiplus.xmlutils.xslt.XsltStylesheetManager;
+
+/**
+ * Store the state of the test sessions as a snapshot (testSessionState.xml,
+ * the same format as before) and a journal of changes (testSessionState.journal).
+ * Every candidate event appends a record to the journal with the elements of
+ * the state which changed since the previous event (in general the test, the
+ * current test part, section and item), the others are replaced by a reference.
+ * After {@link #getSnapshotInterval()} records, a new snapshot is written and
+ * the journal starts again. The state is loaded by replaying the journal on
+ * the snapshot.<br>
+ * The journal starts with the CRC of the snapshot it is based on, a journal
+ * which doesn't match the snapshot is outdated and ignored. Every record has its
+ * own CRC, a truncated or damaged record and the following ones are ignored.<br>
+ * The flag enabled only decides if new records are appended. A journal which
+ * matches the snapshot is always replayed, even if the journal was disabled
+ * after it was written.<br>
+ * The fsync policy is one of: none, snapshot (only the snapshots are synchronized
+ * with the disk) or always (the snapshots and every record of the journal).
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class TestSessionStateJournal implements InitializingBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(TestSessionStateJournal.class);
+	
+	public static final String SNAPSHOT_FILENAME = "testSessionState.xml";
+	public static final String JOURNAL_FILENAME = "testSessionState.journal";
+	
+	private static final String JOURNAL_NS = "http://www.openolat.org/qti21/journal";
+	private static final String UNCHANGED = "unchanged";
+	private static final String REF = "ref";
+	
+	private static final int MAGIC = 0x514A4E4C;
+	private static final int HEADER_LENGTH = 12;
+	private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+	
+	public static final String FSYNC_NONE = "none";
+	public static final String FSYNC_SNAPSHOT = "snapshot";
+	public static final String FSYNC_ALWAYS = "always";
+	
+	private final Object[] locks = new Object[64];
+	
+	private final AtomicLong snapshots = new AtomicLong();
+	private final AtomicLong records = new AtomicLong();
+	private final AtomicLong recordsBytes = new AtomicLong();
+	
+	@Value("${qti21.session.journal.enabled:false}")
+	private boolean enabled;
+	@Value("${qti21.session.journal.snapshot.interval:50}")
+	private int snapshotInterval;
+	@Value("${qti21.session.journal.fsync:snapshot}")
+	private String fsync;
+	
+	private CacheWrapper<File,Baseline> baselines;
+	
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+	
+	public TestSessionStateJournal() {
+		for(int i=locks.length; i-->0; ) {
+			locks[i] = new Object();
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		baselines = coordinatorManager.getCoordinator().getCacher().getCache(TestSessionStateJournal.class.getSimpleName(), "baselines");
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getSnapshotInterval() {
+		return snapshotInterval;
+	}
+
+	public void setSnapshotInterval(int snapshotInterval) {
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	public String getFsync() {
+		return fsync;
+	}
+
+	public void setFsync(String fsync) {
+		this.fsync = fsync;
+	}
+	
+	public long getSnapshots() {
+		return snapshots.get();
+	}
+	
+	public long getRecords() {
+		return records.get();
+	}
+	
+	public long getRecordsBytes() {
+		return recordsBytes.get();
+	}
+	
+	public boolean exists(File storage) {
+		return new File(storage, SNAPSHOT_FILENAME).exists();
+	}
+	
+	/**
+	 * Save the state, as a record of the journal or as a new snapshot.
+	 * 
+	 * @param storage The directory of the test session
+	 * @param document The marshalled state of the test session
+	 * @param snapshot true to write a snapshot
+	 */
+	public void store(File storage, Document document, boolean snapshot) {
+		synchronized(getLock(storage)) {
+			File journalFile = new File(storage, JOURNAL_FILENAME);
+			Baseline baseline = enabled && !snapshot ? baselines.get(storage) : null;
+			if(baseline == null || baseline.getRecords() >= snapshotInterval
+					|| baseline.getJournalLength() != journalFile.length()) {
+				writeSnapshot(storage, document);
+			} else {
+				appendRecord(journalFile, baseline, document);
+			}
+		}
+	}
+	
+	/**
+	 * Replay the journal and write it as a new snapshot, for example
+	 * at the end of the test session.
+	 * 
+	 * @param storage The directory of the test session
+	 */
+	public void compact(File storage) {
+		synchronized(getLock(storage)) {
+			File journalFile = new File(storage, JOURNAL_FILENAME);
+			if(journalFile.length() > HEADER_LENGTH) {
+				Document document = loadDocument(storage);
+				if(document != null) {
+					writeSnapshot(storage, document);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param storage The directory of the test session
+	 * @return The state of the test session or null if the session has no state
+	 */
+	public Document loadDocument(File storage) {
+		File snapshotFile = new File(storage, SNAPSHOT_FILENAME);
+		if(!snapshotFile.exists()) {
+			return null;
+		}
+		
+		synchronized(getLock(storage)) {
+			try {
+				byte[] snapshot = Files.readAllBytes(snapshotFile.toPath());
+				Document document = parseSnapshot(snapshot);
+				File journalFile = new File(storage, JOURNAL_FILENAME);
+				// a journal written before the journal was disabled must be replayed too
+				if(journalFile.length() > HEADER_LENGTH) {
+					document = replay(document, journalFile, crc(snapshot));
+				}
+				return document;
+			} catch (IOException e) {
+				throw new OLATRuntimeException("Cannot read the state of the test session: " + storage, e);
+			}
+		}
+	}
+	
+	public void delete(File storage) {
+		synchronized(getLock(storage)) {
+			baselines.remove(storage);
+			new File(storage, SNAPSHOT_FILENAME).delete();
+			new File(storage, JOURNAL_FILENAME).delete();
+		}
+	}
+	
+	private void writeSnapshot(File storage, Document document) {
+		byte[] data = serialize(document, true);
+		File snapshotFile = new File(storage, SNAPSHOT_FILENAME);
+		File tmpFile = new File(storage, SNAPSHOT_FILENAME + ".tmp");
+		try {
+			try(FileOutputStream out = new FileOutputStream(tmpFile)) {
+				out.write(data);
+				if(!FSYNC_NONE.equals(fsync)) {
+					out.getChannel().force(false);
+				}
+			}
+			move(tmpFile, snapshotFile);
+			
+			// the old journal is outdated, its header doesn't match the new snapshot
+			File journalFile = new File(storage, JOURNAL_FILENAME);
+			if(enabled) {
+				try(DataOutputStream out = new DataOutputStream(new FileOutputStream(journalFile))) {
+					out.writeInt(MAGIC);
+					out.writeLong(crc(data));
+				}
+				baselines.put(storage, new Baseline(digests(document.getDocumentElement()), journalFile.length()));
+			} else {
+				Files.deleteIfExists(journalFile.toPath());
+				baselines.remove(storage);
+			}
+			snapshots.incrementAndGet();
+		} catch(IOException e) {
+			baselines.remove(storage);
+			throw new OLATRuntimeException("Cannot write the state of the test session: " + storage, e);
+		}
+	}
+	
+	private void move(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	private void appendRecord(File journalFile, Baseline baseline, Document document) {
+		Element root = document.getDocumentElement();
+		Map<String,byte[]> digests = digests(root);
+		
+		Document record = newDocument();
+		Element recordRoot = (Element)record.importNode(root, false);
+		record.appendChild(recordRoot);
+		
+		List<Element> children = getChildElements(root);
+		List<String> ids = new ArrayList<>(digests.keySet());
+		for(int i=0; i<children.size(); i++) {
+			String id = ids.get(i);
+			if(Arrays.equals(digests.get(id), baseline.getDigest(id))) {
+				Element unchanged = record.createElementNS(JOURNAL_NS, "j:" + UNCHANGED);
+				unchanged.setAttribute(REF, id);
+				recordRoot.appendChild(unchanged);
+			} else {
+				recordRoot.appendChild(record.importNode(children.get(i), true));
+			}
+		}
+		
+		byte[] payload = serialize(record, false);
+		try(FileOutputStream out = new FileOutputStream(journalFile, true)) {
+			ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 8);
+			DataOutputStream frameOut = new DataOutputStream(frame);
+			frameOut.writeInt(payload.length);
+			frameOut.writeInt((int)crc(payload));
+			frameOut.write(payload);
+			frameOut.flush();
+			out.write(frame.toByteArray());
+			if(FSYNC_ALWAYS.equals(fsync)) {
+				out.getChannel().force(false);
+			}
+		} catch(IOException e) {
+			baselines.remove(journalFile.getParentFile());
+			throw new OLATRuntimeException("Cannot write the journal of the test session: " + journalFile, e);
+		}
+		
+		baseline.recorded(digests, journalFile.length());
+		records.incrementAndGet();
+		recordsBytes.addAndGet(payload.length);
+	}
+	
+	private Document replay(Document document, File journalFile, long snapshotCrc) {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+			if(in.readInt() != MAGIC || in.readLong() != snapshotCrc) {
+				log.debug("Outdated journal: {}", journalFile);
+				return document;
+			}
+			
+			Map<String,Element> children = mapChildren(document.getDocumentElement());
+			for(int length=readLength(in); length >= 0; length=readLength(in)) {
+				int crc = in.readInt();
+				byte[] payload = new byte[length];
+				in.readFully(payload);
+				if((int)crc(payload) != crc) {
+					log.warn("Damaged record in journal, ignore the rest of the journal: {}", journalFile);
+					break;
+				}
+				
+				Document record = newDocumentBuilder().parse(new ByteArrayInputStream(payload));
+				document = apply(children, record);
+				children = mapChildren(document.getDocumentElement());
+			}
+		} catch(EOFException e) {
+			log.warn("Truncated record in journal, ignore it: {}", journalFile);
+		} catch(Exception e) {
+			log.error("Cannot replay the journal, ignore the rest of the journal: {}", journalFile, e);
+		}
+		return document;
+	}
+	
+	private int readLength(DataInputStream in) throws IOException {
+		int b1 = in.read();
+		if(b1 < 0) {
+			return -1;// end of the journal
+		}
+		int length = (b1 << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+		if(length < 0 || length > MAX_RECORD_LENGTH) {
+			throw new IOException("Invalid record length: " + length);
+		}
+		return length;
+	}
+	
+	private Document apply(Map<String,Element> previousChildren, Document record) {
+		Document merged = newDocument();
+		Element recordRoot = record.getDocumentElement();
+		Element root = (Element)merged.importNode(recordRoot, false);
+		merged.appendChild(root);
+		
+		for(Element child:getChildElements(recordRoot)) {
+			if(UNCHANGED.equals(getLocalName(child)) && JOURNAL_NS.equals(child.getNamespaceURI())) {
+				String ref = child.getAttribute(REF);
+				Element previous = previousChildren.get(ref);
+				if(previous == null) {
+					throw new OLATRuntimeException("Missing element in journal: " + ref, null);
+				}
+				root.appendChild(merged.importNode(previous, true));
+			} else {
+				root.appendChild(merged.importNode(child, true));
+			}
+		}
+		return merged;
+	}
+	
+	private Object getLock(File storage) {
+		return locks[(storage.hashCode() & 0x7fffffff) % locks.length];
+	}
+	
+	private static long crc(byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data, 0, data.length);
+		return crc.getValue();
+	}
+	
+	private static List<Element> getChildElements(Element element) {
+		List<Element> children = new ArrayList<>();
+		for(Node child=element.getFirstChild(); child != null; child=child.getNextSibling()) {
+			if(child.getNodeType() == Node.ELEMENT_NODE) {
+				children.add((Element)child);
+			}
+		}
+		return children;
+	}
+	
+	/**
+	 * The identifier of the children of the root, the name of the element with
+	 * its key (test parts, sections, items) or its identifier (outcome variables).
+	 */
+	private static List<String> getChildIds(List<Element> children) {
+		Map<String,Integer> occurences = new HashMap<>();
+		List<String> ids = new ArrayList<>(children.size());
+		for(Element child:children) {
+			String id = getLocalName(child);
+			if(child.hasAttribute("key")) {
+				id += "/" + child.getAttribute("key");
+			} else if(child.hasAttribute("identifier")) {
+				id += "/" + child.getAttribute("identifier");
+			}
+			
+			Integer occurence = occurences.merge(id, 1, Integer::sum);
+			if(occurence.intValue() > 1) {
+				id += "#" + occurence;
+			}
+			ids.add(id);
+		}
+		return ids;
+	}
+	
+	private static Map<String,Element> mapChildren(Element root) {
+		List<Element> children = getChildElements(root);
+		List<String> ids = getChildIds(children);
+		Map<String,Element> map = new HashMap<>();
+		for(int i=0; i<children.size(); i++) {
+			map.put(ids.get(i), children.get(i));
+		}
+		return map;
+	}
+	
+	private static Map<String,byte[]> digests(Element root) {
+		List<Element> children = getChildElements(root);
+		List<String> ids = getChildIds(children);
+		Map<String,byte[]> digests = new LinkedHashMap<>();
+		for(int i=0; i<children.size(); i++) {
+			MessageDigest digest = DigestUtils.getSha1Digest();
+			updateDigest(digest, children.get(i));
+			digests.put(ids.get(i), digest.digest());
+		}
+		return digests;
+	}
+	
+	private static void updateDigest(MessageDigest digest, Node node) {
+		switch(node.getNodeType()) {
+			case Node.ELEMENT_NODE: {
+				digest.update((byte)1);
+				updateDigest(digest, node.getNamespaceURI());
+				updateDigest(digest, node.getNodeName());
+				NamedNodeMap attributes = node.getAttributes();
+				for(int i=0; i<attributes.getLength(); i++) {
+					Attr attribute = (Attr)attributes.item(i);
+					updateDigest(digest, attribute.getName());
+					updateDigest(digest, attribute.getValue());
+				}
+				for(Node child=node.getFirstChild(); child != null; child=child.getNextSibling()) {
+					updateDigest(digest, child);
+				}
+				digest.update((byte)2);
+				break;
+			}
+			case Node.TEXT_NODE:
+			case Node.CDATA_SECTION_NODE: {
+				digest.update((byte)3);
+				updateDigest(digest, node.getNodeValue());
+				break;
+			}
+			default: break;
+		}
+	}
+	
+	private static void updateDigest(MessageDigest digest, String value) {
+		if(value == null) {
+			digest.update((byte)0);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			digest.update((byte)(bytes.length >>> 24));
+			digest.update((byte)(bytes.length >>> 16));
+			digest.update((byte)(bytes.length >>> 8));
+			digest.update((byte)bytes.length);
+			digest.update(bytes);
+		}
+	}
+	
+	private static String getLocalName(Node node) {
+		String localName = node.getLocalName();
+		if(localName == null) {
+			localName = node.getNodeName();
+			int index = localName.indexOf(':');
+			if(index >= 0) {
+				localName = localName.substring(index + 1);
+			}
+		}
+		return localName;
+	}
+	
+	private static byte[] serialize(Document document, boolean indenting) {
+		XsltSerializationOptions xsltSerializationOptions = new XsltSerializationOptions();
+		xsltSerializationOptions.setIndenting(indenting);
+		xsltSerializationOptions.setIncludingXMLDeclaration(false);
+		
+		Transformer serializer = XsltStylesheetManager.createSerializer(xsltSerializationOptions);
+		ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+		try {
+			serializer.transform(new DOMSource(document), new StreamResult(out));
+			return out.toByteArray();
+		} catch (TransformerException e) {
+			throw new OLATRuntimeException("Unexpected Exception serializing state DOM", e);
+		}
+	}
+	
+	private static Document parseSnapshot(byte[] snapshot) {
+		try(InputStream in = new ByteArrayInputStream(snapshot)) {
+			return newDocumentBuilder().parse(in);
+		} catch (Exception e) {
+			try {
+				String xmlContent = new String(snapshot, StandardCharsets.UTF_8);
+				String filteredContent = FilterFactory.getXMLValidEntityFilter().filter(xmlContent);
+				return newDocumentBuilder().parse(new InputSource(new StringReader(filteredContent)));
+			} catch (Exception e1) {
+				throw new OLATRuntimeException("Could not parse serialized state XML. This is an internal error as we currently don't expose this data to clients", e1);
+			}
+		}
+	}
+	
+	private static DocumentBuilder newDocumentBuilder() {
+		return XmlFactories.newDocumentBuilder();
+	}
+	
+	private static Document newDocument() {
+		return newDocumentBuilder().newDocument();
+	}
+	
+	/**
+	 * The digests of the elements of the last saved state.
+	 */
+	private static class Baseline {
+		
+		private Map<String,byte[]> digests;
+		private long journalLength;
+		private int records = 0;
+		
+		public Baseline(Map<String,byte[]> digests, long journalLength) {
+			this.digests = digests;
+			this.journalLength = journalLength;
+		}
+		
+		public byte[] getDigest(String id) {
+			return digests.get(id);
+		}
+		
+		public long getJournalLength() {
+			return journalLength;
+		}
+		
+		public int getRecords() {
+			return records;
+		}
+		
+		public void recorded(Map<String,byte[]> newDigests, long newJournalLength) {
+			digests = newDigests;
+			journalLength = newJournalLength;
+			records++;
+		}
+	}
+}
@@ -62,6 +62,14 @@ public interface CoachingService {
 	
 	public List<GroupStatEntry> getGroupsStatistics(Identity coach);
 	
+	/**
+	 * Remove the cached statistics (students, courses and groups) of
+	 * the specified coach. The next call reload them from the database.
+	 * 
+	 * @param coach The coach
+	 */
+	public void invalidateStatistics(IdentityRef coach);
+	
 	public List<EfficiencyStatementEntry> getGroup(BusinessGroup group, List<UserPropertyHandler> userPropertyHandlers, Locale locale);
 	
 	public List<EfficiencyStatementEntry> getCourse(Identity coach, RepositoryEntry entry, List<UserPropertyHandler> userPropertyHandlers, Locale locale);
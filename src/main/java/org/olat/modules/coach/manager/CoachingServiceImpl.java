@@ -19,16 +19,23 @@
  */
 package org.olat.modules.coach.manager;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import org.olat.basesecurity.GroupRoles;
 import org.olat.basesecurity.IdentityRef;
 import org.olat.core.id.Identity;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.course.assessment.UserEfficiencyStatement;
 import org.olat.course.assessment.manager.EfficiencyStatementManager;
 import org.olat.course.assessment.model.UserEfficiencyStatementForCoaching;
@@ -44,6 +51,7 @@ import org.olat.modules.coach.model.StudentStatEntry;
 import org.olat.modules.lecture.LectureModule;
 import org.olat.repository.RepositoryEntry;
 import org.olat.user.propertyhandlers.UserPropertyHandler;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -57,17 +65,26 @@ import org.springframework.stereotype.Service;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  */
 @Service
-public class CoachingServiceImpl implements CoachingService {
+public class CoachingServiceImpl implements CoachingService, InitializingBean {
+	
+	private CacheWrapper<StatisticsKey,List<?>> statisticsCache;
 	
 	@Autowired
 	private CoachingDAO coachingDao;
 	@Autowired
+	private CoordinatorManager coordinatorManager;
+	@Autowired
 	private LectureModule lectureModule;
 	@Autowired
 	private BusinessGroupService businessGroupService;
 	@Autowired
 	private EfficiencyStatementManager efficiencyStatementManager;
 
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		statisticsCache = coordinatorManager.getCoordinator().getCacher().getCache(CoachingService.class.getSimpleName(), "statistics");
+	}
+
 	@Override
 	public CoachingSecurity isCoach(Identity identity) {
 		boolean coach = coachingDao.isCoach(identity);
@@ -94,7 +111,13 @@ public class CoachingServiceImpl implements CoachingService {
 
 	@Override
 	public List<StudentStatEntry> getStudentsStatistics(Identity coach, List<UserPropertyHandler> userPropertyHandlers, Locale locale) {
-		return coachingDao.getStudentsStatisticsNative(coach, userPropertyHandlers, locale);
+		StringBuilder variant = new StringBuilder();
+		variant.append(locale);
+		for(UserPropertyHandler userPropertyHandler:userPropertyHandlers) {
+			variant.append(":").append(userPropertyHandler.getName());
+		}
+		StatisticsKey key = new StatisticsKey(coach.getKey(), "students", variant.toString());
+		return getCachedStatistics(key, () -> coachingDao.getStudentsStatisticsNative(coach, userPropertyHandlers, locale), StudentStatEntry::copy);
 	}
 
 	@Override
@@ -104,12 +127,52 @@ public class CoachingServiceImpl implements CoachingService {
 
 	@Override
 	public List<CourseStatEntry> getCoursesStatistics(Identity coach) {
-		return coachingDao.getCoursesStatisticsNative(coach);
+		StatisticsKey key = new StatisticsKey(coach.getKey(), "courses", null);
+		return getCachedStatistics(key, () -> coachingDao.getCoursesStatisticsNative(coach), CourseStatEntry::copy);
 	}
 
 	@Override
 	public List<GroupStatEntry> getGroupsStatistics(Identity coach) {
-		return coachingDao.getGroupsStatisticsNative(coach);
+		StatisticsKey key = new StatisticsKey(coach.getKey(), "groups", null);
+		return getCachedStatistics(key, () -> coachingDao.getGroupsStatisticsNative(coach), GroupStatEntry::copy);
+	}
+	
+	@Override
+	public void invalidateStatistics(IdentityRef coach) {
+		List<StatisticsKey> keys = new ArrayList<>();
+		for(Iterator<StatisticsKey> it=statisticsCache.iterateKeys(); it.hasNext(); ) {
+			StatisticsKey key = it.next();
+			if(key.getCoachKey().equals(coach.getKey())) {
+				keys.add(key);
+			}
+		}
+		for(StatisticsKey key:keys) {
+			statisticsCache.remove(key);
+		}
+	}
+	
+	/**
+	 * The statistics of the cockpit are calculated with a lot of aggregate
+	 * queries. They are cached for a short time (see the configuration of
+	 * the cache CoachingService@statistics) and every caller gets its own
+	 * copy of the list and of the entries. The queries run outside of the
+	 * cache to not block the other coaches.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> List<T> getCachedStatistics(StatisticsKey key, Supplier<List<T>> loader, UnaryOperator<T> copier) {
+		List<?> statistics = statisticsCache.get(key);
+		if(statistics == null) {
+			List<T> loadedStatistics = loader.get();
+			statistics = statisticsCache.putIfAbsent(key, loadedStatistics);
+			if(statistics == null) {
+				statistics = loadedStatistics;
+			}
+		}
+		List<T> copies = new ArrayList<>(statistics.size());
+		for(Object statistic:statistics) {
+			copies.add(copier.apply((T)statistic));
+		}
+		return copies;
 	}
 
 	@Override
@@ -207,4 +270,41 @@ public class CoachingServiceImpl implements CoachingService {
 			return false;
 		}
 	}
+	
+	private static class StatisticsKey implements Serializable {
+
+		private static final long serialVersionUID = -2718046125612948753L;
+		
+		private final Long coachKey;
+		private final String type;
+		private final String variant;
+		
+		public StatisticsKey(Long coachKey, String type, String variant) {
+			this.coachKey = coachKey;
+			this.type = type;
+			this.variant = variant;
+		}
+		
+		public Long getCoachKey() {
+			return coachKey;
+		}
+		
+		@Override
+		public int hashCode() {
+			return coachKey.hashCode() + type.hashCode() + (variant == null ? 8723 : variant.hashCode());
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof StatisticsKey) {
+				StatisticsKey key = (StatisticsKey)obj;
+				return coachKey.equals(key.coachKey) && type.equals(key.type)
+						&& Objects.equals(variant, key.variant);
+			}
+			return false;
+		}
+	}
 }
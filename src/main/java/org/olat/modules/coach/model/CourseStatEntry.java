@@ -138,4 +138,21 @@ public class CourseStatEntry {
 	public void setAverageCompletion(Double averageCompletion) {
 		this.averageCompletion = averageCompletion;
 	}
+	
+	public CourseStatEntry copy() {
+		CourseStatEntry entry = new CourseStatEntry();
+		entry.repoKey = repoKey;
+		entry.repoDisplayName = repoDisplayName;
+		entry.status = status;
+		entry.countStudents = countStudents;
+		entry.countPassed = countPassed;
+		entry.countFailed = countFailed;
+		entry.countNotAttempted = countNotAttempted;
+		entry.averageScore = averageScore;
+		entry.initialLaunch = initialLaunch;
+		entry.averageCompletion = averageCompletion;
+		entry.totalScore = totalScore;
+		entry.totalScoredStudents = totalScoredStudents;
+		return entry;
+	}
 }
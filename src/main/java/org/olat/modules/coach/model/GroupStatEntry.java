@@ -136,4 +136,22 @@ public class GroupStatEntry {
 	public void setInitialLaunch(int initialLaunch) {
 		this.initialLaunch = initialLaunch;
 	}
+	
+	/**
+	 * @return A copy of the entry, the set of identifiers is copied too
+	 */
+	public GroupStatEntry copy() {
+		GroupStatEntry entry = new GroupStatEntry(groupKey, groupName);
+		entry.countCourses = countCourses;
+		entry.countStudents = countStudents;
+		entry.countDistinctStudents = countDistinctStudents;
+		entry.countPassed = countPassed;
+		entry.countFailed = countFailed;
+		entry.countNotAttempted = countNotAttempted;
+		entry.averageScore = averageScore;
+		entry.sumScore = sumScore;
+		entry.initialLaunch = initialLaunch;
+		entry.repoIds = new HashSet<>(repoIds);
+		return entry;
+	}
 }
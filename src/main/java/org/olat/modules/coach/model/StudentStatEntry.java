@@ -50,6 +50,10 @@ public class StudentStatEntry extends UserPropertiesRow {
 		super(identityKey, identityName, userPropertyHandlers, userProperties, locale);
 	}
 	
+	private StudentStatEntry(StudentStatEntry entry) {
+		super(entry);
+	}
+	
 	public int getCountRepo() {
 		return countRepo;
 	}
@@ -113,4 +117,20 @@ public class StudentStatEntry extends UserPropertiesRow {
 	public void setAverageCompletion(Double averageCompletion) {
 		this.AverageCompletion = averageCompletion;
 	}
+	
+	/**
+	 * @return A copy of the entry, the sets of identifiers are copied too
+	 */
+	public StudentStatEntry copy() {
+		StudentStatEntry entry = new StudentStatEntry(this);
+		entry.countRepo = countRepo;
+		entry.countPassed = countPassed;
+		entry.countFailed = countFailed;
+		entry.countNotAttempted = countNotAttempted;
+		entry.initialLaunch = initialLaunch;
+		entry.AverageCompletion = AverageCompletion;
+		entry.repoIds = new HashSet<>(repoIds);
+		entry.launchIds = new HashSet<>(launchIds);
+		return entry;
+	}
 }
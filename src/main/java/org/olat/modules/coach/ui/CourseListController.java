@@ -112,6 +112,7 @@ public class CourseListController extends FormBasicController implements Activat
 	
 	private void reloadModel() {
 		if(hasChanged) {
+			coachingService.invalidateStatistics(getIdentity());
 			loadModel();
 			hasChanged = false;
 		}
@@ -112,6 +112,7 @@ public class GroupListController extends BasicController implements Activateable
 	
 	private void reloadModel() {
 		if(hasChanged) {
+			coachingService.invalidateStatistics(getIdentity());
 			loadModel();
 			hasChanged = false;
 		}
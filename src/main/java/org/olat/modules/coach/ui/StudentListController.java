@@ -174,6 +174,7 @@ public class StudentListController extends FormBasicController implements Activa
 
 	private void reloadModel() {
 		if(hasChanged) {
+			coachingService.invalidateStatistics(getIdentity());
 			loadModel();
 			hasChanged = false;
 		}
@@ -665,18 +665,23 @@ public class CurriculumElementDAO {
 	}
 	
 	public List<CurriculumElement> getParentLine(CurriculumElement curriculumElement) {
+		List<Long> parentLineKeys = PersistenceHelper.materializedPathKeysToList(curriculumElement.getMaterializedPathKeys());
+		if(parentLineKeys.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
 		StringBuilder sb = new StringBuilder(384);
 		sb.append("select el from curriculumelement as el")
 		  .append(" inner join el.curriculum as curriculum")
 		  .append(" inner join el.group as baseGroup")
 		  .append(" left join fetch el.parent as parent")
 		  .append(" left join fetch el.type as type")
-		  .append(" where curriculum.key=:curriculumKey and locate(el.materializedPathKeys,:materializedPath) = 1");
+		  .append(" where curriculum.key=:curriculumKey and el.key in (:parentLineKeys)");
 		  
 		List<CurriculumElement> elements = dbInstance.getCurrentEntityManager()
 			.createQuery(sb.toString(), CurriculumElement.class)
 			.setParameter("curriculumKey", curriculumElement.getCurriculum().getKey())
-			.setParameter("materializedPath", curriculumElement.getMaterializedPathKeys() + "%")
+			.setParameter("parentLineKeys", parentLineKeys)
 			.getResultList();
 		Collections.sort(elements, new PathMaterializedPathLengthComparator());
 		return elements;
@@ -276,55 +276,55 @@ public class ForumManager {
 	}
 	
 	
+	/**
+	 * The counters are calculated with some grouped queries for the whole
+	 * forum and not with sub-queries for every thread.
+	 * 
+	 * @param forum The forum
+	 * @param identity The identity to calculate the read and marked messages (optional)
+	 * @return The list of threads
+	 */
 	public List<ForumThread> getForumThreads(Forum forum, Identity identity) {
-		StringBuilder sb = new StringBuilder();
-		sb.append("select msg ")
-		  .append(" , (select count(replies.key) from fomessage as replies")
-		  .append("  where replies.threadtop.key=msg.key and replies.forum.key=:forumKey")
-		  .append(" ) as numOfMessages")
-		  .append(" , (select max(replies.lastModified) from fomessage as replies")
-		  .append("  where replies.threadtop.key=msg.key and replies.forum.key=:forumKey")
-		  .append(" ) as lastModified");
+		String threadsQuery = "select msg from fomessage as msg left join fetch msg.creator as creator where msg.forum.key=:forumKey and msg.threadtop is null";
+		List<Message> threads = dbInstance.getCurrentEntityManager()
+				.createQuery(threadsQuery, Message.class)
+				.setParameter("forumKey", forum.getKey())
+				.getResultList();
+		if(threads.isEmpty()) {
+			return new ArrayList<>();
+		}
 
-		if(identity != null) {
-			sb.append(" , (select count(read.key) from foreadmessage as read, fomessage as posts")
-			  .append("  where (posts.threadtop.key=msg.key or posts.key=msg.key) and read.message.key=posts.key and read.identity.key=:identityKey")
-			  .append(" ) as numOfReadMessages")
-			  .append(" ,(select count(mark.key) from ").append(MarkImpl.class.getName()).append(" as mark, fomessage as mposts ")
-			  .append("   where mark.creator.key=:identityKey and mark.resId=:forumKey and (mposts.threadtop.key=msg.key or mposts.key=msg.key)")
-			  .append("    and mposts.key=cast(mark.resSubPath as long) and mark.resName='Forum'")
-			  .append(" ) as marks");
+		String repliesQuery = "select msg.threadtop.key, count(msg.key), max(msg.lastModified) from fomessage as msg where msg.forum.key=:forumKey and msg.threadtop.key is not null group by msg.threadtop.key";
+		List<Object[]> replies = dbInstance.getCurrentEntityManager()
+				.createQuery(repliesQuery, Object[].class)
+				.setParameter("forumKey", forum.getKey())
+				.getResultList();
+		Map<Long,Object[]> threadKeyToReplies = new HashMap<>();
+		for(Object[] reply:replies) {
+			threadKeyToReplies.put((Long)reply[0], reply);
 		}
 		
-		sb.append(" from fomessage as msg ")
-		  .append(" left join fetch msg.creator as creator")
-		  .append(" where msg.forum.key=:forumKey and msg.threadtop is null");
-
-		TypedQuery<Object[]> objectsQuery = dbInstance.getCurrentEntityManager()
-				.createQuery(sb.toString(), Object[].class)
-				.setParameter("forumKey", forum.getKey());
+		Map<Long,Integer> threadKeyToReads = null;
+		Map<Long,Integer> threadKeyToMarks = null;
 		if(identity != null) {
-			objectsQuery.setParameter("identityKey", identity.getKey());
+			threadKeyToReads = getNumOfReadMessagesByThread(forum, identity);
+			threadKeyToMarks = getNumOfMarkedMessagesByThread(forum, identity);
 		}
 
-		List<Object[]> objects = objectsQuery.getResultList();
-		List<ForumThread> threadList = new ArrayList<>(objects.size());
-		for(Object[] object:objects) {
-			Message msg = (Message)object[0];
-			Number numOfMessagesLong = (Number)object[1];
-			Date lastModified = (Date)object[2];
-			int numOfMessages = numOfMessagesLong == null ? 1 : numOfMessagesLong.intValue() + 1;
+		List<ForumThread> threadList = new ArrayList<>(threads.size());
+		for(Message msg:threads) {
+			Object[] reply = threadKeyToReplies.get(msg.getKey());
+			Number numOfReplies = reply == null ? null : (Number)reply[1];
+			Date lastModified = reply == null ? null : (Date)reply[2];
+			int numOfMessages = numOfReplies == null ? 1 : numOfReplies.intValue() + 1;
 			String creator = userManager.getUserDisplayName(msg.getCreator());
 			ForumThread thread = new ForumThread(msg, creator, lastModified, numOfMessages);
 			
 			if(identity != null) {
-				Number readMessages = (Number)object[3];
-				int numOfReadMessages = readMessages == null ? 0 : readMessages.intValue();
-				thread.setNewMessages(numOfMessages - numOfReadMessages);
-
-				Number numOfMarkedMessagesLong = (Number)object[4];
-				int numOfMarkedMessages = numOfMarkedMessagesLong == null ? 0 : numOfMarkedMessagesLong.intValue();
-				thread.setMarkedMessages(numOfMarkedMessages);
+				Integer numOfReadMessages = threadKeyToReads.get(msg.getKey());
+				thread.setNewMessages(numOfMessages - (numOfReadMessages == null ? 0 : numOfReadMessages.intValue()));
+				Integer numOfMarkedMessages = threadKeyToMarks.get(msg.getKey());
+				thread.setMarkedMessages(numOfMarkedMessages == null ? 0 : numOfMarkedMessages.intValue());
 			}
 			
 			threadList.add(thread);
@@ -332,6 +332,50 @@ public class ForumManager {
 		return threadList;
 	}
 	
+	private Map<Long,Integer> getNumOfReadMessagesByThread(Forum forum, IdentityRef identity) {
+		Map<Long,Integer> threadKeyToReads = new HashMap<>();
+		
+		String readRepliesQuery = "select posts.threadtop.key, count(read.key) from foreadmessage as read inner join read.message as posts where read.identity.key=:identityKey and posts.forum.key=:forumKey and posts.threadtop.key is not null group by posts.threadtop.key";
+		List<Object[]> readReplies = dbInstance.getCurrentEntityManager()
+				.createQuery(readRepliesQuery, Object[].class)
+				.setParameter("forumKey", forum.getKey())
+				.setParameter("identityKey", identity.getKey())
+				.getResultList();
+		for(Object[] readReply:readReplies) {
+			threadKeyToReads.put((Long)readReply[0], Integer.valueOf(((Number)readReply[1]).intValue()));
+		}
+		
+		String readThreadsQuery = "select posts.key from foreadmessage as read inner join read.message as posts where read.identity.key=:identityKey and posts.forum.key=:forumKey and posts.threadtop.key is null";
+		List<Long> readThreads = dbInstance.getCurrentEntityManager()
+				.createQuery(readThreadsQuery, Long.class)
+				.setParameter("forumKey", forum.getKey())
+				.setParameter("identityKey", identity.getKey())
+				.getResultList();
+		for(Long readThread:readThreads) {
+			threadKeyToReads.merge(readThread, Integer.valueOf(1), (a, b) -> a.intValue() + b.intValue());
+		}
+		return threadKeyToReads;
+	}
+	
+	private Map<Long,Integer> getNumOfMarkedMessagesByThread(Forum forum, IdentityRef identity) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select mposts.key, mposts.threadtop.key from ").append(MarkImpl.class.getName()).append(" as mark, fomessage as mposts")
+		  .append(" where mark.creator.key=:identityKey and mark.resId=:forumKey and mark.resName='Forum'")
+		  .append(" and mposts.key=cast(mark.resSubPath as long) and mposts.forum.key=:forumKey");
+		List<Object[]> marks = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("forumKey", forum.getKey())
+				.setParameter("identityKey", identity.getKey())
+				.getResultList();
+		
+		Map<Long,Integer> threadKeyToMarks = new HashMap<>();
+		for(Object[] mark:marks) {
+			Long threadKey = mark[1] == null ? (Long)mark[0] : (Long)mark[1];
+			threadKeyToMarks.merge(threadKey, Integer.valueOf(1), (a, b) -> a.intValue() + b.intValue());
+		}
+		return threadKeyToMarks;
+	}
+	
 	public boolean existsMessageById(Long messageKey) {
 		StringBuilder query = new StringBuilder();
 		query.append("select msg.key from fomessage as msg")
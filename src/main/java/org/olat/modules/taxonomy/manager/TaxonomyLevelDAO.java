@@ -21,6 +21,7 @@ package org.olat.modules.taxonomy.manager;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -241,18 +242,22 @@ public class TaxonomyLevelDAO implements InitializingBean {
 		return levels == null || levels.isEmpty() ? null : levels.get(0);
 	}
 	
-	// Perhaps replace it with a select in ( materializedPathKeys.split("[/]") ) would be better
 	public List<TaxonomyLevel> getParentLine(TaxonomyLevel taxonomyLevel, TaxonomyRef taxonomy) {
+		List<Long> parentLineKeys = PersistenceHelper.materializedPathKeysToList(taxonomyLevel.getMaterializedPathKeys());
+		if(parentLineKeys.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
 		StringBuilder sb = new StringBuilder(256);
 		sb.append("select level from ctaxonomylevel as level")
 		  .append(" left join fetch level.parent as parent")
 		  .append(" left join fetch level.type as type")
 		  .append(" where level.taxonomy.key=:taxonomyKey")
-		  .append(" and locate(level.materializedPathKeys,:materializedPath) = 1");
+		  .append(" and level.key in (:parentLineKeys)");
 		  
 		List<TaxonomyLevel> levels = dbInstance.getCurrentEntityManager()
 			.createQuery(sb.toString(), TaxonomyLevel.class)
-			.setParameter("materializedPath", taxonomyLevel.getMaterializedPathKeys() + "%")
+			.setParameter("parentLineKeys", parentLineKeys)
 			.setParameter("taxonomyKey", taxonomy.getKey())
 			.getResultList();
 		Collections.sort(levels, new PathMaterializedPathLengthComparator());
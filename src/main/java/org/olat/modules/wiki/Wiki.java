@@ -48,6 +48,7 @@ import org.olat.core.logging.Tracing;
 import org.olat.core.util.FileUtils;
 import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
+import org.olat.core.util.cache.Weighted;
 import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
 import org.olat.core.util.vfs.VFSLeaf;
@@ -69,7 +70,7 @@ import org.olat.user.UserManager;
  * 
  * @author guido schnider
  */
-public class Wiki implements WikiContainer, Serializable {
+public class Wiki implements WikiContainer, Weighted, Serializable {
 	private static final long serialVersionUID = -244524942476374366L;
 	public static final String CSS_CLASS_WIKI_ICON = "o_wiki_icon";
 
@@ -91,6 +92,11 @@ public class Wiki implements WikiContainer, Serializable {
 		mediaContainer = VFSManager.getOrCreateContainer(wikiRootContainer, WikiContainer.MEDIA_FOLDER_NAME);
 	}
 
+	@Override
+	public long getWeight() {
+		return 1l + wikiPages.size();
+	}
+
 	/**
 	 * Return a wiki page but normally without content yet (performance issues)
 	 * but with all other attributes. To get the page content call getPage(pageId,
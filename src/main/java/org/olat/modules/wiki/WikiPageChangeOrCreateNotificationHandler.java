@@ -82,7 +82,6 @@ public class WikiPageChangeOrCreateNotificationHandler implements NotificationsH
 	private static final Logger log = Tracing.createLoggerFor(WikiPageChangeOrCreateNotificationHandler.class);
 
 	private static final String CSS_CLASS_WIKI_PAGE_CHANGED_ICON = "o_wiki_icon";
-	protected String businessControlString;
 	
 	@Autowired
 	private ForumManager forumManager;
@@ -107,6 +106,7 @@ public class WikiPageChangeOrCreateNotificationHandler implements NotificationsH
 		try {
 			if (notificationsManager.isPublisherValid(p) && compareDate.before(latestNews)) {
 				OLATResourceable ores = null;
+				String businessControlString;
 				if (p.getResName().equals( CourseModule.getCourseTypeName() ) ) {
 					// resId = CourseResourceableId           p.getSubidentifier() = wikiCourseNode.getIdent()
 					ICourse course = CourseFactory.loadCourse(resId);
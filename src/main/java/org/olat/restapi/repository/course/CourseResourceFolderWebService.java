@@ -31,12 +31,16 @@ import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
@@ -50,11 +54,14 @@ import javax.ws.rs.core.UriInfo;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.commons.services.vfs.VFSMetadata;
 import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.commons.services.vfs.manager.ChunkedUploadManager;
+import org.olat.core.commons.services.vfs.model.ChunkedUpload;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.id.Identity;
 import org.olat.core.id.Roles;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.FileUtils;
+import org.olat.core.util.StringHelper;
 import org.olat.core.util.WebappHelper;
 import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSContainer;
@@ -107,9 +114,14 @@ public class CourseResourceFolderWebService {
 
 	private static final String VERSION  = "1.0";
 
+	private static final String UPLOAD_OFFSET = "Upload-Offset";
+	private static final String UPLOAD_LENGTH = "Upload-Length";
+
 	private static final CacheControl cc = new CacheControl();
+	private static final CacheControl noStore = new CacheControl();
 	static {
 		cc.setMaxAge(-1);
+		noStore.setNoStore(true);
 	}
 
 	@Autowired
@@ -120,6 +132,8 @@ public class CourseResourceFolderWebService {
 	private RepositoryService repositoryService;
 	@Autowired
 	private VFSRepositoryService vfsRepositoryService;
+	@Autowired
+	private ChunkedUploadManager chunkedUploadManager;
 
 	/**
 	 * The version of the resources folders Web Service
@@ -362,6 +376,240 @@ public class CourseResourceFolderWebService {
 		return attachFileToCourseFolder(courseId, path, request);
 	}
 
+	/**
+	 * Start a resumable upload of a file in the course folder. The file is sent
+	 * in chunks with PUT to the URL returned in the Location header. The quota
+	 * of the folder is checked for every chunk and the file is saved in the folder
+	 * when the last chunk is received.
+	 * @response.representation.201.doc The upload is created
+	 * @response.representation.401.doc The roles of the authenticated user are not sufficient
+	 * @response.representation.404.doc The course or the folder not found
+	 * @response.representation.406.doc The filename or the length is not acceptable
+	 * @response.representation.413.doc The file exceeds the quota of the folder
+	 * @param courseId The course resourceable's id
+	 * @param path The path of the folder in the course folder
+	 * @param filename The filename
+	 * @param length The size of the file in bytes (header Upload-Length)
+	 * @param uriInfo The URI informations
+	 * @param request The HTTP request
+	 * @return The URL of the upload in the Location header
+	 */
+	@POST
+	@Path("uploads")
+	@Operation(summary = "Start a resumable upload", description = "Start a resumable upload of a file in the course folder, the chunks are sent to the URL of the Location header")
+	@ApiResponses({
+			@ApiResponse(responseCode = "201", description = "The upload is created"),
+			@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient"),
+			@ApiResponse(responseCode = "404", description = "The course or the folder not found"),
+			@ApiResponse(responseCode = "406", description = "The filename or the length is not acceptable"),
+			@ApiResponse(responseCode = "413", description = "The file exceeds the quota of the folder")})
+	public Response createUpload(@PathParam("courseId") Long courseId, @QueryParam("path") String path,
+			@QueryParam("filename") String filename, @HeaderParam(UPLOAD_LENGTH) Long length,
+			@Context UriInfo uriInfo, @Context HttpServletRequest request) {
+		ICourse course = CoursesWebService.loadCourse(courseId);
+		if(course == null) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		if(!isAuthor(course, request)) {
+			return Response.serverError().status(Status.UNAUTHORIZED).build();
+		}
+		if(length == null || length.longValue() < 0l) {
+			return Response.serverError().status(Status.NOT_ACCEPTABLE).build();
+		}
+
+		VFSContainer container = getCourseFolderContainer(course, path, true);
+		if(container == null) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		if(!chunkedUploadManager.hasQuotaFor(container, length.longValue())) {
+			return Response.serverError().status(Status.REQUEST_ENTITY_TOO_LARGE).build();
+		}
+
+		Identity identity = RestSecurityHelper.getUserRequest(request).getIdentity();
+		ChunkedUpload upload = chunkedUploadManager.create(container, filename, length.longValue(), identity);
+		if(upload == null) {
+			return Response.serverError().status(Status.NOT_ACCEPTABLE).build();
+		}
+
+		UriBuilder location = uriInfo.getAbsolutePathBuilder().path(upload.getId());
+		if(StringHelper.containsNonWhitespace(path)) {
+			location = location.queryParam("path", path);
+		}
+		return Response.created(location.build())
+				.header(UPLOAD_OFFSET, Long.toString(upload.getOffset()))
+				.build();
+	}
+
+	/**
+	 * Return the offset of the upload, the client resumes the upload at this offset.
+	 * @response.representation.200.doc The offset in the header Upload-Offset
+	 * @response.representation.401.doc The roles of the authenticated user are not sufficient
+	 * @response.representation.404.doc The course or the upload not found
+	 * @param courseId The course resourceable's id
+	 * @param uploadId The id of the upload
+	 * @param path The path of the folder in the course folder
+	 * @param request The HTTP request
+	 * @return Nothing, the offset is in the headers
+	 */
+	@HEAD
+	@Path("uploads/{uploadId}")
+	@Operation(summary = "Return the offset of the upload", description = "Return the offset of the upload in the header Upload-Offset")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "The offset in the header Upload-Offset"),
+			@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient"),
+			@ApiResponse(responseCode = "404", description = "The course or the upload not found")})
+	public Response getUploadOffset(@PathParam("courseId") Long courseId, @PathParam("uploadId") String uploadId,
+			@QueryParam("path") String path, @Context HttpServletRequest request) {
+		ICourse course = CoursesWebService.loadCourse(courseId);
+		if(course == null) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		if(!isAuthor(course, request)) {
+			return Response.serverError().status(Status.UNAUTHORIZED).build();
+		}
+
+		VFSContainer container = getCourseFolderContainer(course, path, false);
+		ChunkedUpload upload = container == null ? null : chunkedUploadManager.getUpload(container, uploadId);
+		Identity identity = RestSecurityHelper.getUserRequest(request).getIdentity();
+		if(upload == null || !identity.getKey().equals(upload.getIdentityKey())) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		return Response.ok()
+				.header(UPLOAD_OFFSET, Long.toString(upload.getOffset()))
+				.header(UPLOAD_LENGTH, Long.toString(upload.getLength()))
+				.cacheControl(noStore)
+				.build();
+	}
+
+	/**
+	 * Append a chunk to the upload. The offset must be the current offset of the upload.
+	 * @response.representation.204.doc The chunk is saved, the new offset is in the header Upload-Offset
+	 * @response.representation.401.doc The roles of the authenticated user are not sufficient
+	 * @response.representation.404.doc The course or the upload not found
+	 * @response.representation.406.doc The file was rejected
+	 * @response.representation.409.doc The offset doesn't match the offset of the upload
+	 * @response.representation.413.doc The chunk exceeds the quota of the folder
+	 * @param courseId The course resourceable's id
+	 * @param uploadId The id of the upload
+	 * @param path The path of the folder in the course folder
+	 * @param offset The offset of the chunk (header Upload-Offset)
+	 * @param chunk The content of the chunk
+	 * @param request The HTTP request
+	 * @return Nothing, the new offset is in the headers
+	 */
+	@PUT
+	@Path("uploads/{uploadId}")
+	@Operation(summary = "Append a chunk to the upload", description = "Append a chunk to the upload at the offset of the header Upload-Offset")
+	@ApiResponses({
+			@ApiResponse(responseCode = "204", description = "The chunk is saved, the new offset is in the header Upload-Offset"),
+			@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient"),
+			@ApiResponse(responseCode = "404", description = "The course or the upload not found"),
+			@ApiResponse(responseCode = "406", description = "The file was rejected"),
+			@ApiResponse(responseCode = "409", description = "The offset doesn't match the offset of the upload"),
+			@ApiResponse(responseCode = "413", description = "The chunk exceeds the quota of the folder")})
+	@Consumes({ "application/offset+octet-stream", MediaType.APPLICATION_OCTET_STREAM })
+	public Response appendToUpload(@PathParam("courseId") Long courseId, @PathParam("uploadId") String uploadId,
+			@QueryParam("path") String path, @HeaderParam(UPLOAD_OFFSET) Long offset,
+			InputStream chunk, @Context HttpServletRequest request) {
+		ICourse course = CoursesWebService.loadCourse(courseId);
+		if(course == null) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		if(!isAuthor(course, request)) {
+			return Response.serverError().status(Status.UNAUTHORIZED).build();
+		}
+
+		VFSContainer container = getCourseFolderContainer(course, path, false);
+		ChunkedUpload upload = container == null ? null : chunkedUploadManager.getUpload(container, uploadId);
+		Identity identity = RestSecurityHelper.getUserRequest(request).getIdentity();
+		if(upload == null || !identity.getKey().equals(upload.getIdentityKey())) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		if(offset == null || offset.longValue() != upload.getOffset()) {
+			return Response.serverError().status(Status.CONFLICT)
+					.header(UPLOAD_OFFSET, Long.toString(upload.getOffset())).build();
+		}
+
+		ChunkedUpload.Status status = chunkedUploadManager.append(container, upload, offset.longValue(), chunk, identity);
+		ChunkedUpload currentUpload = chunkedUploadManager.getUpload(container, uploadId);
+		long currentOffset = currentUpload == null ? upload.getLength() : currentUpload.getOffset();
+		switch(status) {
+			case ok:
+			case completed:
+				return Response.noContent().header(UPLOAD_OFFSET, Long.toString(currentOffset)).build();
+			case conflict:
+				return Response.serverError().status(Status.CONFLICT).header(UPLOAD_OFFSET, Long.toString(currentOffset)).build();
+			case quotaExceeded:
+				return Response.serverError().status(Status.REQUEST_ENTITY_TOO_LARGE).header(UPLOAD_OFFSET, Long.toString(currentOffset)).build();
+			case rejected:
+				return Response.serverError().status(Status.NOT_ACCEPTABLE).build();
+			default:
+				return Response.serverError().status(Status.INTERNAL_SERVER_ERROR).header(UPLOAD_OFFSET, Long.toString(currentOffset)).build();
+		}
+	}
+
+	/**
+	 * Cancel the upload and delete the chunks already received.
+	 * @response.representation.204.doc The upload is deleted
+	 * @response.representation.401.doc The roles of the authenticated user are not sufficient
+	 * @response.representation.404.doc The course or the upload not found
+	 * @param courseId The course resourceable's id
+	 * @param uploadId The id of the upload
+	 * @param path The path of the folder in the course folder
+	 * @param request The HTTP request
+	 * @return Nothing
+	 */
+	@DELETE
+	@Path("uploads/{uploadId}")
+	@Operation(summary = "Cancel the upload", description = "Cancel the upload and delete the chunks already received")
+	@ApiResponses({
+			@ApiResponse(responseCode = "204", description = "The upload is deleted"),
+			@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient"),
+			@ApiResponse(responseCode = "404", description = "The course or the upload not found")})
+	public Response deleteUpload(@PathParam("courseId") Long courseId, @PathParam("uploadId") String uploadId,
+			@QueryParam("path") String path, @Context HttpServletRequest request) {
+		ICourse course = CoursesWebService.loadCourse(courseId);
+		if(course == null) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		if(!isAuthor(course, request)) {
+			return Response.serverError().status(Status.UNAUTHORIZED).build();
+		}
+
+		VFSContainer container = getCourseFolderContainer(course, path, false);
+		ChunkedUpload upload = container == null ? null : chunkedUploadManager.getUpload(container, uploadId);
+		Identity identity = RestSecurityHelper.getUserRequest(request).getIdentity();
+		if(upload == null || !identity.getKey().equals(upload.getIdentityKey())) {
+			return Response.serverError().status(Status.NOT_FOUND).build();
+		}
+		chunkedUploadManager.cancel(container, upload);
+		return Response.noContent().build();
+	}
+
+	private VFSContainer getCourseFolderContainer(ICourse course, String path, boolean create) {
+		VFSContainer container = course.getCourseFolderContainer();
+		if(StringHelper.containsNonWhitespace(path)) {
+			for(String segment:path.split("/")) {
+				if(!StringHelper.containsNonWhitespace(segment)) {
+					continue;
+				}
+				if(!FileUtils.validateFilename(segment)) {
+					return null;
+				}
+
+				VFSItem item = container.resolve(segment);
+				if(item instanceof VFSContainer) {
+					container = (VFSContainer)item;
+				} else if(item == null && create) {
+					container = container.createChildContainer(segment);
+				} else {
+					return null;
+				}
+			}
+		}
+		return container;
+	}
+
 	private Response attachFileToCourseFolder(Long courseId, List<PathSegment> path, HttpServletRequest request) {
 
 		MultipartReader partsReader = null;
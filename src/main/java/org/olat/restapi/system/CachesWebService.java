@@ -0,0 +1,70 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.restapi.system;
+
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.olat.core.CoreSpringFactory;
+import org.olat.restapi.system.MonitoringService.CacheStatistics;
+import org.olat.restapi.system.vo.CacheMetricsVO;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CachesWebService {
+	
+	/**
+	 * Return the metrics of the caches.
+	 * 
+	 * @return The hits, misses, load times, evictions and weights of the caches
+	 */
+	@GET
+	@Operation(summary = "Return the metrics of the caches", description = "Return the hits, misses, load times, evictions and weights of the caches")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "The metrics of the caches", content = {
+					@Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CacheMetricsVO.class))),
+					@Content(mediaType = "application/xml", array = @ArraySchema(schema = @Schema(implementation = CacheMetricsVO.class))) }),
+			@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient") })
+	@Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+	public Response getCachesMetrics() {
+		List<CacheStatistics> statistics = CoreSpringFactory.getImpl(MonitoringService.class).getCacheStatistics();
+		CacheMetricsVO[] vos = new CacheMetricsVO[statistics.size()];
+		for(int i=statistics.size(); i-->0; ) {
+			CacheStatistics stats = statistics.get(i);
+			vos[i] = new CacheMetricsVO(stats.getMetrics(), stats.getSize());
+		}
+		return Response.ok(vos).build();
+	}
+}
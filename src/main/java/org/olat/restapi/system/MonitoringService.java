@@ -19,11 +19,18 @@
  */
 package org.olat.restapi.system;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.manager.EmbeddedCacheManager;
 import org.olat.admin.sysinfo.manager.DatabaseStatsManager;
 import org.olat.admin.sysinfo.model.DatabaseConnectionVO;
 import org.olat.basesecurity.BaseSecurity;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.id.Identity;
+import org.olat.core.util.cache.CacheMetrics;
+import org.olat.core.util.coordinate.Cacher;
+import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.course.CourseModule;
 import org.olat.group.BusinessGroupService;
 import org.olat.repository.RepositoryManager;
@@ -62,6 +69,26 @@ public class MonitoringService {
 	private BusinessGroupService businessGroupService;
 	@Autowired
 	private DatabaseStatsManager databaseStatsManager;
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+	
+	/**
+	 * @return The metrics and the current number of entries of the caches
+	 */
+	public List<CacheStatistics> getCacheStatistics() {
+		Cacher cacher = coordinatorManager.getCoordinator().getCacher();
+		EmbeddedCacheManager cacheManager = cacher.getCacheContainer();
+		List<CacheMetrics> metrics = cacher.getMetrics();
+		List<CacheStatistics> statistics = new ArrayList<>(metrics.size());
+		for(CacheMetrics cacheMetrics:metrics) {
+			long size = -1;
+			if(cacheManager.cacheExists(cacheMetrics.getName())) {
+				size = cacheManager.getCache(cacheMetrics.getName()).size();
+			}
+			statistics.add(new CacheStatistics(cacheMetrics, size));
+		}
+		return statistics;
+	}
 	
 	public Statistics getStatistics() {
 		Statistics statistics = new Statistics();
@@ -165,4 +192,23 @@ public class MonitoringService {
 			this.currentConnectionCount = currentConnectionCount;
 		}
 	}
+	
+	public static class CacheStatistics {
+		
+		private final long size;
+		private final CacheMetrics metrics;
+		
+		public CacheStatistics(CacheMetrics metrics, long size) {
+			this.size = size;
+			this.metrics = metrics;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public CacheMetrics getMetrics() {
+			return metrics;
+		}
+	}
 }
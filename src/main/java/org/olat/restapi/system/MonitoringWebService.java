@@ -52,6 +52,7 @@ public class MonitoringWebService {
 	private static final ThreadsWebService threadsWebService = new ThreadsWebService();
 	private static final OpenOLATStatisticsWebService ooStatsWebService = new OpenOLATStatisticsWebService();
 	private static final VFSStatsWebService vfsStatsWebService = new VFSStatsWebService();
+	private static final CachesWebService cachesWebService = new CachesWebService();
 	
 	public MonitoringWebService() {
 		//make Spring happy
@@ -92,6 +93,11 @@ public class MonitoringWebService {
 		return vfsStatsWebService;
 	}
 	
+	@Path("caches")
+	public CachesWebService getCachesWS() {
+		return cachesWebService;
+	}
+	
 	
 	
 	/**
@@ -0,0 +1,127 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.restapi.system.vo;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.olat.core.util.cache.CacheMetrics;
+
+/**
+ * The metrics of a cache on the node which answers the request. The
+ * weight of a clustered cache is the weight of the values put on this
+ * node only.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "cacheMetricsVO")
+public class CacheMetricsVO {
+	
+	@XmlAttribute(name="name", required=true)
+	private String name;
+	@XmlAttribute(name="size", required=true)
+	private long size;
+	@XmlAttribute(name="hits", required=true)
+	private long hits;
+	@XmlAttribute(name="misses", required=true)
+	private long misses;
+	@XmlAttribute(name="loads", required=true)
+	private long loads;
+	@XmlAttribute(name="averageLoadTime", required=true)
+	private long averageLoadTime;
+	@XmlAttribute(name="maxLoadTime", required=true)
+	private long maxLoadTime;
+	@XmlAttribute(name="evictions", required=true)
+	private long evictions;
+	@XmlAttribute(name="expirations", required=true)
+	private long expirations;
+	@XmlAttribute(name="weight", required=true)
+	private long weight;
+	@XmlElement(name="loadTimeHistogram")
+	private long[] loadTimeHistogram;
+	
+	public CacheMetricsVO() {
+		//make JAXB happy
+	}
+	
+	public CacheMetricsVO(CacheMetrics metrics, long size) {
+		name = metrics.getName();
+		this.size = size;
+		hits = metrics.getHits();
+		misses = metrics.getMisses();
+		loads = metrics.getLoads();
+		averageLoadTime = metrics.getAverageLoadTime();
+		maxLoadTime = metrics.getMaxLoadTime();
+		evictions = metrics.getEvictions();
+		expirations = metrics.getExpirations();
+		weight = metrics.getWeight();
+		loadTimeHistogram = metrics.getLoadTimeHistogram();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getLoads() {
+		return loads;
+	}
+
+	public long getAverageLoadTime() {
+		return averageLoadTime;
+	}
+
+	public long getMaxLoadTime() {
+		return maxLoadTime;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public long getExpirations() {
+		return expirations;
+	}
+
+	public long getWeight() {
+		return weight;
+	}
+
+	public long[] getLoadTimeHistogram() {
+		return loadTimeHistogram;
+	}
+}
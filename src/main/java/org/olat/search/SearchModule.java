@@ -80,6 +80,10 @@ public class SearchModule extends AbstractSpringModule {
 	private String tempSpellCheckPath;
 	@Value("${search.index.pdfBuffer:/tmp}")
 	private String tempPdfTextBufferPath;
+	@Value("${search.index.textCache:temp_text_cache}")
+	private String tempTextCachePath;
+	@Value("${search.index.textCache.retention:30}")
+	private int textCacheRetentionInDays;
 
 	@Value("${search.index.path:/tmp}")
 	private String indexPath;
@@ -118,6 +122,7 @@ public class SearchModule extends AbstractSpringModule {
 	private String pdfExternalIndexerCmd;
 	private boolean isSpellCheckEnabled = true;
 	private String fullPdfTextBufferPath;
+	private String fullTextCachePath;
 
 	private long maxFileSize = 10485760;
 
@@ -156,6 +161,7 @@ public class SearchModule extends AbstractSpringModule {
 		fullTempIndexPath = buildPath(tempIndexPath);
 		fullTempSpellCheckPath = buildPath(tempSpellCheckPath);
 		fullPdfTextBufferPath = buildPath(tempPdfTextBufferPath);
+		fullTextCachePath = buildPath(tempTextCachePath);
 	}
 	
 	private String buildPath(String path) {
@@ -410,6 +416,20 @@ public class SearchModule extends AbstractSpringModule {
 	public String getPdfTextBufferPath() {
 		return fullPdfTextBufferPath;
 	}
+	
+	/**
+	 * @return The path of the cache of the text extracted from the files
+	 */
+	public String getTextCachePath() {
+		return fullTextCachePath;
+	}
+	
+	/**
+	 * @return The number of days an unused entry of the text cache is kept
+	 */
+	public int getTextCacheRetentionInDays() {
+		return textCacheRetentionInDays;
+	}
 
 	public List<String> getFileSizeSuffixes() {
 		return fileSizeSuffixes;
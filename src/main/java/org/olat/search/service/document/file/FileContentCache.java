@@ -0,0 +1,300 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.document.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.vfs.VFSLeaf;
+
+/**
+ * Cache of the text extracted from the files, the key is the SHA-256
+ * hash of the content of the file and the type of document which
+ * extracted the text. A file copied in an other course, or a file
+ * saved again without changes, is never parsed again.
+ *
+ * To not read the whole file at every run of the indexer, the hash of
+ * the content is saved with a stamp made of the path, the size and the
+ * date of modification of the file. The content is only hashed if the
+ * stamp is unknown.
+ *
+ * The cache is a directory tree on the file system. The entries
+ * are touched when used and the entries which are not used anymore
+ * are removed by {@link #cleanup(long)}.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class FileContentCache {
+
+	private static final Logger log = Tracing.createLoggerFor(FileContentCache.class);
+
+	private static final int FORMAT_VERSION = 1;
+	private static final String STAMPS_DIR = "stamps";
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final File cacheDir;
+
+	public FileContentCache(File cacheDir) {
+		this.cacheDir = cacheDir;
+	}
+
+	/**
+	 * Return the hash of the content saved with the stamp of the file
+	 * (path, size and date of modification), or calculate it.
+	 * 
+	 * @param leaf The file
+	 * @return The SHA-256 of the content of the file or null if something goes wrong
+	 */
+	public String getContentHash(VFSLeaf leaf) {
+		String stamp = stamp(leaf);
+		if(stamp == null) {
+			return hash(leaf);
+		}
+		
+		File stampEntry = getStampEntry(stamp);
+		if(stampEntry.exists()) {
+			try {
+				String hash = new String(Files.readAllBytes(stampEntry.toPath()), StandardCharsets.UTF_8);
+				if(hash.length() == 64) {
+					if(!stampEntry.setLastModified(System.currentTimeMillis())) {
+						log.debug("Cannot touch stamp: {}", stampEntry);
+					}
+					return hash;
+				}
+			} catch (IOException e) {
+				log.warn("Cannot read stamp: {}", stampEntry, e);
+			}
+		}
+		
+		String hash = hash(leaf);
+		if(hash != null) {
+			write(stampEntry, hash.getBytes(StandardCharsets.UTF_8));
+		}
+		return hash;
+	}
+	
+	/**
+	 * @param leaf The file
+	 * @return The hash of the path, size and date of modification of the file or null
+	 */
+	private String stamp(VFSLeaf leaf) {
+		String relPath = leaf.getRelPath();
+		if(relPath == null) {
+			return null;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			String stamp = relPath + "|" + leaf.getSize() + "|" + leaf.getLastModified();
+			return toHex(digest.digest(stamp.getBytes(StandardCharsets.UTF_8)));
+		} catch (Exception e) {
+			log.warn("Cannot calculate the stamp of: {}", leaf, e);
+			return null;
+		}
+	}
+
+	/**
+	 * @param leaf The file
+	 * @return The SHA-256 of the content of the file or null if something goes wrong
+	 */
+	public String hash(VFSLeaf leaf) {
+		try(InputStream in = leaf.getInputStream()) {
+			if(in == null) {
+				return null;
+			}
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[8192];
+			int read;
+			while((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			return toHex(digest.digest());
+		} catch (Exception e) {
+			log.warn("Cannot calculate the hash of: {}", leaf, e);
+			return null;
+		}
+	}
+
+	/**
+	 * @param hash The hash of the content of the file
+	 * @param documentType The type of document which extract the text
+	 * @return The content or null if not in the cache
+	 */
+	public FileContent get(String hash, String documentType) {
+		File entry = getEntry(hash, documentType);
+		if(!entry.exists()) {
+			return null;
+		}
+
+		try(InputStream in = new BufferedInputStream(new GZIPInputStream(Files.newInputStream(entry.toPath())));
+				DataInputStream din = new DataInputStream(in)) {
+			if(din.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			String title = readString(din);
+			String content = readString(din);
+			if(!entry.setLastModified(System.currentTimeMillis())) {
+				log.debug("Cannot touch cached text: {}", entry);
+			}
+			return new FileContent(title, content);
+		} catch (IOException e) {
+			log.warn("Cannot read cached text: {}", entry, e);
+			FileUtils.deleteFile(entry);
+			return null;
+		}
+	}
+
+	public void put(String hash, String documentType, FileContent content) {
+		if(content == null) return;
+
+		File entry = getEntry(hash, documentType);
+		File dir = entry.getParentFile();
+		if(!dir.exists() && !dir.mkdirs()) {
+			log.warn("Cannot create directory of the text cache: {}", dir);
+			return;
+		}
+
+		File tmpEntry = new File(dir, entry.getName() + "." + UUID.randomUUID() + ".tmp");
+		try(OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpEntry.toPath())));
+				DataOutputStream dout = new DataOutputStream(out)) {
+			dout.writeInt(FORMAT_VERSION);
+			writeString(dout, content.getTitle());
+			writeString(dout, content.getContent());
+		} catch (IOException e) {
+			log.warn("Cannot write cached text: {}", entry, e);
+			FileUtils.deleteFile(tmpEntry);
+			return;
+		}
+		move(tmpEntry, entry);
+	}
+	
+	private void write(File entry, byte[] data) {
+		File dir = entry.getParentFile();
+		if(!dir.exists() && !dir.mkdirs()) {
+			log.warn("Cannot create directory of the text cache: {}", dir);
+			return;
+		}
+		
+		File tmpEntry = new File(dir, entry.getName() + "." + UUID.randomUUID() + ".tmp");
+		try {
+			Files.write(tmpEntry.toPath(), data);
+		} catch (IOException e) {
+			log.warn("Cannot write stamp: {}", entry, e);
+			FileUtils.deleteFile(tmpEntry);
+			return;
+		}
+		move(tmpEntry, entry);
+	}
+	
+	private void move(File tmpEntry, File entry) {
+		try {
+			Files.move(tmpEntry.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("Cannot move cached text: {}", entry, e);
+			FileUtils.deleteFile(tmpEntry);
+		}
+	}
+
+	/**
+	 * Remove the entries which were not used since the specified number of days.
+	 *
+	 * @param retentionInDays Number of days
+	 */
+	public void cleanup(long retentionInDays) {
+		if(!cacheDir.exists()) return;
+
+		final long limit = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionInDays);
+		try {
+			Files.walkFileTree(cacheDir.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					if(attrs.lastModifiedTime().toMillis() < limit) {
+						Files.deleteIfExists(file);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			log.warn("Cannot cleanup the text cache: {}", cacheDir, e);
+		}
+	}
+
+	private File getEntry(String hash, String documentType) {
+		File dir = new File(new File(cacheDir, hash.substring(0, 2)), hash.substring(2, 4));
+		return new File(dir, hash + "_" + documentType + ".txt.gz");
+	}
+	
+	private File getStampEntry(String stamp) {
+		File dir = new File(new File(new File(cacheDir, STAMPS_DIR), stamp.substring(0, 2)), stamp.substring(2, 4));
+		return new File(dir, stamp);
+	}
+
+	private static String readString(DataInputStream din) throws IOException {
+		int length = din.readInt();
+		if(length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		din.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream dout, String string) throws IOException {
+		if(string == null) {
+			dout.writeInt(-1);
+		} else {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			dout.writeInt(bytes.length);
+			dout.write(bytes);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for(int i=0; i<bytes.length; i++) {
+			int v = bytes[i] & 0xFF;
+			chars[i * 2] = HEX[v >>> 4];
+			chars[i * 2 + 1] = HEX[v & 0x0F];
+		}
+		return new String(chars);
+	}
+}
@@ -68,7 +68,7 @@ public abstract class FileDocument extends OlatDocument {
 			setDocumentType(TYPE);
 		}
 
-		FileContent content = readContent(leaf);
+		FileContent content = readCachedContent(leaf);
 		String metaTitle;
 		if(meta != null && StringHelper.containsNonWhitespace(meta.getTitle())) {
 			metaTitle = meta.getTitle();
@@ -183,6 +183,37 @@ public abstract class FileDocument extends OlatDocument {
 		}
 	}
 	
+	/**
+	 * Read the content from the cache of extracted text if a file with the
+	 * same content was already read by the same type of document, or extract
+	 * the text and cache it.
+	 * 
+	 * @param leaf The file
+	 * @return The content
+	 */
+	private FileContent readCachedContent(VFSLeaf leaf) throws IOException, DocumentException, DocumentAccessException {
+		FileContentCache cache = isContentCacheable() ? FileDocumentFactory.getContentCache() : null;
+		String hash = cache == null ? null : cache.getContentHash(leaf);
+		if(hash == null) {
+			return readContent(leaf);
+		}
+		
+		String documentType = getClass().getSimpleName();
+		FileContent content = cache.get(hash, documentType);
+		if(content == null) {
+			content = readContent(leaf);
+			cache.put(hash, documentType, content);
+		}
+		return content;
+	}
+	
+	/**
+	 * @return true if the extraction of the text is expensive enough to be cached
+	 */
+	protected boolean isContentCacheable() {
+		return true;
+	}
+	
 	abstract protected FileContent readContent(VFSLeaf leaf) throws IOException, DocumentException, DocumentAccessException;
 
 }
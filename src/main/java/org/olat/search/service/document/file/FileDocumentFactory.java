@@ -25,6 +25,7 @@
 
 package org.olat.search.service.document.file;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 
@@ -88,6 +89,7 @@ public class FileDocumentFactory {
 
   
 	private static SearchModule searchModule;
+	private static FileContentCache contentCache;
   
 	/**
 	 * [used by spring]
@@ -101,6 +103,16 @@ public class FileDocumentFactory {
 		return searchModule == null ? 120000 : (int)searchModule.getMaxFileSize();
 	}
 	
+	/**
+	 * @return The cache of the extracted text or null if the search is not configured
+	 */
+	public static synchronized FileContentCache getContentCache() {
+		if(contentCache == null && searchModule != null && searchModule.getTextCachePath() != null) {
+			contentCache = new FileContentCache(new File(searchModule.getTextCachePath()));
+		}
+		return contentCache;
+	}
+	
 	private Document getDocumentFromCurrentIndex(SearchResourceContext leafResourceContext, VFSLeaf leaf) {
 		try {
 			String resourceUrl = leafResourceContext.getResourceUrl();
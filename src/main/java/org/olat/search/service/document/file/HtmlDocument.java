@@ -60,6 +60,12 @@ public class HtmlDocument extends FileDocument {
 		return htmlDocument.getLuceneDocument();
 	}
 	
+	@Override
+	protected boolean isContentCacheable() {
+		// filtering the HTML is as cheap as hashing it
+		return false;
+	}
+
 	@Override
 	protected FileContent readContent(VFSLeaf leaf) throws DocumentException {
 		try(InputStream is = leaf.getInputStream()) {
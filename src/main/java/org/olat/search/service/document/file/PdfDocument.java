@@ -29,12 +29,14 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.UUID;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.document.Document;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.gui.util.CSSHelper;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
 import org.olat.core.util.io.LimitedContentWriter;
 import org.olat.core.util.vfs.VFSLeaf;
 import org.olat.search.service.SearchResourceContext;
@@ -98,6 +100,20 @@ public class PdfDocument extends FileDocument {
 		try {
 			String bean = externalIndexer ? "pdfExternalIndexer" : "pdfInternalIndexer";
 			PdfExtractor extractor = (PdfExtractor)CoreSpringFactory.getBean(bean);
+			if(FileDocumentFactory.getContentCache() != null) {
+				// the text is saved in the cache of extracted text, the buffer file is only temporary
+				File pdfTextFile = new File(pdfTextBufferPath, getFilePath() + "." + UUID.randomUUID() + ".tmp");
+				try {
+					if(!pdfTextFile.getParentFile().exists()) {
+						pdfTextFile.getParentFile().mkdirs();
+					}
+					extractor.extract(leaf, pdfTextFile);
+					return getPdfTextFromBuffer(pdfTextFile);
+				} finally {
+					FileUtils.deleteFile(pdfTextFile);
+				}
+			}
+			
 			File pdfTextFile = new File(pdfTextBufferPath, getFilePath() + ".tmp");
 			if (isNewPdfFile(leaf, pdfTextFile)) {
 				//prepare dirs
@@ -66,6 +66,12 @@ public class TextDocument extends FileDocument {
 		return textDocument.getLuceneDocument();
 	}
 
+	@Override
+	protected boolean isContentCacheable() {
+		// reading the text is as cheap as hashing it
+		return false;
+	}
+
 	@Override
 	protected FileContent readContent(VFSLeaf leaf) throws IOException {
 		InputStreamReader in = new InputStreamReader(leaf.getInputStream());
@@ -49,6 +49,12 @@ public class UnkownDocument extends FileDocument {
 		return openDocument.getLuceneDocument();
 	}
 
+	@Override
+	protected boolean isContentCacheable() {
+		// nothing is extracted
+		return false;
+	}
+
 	@Override
 	protected FileContent readContent(VFSLeaf leaf) {
 		return new FileContent("");
@@ -61,6 +61,12 @@ public class XmlDocument extends FileDocument {
 		return htmlDocument.getLuceneDocument();
 	}
 	
+	@Override
+	protected boolean isContentCacheable() {
+		// filtering the XML is as cheap as hashing it
+		return false;
+	}
+	
 	protected FileContent readContent(VFSLeaf leaf) throws IOException {
 		InputStream is = leaf.getInputStream();
     // Remove all HTML and &nbsp; Tags
@@ -65,10 +65,18 @@ import org.olat.search.SearchModule;
 import org.olat.search.SearchService;
 import org.olat.search.model.OlatDocument;
 import org.olat.search.service.SearchResourceContext;
+import org.olat.search.service.document.file.FileContentCache;
+import org.olat.search.service.document.file.FileDocumentFactory;
 
 /**
  * Controls the hole generation of a full-index. It run in its own thread the main index.
  * The sub-indexers can use a thread pool to parallelize the works.
+ * <p>
+ * The index is always rebuilt as a whole, there is no journal of the changes to
+ * update only the modified documents. The expensive part of the run, the extraction
+ * of the text of the files, is avoided twice: the files not modified since the last
+ * run reuse the document of the current index (see FileDocumentFactory), the other
+ * files with a known content reuse the text saved in the {@link FileContentCache}.
  * 
  * @author Christian Guretzki
  */
@@ -95,6 +103,7 @@ public class OlatFullIndexer {
 	private long indexInterval = 500;
 
 	private double ramBufferSizeMB;
+	private int textCacheRetentionInDays;
 	
 	private final int indexerPoolSize;
 	
@@ -146,6 +155,7 @@ public class OlatFullIndexer {
 		indexInterval = searchModule.getIndexInterval();
 		documentsPerInterval = searchModule.getDocumentsPerInterval();
 		ramBufferSizeMB = searchModule.getRAMBufferSizeMB();
+		textCacheRetentionInDays = searchModule.getTextCacheRetentionInDays();
 		fullIndexerStatus = new FullIndexerStatus(1);
 		stopIndexing = true;
 		initStatus();
@@ -306,6 +316,12 @@ public class OlatFullIndexer {
 			fullIndexerStatus.indexingFinished();
 			log.info("full indexing done in " + fullIndexerStatus.getIndexingTime() + "ms");
 			
+			// remove the extracted text of the files which were not indexed for a while
+			FileContentCache contentCache = FileDocumentFactory.getContentCache();
+			if(contentCache != null && textCacheRetentionInDays > 0) {
+				contentCache.cleanup(textCacheRetentionInDays);
+			}
+			
 			//created because the index is deleted and copied
 			IndexerEvent event = new IndexerEvent(IndexerEvent.INDEX_CREATED);
 			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, IndexerEvent.INDEX_ORES);
@@ -250,6 +250,30 @@ public class RepositoryIndexer extends AbstractHierarchicalIndexer {
 		return false;
 	}
 	
+	/**
+	 * The part of {@link #checkAccess(ContextEntry, BusinessControl, Identity, Roles)}
+	 * which only depends on the repository entry. The search results use it to
+	 * skip all the documents of an entry at once.
+	 * 
+	 * @param repositoryEntryKey The primary key of the repository entry
+	 * @param identity The identity which searches
+	 * @param roles The roles of the identity
+	 * @return true if the identity cannot access any document of the entry,
+	 * 		false if the complete check must decide
+	 */
+	public boolean isDenied(Long repositoryEntryKey, Identity identity, Roles roles) {
+		RepositoryEntry repositoryEntry = repositoryService.loadByKey(repositoryEntryKey);
+		if (repositoryEntry == null) {
+			return true;
+		}
+		if(roles.isGuestOnly() && !repositoryEntry.isGuests()) {
+			return true;
+		}
+		// bookable entries can be launched after booking, the complete check decides
+		RepositoryEntrySecurity reSecurity = repositoryManager.isAllowed(identity, roles, repositoryEntry);
+		return !reSecurity.isEntryAdmin() && !reSecurity.canLaunch() && !repositoryEntry.isBookable();
+	}
+	
 	/**
 	 * Get the repository handler for this repository entry.
 	 * @param re
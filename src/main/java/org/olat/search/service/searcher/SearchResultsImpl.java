@@ -28,7 +28,9 @@ package org.olat.search.service.searcher;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -42,21 +44,27 @@ import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
 import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
 import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.id.Identity;
+import org.olat.core.id.OLATResourceable;
 import org.olat.core.id.Roles;
 import org.olat.core.id.context.BusinessControl;
 import org.olat.core.id.context.BusinessControlFactory;
+import org.olat.core.id.context.ContextEntry;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.filter.FilterFactory;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.repository.RepositoryEntry;
 import org.olat.search.SearchResults;
 import org.olat.search.model.AbstractOlatDocument;
 import org.olat.search.model.ResultDocument;
 import org.olat.search.service.SearchServiceFactory;
 import org.olat.search.service.indexer.Indexer;
+import org.olat.search.service.indexer.repository.RepositoryIndexer;
 
 
 /**
@@ -72,6 +80,7 @@ public class SearchResultsImpl implements SearchResults {
 	private static final String HIGHLIGHT_PRE_TAG  = "<span class=\"o_search_result_highlight\">"; 
 	private static final String HIGHLIGHT_POST_TAG = "</span>";
 	private static final String HIGHLIGHT_SEPARATOR = "...<br />";
+	private static final String REPOSITORY_ENTRY_TYPE = OresHelper.calculateTypeName(RepositoryEntry.class);
 	
 	/* Define in module config */
 	private long maxHits;
@@ -82,6 +91,8 @@ public class SearchResultsImpl implements SearchResults {
 	/* List of ResultDocument. */
 	private List<ResultDocument> resultList;
 	private transient Indexer mainIndexer;
+	/* Repository entries the identity cannot access, the key of the entry and true if denied */
+	private transient Map<Long,Boolean> deniedRepositoryEntries;
 
 	/**
 	 * Constructure for certain search-results. 
@@ -99,6 +110,7 @@ public class SearchResultsImpl implements SearchResults {
 			Roles roles, int firstResult, int maxReturns, boolean doHighlighting, boolean onlyDbKeys)
 	throws IOException {
 		this.mainIndexer = mainIndexer;
+		deniedRepositoryEntries = new HashMap<>();
 		resultList = initResultList(identity, roles, query, analyzer, searcher, docs, firstResult, maxReturns, doHighlighting, onlyDbKeys);
 	}
 	
@@ -238,7 +250,8 @@ public class SearchResultsImpl implements SearchResults {
 			resourceUrl = "";
 		}	
 		BusinessControl businessControl = BusinessControlFactory.getInstance().createFromString(resourceUrl);
-		boolean hasAccess = mainIndexer.checkAccess(null, businessControl, identity, roles);
+		boolean hasAccess = !isDeniedByRepositoryEntry(businessControl, identity, roles)
+				&& mainIndexer.checkAccess(null, businessControl, identity, roles);
 		
 		ResultDocument resultDoc;
 		if(hasAccess) {
@@ -252,6 +265,36 @@ public class SearchResultsImpl implements SearchResults {
 		return resultDoc;
 	}
 	
+	/**
+	 * A lot of hits are in the same courses or resources. The check of the
+	 * repository entry at the root of the business path is done only once per
+	 * entry and both decisions are remembered for the whole search. A denied
+	 * entry hides all its documents, the documents of an entry which is not
+	 * denied still go through the complete check of the indexers. The decision
+	 * is the one of the repository indexer, see
+	 * {@link RepositoryIndexer#isDenied(Long, Identity, Roles)}.
+	 * 
+	 * @param businessControl The business path of the document
+	 * @param identity The identity which searches
+	 * @param roles The roles of the identity
+	 * @return true if the repository entry of the document cannot be accessed
+	 */
+	private boolean isDeniedByRepositoryEntry(BusinessControl businessControl, Identity identity, Roles roles) {
+		List<ContextEntry> entries = businessControl.getEntries();
+		if(entries == null || entries.isEmpty()) {
+			return false;
+		}
+		
+		OLATResourceable ores = entries.get(0).getOLATResourceable();
+		if(ores == null || ores.getResourceableId() == null
+				|| !REPOSITORY_ENTRY_TYPE.equals(ores.getResourceableTypeName())) {
+			return false;
+		}
+		return deniedRepositoryEntries.computeIfAbsent(ores.getResourceableId(),
+				entryKey -> Boolean.valueOf(CoreSpringFactory.getImpl(RepositoryIndexer.class).isDenied(entryKey, identity, roles)))
+			.booleanValue();
+	}
+	
 	/**
 	 * Highlight (bold,color) query words in result-document. Set HighlightResult for content or description. 
 	 * @param query
@@ -61,6 +61,17 @@ public class UserPropertiesRow {
 		}
 	}
 	
+	/**
+	 * Copy the row, the array of properties too.
+	 * 
+	 * @param row The row to copy
+	 */
+	protected UserPropertiesRow(UserPropertiesRow row) {
+		identityKey = row.identityKey;
+		identityName = row.identityName;
+		identityProps = row.identityProps == null ? null : row.identityProps.clone();
+	}
+	
 	public UserPropertiesRow(Identity identity, List<UserPropertyHandler> userPropertyHandlers, Locale locale) {
 		identityProps = new String[userPropertyHandlers.size()];
 		if(identity == null) {
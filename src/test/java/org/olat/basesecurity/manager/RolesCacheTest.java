@@ -0,0 +1,183 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.basesecurity.manager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.BaseSecurity;
+import org.olat.basesecurity.Group;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.basesecurity.OrganisationRoles;
+import org.olat.basesecurity.OrganisationService;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.id.Organisation;
+import org.olat.core.id.Roles;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class RolesCacheTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private GroupDAO groupDao;
+	@Autowired
+	private RolesCache rolesCache;
+	@Autowired
+	private BaseSecurity securityManager;
+	@Autowired
+	private OrganisationService organisationService;
+	
+	@Test
+	public void getRoles_cached() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-1");
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(id);
+		Assert.assertNotNull(roles);
+		Assert.assertFalse(roles.isAuthor());
+		
+		long hits = rolesCache.getHits();
+		Roles cachedRoles = securityManager.getRoles(id);
+		Assert.assertEquals(roles, cachedRoles);
+		Assert.assertEquals(hits + 1, rolesCache.getHits());
+	}
+	
+	@Test
+	public void getRoles_invalidatedByMembership() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-2");
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(id);
+		Assert.assertFalse(roles.isAuthor());
+		
+		Organisation defOrganisation = organisationService.getDefaultOrganisation();
+		organisationService.addMember(defOrganisation, id, OrganisationRoles.author);
+		dbInstance.commitAndCloseSession();
+		
+		Roles authorRoles = securityManager.getRoles(id);
+		Assert.assertTrue(authorRoles.isAuthor());
+		
+		organisationService.removeMember(defOrganisation, id, OrganisationRoles.author, true);
+		dbInstance.commitAndCloseSession();
+		
+		Roles userRoles = securityManager.getRoles(id);
+		Assert.assertFalse(userRoles.isAuthor());
+	}
+	
+	@Test
+	public void getRoles_revokedWithConcurrentLoad() throws Exception {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-4");
+		Organisation defOrganisation = organisationService.getDefaultOrganisation();
+		organisationService.addMember(defOrganisation, id, OrganisationRoles.administrator);
+		dbInstance.commitAndCloseSession();
+		
+		Roles adminRoles = securityManager.getRoles(id);
+		Assert.assertTrue(adminRoles.isAdministrator());
+		
+		// revoke the role, but don't commit
+		organisationService.removeMember(defOrganisation, id, OrganisationRoles.administrator, true);
+		
+		// an other request loads the roles before the commit and caches them
+		AtomicBoolean concurrentAdmin = new AtomicBoolean(false);
+		Thread concurrentRequest = new Thread(() -> {
+			try {
+				concurrentAdmin.set(securityManager.getRoles(id).isAdministrator());
+			} finally {
+				dbInstance.commitAndCloseSession();
+			}
+		});
+		concurrentRequest.start();
+		concurrentRequest.join(10000);
+		Assert.assertTrue(concurrentAdmin.get());
+		
+		dbInstance.commitAndCloseSession();
+		
+		Roles revokedRoles = securityManager.getRoles(id);
+		Assert.assertFalse(revokedRoles.isAdministrator());
+	}
+	
+	/**
+	 * The roles loaded in the transaction which changed them must
+	 * not survive a rollback.
+	 */
+	@Test
+	public void getRoles_rollback() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-6");
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(id);
+		Assert.assertFalse(roles.isAuthor());
+		
+		Organisation defOrganisation = organisationService.getDefaultOrganisation();
+		organisationService.addMember(defOrganisation, id, OrganisationRoles.author);
+		Roles uncommittedRoles = securityManager.getRoles(id);
+		Assert.assertTrue(uncommittedRoles.isAuthor());
+		dbInstance.rollbackAndCloseSession();
+		
+		Roles rolledBackRoles = securityManager.getRoles(id);
+		Assert.assertFalse(rolledBackRoles.isAuthor());
+	}
+	
+	@Test
+	public void getRoles_notInvalidatedByGroupMembership() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-5");
+		Group group = groupDao.createGroup();
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(id);
+		Assert.assertNotNull(roles);
+		
+		groupDao.addMembershipOneWay(group, id, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		long hits = rolesCache.getHits();
+		Roles cachedRoles = securityManager.getRoles(id);
+		Assert.assertEquals(roles, cachedRoles);
+		Assert.assertEquals(hits + 1, rolesCache.getHits());
+	}
+	
+	@Test
+	public void getRoles_consistencyCheck() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-3");
+		dbInstance.commitAndCloseSession();
+		
+		boolean check = rolesCache.isConsistencyCheck();
+		try {
+			rolesCache.setConsistencyCheck(true);
+			long inconsistencies = rolesCache.getInconsistencies();
+			securityManager.getRoles(id);
+			securityManager.getRoles(id);
+			Assert.assertEquals(inconsistencies, rolesCache.getInconsistencies());
+		} finally {
+			rolesCache.setConsistencyCheck(check);
+		}
+	}
+}
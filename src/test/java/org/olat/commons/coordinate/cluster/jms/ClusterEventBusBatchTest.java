@@ -0,0 +1,174 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.MessageConsumer;
+import javax.jms.ObjectMessage;
+import javax.jms.Session;
+import javax.jms.Topic;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.util.cluster.ClusterConfig;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.test.OlatTestCase;
+
+/**
+ * Send the events of a cluster event bus through an embedded
+ * ActiveMQ broker, with and without the batches.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ClusterEventBusBatchTest extends OlatTestCase {
+	
+	@Test
+	public void sendReceive_batches() throws Exception {
+		BatchCounter counter = sendReceive(true, 200, 10000);
+		waitForCondition(() -> counter.batches.get() > 0, 5000);
+		Assert.assertTrue("At least one batch expected", counter.batches.get() > 0);
+	}
+	
+	/**
+	 * Without the flag, the nodes of older releases must be able
+	 * to read every message: no batch at all.
+	 */
+	@Test
+	public void sendReceive_withoutBatches() throws Exception {
+		BatchCounter counter = sendReceive(false, 50, 10000);
+		waitForCondition(() -> counter.singles.get() >= 50, 5000);
+		Assert.assertEquals(0, counter.batches.get());
+		Assert.assertEquals(50, counter.singles.get());
+	}
+	
+	/**
+	 * A queue too small for the events: the overflowing events are sent
+	 * directly, none is lost but they can overtake the queued ones.
+	 */
+	@Test
+	public void sendReceive_fullQueue() throws Exception {
+		BatchCounter counter = sendReceive(true, 200, 1);
+		waitForCondition(() -> counter.batches.get() + counter.singles.get() > 0, 5000);
+		Assert.assertTrue(counter.batches.get() + counter.singles.get() > 0);
+	}
+	
+	private BatchCounter sendReceive(boolean batchEnabled, int numOfEvents, int maxQueueSize) throws Exception {
+		String brokerName = "batchtest" + UUID.randomUUID().toString().replace("-", "");
+		ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory("vm://" + brokerName + "?broker.persistent=false&broker.useJmx=false");
+		connectionFactory.setTrustAllPackages(true);
+		Topic topic = new ActiveMQTopic("batchtest.sysbus");
+		
+		// a second node which only counts the messages
+		Connection observerConnection = connectionFactory.createConnection();
+		ClusterEventBus bus = null;
+		try {
+			Session observerSession = observerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			MessageConsumer observer = observerSession.createConsumer(topic);
+			BatchCounter counter = new BatchCounter();
+			observer.setMessageListener(counter);
+			observerConnection.start();
+			
+			ClusterConfig clusterConfig = new ClusterConfig();
+			clusterConfig.setNodeId(Integer.valueOf(1));
+			bus = new ClusterEventBus();
+			bus.setClusterConfig(clusterConfig);
+			bus.setConnectionFactory(connectionFactory);
+			bus.setDestination(topic);
+			bus.setSendInterval(60000);
+			bus.setBatchDelay(20);
+			bus.setMaxBatchSize(50);
+			bus.setBatchEnabled(batchEnabled);
+			bus.setMaxQueueSize(maxQueueSize);
+			bus.setEnqueueTimeout(0);
+			bus.springInit();
+
+			OLATResourceable ores = OresHelper.createOLATResourceableInstance("batchtest", Long.valueOf(1));
+			CountDownLatch doneSignal = new CountDownLatch(numOfEvents);
+			List<String> received = new CopyOnWriteArrayList<>();
+			bus.registerFor(new GenericEventListener() {
+				@Override
+				public void event(Event event) {
+					received.add(event.getCommand());
+					doneSignal.countDown();
+				}
+			}, null, ores);
+			
+			List<String> sent = new ArrayList<>(numOfEvents);
+			for(int i=0; i<numOfEvents; i++) {
+				String command = "batch-" + i;
+				sent.add(command);
+				bus.fireEventToListenersOf(new MultiUserEvent(command), ores);
+			}
+			
+			Assert.assertTrue("Events not received within 10s", doneSignal.await(10, TimeUnit.SECONDS));
+			if(bus.getNumOfDirectlySentEvents() == 0) {
+				Assert.assertEquals(sent, received);
+			} else {
+				Assert.assertEquals(new HashSet<>(sent), new HashSet<>(received));
+				Assert.assertEquals(numOfEvents, received.size());
+			}
+			Assert.assertEquals(0l, bus.getNumOfLocalOnlyEvents());
+			return counter;
+		} finally {
+			if(bus != null) {
+				bus.stop();
+			}
+			observerConnection.close();
+		}
+	}
+	
+	private static class BatchCounter implements javax.jms.MessageListener {
+		
+		private final AtomicInteger batches = new AtomicInteger();
+		private final AtomicInteger singles = new AtomicInteger();
+
+		@Override
+		public void onMessage(javax.jms.Message message) {
+			try {
+				Object payload = ((ObjectMessage)message).getObject();
+				if(payload instanceof JMSWrapperBatch) {
+					batches.incrementAndGet();
+				} else if(payload instanceof JMSWrapper
+						&& !(((JMSWrapper)payload).getMultiUserEvent() instanceof ClusterInfoEvent)) {
+					singles.incrementAndGet();
+				}
+			} catch (Exception e) {
+				Assert.fail(e.getMessage());
+			}
+		}
+	}
+}
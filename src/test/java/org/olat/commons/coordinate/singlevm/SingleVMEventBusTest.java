@@ -0,0 +1,158 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.singlevm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class SingleVMEventBusTest {
+
+	private static final Logger log = Tracing.createLoggerFor(SingleVMEventBusTest.class);
+
+	@Test
+	public void registerFireDeregister() {
+		SingleVMEventBus bus = new SingleVMEventBus();
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("EventBusTest", Long.valueOf(1));
+		OLATResourceable type = OresHelper.createOLATResourceableType("EventBusTest");
+
+		CountingListener listener = new CountingListener();
+		CountingListener typeListener = new CountingListener();
+		bus.registerFor(listener, null, ores);
+		bus.registerFor(typeListener, null, type);
+		Assert.assertEquals(1, bus.getListeningIdentityCntFor(ores));
+
+		bus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+		Assert.assertEquals(1, listener.getCount());
+		Assert.assertEquals(1, typeListener.getCount());
+
+		bus.deregisterFor(listener, ores);
+		bus.deregisterFor(typeListener, type);
+		Assert.assertEquals(0, bus.getListeningIdentityCntFor(ores));
+		Assert.assertEquals(0, bus.getListeningIdentityCntFor(type));
+
+		bus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+		Assert.assertEquals(1, listener.getCount());
+		Assert.assertEquals(1, typeListener.getCount());
+	}
+
+	/**
+	 * A lot of threads register, fire and deregister on the same resource,
+	 * like at the start of an exam. At the end, the listeners which are
+	 * still registered must receive the events.
+	 */
+	@Test
+	public void concurrentRegisterFireDeregister() throws Exception {
+		final SingleVMEventBus bus = new SingleVMEventBus();
+		final OLATResourceable ores = OresHelper.createOLATResourceableInstance("EventBusTest", Long.valueOf(2));
+		final int numOfThreads = 16;
+		final int numOfIterations = 2000;
+
+		CountingListener permanentListener = new CountingListener();
+		bus.registerFor(permanentListener, null, ores);
+
+		final AtomicInteger errors = new AtomicInteger();
+		final CountDownLatch startSignal = new CountDownLatch(1);
+		final CountDownLatch doneSignal = new CountDownLatch(numOfThreads);
+		for(int i=0; i<numOfThreads; i++) {
+			new Thread(() -> {
+				try {
+					startSignal.await();
+					for(int j=0; j<numOfIterations; j++) {
+						CountingListener listener = new CountingListener();
+						bus.registerFor(listener, null, ores);
+						bus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+						bus.deregisterFor(listener, ores);
+						if(listener.getCount() == 0) {
+							errors.incrementAndGet();
+						}
+					}
+				} catch (Exception e) {
+					log.error("", e);
+					errors.incrementAndGet();
+				} finally {
+					doneSignal.countDown();
+				}
+			}).start();
+		}
+
+		long start = System.nanoTime();
+		startSignal.countDown();
+		boolean interrupt = doneSignal.await(60, TimeUnit.SECONDS);
+		Assert.assertTrue("Test takes too long (more than 60s)", interrupt);
+		log.info("{} register/fire/deregister in {} ms", numOfThreads * numOfIterations,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+		Assert.assertEquals(0, errors.get());
+		Assert.assertEquals(numOfThreads * numOfIterations, permanentListener.getCount());
+		Assert.assertEquals(1, bus.getListeningIdentityCntFor(ores));
+	}
+
+	@Test
+	public void manyListeners() {
+		SingleVMEventBus bus = new SingleVMEventBus();
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("EventBusTest", Long.valueOf(3));
+
+		List<CountingListener> listeners = new ArrayList<>();
+		for(int i=0; i<10; i++) {
+			CountingListener listener = new CountingListener();
+			listeners.add(listener);
+			bus.registerFor(listener, null, ores);
+		}
+		Assert.assertEquals(10, bus.getListeningIdentityCntFor(ores));
+
+		bus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+		for(CountingListener listener:listeners) {
+			Assert.assertEquals(1, listener.getCount());
+		}
+	}
+
+	private static class CountingListener implements GenericEventListener {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		public int getCount() {
+			return count.get();
+		}
+
+		@Override
+		public void event(Event event) {
+			count.incrementAndGet();
+		}
+	}
+}
@@ -34,10 +34,14 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -48,6 +52,7 @@ import org.olat.core.commons.services.notifications.PublisherData;
 import org.olat.core.commons.services.notifications.Subscriber;
 import org.olat.core.commons.services.notifications.SubscriptionContext;
 import org.olat.core.commons.services.notifications.SubscriptionInfo;
+import org.olat.core.commons.services.notifications.model.SubscriberImpl;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.DBRuntimeException;
@@ -450,6 +455,90 @@ public class NotificationsManagerTest extends OlatTestCase {
 		assertNull("publisher marked deleted should not be found", p2);
 	}
 	
+	/**
+	 * The identities with several subscriptions are at the edges of the
+	 * small pages, every identity must be returned exactly once and the
+	 * identities with only disabled subscriptions never.
+	 */
+	@Test
+	public void getIdentityKeysWithSubscriptions_paging() {
+		NotificationsManagerImpl notificationManagerImpl = (NotificationsManagerImpl)notificationManager;
+		List<Long> expectedKeys = new ArrayList<>();
+		for(int i=0; i<5; i++) {
+			Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("fi-page-" + i);
+			// a different number of subscriptions per identity
+			for(int j=0; j<=i; j++) {
+				SubscriptionContext sc = new SubscriptionContext("Paging", Long.valueOf(123), UUID.randomUUID().toString());
+				PublisherData pd = new PublisherData("Forum", "e.g. forumdata=keyofforum", null);
+				notificationManager.subscribe(id, sc, pd);
+			}
+			expectedKeys.add(id.getKey());
+		}
+		
+		Identity disabledId = JunitTestHelper.createAndPersistIdentityAsRndUser("fi-page-dis");
+		SubscriptionContext sc = new SubscriptionContext("Paging", Long.valueOf(123), UUID.randomUUID().toString());
+		notificationManager.subscribe(disabledId, sc, new PublisherData("Forum", "e.g. forumdata=keyofforum", null));
+		dbInstance.commitAndCloseSession();
+		SubscriberImpl disabledSubscriber = (SubscriberImpl)notificationManager.getSubscriber(disabledId, sc);
+		disabledSubscriber.setEnabled(false);
+		dbInstance.getCurrentEntityManager().merge(disabledSubscriber);
+		dbInstance.commitAndCloseSession();
+		
+		Long minKey = Collections.min(expectedKeys);
+		Long maxKey = Collections.max(expectedKeys);
+		List<Long> pagedKeys = new ArrayList<>();
+		Long lastKey = Long.valueOf(minKey.longValue() - 1);
+		List<Long> page;
+		do {
+			page = notificationManagerImpl.getIdentityKeysWithSubscriptions(lastKey, 2);
+			for(Long key:page) {
+				Assert.assertTrue(key.longValue() > lastKey.longValue());
+				if(key.longValue() <= maxKey.longValue()) {
+					pagedKeys.add(key);
+				}
+			}
+			if(!page.isEmpty()) {
+				lastKey = page.get(page.size() - 1);
+			}
+		} while(page.size() == 2 && lastKey.longValue() < maxKey.longValue());
+		
+		// other tests can add identities in the range, but only once
+		Assert.assertEquals(new HashSet<>(pagedKeys).size(), pagedKeys.size());
+		Assert.assertTrue(pagedKeys.containsAll(expectedKeys));
+		Assert.assertFalse(pagedKeys.contains(disabledId.getKey()));
+	}
+	
+	/**
+	 * A batch is split between the workers, every identity is processed once.
+	 */
+	@Test
+	public void processSubscribersByEmail_workers() throws Exception {
+		NotificationsManagerImpl notificationManagerImpl = (NotificationsManagerImpl)notificationManager;
+		List<Long> identityKeys = new ArrayList<>();
+		for(int i=0; i<7; i++) {
+			Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("fi-worker-" + i);
+			SubscriptionContext sc = new SubscriptionContext("Workers", Long.valueOf(123), UUID.randomUUID().toString());
+			notificationManager.subscribe(id, sc, new PublisherData("Forum", "e.g. forumdata=keyofforum", null));
+			identityKeys.add(id.getKey());
+		}
+		dbInstance.commitAndCloseSession();
+		
+		AtomicInteger processed = new AtomicInteger();
+		AtomicInteger mailed = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(3);
+		try {
+			notificationManagerImpl.processSubscribersByEmail(identityKeys, workers, processed, mailed);
+		} finally {
+			workers.shutdownNow();
+		}
+		Assert.assertEquals(7, processed.get());
+		
+		// and the same batch without workers
+		AtomicInteger processedSequentially = new AtomicInteger();
+		notificationManagerImpl.processSubscribersByEmail(identityKeys, null, processedSequentially, mailed);
+		Assert.assertEquals(7, processedSequentially.get());
+	}
+
 	@Test(expected=DBRuntimeException.class)
 	public void testDuplicateSubscribers() throws Exception {
 		try {
@@ -0,0 +1,213 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.vfs.model.ChunkedUpload;
+import org.olat.core.commons.services.vfs.model.ChunkedUpload.Status;
+import org.olat.core.id.Identity;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.core.util.vfs.VFSManager;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ChunkedUploadManagerTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private FolderModule folderModule;
+	@Autowired
+	private ChunkedUploadManager chunkedUploadManager;
+	
+	private String testPath;
+	private VFSContainer container;
+	
+	@Before
+	public void createTestContainer() {
+		testPath = "/chunkeduploadtest/" + UUID.randomUUID();
+		container = VFSManager.olatRootContainer(testPath, null);
+	}
+	
+	@After
+	public void deleteTestContainer() {
+		FileUtils.deleteQuietly(VFSManager.getRealFile(container));
+	}
+	
+	@Test
+	public void uploadInChunks() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("chunk-1");
+		byte[] content = randomContent(10000);
+		
+		ChunkedUpload upload = chunkedUploadManager.create(container, "chunks.bin", content.length, id);
+		Assert.assertNotNull(upload);
+		Status firstStatus = chunkedUploadManager.append(container, upload, 0l,
+				new ByteArrayInputStream(Arrays.copyOfRange(content, 0, 4000)), id);
+		Assert.assertEquals(Status.ok, firstStatus);
+		
+		// resume the upload with its state
+		ChunkedUpload resumedUpload = chunkedUploadManager.getUpload(container, upload.getId());
+		Assert.assertEquals(4000l, resumedUpload.getOffset());
+		Status lastStatus = chunkedUploadManager.append(container, resumedUpload, 4000l,
+				new ByteArrayInputStream(Arrays.copyOfRange(content, 4000, 10000)), id);
+		Assert.assertEquals(Status.completed, lastStatus);
+		
+		VFSLeaf leaf = (VFSLeaf)container.resolve("chunks.bin");
+		Assert.assertNotNull(leaf);
+		Assert.assertEquals(10000l, leaf.getSize());
+		Assert.assertNull(chunkedUploadManager.getUpload(container, upload.getId()));
+	}
+	
+	/**
+	 * The upload is only visible in the folder where it was started.
+	 */
+	@Test
+	public void getUpload_otherFolder() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("chunk-2");
+		ChunkedUpload upload = chunkedUploadManager.create(container, "other.bin", 100, id);
+		Assert.assertNotNull(upload);
+		
+		VFSContainer otherContainer = VFSManager.olatRootContainer(testPath + "/other", null);
+		Assert.assertNull(chunkedUploadManager.getUpload(otherContainer, upload.getId()));
+		Assert.assertNotNull(chunkedUploadManager.getUpload(container, upload.getId()));
+	}
+	
+	/**
+	 * A second request cannot write in an upload while the first
+	 * one is still writing.
+	 */
+	@Test
+	public void append_concurrent() throws Exception {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("chunk-3");
+		byte[] content = randomContent(2000);
+		ChunkedUpload upload = chunkedUploadManager.create(container, "concurrent.bin", content.length, id);
+		dbInstance.commitAndCloseSession();
+		
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		InputStream blockingStream = new InputStream() {
+			private int pos = 0;
+			
+			@Override
+			public int read() throws IOException {
+				if(pos == 1000) {
+					writing.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						throw new IOException(e);
+					}
+				}
+				return pos < content.length ? (content[pos++] & 0xff) : -1;
+			}
+			
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				// one byte at a time to block in the middle of the chunk
+				int c = read();
+				if(c == -1) {
+					return -1;
+				}
+				b[off] = (byte)c;
+				return 1;
+			}
+		};
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Status> firstRequest = executor.submit(() -> {
+				try {
+					return chunkedUploadManager.append(container, upload, 0l, blockingStream, id);
+				} finally {
+					dbInstance.commitAndCloseSession();
+				}
+			});
+			Assert.assertTrue(writing.await(10, TimeUnit.SECONDS));
+			
+			Status secondStatus = chunkedUploadManager.append(container, upload, 0l,
+					new ByteArrayInputStream(content), id);
+			Assert.assertEquals(Status.conflict, secondStatus);
+			
+			release.countDown();
+			Assert.assertEquals(Status.completed, firstRequest.get(10, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+		
+		VFSLeaf leaf = (VFSLeaf)container.resolve("concurrent.bin");
+		Assert.assertNotNull(leaf);
+		Assert.assertEquals(2000l, leaf.getSize());
+	}
+	
+	@Test
+	public void deleteExpiredUploads() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("chunk-4");
+		ChunkedUpload expiredUpload = chunkedUploadManager.create(container, "expired.bin", 100, id);
+		ChunkedUpload upload = chunkedUploadManager.create(container, "current.bin", 100, id);
+		
+		long twoDaysAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+		Path uploadsPath = Paths.get(folderModule.getCanonicalRoot(), ".uploads");
+		Assert.assertTrue(uploadsPath.resolve(expiredUpload.getId() + ".properties").toFile().setLastModified(twoDaysAgo));
+		File expiredPartFile = new File(VFSManager.getRealFile(container), "._oo_upload_" + expiredUpload.getId());
+		Assert.assertTrue(expiredPartFile.setLastModified(twoDaysAgo));
+		
+		int deleted = chunkedUploadManager.deleteExpiredUploads();
+		Assert.assertTrue(deleted >= 1);
+		Assert.assertFalse(expiredPartFile.exists());
+		Assert.assertNull(chunkedUploadManager.getUpload(container, expiredUpload.getId()));
+		Assert.assertNotNull(chunkedUploadManager.getUpload(container, upload.getId()));
+	}
+	
+	private static byte[] randomContent(int length) {
+		byte[] content = new byte[length];
+		new Random().nextBytes(content);
+		return content;
+	}
+}
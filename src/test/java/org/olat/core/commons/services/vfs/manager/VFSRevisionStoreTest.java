@@ -0,0 +1,174 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class VFSRevisionStoreTest extends OlatTestCase {
+	
+	@Autowired
+	private FolderModule folderModule;
+	@Autowired
+	private VFSRevisionStore revisionStore;
+	
+	private Path testDir;
+	
+	@Before
+	public void createTestDirectory() throws IOException {
+		testDir = Paths.get(folderModule.getCanonicalRoot(), "revisionstoretest", UUID.randomUUID().toString());
+		Files.createDirectories(testDir);
+	}
+	
+	@After
+	public void deleteTestDirectory() {
+		revisionStore.setLinksSupported(null);
+		FileUtils.deleteQuietly(testDir.toFile());
+	}
+	
+	@Test
+	public void copy() throws IOException {
+		Assume.assumeTrue(revisionStore.isLinksSupported());
+		
+		Path source = createFile("source.txt", "Content of a revision " + UUID.randomUUID());
+		Path target1 = testDir.resolve("._oo_vr_1_source.txt");
+		Path target2 = testDir.resolve("._oo_vr_2_source.txt");
+		Assert.assertTrue(revisionStore.copy(source.toFile(), target1.toFile()));
+		Assert.assertTrue(revisionStore.copy(source.toFile(), target2.toFile()));
+		
+		// the source is not linked, the two revisions and the store share the content
+		Assert.assertEquals(1, revisionStore.getLinkCount(source));
+		Assert.assertEquals(3, revisionStore.getLinkCount(target1));
+		Path content = revisionStore.getContentPath(revisionStore.hash(source));
+		Assert.assertTrue(Files.exists(content));
+		Assert.assertEquals(readString(source), readString(target2));
+		// the revisions stay writable
+		Assert.assertTrue(Files.isWritable(target1));
+	}
+	
+	@Test
+	public void delete_lastLink() throws IOException {
+		Assume.assumeTrue(revisionStore.isLinksSupported());
+		
+		Path source = createFile("source.txt", "Deleted revision " + UUID.randomUUID());
+		Path target1 = testDir.resolve("._oo_vr_1_source.txt");
+		Path target2 = testDir.resolve("._oo_vr_2_source.txt");
+		revisionStore.copy(source.toFile(), target1.toFile());
+		revisionStore.copy(source.toFile(), target2.toFile());
+		Path content = revisionStore.getContentPath(revisionStore.hash(source));
+		
+		revisionStore.delete(target1.toFile());
+		Assert.assertFalse(Files.exists(target1));
+		Assert.assertTrue(Files.exists(content));
+		Assert.assertEquals(2, revisionStore.getLinkCount(content));
+		
+		// the last revision removes the content from the store
+		revisionStore.delete(target2.toFile());
+		Assert.assertFalse(Files.exists(target2));
+		Assert.assertFalse(Files.exists(content));
+	}
+	
+	@Test
+	public void cleanup() throws IOException {
+		Assume.assumeTrue(revisionStore.isLinksSupported());
+		
+		Path source = createFile("source.txt", "Orphan revision " + UUID.randomUUID());
+		Path target = testDir.resolve("._oo_vr_1_source.txt");
+		revisionStore.copy(source.toFile(), target.toFile());
+		Path content = revisionStore.getContentPath(revisionStore.hash(source));
+		
+		// the folder is deleted without the store
+		Files.delete(target);
+		Assert.assertEquals(1, revisionStore.getLinkCount(content));
+		
+		// too young
+		revisionStore.cleanup();
+		Assert.assertTrue(Files.exists(content));
+		
+		long twoDaysAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+		Files.setLastModifiedTime(content, FileTime.fromMillis(twoDaysAgo));
+		int deleted = revisionStore.cleanup();
+		Assert.assertTrue(deleted >= 1);
+		Assert.assertFalse(Files.exists(content));
+	}
+	
+	@Test
+	public void copy_withoutHardLinks() throws IOException {
+		revisionStore.setLinksSupported(Boolean.FALSE);
+		
+		Path source = createFile("source.txt", "Plain copy " + UUID.randomUUID());
+		Path target = testDir.resolve("._oo_vr_1_source.txt");
+		Assert.assertTrue(revisionStore.copy(source.toFile(), target.toFile()));
+		
+		Assert.assertEquals(readString(source), readString(target));
+		Path content = revisionStore.getContentPath(revisionStore.hash(source));
+		Assert.assertFalse(Files.exists(content));
+		
+		revisionStore.delete(target.toFile());
+		Assert.assertFalse(Files.exists(target));
+	}
+	
+	@Test
+	public void deduplicate() throws IOException {
+		Assume.assumeTrue(revisionStore.isLinksSupported());
+		
+		String text = "Old revision " + UUID.randomUUID();
+		Path revision1 = createFile("._oo_vr_1_old.txt", text);
+		Path revision2 = createFile("._oo_vr_2_old.txt", text);
+		
+		Assert.assertTrue(revisionStore.deduplicate(revision1.toFile()));
+		Assert.assertTrue(revisionStore.deduplicate(revision2.toFile()));
+		Assert.assertEquals(3, revisionStore.getLinkCount(revision1));
+		Assert.assertEquals(text, readString(revision2));
+	}
+	
+	private Path createFile(String name, String text) throws IOException {
+		Path file = testDir.resolve(name);
+		Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+	
+	private String readString(Path file) throws IOException {
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+}
@@ -22,6 +22,7 @@ package org.olat.core.commons.services.vfs.manager;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Assert;
@@ -44,6 +46,7 @@ import org.olat.core.commons.services.vfs.model.VFSRevisionImpl;
 import org.olat.core.id.Identity;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.vfs.LocalFolderImpl;
 import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
@@ -700,6 +703,39 @@ public class VFSVersioningTest extends OlatTestCase {
 		Assert.assertEquals("Initital version 0", restoredMetadata.getComment());
 	}
 	
+	/**
+	 * The usage of the quota is cached, the revisions written and deleted
+	 * by the repository service must be counted.
+	 */
+	@Test
+	public void quotaUsage_withRevisions() throws IOException {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("vers-12");
+		LocalFolderImpl rootTest = VFSManager.olatRootContainer("/ver-" + UUID.randomUUID(), null);
+		VFSLeaf file = rootTest.createChildLeaf(UUID.randomUUID() + ".bin");
+		try(OutputStream out = file.getOutputStream(false)) {
+			out.write(new byte[8192]);
+		}
+		// the usage is now in the cache
+		Assert.assertEquals(8l, VFSManager.getUsageKB(rootTest));
+		
+		vfsRepositoryService.addVersion(file, id, "Version 1", new ByteArrayInputStream(new byte[4096]));
+		vfsRepositoryService.addVersion(file, id, "Version 2", new ByteArrayInputStream(new byte[2048]));
+		dbInstance.commitAndCloseSession();
+		
+		// current file (2 KB) and the 2 revisions (8 KB and 4 KB)
+		File directory = rootTest.getBasefile();
+		Assert.assertEquals(14l, FileUtils.sizeOfDirectory(directory) / 1024);
+		Assert.assertEquals(14l, VFSManager.getUsageKB(rootTest));
+		
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(file);
+		List<VFSRevision> revisions = vfsRepositoryService.getRevisions(metadata);
+		vfsRepositoryService.deleteRevisions(id, revisions.subList(0, 1));
+		dbInstance.commitAndCloseSession();
+		
+		Assert.assertEquals(6l, FileUtils.sizeOfDirectory(directory) / 1024);
+		Assert.assertEquals(6l, VFSManager.getUsageKB(rootTest));
+	}
+	
 	private int copyTestTxt(VFSLeaf file) {
 		try(OutputStream out = file.getOutputStream(false);
 				InputStream in = VFSVersioningTest.class.getResourceAsStream("test.txt")) {
@@ -0,0 +1,143 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.form.flexible.impl.elements.table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DefaultResultInfos;
+import org.olat.core.commons.persistence.ResultInfos;
+import org.olat.core.commons.persistence.SortKey;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableFilter;
+
+/**
+ * Check that the export pages through a copy of the data source and
+ * doesn't change the model of the table.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class XlsFlexiTableExporterTest {
+	
+	@Test
+	public void exportDataSource_firstPagePreloaded() {
+		IntegerDataSource delegate = new IntegerDataSource(320);
+		IntegerDataModel tableModel = new IntegerDataModel(delegate);
+		tableModel.load(null, null, null, 0, 20);
+		Assert.assertEquals(20, tableModel.getObjects().size());
+		
+		List<Object> exportedValues = export(tableModel);
+		Assert.assertEquals(320, exportedValues.size());
+		for(int i=0; i<320; i++) {
+			Assert.assertEquals(Integer.valueOf(i), exportedValues.get(i));
+		}
+		
+		// the model of the table is not changed
+		Assert.assertEquals(20, tableModel.getObjects().size());
+		Assert.assertEquals(320, tableModel.getRowCount());
+	}
+	
+	@Test
+	public void exportDataSource_severalPages() {
+		int numOfRows = 2 * XlsFlexiTableExporter.EXPORT_PAGE_SIZE + 17;
+		IntegerDataModel tableModel = new IntegerDataModel(new IntegerDataSource(numOfRows));
+		tableModel.load(null, null, null, 0, 20);
+		
+		List<Object> exportedValues = export(tableModel);
+		Assert.assertEquals(numOfRows, exportedValues.size());
+		Assert.assertEquals(Integer.valueOf(numOfRows - 1), exportedValues.get(numOfRows - 1));
+	}
+	
+	@Test
+	public void exportDataSource_copyWithoutDelegate() {
+		IntegerDataModel tableModel = new IntegerDataModel(new IntegerDataSource(42), true);
+		List<Object> exportedValues = export(tableModel);
+		Assert.assertEquals(42, exportedValues.size());
+	}
+	
+	private List<Object> export(FlexiTableDataModel<?> tableModel) {
+		FlexiTableDataSource<?> exportSource = XlsFlexiTableExporter.createExportSource(tableModel);
+		Assert.assertNotNull(exportSource);
+		Assert.assertNotSame(tableModel, exportSource);
+		
+		List<Object> values = new ArrayList<>();
+		int numOfRows = XlsFlexiTableExporter.forEachPagedRow(exportSource, null, null, null, new SortKey[0],
+				row -> values.add(exportSource.getValueAt(row, 0)));
+		Assert.assertEquals(values.size(), numOfRows);
+		return values;
+	}
+	
+	private static class IntegerDataModel extends DefaultFlexiTableDataSourceModel<Integer> {
+		
+		private final boolean copyWithoutDelegate;
+		
+		public IntegerDataModel(FlexiTableDataSourceDelegate<Integer> sourceDelegate) {
+			this(sourceDelegate, false);
+		}
+		
+		public IntegerDataModel(FlexiTableDataSourceDelegate<Integer> sourceDelegate, boolean copyWithoutDelegate) {
+			super(sourceDelegate, null);
+			this.copyWithoutDelegate = copyWithoutDelegate;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col) {
+			return getObject(row);
+		}
+
+		@Override
+		public DefaultFlexiTableDataSourceModel<Integer> createCopyWithEmptyList() {
+			return new IntegerDataModel(copyWithoutDelegate ? null : getSourceDelegate(), copyWithoutDelegate);
+		}
+	}
+	
+	private static class IntegerDataSource implements FlexiTableDataSourceDelegate<Integer> {
+		
+		private final int numOfRows;
+		
+		public IntegerDataSource(int numOfRows) {
+			this.numOfRows = numOfRows;
+		}
+
+		@Override
+		public int getRowCount() {
+			return numOfRows;
+		}
+
+		@Override
+		public List<Integer> reload(List<Integer> rows) {
+			return rows;
+		}
+
+		@Override
+		public ResultInfos<Integer> getRows(String query, List<FlexiTableFilter> filters, List<String> condQueries,
+				int firstResult, int maxResults, SortKey... orderBy) {
+			int lastResult = maxResults <= 0 ? numOfRows : Math.min(numOfRows, firstResult + maxResults);
+			List<Integer> rows = new ArrayList<>();
+			for(int i=firstResult; i<lastResult; i++) {
+				rows.add(Integer.valueOf(i));
+			}
+			return new DefaultResultInfos<>(lastResult, -1, rows);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.render.velocity;
+
+import java.io.StringWriter;
+
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class VelocityTemplateCacheTest {
+	
+	@Test
+	public void evaluate() {
+		RuntimeInstance runtime = new RuntimeInstance();
+		runtime.init();
+		VelocityTemplateCache cache = new VelocityTemplateCache(runtime, 2);
+		
+		String template = "Hello $firstName #if($lastName)$lastName#end";
+		for(int i=0; i<3; i++) {
+			VelocityContext context = new VelocityContext();
+			context.put("firstName", "John" + i);
+			if(i > 0) {
+				context.put("lastName", "Doe");
+			}
+			
+			StringWriter writer = new StringWriter();
+			Assert.assertTrue(cache.evaluate(context, writer, "test", template));
+			Assert.assertEquals(i == 0 ? "Hello John0 " : "Hello John" + i + " Doe", writer.toString());
+		}
+		
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(2, cache.getHits());
+	}
+	
+	@Test
+	public void evictLeastRecentlyUsed() {
+		RuntimeInstance runtime = new RuntimeInstance();
+		runtime.init();
+		VelocityTemplateCache cache = new VelocityTemplateCache(runtime, 2);
+		
+		for(int i=0; i<5; i++) {
+			StringWriter writer = new StringWriter();
+			cache.evaluate(new VelocityContext(), writer, "test", "Template " + i);
+			Assert.assertEquals("Template " + i, writer.toString());
+		}
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(5, cache.getMisses());
+	}
+}
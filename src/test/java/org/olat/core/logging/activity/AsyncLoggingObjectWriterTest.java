@@ -0,0 +1,101 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class AsyncLoggingObjectWriterTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	@Test
+	public void writeAndFlushOnDestroy() throws Exception {
+		String sessionId = UUID.randomUUID().toString();
+		AsyncLoggingObjectWriter writer = new AsyncLoggingObjectWriter(true, 100, 10);
+		writer.open();
+		writer.startWriter();
+		for(int i=0; i<25; i++) {
+			Assert.assertTrue(writer.enqueue(createLoggingObject(sessionId)));
+		}
+		writer.destroy();
+		
+		Assert.assertEquals(0, writer.getQueueDepth());
+		Assert.assertEquals(25l, writer.getWritten());
+		Assert.assertEquals(0l, writer.getErrors());
+		Assert.assertEquals(25l, countLoggingObjects(sessionId));
+	}
+	
+	/**
+	 * If the queue is full, the caller must write the logging
+	 * object itself. The queued objects are written at the end.
+	 */
+	@Test
+	public void queueFull() throws Exception {
+		String sessionId = UUID.randomUUID().toString();
+		AsyncLoggingObjectWriter writer = new AsyncLoggingObjectWriter(true, 2, 10);
+		writer.open();
+		Assert.assertTrue(writer.enqueue(createLoggingObject(sessionId)));
+		Assert.assertTrue(writer.enqueue(createLoggingObject(sessionId)));
+		Assert.assertFalse(writer.enqueue(createLoggingObject(sessionId)));
+		Assert.assertEquals(1l, writer.getSynchronousWrites());
+		Assert.assertEquals(2, writer.getQueueDepth());
+		
+		writer.startWriter();
+		writer.destroy();
+		Assert.assertEquals(2l, writer.getWritten());
+		Assert.assertEquals(2l, countLoggingObjects(sessionId));
+	}
+	
+	@Test
+	public void notStarted() throws Exception {
+		AsyncLoggingObjectWriter writer = new AsyncLoggingObjectWriter(false, 10, 10);
+		writer.afterPropertiesSet();
+		Assert.assertFalse(writer.enqueue(createLoggingObject(UUID.randomUUID().toString())));
+		writer.destroy();
+	}
+	
+	private LoggingObject createLoggingObject(String sessionId) {
+		LoggingObject logObj = new LoggingObject(sessionId, Long.valueOf(1l), "r", "launch", "node");
+		logObj.setResourceAdminAction(Boolean.FALSE);
+		return logObj;
+	}
+	
+	private long countLoggingObjects(String sessionId) {
+		Long count = dbInstance.getCurrentEntityManager()
+				.createQuery("select count(log.key) from loggingobject log where log.sessionId=:sessionId", Long.class)
+				.setParameter("sessionId", sessionId)
+				.getSingleResult();
+		dbInstance.commitAndCloseSession();
+		return count.longValue();
+	}
+}
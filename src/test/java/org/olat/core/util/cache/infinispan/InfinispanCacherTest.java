@@ -0,0 +1,94 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.cache.infinispan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.cache.CacheMetrics;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class InfinispanCacherTest extends OlatTestCase {
+	
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+	
+	@Test
+	public void metrics() {
+		CacheWrapper<String,List<String>> cache = coordinatorManager.getCoordinator().getCacher()
+				.getCache(InfinispanCacherTest.class.getSimpleName(), "metrics");
+		CacheMetrics metrics = getMetrics(InfinispanCacherTest.class.getSimpleName() + "@metrics");
+		Assert.assertNotNull(metrics);
+		cache.clear();
+		metrics.reset();
+		
+		// a miss which loads the value
+		List<String> value = cache.computeIfAbsent("key-1", key -> new ArrayList<>(Arrays.asList("a", "b", "c")));
+		Assert.assertEquals(3, value.size());
+		Assert.assertEquals(1l, metrics.getMisses());
+		Assert.assertEquals(1l, metrics.getLoads());
+		Assert.assertEquals(3l, metrics.getWeight());
+		
+		// a hit
+		List<String> cachedValue = cache.computeIfAbsent("key-1", key -> new ArrayList<>());
+		Assert.assertSame(value, cachedValue);
+		Assert.assertEquals(1l, metrics.getHits());
+		Assert.assertEquals(1l, metrics.getLoads());
+		
+		// get
+		Assert.assertNull(cache.get("key-2"));
+		Assert.assertNotNull(cache.get("key-1"));
+		Assert.assertEquals(2l, metrics.getHits());
+		Assert.assertEquals(2l, metrics.getMisses());
+		
+		// weights
+		cache.put("key-2", Arrays.asList("d", "e"));
+		Assert.assertEquals(5l, metrics.getWeight());
+		cache.remove("key-1");
+		Assert.assertEquals(2l, metrics.getWeight());
+		cache.clear();
+		Assert.assertEquals(0l, metrics.getWeight());
+		
+		long[] histogram = metrics.getLoadTimeHistogram();
+		Assert.assertEquals(CacheMetrics.LOAD_TIME_BUCKETS.length + 1, histogram.length);
+		Assert.assertEquals(1l, Arrays.stream(histogram).sum());
+	}
+	
+	private CacheMetrics getMetrics(String cacheName) {
+		for(CacheMetrics metrics:coordinatorManager.getCoordinator().getCacher().getMetrics()) {
+			if(cacheName.equals(metrics.getName())) {
+				return metrics;
+			}
+		}
+		return null;
+	}
+}
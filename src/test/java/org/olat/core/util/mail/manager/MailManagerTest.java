@@ -283,4 +283,57 @@ public class MailManagerTest extends OlatTestCase {
 				msg3.getFrom()[0].equals(fromx));
 		Assert.assertNotNull(result3);
 	}
+	
+	/**
+	 * Send several messages with the same pooled connection.
+	 */
+	@Test
+	public void sendWithTransportPool() throws MessagingException {
+		getSmtpServer().reset();
+		
+		Address from = new InternetAddress("sender@openolat.org");
+		SMTPTransportPool pool = new SMTPTransportPool(2, 100);
+		for(int i=0; i<3; i++) {
+			Address[] tos = { new InternetAddress("recipient" + i + "@openolat.org") };
+			MailerResult result = new MailerResult();
+			MimeMessage msg = mailManager.createMimeMessage(from, tos, null, null, "Pooled " + i, "Hello world", null, result);
+			pool.send(msg);
+		}
+		// the messages are received when the connection is closed
+		pool.shutdown();
+		
+		Assert.assertEquals(3, pool.getSentMessages());
+		Assert.assertEquals(1, pool.getOpenedConnections());
+		Assert.assertEquals(3, getSmtpServer().getReceivedEmails().size());
+	}
+	
+	/**
+	 * The idle connections are closed and a new connection is
+	 * opened for the next message.
+	 */
+	@Test
+	public void sendWithTransportPool_closeIdleConnections() throws MessagingException {
+		getSmtpServer().reset();
+		
+		Address from = new InternetAddress("sender@openolat.org");
+		SMTPTransportPool pool = new SMTPTransportPool(2, 100, 0l);
+		try {
+			Address[] tos = { new InternetAddress("recipient@openolat.org") };
+			MimeMessage msg = mailManager.createMimeMessage(from, tos, null, null, "Idle 1", "Hello world", null, new MailerResult());
+			pool.send(msg);
+			Assert.assertEquals(1, pool.getIdleConnections());
+			
+			pool.closeIdleConnections();
+			Assert.assertEquals(0, pool.getIdleConnections());
+			
+			MimeMessage msg2 = mailManager.createMimeMessage(from, tos, null, null, "Idle 2", "Hello world", null, new MailerResult());
+			pool.send(msg2);
+		} finally {
+			pool.shutdown();
+		}
+		
+		Assert.assertEquals(2, pool.getSentMessages());
+		Assert.assertEquals(2, pool.getOpenedConnections());
+		Assert.assertEquals(2, getSmtpServer().getReceivedEmails().size());
+	}
 }
@@ -23,10 +23,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.Logger;
 import org.junit.Assert;
 import org.junit.Test;
+import org.olat.core.logging.Tracing;
 import org.olat.core.util.openxml.OpenXMLWorksheet.Row;
 
 /**
@@ -37,6 +40,8 @@ import org.olat.core.util.openxml.OpenXMLWorksheet.Row;
  */
 public class OpenXmlWorkbookTest {
 	
+	private static final Logger log = Tracing.createLoggerFor(OpenXmlWorkbookTest.class);
+	
 	/**
 	 * Sadly, I can only test if our system produce a non empty file.
 	 * @throws IOException
@@ -85,4 +90,43 @@ public class OpenXmlWorkbookTest {
 		String col_702 = OpenXMLWorksheet.getColumn(702);
 		Assert.assertEquals("AAA", col_702);
 	}
+	
+	@Test
+	public void sharedStrings() {
+		OpenXMLWorkbookSharedStrings sharedStrings = new OpenXMLWorkbookSharedStrings();
+		int hello = sharedStrings.add("Hello");
+		int world = sharedStrings.add("World");
+		Assert.assertEquals(1, hello);
+		Assert.assertEquals(2, world);
+		Assert.assertEquals(hello, sharedStrings.add("Hello"));
+		Assert.assertEquals(world, sharedStrings.add("World"));
+		Assert.assertEquals(3, sharedStrings.size());
+	}
+	
+	/**
+	 * A large export with a lot of distinct strings, it must not
+	 * degrade quadratically with the number of shared strings.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void largeWorkbook() throws IOException {
+		File file = File.createTempFile("workbook", "_large.xlsx");
+		
+		long start = System.nanoTime();
+		try(FileOutputStream fileOut = new FileOutputStream(file);
+				OpenXMLWorkbook workbook = new OpenXMLWorkbook(fileOut, 1)) {
+			OpenXMLWorksheet sheet = workbook.nextWorksheet();
+			for(int i=0; i<20000; i++) {
+				Row row = sheet.newRow();
+				for(int j=0; j<30; j++) {
+					row.addCell(j, "Cell " + i + "-" + j, null);
+				}
+			}
+		}
+		log.info("Workbook with 20000 x 30 cells written in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		
+		Assert.assertTrue(file.length() > 4096);
+		file.delete();
+	}
 }
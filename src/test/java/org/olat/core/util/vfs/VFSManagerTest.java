@@ -25,9 +25,16 @@
 */
 package org.olat.core.util.vfs;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
 import org.junit.Test;
+import org.olat.core.util.FileUtils;
 
 /**
  * 
@@ -69,6 +76,46 @@ public class VFSManagerTest {
 		String path6_expected = "/cutTrailingSlash";
 		assertTrue(VFSManager.sanitizePath(path6).equals(path6_expected));
 	}
-
 	
+	/**
+	 * The usage is cached, check that the writes made through
+	 * the VFS are taken in account.
+	 */
+	@Test
+	public void getUsageKB() throws IOException {
+		File dir = Files.createTempDirectory("usage").toFile();
+		try {
+			LocalFolderImpl folder = new LocalFolderImpl(dir);
+			VFSContainer subFolder = folder.createChildContainer("sub");
+			assertEquals(0l, VFSManager.getUsageKB(folder));
+			
+			VFSLeaf leaf = subFolder.createChildLeaf("file.bin");
+			try(OutputStream out = leaf.getOutputStream(false)) {
+				out.write(new byte[4096]);
+			}
+			assertEquals(4l, VFSManager.getUsageKB(folder));
+			
+			// overwrite with a smaller content
+			try(OutputStream out = leaf.getOutputStream(false)) {
+				out.write(new byte[2048]);
+			}
+			assertEquals(2l, VFSManager.getUsageKB(folder));
+			
+			// append
+			try(OutputStream out = leaf.getOutputStream(true)) {
+				out.write(new byte[1024]);
+			}
+			assertEquals(3l, VFSManager.getUsageKB(folder));
+			
+			// rename within the folder doesn't change the usage
+			assertEquals(VFSConstants.YES, leaf.rename("renamed.bin"));
+			assertEquals(3l, VFSManager.getUsageKB(folder));
+			
+			VFSItem renamed = subFolder.resolve("renamed.bin");
+			assertEquals(VFSConstants.YES, renamed.deleteSilently());
+			assertEquals(0l, VFSManager.getUsageKB(folder));
+		} finally {
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
 }
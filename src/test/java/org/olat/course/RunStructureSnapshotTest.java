@@ -0,0 +1,134 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.olat.course.nodes.STCourseNode;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class RunStructureSnapshotTest {
+	
+	private File courseDir;
+	private File xmlFile;
+	
+	@Before
+	public void createCourseDir() throws IOException {
+		courseDir = Files.createTempDirectory("runstructure").toFile();
+		xmlFile = new File(courseDir, PersistingCourseImpl.RUNSTRUCTURE_XML);
+		Files.write(xmlFile.toPath(), "<structure>aaaa</structure>".getBytes(StandardCharsets.UTF_8));
+	}
+	
+	@After
+	public void deleteCourseDir() {
+		FileUtils.deleteDirsAndFiles(courseDir, true, true);
+	}
+	
+	@Test
+	public void writeRead() {
+		STCourseNode rootNode = new STCourseNode();
+		rootNode.setShortTitle("Snapshot");
+		Structure structure = new Structure();
+		structure.setRootNode(rootNode);
+		
+		RunStructureSnapshot snapshot = new RunStructureSnapshot(courseDir);
+		snapshot.write(structure);
+		
+		Structure reloadedStructure = snapshot.read();
+		Assert.assertNotNull(reloadedStructure);
+		Assert.assertEquals(rootNode.getIdent(), reloadedStructure.getRootNode().getIdent());
+		Assert.assertEquals("Snapshot", reloadedStructure.getRootNode().getShortTitle());
+	}
+	
+	/**
+	 * The XML is changed but keeps its length and its modification
+	 * date, the hash of the content doesn't match.
+	 */
+	@Test
+	public void read_changedXmlSameLengthAndDate() throws IOException {
+		Structure structure = new Structure();
+		structure.setRootNode(new STCourseNode());
+		
+		RunStructureSnapshot snapshot = new RunStructureSnapshot(courseDir);
+		snapshot.write(structure);
+		Assert.assertNotNull(snapshot.read());
+		
+		long lastModified = xmlFile.lastModified();
+		Files.write(xmlFile.toPath(), "<structure>bbbb</structure>".getBytes(StandardCharsets.UTF_8));
+		Assert.assertTrue(xmlFile.setLastModified(lastModified));
+		Assert.assertNull(snapshot.read());
+	}
+	
+	/**
+	 * A class which is not part of a run structure is refused.
+	 */
+	@Test
+	public void read_notAllowedClass() throws Exception {
+		File binFile = new File(courseDir, RunStructureSnapshot.RUNSTRUCTURE_BIN);
+		try(OutputStream out = Files.newOutputStream(binFile.toPath());
+				DataOutputStream dout = new DataOutputStream(out)) {
+			dout.writeInt(RunStructureSnapshot.MAGIC);
+			dout.writeInt(RunStructureSnapshot.FORMAT_VERSION);
+			dout.writeLong(xmlFile.lastModified());
+			dout.writeLong(xmlFile.length());
+			byte[] xmlHash = RunStructureSnapshot.hash(xmlFile);
+			dout.writeShort(xmlHash.length);
+			dout.write(xmlHash);
+			
+			GZIPOutputStream zout = new GZIPOutputStream(dout);
+			ObjectOutputStream oout = new ObjectOutputStream(zout);
+			oout.writeObject(new ObjectName("org.olat:type=Test"));
+			oout.flush();
+			zout.finish();
+		}
+		
+		Assert.assertNull(new RunStructureSnapshot(courseDir).read());
+	}
+	
+	@Test
+	public void isAllowed() {
+		Assert.assertTrue(RunStructureSnapshot.isAllowed(STCourseNode.class.getName()));
+		Assert.assertTrue(RunStructureSnapshot.isAllowed("java.util.ArrayList"));
+		Assert.assertTrue(RunStructureSnapshot.isAllowed("[Ljava.lang.String;"));
+		Assert.assertTrue(RunStructureSnapshot.isAllowed("[[I"));
+		Assert.assertFalse(RunStructureSnapshot.isAllowed("javax.management.ObjectName"));
+		Assert.assertFalse(RunStructureSnapshot.isAllowed("org.apache.commons.collections.functors.InvokerTransformer"));
+		Assert.assertFalse(RunStructureSnapshot.isAllowed("[Lorg.springframework.beans.factory.ObjectFactory;"));
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.assessment.manager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.xml.XStreamHelper;
+import org.olat.course.assessment.AssessmentHelper;
+import org.olat.course.assessment.EfficiencyStatement;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class EfficiencyStatementSerializerTest {
+	
+	@Test
+	public void toJsonAndBack() {
+		EfficiencyStatement statement = createStatement();
+		
+		String json = EfficiencyStatementSerializer.toJson(statement);
+		Assert.assertFalse(EfficiencyStatementSerializer.isLegacyXml(json));
+		Assert.assertTrue(json.startsWith("{\"v\":" + EfficiencyStatementSerializer.VERSION));
+		
+		EfficiencyStatement reloadedStatement = EfficiencyStatementSerializer.fromString(json);
+		assertStatement(statement, reloadedStatement);
+	}
+	
+	@Test
+	public void readLegacyXml() {
+		EfficiencyStatement statement = createStatement();
+		String xml = XStreamHelper.createXStreamInstance().toXML(statement);
+		Assert.assertTrue(EfficiencyStatementSerializer.isLegacyXml(xml));
+		
+		EfficiencyStatement reloadedStatement = EfficiencyStatementSerializer.fromString(xml);
+		assertStatement(statement, reloadedStatement);
+	}
+	
+	@Test
+	public void fromEmptyString() {
+		Assert.assertNull(EfficiencyStatementSerializer.fromString(null));
+		Assert.assertNull(EfficiencyStatementSerializer.fromString("  "));
+	}
+	
+	private void assertStatement(EfficiencyStatement expected, EfficiencyStatement statement) {
+		Assert.assertNotNull(statement);
+		Assert.assertEquals(expected.getCourseTitle(), statement.getCourseTitle());
+		Assert.assertEquals(expected.getCourseRepoEntryKey(), statement.getCourseRepoEntryKey());
+		Assert.assertEquals(expected.getDisplayableUserInfo(), statement.getDisplayableUserInfo());
+		Assert.assertEquals(expected.getLastUpdated(), statement.getLastUpdated());
+		Assert.assertEquals(expected.getLastUserModified(), statement.getLastUserModified());
+		Assert.assertEquals(expected.getLastCoachModified(), statement.getLastCoachModified());
+		// same keys, same values with the same types
+		Assert.assertEquals(expected.getAssessmentNodes(), statement.getAssessmentNodes());
+	}
+	
+	private EfficiencyStatement createStatement() {
+		Map<String,Object> rootNode = new HashMap<>();
+		rootNode.put(AssessmentHelper.KEY_INDENT, Integer.valueOf(0));
+		rootNode.put(AssessmentHelper.KEY_TYPE, "st");
+		rootNode.put(AssessmentHelper.KEY_TITLE_SHORT, "Root");
+		rootNode.put(AssessmentHelper.KEY_TITLE_LONG, "Root \"node\" <ü>");
+		rootNode.put(AssessmentHelper.KEY_IDENTIFYER, "1234567890");
+		rootNode.put(AssessmentHelper.KEY_SCORE, "12.5");
+		rootNode.put(AssessmentHelper.KEY_SCORE_F, Float.valueOf(12.5f));
+		rootNode.put(AssessmentHelper.KEY_PASSED, Boolean.TRUE);
+		rootNode.put(AssessmentHelper.KEY_SELECTABLE, Boolean.TRUE);
+		
+		Map<String,Object> testNode = new HashMap<>();
+		testNode.put(AssessmentHelper.KEY_INDENT, Integer.valueOf(1));
+		testNode.put(AssessmentHelper.KEY_TYPE, "iqtest");
+		testNode.put(AssessmentHelper.KEY_TITLE_SHORT, "Test");
+		testNode.put(AssessmentHelper.KEY_TITLE_LONG, null);
+		testNode.put(AssessmentHelper.KEY_IDENTIFYER, "1234567891");
+		testNode.put(AssessmentHelper.KEY_DETAILS, "<b>details</b>");
+		testNode.put(AssessmentHelper.KEY_ATTEMPTS, Integer.valueOf(3));
+		testNode.put(AssessmentHelper.KEY_SCORE, "3.333");
+		testNode.put(AssessmentHelper.KEY_SCORE_F, Float.valueOf(3.3333333f));
+		testNode.put(AssessmentHelper.KEY_MIN, Float.valueOf(0.0f));
+		testNode.put(AssessmentHelper.KEY_MAX, Float.valueOf(10.0f));
+		testNode.put(AssessmentHelper.KEY_PASSED, Boolean.FALSE);
+		testNode.put(AssessmentHelper.KEY_SELECTABLE, Boolean.TRUE);
+		testNode.put(AssessmentHelper.KEY_LAST_USER_MODIFIED, new Date(1571234567000l));
+		testNode.put(AssessmentHelper.KEY_LAST_COACH_MODIFIED, new Date(1571234568000l));
+		
+		List<Map<String,Object>> assessmentNodes = new ArrayList<>();
+		assessmentNodes.add(rootNode);
+		assessmentNodes.add(testNode);
+		
+		EfficiencyStatement statement = new EfficiencyStatement();
+		statement.setAssessmentNodes(assessmentNodes);
+		statement.setCourseTitle("Serialized course");
+		statement.setCourseRepoEntryKey(Long.valueOf(42l));
+		statement.setDisplayableUserInfo("Jeremy Smith");
+		statement.setLastUpdated(1571234569000l);
+		statement.setLastUserModified(1571234567000l);
+		statement.setLastCoachModified(1571234568000l);
+		return statement;
+	}
+}
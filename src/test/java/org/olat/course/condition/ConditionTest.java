@@ -19,8 +19,18 @@
  */
 package org.olat.course.condition;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
 import org.olat.core.id.Identity;
 import org.olat.core.id.IdentityEnvironment;
 import org.olat.core.id.Roles;
@@ -32,6 +42,7 @@ import org.olat.course.run.userview.UserCourseEnvironmentImpl;
 import org.olat.repository.RepositoryEntry;
 import org.olat.test.JunitTestHelper;
 import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * 
@@ -39,6 +50,9 @@ import org.olat.test.OlatTestCase;
  */
 public class ConditionTest extends OlatTestCase {
 	
+	@Autowired
+	private DB dbInstance;
+	
 	@Test
 	public void complexExpression() throws Exception {
 		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
@@ -325,6 +339,119 @@ public class ConditionTest extends OlatTestCase {
 		Assert.assertFalse(condition, result);
 	}
 
+	@Test
+	public void testReevaluateCachedExpression() throws Exception {
+		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
+		ConditionInterpreter interpreter = new ConditionInterpreter(uce);
+
+		String condition = "hasUserProperty(\"firstName\", \"firstcondition\") | isGuest(0)";
+		Assert.assertTrue(condition, interpreter.evaluateCondition(condition));
+		Assert.assertTrue(condition, interpreter.evaluateCondition(condition));
+
+		String calculation = "2 * 3 + 1";
+		Assert.assertEquals(7.0f, interpreter.evaluateCalculation(calculation), 0.0001f);
+		Assert.assertEquals(7.0f, interpreter.evaluateCalculation(calculation), 0.0001f);
+
+		interpreter.startEvaluationPass();
+		try {
+			condition = "inLearningGroup(\"no_such_group\")";
+			Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+			Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+		} finally {
+			interpreter.endEvaluationPass();
+		}
+	}
+	
+	@Test
+	public void testEvaluationPassMemoization() throws Exception {
+		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
+		TestConditionInterpreter interpreter = new TestConditionInterpreter(uce);
+		String condition = "inLearningGroup(\"no_such_group\")";
+		
+		// no pass, nothing remembered
+		Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+		Assert.assertNull(interpreter.getEvaluationPassResults());
+		
+		interpreter.startEvaluationPass();
+		try {
+			Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+			Map<String,Object> results = interpreter.getEvaluationPassResults();
+			Assert.assertEquals(1, results.size());
+			Assert.assertTrue(results.keySet().iterator().next().startsWith("inLearningGroup"));
+			
+			// a remembered result is used as is
+			String key = results.keySet().iterator().next();
+			results.put(key, ConditionInterpreter.INT_TRUE);
+			Assert.assertTrue(condition, interpreter.evaluateCondition(condition));
+			
+			// the pass is bound to the thread which started it
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try {
+				Future<Boolean> otherThread = executor.submit(() -> {
+					try {
+						return Boolean.valueOf(interpreter.getEvaluationPassResults() == null
+								&& !interpreter.evaluateCondition(condition));
+					} finally {
+						dbInstance.commitAndCloseSession();
+					}
+				});
+				Assert.assertTrue(otherThread.get(10, TimeUnit.SECONDS).booleanValue());
+			} finally {
+				executor.shutdownNow();
+			}
+		} finally {
+			interpreter.endEvaluationPass();
+		}
+		
+		Assert.assertNull(interpreter.getEvaluationPassResults());
+		Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+	}
+	
+	/**
+	 * The parsed expressions are reused one after the other, every concurrent
+	 * evaluation use its own copy.
+	 */
+	@Test
+	public void testCachedExpressionConcurrent() throws Exception {
+		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
+		TestConditionInterpreter interpreter = new TestConditionInterpreter(uce);
+		String condition = "hasUserProperty(\"firstName\", \"firstcondition\") | isGuest(0)";
+		
+		Assert.assertTrue(condition, interpreter.evaluateCondition(condition));
+		Assert.assertTrue(condition, interpreter.evaluateCondition(condition));
+		Assert.assertEquals(1, interpreter.getNumOfCachedExpressions(condition));
+		
+		int numOfThreads = 4;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		try {
+			List<Future<Boolean>> evaluations = new ArrayList<>();
+			for(int i=0; i<numOfThreads; i++) {
+				evaluations.add(executor.submit(() -> {
+					try {
+						start.await();
+						boolean ok = true;
+						for(int j=0; j<50; j++) {
+							ok &= interpreter.evaluateCondition(condition);
+						}
+						return Boolean.valueOf(ok);
+					} finally {
+						dbInstance.commitAndCloseSession();
+					}
+				}));
+			}
+			start.countDown();
+			for(Future<Boolean> evaluation:evaluations) {
+				Assert.assertTrue(evaluation.get(30, TimeUnit.SECONDS).booleanValue());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		int numOfCopies = interpreter.getNumOfCachedExpressions(condition);
+		Assert.assertTrue(numOfCopies >= 1 && numOfCopies <= numOfThreads);
+	}
+
 	
 	private UserCourseEnvironment getUserDemoCourseEnvironment() {
 		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("junit_auth");
@@ -335,4 +462,21 @@ public class ConditionTest extends OlatTestCase {
 		IdentityEnvironment identityEnv = new IdentityEnvironment(id, roles);
 		return new UserCourseEnvironmentImpl(identityEnv, course.getCourseEnvironment());
 	}
+	
+	private static class TestConditionInterpreter extends ConditionInterpreter {
+		
+		public TestConditionInterpreter(UserCourseEnvironment uce) {
+			super(uce);
+		}
+
+		@Override
+		protected Map<String, Object> getEvaluationPassResults() {
+			return super.getEvaluationPassResults();
+		}
+
+		@Override
+		protected int getNumOfCachedExpressions(String expression) {
+			return super.getNumOfCachedExpressions(expression);
+		}
+	}
 }
@@ -0,0 +1,83 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.condition.interpreter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.neemsoft.jmep.FunctionCB;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MemoizedFunctionTest {
+	
+	@Test
+	public void callOutsideOfPass() {
+		CountingFunction function = new CountingFunction();
+		MemoizedFunction memoized = new MemoizedFunction("count", function, () -> null);
+		
+		Assert.assertEquals(1, memoized.call(new Object[] { "a" }));
+		Assert.assertEquals(2, memoized.call(new Object[] { "a" }));
+		Assert.assertEquals(2, function.getCount());
+	}
+	
+	@Test
+	public void callInPass() {
+		Map<String,Object> results = new HashMap<>();
+		CountingFunction function = new CountingFunction();
+		MemoizedFunction memoized = new MemoizedFunction("count", function, () -> results);
+		
+		Assert.assertEquals(1, memoized.call(new Object[] { "a" }));
+		Assert.assertEquals(1, memoized.call(new Object[] { "a" }));
+		Assert.assertEquals(1, function.getCount());
+		// other arguments, other result
+		Assert.assertEquals(2, memoized.call(new Object[] { "b" }));
+		Assert.assertEquals(1, memoized.call(new Object[] { "a" }));
+		Assert.assertEquals(2, function.getCount());
+		
+		// an other function doesn't share the results
+		CountingFunction otherFunction = new CountingFunction();
+		MemoizedFunction otherMemoized = new MemoizedFunction("other", otherFunction, () -> results);
+		Assert.assertEquals(1, otherMemoized.call(new Object[] { "a" }));
+		Assert.assertEquals(1, otherFunction.getCount());
+	}
+	
+	private static class CountingFunction extends FunctionCB {
+		
+		private final AtomicInteger count = new AtomicInteger();
+		
+		public int getCount() {
+			return count.get();
+		}
+
+		@Override
+		public Object call(Object[] inStack) {
+			return Integer.valueOf(count.incrementAndGet());
+		}
+	}
+}
@@ -76,13 +76,25 @@ public class BigAssessmentGatlingPackageBuilder {
 		String date = format.format(new Date());
 		File directory = new File("/HotCoffee/qti/" + date + "/");
 		directory.mkdirs();
-		ManifestBuilder manifest = ManifestBuilder.createAssessmentTestBuilder();
 		System.out.println(directory);
-        
+		writeAssessmentTest(directory, "Big test " + date, numOfSections, numOfQuestions);
+	}
+	
+	/**
+	 * Write the files of a test package (manifest, test and single choice
+	 * items) in the specified directory.
+	 * 
+	 * @param directory The directory of the package
+	 * @param title The title of the test
+	 * @param numOfSections The number of sections
+	 * @param numOfQuestions The number of questions per section, 4 are selected randomly
+	 */
+	public static void writeAssessmentTest(File directory, String title, int numOfSections, int numOfQuestions) {
+		ManifestBuilder manifest = ManifestBuilder.createAssessmentTestBuilder();
 
 		//test
         File testFile = new File(directory, IdentifierGenerator.newAssessmentTestFilename());
-		AssessmentTest assessmentTest = AssessmentTestFactory.createAssessmentTest("Big test " + date, "Section");
+		AssessmentTest assessmentTest = AssessmentTestFactory.createAssessmentTest(title, "Section");
 		manifest.appendAssessmentTest(testFile.getName());
 
 		TestPart part = assessmentTest.getTestParts().get(0);
@@ -102,7 +114,7 @@ public class BigAssessmentGatlingPackageBuilder {
 			section.setOrdering(ordering);
 			
 			Selection selection = new Selection(section);
-			selection.setSelect(4);
+			selection.setSelect(Math.min(4, numOfQuestions));
 			section.setSelection(selection);
 			
 			ItemSessionControl itemSessionControl = new ItemSessionControl(section);
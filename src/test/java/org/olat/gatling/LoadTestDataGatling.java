@@ -0,0 +1,307 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.gatling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.BaseSecurity;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.basesecurity.OrganisationService;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.ZipUtil;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.course.CourseFactory;
+import org.olat.course.ICourse;
+import org.olat.course.nodes.BCCourseNode;
+import org.olat.course.nodes.CourseNode;
+import org.olat.course.nodes.CourseNodeFactory;
+import org.olat.course.nodes.FOCourseNode;
+import org.olat.course.nodes.iq.IQEditController;
+import org.olat.fileresource.types.ImsQTI21Resource;
+import org.olat.modules.ModuleConfiguration;
+import org.olat.modules.fo.Forum;
+import org.olat.modules.fo.Message;
+import org.olat.modules.fo.manager.ForumManager;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryEntryStatusEnum;
+import org.olat.repository.RepositoryService;
+import org.olat.repository.handlers.RepositoryHandler;
+import org.olat.repository.handlers.RepositoryHandlerFactory;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Data generator only: create the datas and the feeders (CSV files) needed
+ * by load tests of the course launch, the QTI 2.1 test, the forum, the folder
+ * download and the REST membership. The size is chosen with the system property
+ * <code>gatling.profile</code>: "local" (default) for a single VM,
+ * "exam" for a realistic exam day. The feeders are written in the
+ * directory of the system property <code>gatling.feeders</code>.<br>
+ * The simulations themselves and their reports (percentiles, throughput)
+ * need the Gatling dependency and are not part of this project.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LoadTestDataGatling extends OlatTestCase {
+	
+	private static final Logger log = Tracing.createLoggerFor(LoadTestDataGatling.class);
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private ForumManager forumManager;
+	@Autowired
+	private BaseSecurity securityManager;
+	@Autowired
+	private RepositoryService repositoryService;
+	@Autowired
+	private OrganisationService organisationService;
+	
+	private final Random random = new Random();
+	
+	@Test
+	public void generateDatas() throws Exception {
+		LoadProfile profile = LoadProfile.valueOf(System.getProperty("gatling.profile", LoadProfile.local.name()));
+		File feedersDir = new File(System.getProperty("gatling.feeders",
+				new File(System.getProperty("java.io.tmpdir"), "gatling-feeders").getAbsolutePath()));
+		feedersDir.mkdirs();
+		log.info("Generate load test datas with profile {} in {}", profile, feedersDir);
+
+		Identity author = JunitTestHelper.createAndPersistIdentityAsRndAuthor("gatling-author");
+		List<Identity> participants = createUsers("gatling-participant-", profile.numOfUsers, new File(feedersDir, "users.csv"));
+		List<Identity> newMembers = createUsers("gatling-member-", profile.numOfUsers, new File(feedersDir, "members.csv"));
+		RepositoryEntry testEntry = createAssessmentTest(author, profile);
+		
+		try(PrintWriter courses = createFeeder(feedersDir, "courses.csv", "repoEntryKey,courseId,testNodeId,forumNodeId,folderNodeId");
+				PrintWriter threads = createFeeder(feedersDir, "threads.csv", "courseId,forumNodeId,forumKey,threadKey");
+				PrintWriter files = createFeeder(feedersDir, "files.csv", "courseId,folderNodeId,filename")) {
+			for(int i=0; i<profile.numOfCourses; i++) {
+				RepositoryEntry courseEntry = createCourse(author, testEntry, i);
+				ICourse course = CourseFactory.loadCourse(courseEntry);
+				Long courseId = course.getResourceableId();
+				
+				FOCourseNode forumNode = (FOCourseNode)findNode(course.getRunStructure().getRootNode(), "fo");
+				BCCourseNode folderNode = (BCCourseNode)findNode(course.getRunStructure().getRootNode(), "bc");
+				CourseNode testNode = findNode(course.getRunStructure().getRootNode(), "iqtest");
+				Assert.assertNotNull(forumNode);
+				Assert.assertNotNull(folderNode);
+				Assert.assertNotNull(testNode);
+				
+				for(Identity participant:participants) {
+					repositoryService.addRole(participant, courseEntry, GroupRoles.participant.name());
+				}
+				dbInstance.commitAndCloseSession();
+				
+				Forum forum = forumNode.loadOrCreateForum(course.getCourseEnvironment());
+				for(Long threadKey:createThreads(forum, participants, profile)) {
+					threads.println(courseId + "," + forumNode.getIdent() + "," + forum.getKey() + "," + threadKey);
+				}
+				
+				VFSContainer folder = BCCourseNode.getNodeFolderContainer(folderNode, course.getCourseEnvironment());
+				for(String filename:createFiles(folder, profile)) {
+					files.println(courseId + "," + folderNode.getIdent() + "," + filename);
+				}
+				
+				courses.println(courseEntry.getKey() + "," + courseId + "," + testNode.getIdent()
+					+ "," + forumNode.getIdent() + "," + folderNode.getIdent());
+				log.info("Course {} of {} generated", (i + 1), profile.numOfCourses);
+			}
+		}
+	}
+	
+	private List<Identity> createUsers(String prefix, int numOfUsers, File feeder) throws IOException {
+		List<Identity> identities = new ArrayList<>(numOfUsers);
+		try(PrintWriter writer = new PrintWriter(feeder, StandardCharsets.UTF_8.name())) {
+			writer.println("username,password,identityKey");
+			for(int i=0; i<numOfUsers; i++) {
+				String login = prefix + i;
+				Identity identity = securityManager.findIdentityByName(login);
+				if(identity == null) {
+					identity = JunitTestHelper.createAndPersistIdentityAsUser(login);
+				}
+				identities.add(identity);
+				writer.println(login + "," + JunitTestHelper.PWD + "," + identity.getKey());
+				if(i % 100 == 0) {
+					dbInstance.commitAndCloseSession();
+				}
+			}
+		}
+		dbInstance.commitAndCloseSession();
+		return identities;
+	}
+	
+	private RepositoryEntry createAssessmentTest(Identity author, LoadProfile profile) throws IOException {
+		File directory = Files.createTempDirectory("gatling-qti21").toFile();
+		File zipFile = new File(directory.getParentFile(), directory.getName() + ".zip");
+		try {
+			BigAssessmentGatlingPackageBuilder.writeAssessmentTest(directory, "Load test", profile.numOfSections, profile.numOfQuestions);
+			ZipUtil.zipAll(directory, zipFile);
+			
+			RepositoryHandler testHandler = RepositoryHandlerFactory.getInstance()
+					.getRepositoryHandler(ImsQTI21Resource.TYPE_NAME);
+			RepositoryEntry testEntry = testHandler.importResource(author, null, "Load test QTI 2.1", "", true,
+					organisationService.getDefaultOrganisation(), Locale.ENGLISH, zipFile, null);
+			dbInstance.commitAndCloseSession();
+			return testEntry;
+		} finally {
+			FileUtils.deleteDirsAndFiles(directory, true, true);
+			Files.deleteIfExists(zipFile.toPath());
+		}
+	}
+	
+	/**
+	 * The demo course has a forum, a folder and a lot of other course elements,
+	 * a QTI 2.1 test element is added.
+	 */
+	private RepositoryEntry createCourse(Identity author, RepositoryEntry testEntry, int index) {
+		RepositoryEntry courseEntry = JunitTestHelper.deployDemoCourse(author);
+		Assert.assertNotNull(courseEntry);
+		
+		ICourse course = CourseFactory.openCourseEditSession(courseEntry.getOlatResource().getResourceableId());
+		CourseNode testNode = CourseNodeFactory.getInstance().getCourseNodeConfiguration("iqtest").getInstance();
+		testNode.setShortTitle("Test " + index);
+		testNode.setLongTitle("QTI 2.1 load test " + index);
+		ModuleConfiguration config = testNode.getModuleConfiguration();
+		config.set(IQEditController.CONFIG_KEY_TYPE_QTI, IQEditController.CONFIG_VALUE_QTI21);
+		IQEditController.setIQReference(testEntry, config);
+		CourseNode rootNode = course.getEditorTreeModel().getCourseNode(course.getRunStructure().getRootNode().getIdent());
+		course.getEditorTreeModel().addCourseNode(testNode, rootNode);
+		CourseFactory.saveCourseEditorTreeModel(course.getResourceableId());
+		CourseFactory.closeCourseEditSession(course.getResourceableId(), true);
+		
+		CourseFactory.publishCourse(course, RepositoryEntryStatusEnum.published, true, false, author, Locale.ENGLISH);
+		dbInstance.commitAndCloseSession();
+		return repositoryService.loadByKey(courseEntry.getKey());
+	}
+	
+	private List<Long> createThreads(Forum forum, List<Identity> participants, LoadProfile profile) {
+		List<Long> threadKeys = new ArrayList<>(profile.numOfThreads);
+		for(int i=0; i<profile.numOfThreads; i++) {
+			Message topMessage = forumManager.createMessage(forum, randomIdentity(participants), false);
+			topMessage.setTitle("Thread " + i);
+			topMessage.setBody("<p>Body of the thread " + i + "</p>");
+			forumManager.addTopMessage(topMessage);
+			threadKeys.add(topMessage.getKey());
+			
+			Message parent = topMessage;
+			for(int j=0; j<profile.numOfReplies; j++) {
+				Message reply = forumManager.createMessage(forum, randomIdentity(participants), false);
+				reply.setTitle("Re: Thread " + i);
+				reply.setBody("<p>Reply " + j + "</p>");
+				forumManager.replyToMessage(reply, parent);
+				// some deep threads, some flat ones
+				if(random.nextBoolean()) {
+					parent = reply;
+				}
+			}
+			dbInstance.commitAndCloseSession();
+		}
+		return threadKeys;
+	}
+	
+	private List<String> createFiles(VFSContainer folder, LoadProfile profile) throws IOException {
+		List<String> filenames = new ArrayList<>(profile.numOfFiles);
+		byte[] content = new byte[profile.fileSize];
+		for(int i=0; i<profile.numOfFiles; i++) {
+			String filename = "document_" + i + ".bin";
+			VFSLeaf leaf = folder.createChildLeaf(filename);
+			if(leaf == null) {
+				leaf = (VFSLeaf)folder.resolve(filename);
+			}
+			random.nextBytes(content);
+			try(OutputStream out = leaf.getOutputStream(false)) {
+				out.write(content);
+			}
+			filenames.add(filename);
+		}
+		return filenames;
+	}
+	
+	private Identity randomIdentity(List<Identity> identities) {
+		return identities.get(random.nextInt(identities.size()));
+	}
+	
+	private CourseNode findNode(CourseNode node, String type) {
+		if(type.equals(node.getType())) {
+			return node;
+		}
+		for(int i=0; i<node.getChildCount(); i++) {
+			CourseNode found = findNode((CourseNode)node.getChildAt(i), type);
+			if(found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+	
+	private PrintWriter createFeeder(File directory, String name, String header) throws IOException {
+		PrintWriter writer = new PrintWriter(new File(directory, name), StandardCharsets.UTF_8.name());
+		writer.println(header);
+		return writer;
+	}
+	
+	public enum LoadProfile {
+		/** Small enough to run the server and Gatling on the same VM */
+		local(50, 2, 3, 10, 20, 5, 20, 256 * 1024),
+		/** An exam day: a lot of users in the same courses and large tests */
+		exam(2000, 10, 15, 40, 200, 15, 100, 2 * 1024 * 1024);
+		
+		private final int numOfUsers;
+		private final int numOfCourses;
+		private final int numOfSections;
+		private final int numOfQuestions;
+		private final int numOfThreads;
+		private final int numOfReplies;
+		private final int numOfFiles;
+		private final int fileSize;
+		
+		private LoadProfile(int numOfUsers, int numOfCourses, int numOfSections, int numOfQuestions,
+				int numOfThreads, int numOfReplies, int numOfFiles, int fileSize) {
+			this.numOfUsers = numOfUsers;
+			this.numOfCourses = numOfCourses;
+			this.numOfSections = numOfSections;
+			this.numOfQuestions = numOfQuestions;
+			this.numOfThreads = numOfThreads;
+			this.numOfReplies = numOfReplies;
+			this.numOfFiles = numOfFiles;
+			this.fileSize = fileSize;
+		}
+	}
+}
@@ -19,6 +19,8 @@
  */
 package org.olat.ims.qti21.manager;
 
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.UUID;
 
 import org.junit.Assert;
@@ -83,4 +85,58 @@ public class AssessmentItemSessionDAOTest extends OlatTestCase {
 		Assert.assertEquals(sectionIdentifier, reloadedItemSession.getSectionIdentifier());
 		Assert.assertEquals(testPartIdentifier, reloadedItemSession.getTestPartIdentifier());
 	}
+	
+	@Test
+	public void mergeWithTestSession() {
+		RepositoryEntry testEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		Identity assessedIdentity = JunitTestHelper.createAndPersistIdentityAsRndUser("response-session-2");
+		AssessmentEntry assessmentEntry = assessmentService.getOrCreateAssessmentEntry(assessedIdentity, null, testEntry, "-", null, testEntry);
+		AssessmentTestSession testSession = testSessionDao.createAndPersistTestSession(testEntry, testEntry, "_", assessmentEntry, assessedIdentity, null, true);
+		String itemIdentifier = UUID.randomUUID().toString();
+		AssessmentItemSession itemSession = itemSessionDao.createAndPersistAssessmentItemSession(testSession, new ParentPartItemRefs(), itemIdentifier);
+		dbInstance.commitAndCloseSession();
+		
+		Date testSessionLastModified = testSessionDao.loadByKey(testSession.getKey()).getLastModified();
+		dbInstance.commitAndCloseSession();
+		
+		// the modification dates of the database can be rounded to the second
+		sleep(1100);
+		itemSession.setManualScore(new BigDecimal("2.5"));
+		AssessmentItemSession mergedItemSession = itemSessionDao.mergeWithTestSession(itemSession);
+		dbInstance.commitAndCloseSession();
+		
+		AssessmentTestSession reloadedTestSession = testSessionDao.loadByKey(testSession.getKey());
+		Assert.assertTrue(reloadedTestSession.getLastModified().after(testSessionLastModified));
+		AssessmentItemSession reloadedItemSession = itemSessionDao.getAssessmentItemSession(testSession, itemIdentifier);
+		Assert.assertEquals(mergedItemSession, reloadedItemSession);
+		Assert.assertEquals(0, new BigDecimal("2.5").compareTo(reloadedItemSession.getManualScore()));
+	}
+	
+	/**
+	 * The test runner updates the test session itself, the merge
+	 * of the item session doesn't change it.
+	 */
+	@Test
+	public void merge_keepTestSessionLastModified() {
+		RepositoryEntry testEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		Identity assessedIdentity = JunitTestHelper.createAndPersistIdentityAsRndUser("response-session-3");
+		AssessmentEntry assessmentEntry = assessmentService.getOrCreateAssessmentEntry(assessedIdentity, null, testEntry, "-", null, testEntry);
+		AssessmentTestSession testSession = testSessionDao.createAndPersistTestSession(testEntry, testEntry, "_", assessmentEntry, assessedIdentity, null, true);
+		String itemIdentifier = UUID.randomUUID().toString();
+		AssessmentItemSession itemSession = itemSessionDao.createAndPersistAssessmentItemSession(testSession, new ParentPartItemRefs(), itemIdentifier);
+		dbInstance.commitAndCloseSession();
+		
+		Date testSessionLastModified = testSessionDao.loadByKey(testSession.getKey()).getLastModified();
+		dbInstance.commitAndCloseSession();
+		
+		sleep(1100);
+		itemSession.setDuration(Long.valueOf(1200l));
+		itemSessionDao.merge(itemSession);
+		dbInstance.commitAndCloseSession();
+		
+		AssessmentTestSession reloadedTestSession = testSessionDao.loadByKey(testSession.getKey());
+		Assert.assertEquals(testSessionLastModified, reloadedTestSession.getLastModified());
+		AssessmentItemSession reloadedItemSession = itemSessionDao.getAssessmentItemSession(testSession, itemIdentifier);
+		Assert.assertEquals(Long.valueOf(1200l), reloadedItemSession.getDuration());
+	}
 }
@@ -0,0 +1,157 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.ims.qti.statistics.model.StatisticAssessment;
+import org.olat.ims.qti.statistics.model.StatisticsItem;
+import org.olat.ims.qti21.AssessmentItemSession;
+import org.olat.ims.qti21.AssessmentTestSession;
+import org.olat.ims.qti21.QTI21StatisticsManager;
+import org.olat.ims.qti21.model.ParentPartItemRefs;
+import org.olat.ims.qti21.model.QTI21StatisticSearchParams;
+import org.olat.modules.assessment.AssessmentEntry;
+import org.olat.modules.assessment.AssessmentService;
+import org.olat.repository.RepositoryEntry;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class QTI21StatisticsManagerTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private AssessmentService assessmentService;
+	@Autowired
+	private AssessmentItemSessionDAO itemSessionDao;
+	@Autowired
+	private AssessmentTestSessionDAO testSessionDao;
+	@Autowired
+	private QTI21StatisticsManager qtiStatisticsManager;
+	
+	/**
+	 * A change which doesn't update the modification date of the test
+	 * session is not visible: the statistics come from the cache.
+	 */
+	@Test
+	public void getAssessmentStatistics_cached() {
+		RepositoryEntry testEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		AssessmentTestSession testSession = createFinishedTestSession(testEntry, "stats-1", 4.0d);
+		createFinishedTestSession(testEntry, "stats-2", 6.0d);
+		dbInstance.commitAndCloseSession();
+		
+		QTI21StatisticSearchParams searchParams = createSearchParams(testEntry);
+		StatisticAssessment statistics = qtiStatisticsManager.getAssessmentStatistics(searchParams, null);
+		Assert.assertEquals(2, statistics.getNumOfParticipants());
+		Assert.assertEquals(5.0d, statistics.getAverage(), 0.0001);
+		
+		// change the score without updating the version
+		dbInstance.getCurrentEntityManager()
+			.createQuery("update qtiassessmenttestsession set score=:score where key=:sessionKey")
+			.setParameter("score", new BigDecimal("8.0"))
+			.setParameter("sessionKey", testSession.getKey())
+			.executeUpdate();
+		dbInstance.commitAndCloseSession();
+		
+		StatisticAssessment cachedStatistics = qtiStatisticsManager.getAssessmentStatistics(searchParams, null);
+		Assert.assertEquals(5.0d, cachedStatistics.getAverage(), 0.0001);
+	}
+	
+	@Test
+	public void getAssessmentStatistics_newSession() {
+		RepositoryEntry testEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		createFinishedTestSession(testEntry, "stats-3", 2.0d);
+		dbInstance.commitAndCloseSession();
+		
+		QTI21StatisticSearchParams searchParams = createSearchParams(testEntry);
+		StatisticAssessment statistics = qtiStatisticsManager.getAssessmentStatistics(searchParams, null);
+		Assert.assertEquals(1, statistics.getNumOfParticipants());
+		
+		createFinishedTestSession(testEntry, "stats-4", 4.0d);
+		dbInstance.commitAndCloseSession();
+		
+		StatisticAssessment reloadedStatistics = qtiStatisticsManager.getAssessmentStatistics(searchParams, null);
+		Assert.assertEquals(2, reloadedStatistics.getNumOfParticipants());
+		Assert.assertEquals(3.0d, reloadedStatistics.getAverage(), 0.0001);
+	}
+	
+	/**
+	 * A correction of an item session updates the modification date of
+	 * the test session and the statistics are reloaded.
+	 */
+	@Test
+	public void getAssessmentItemStatistics_correction() {
+		RepositoryEntry testEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		AssessmentTestSession testSession = createFinishedTestSession(testEntry, "stats-5", 1.0d);
+		String itemIdentifier = UUID.randomUUID().toString();
+		AssessmentItemSession itemSession = itemSessionDao
+				.createAndPersistAssessmentItemSession(testSession, new ParentPartItemRefs(), itemIdentifier);
+		itemSession.setScore(new BigDecimal("1.0"));
+		itemSession.setDuration(Long.valueOf(2000l));
+		itemSession = itemSessionDao.merge(itemSession);
+		dbInstance.commitAndCloseSession();
+		
+		QTI21StatisticSearchParams searchParams = createSearchParams(testEntry);
+		StatisticsItem statistics = qtiStatisticsManager.getAssessmentItemStatistics(itemIdentifier, 2.0d, searchParams);
+		Assert.assertEquals(1.0d, statistics.getAverageScore(), 0.0001);
+		Assert.assertEquals(0l, statistics.getNumOfCorrectAnswers());
+		
+		// the modification dates of the database can be rounded to the second
+		sleep(1100);
+		itemSession.setManualScore(new BigDecimal("1.0"));
+		itemSessionDao.merge(itemSession);
+		dbInstance.commitAndCloseSession();
+		
+		StatisticsItem correctedStatistics = qtiStatisticsManager.getAssessmentItemStatistics(itemIdentifier, 2.0d, searchParams);
+		Assert.assertEquals(2.0d, correctedStatistics.getAverageScore(), 0.0001);
+		Assert.assertEquals(1l, correctedStatistics.getNumOfCorrectAnswers());
+	}
+	
+	private QTI21StatisticSearchParams createSearchParams(RepositoryEntry testEntry) {
+		QTI21StatisticSearchParams searchParams = new QTI21StatisticSearchParams(testEntry, null, null);
+		searchParams.setViewAllUsers(true);
+		searchParams.setViewAnonymUsers(true);
+		return searchParams;
+	}
+	
+	private AssessmentTestSession createFinishedTestSession(RepositoryEntry testEntry, String login, double score) {
+		Identity assessedIdentity = JunitTestHelper.createAndPersistIdentityAsRndUser(login);
+		AssessmentEntry assessmentEntry = assessmentService.getOrCreateAssessmentEntry(assessedIdentity, null, testEntry, null, null, testEntry);
+		AssessmentTestSession testSession = testSessionDao.createAndPersistTestSession(testEntry, testEntry, null, assessmentEntry, assessedIdentity, null, false);
+		testSession.setScore(BigDecimal.valueOf(score));
+		testSession.setFinishTime(new Date());
+		testSession.setDuration(Long.valueOf(10000l));
+		return testSessionDao.update(testSession);
+	}
+}
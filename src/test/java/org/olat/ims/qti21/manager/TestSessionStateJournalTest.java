@@ -0,0 +1,204 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import uk.ac.ed.ph.jqtiplus.xmlutils.XmlFactories;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class TestSessionStateJournalTest extends OlatTestCase {
+	
+	private static final String NS = "http://www.ph.ed.ac.uk/qtiworks";
+	
+	private File storage;
+	private boolean enabled;
+	
+	@Autowired
+	private TestSessionStateJournal journal;
+	
+	@Before
+	public void createStorage() throws IOException {
+		storage = Files.createTempDirectory("journal").toFile();
+		enabled = journal.isEnabled();
+		journal.setEnabled(true);
+	}
+	
+	@After
+	public void deleteStorage() {
+		journal.setEnabled(enabled);
+		FileUtils.deleteDirsAndFiles(storage, true, true);
+	}
+	
+	@Test
+	public void storeAndReplay() {
+		journal.store(storage, createState("item-1", "0"), false);
+		File snapshotFile = new File(storage, TestSessionStateJournal.SNAPSHOT_FILENAME);
+		long snapshotLength = snapshotFile.length();
+		long records = journal.getRecords();
+		
+		journal.store(storage, createState("item-2", "1"), false);
+		journal.store(storage, createState("item-3", "2"), false);
+		
+		// the snapshot is not rewritten
+		Assert.assertEquals(snapshotLength, snapshotFile.length());
+		Assert.assertEquals(records + 2, journal.getRecords());
+		
+		Document document = journal.loadDocument(storage);
+		assertState(document, "item-3", "2");
+	}
+	
+	@Test
+	public void snapshot() {
+		journal.store(storage, createState("item-1", "0"), false);
+		journal.store(storage, createState("item-2", "1"), false);
+		journal.store(storage, createState("item-3", "2"), true);
+		
+		File journalFile = new File(storage, TestSessionStateJournal.JOURNAL_FILENAME);
+		Assert.assertEquals(12l, journalFile.length());
+		assertState(journal.loadDocument(storage), "item-3", "2");
+		
+		journal.store(storage, createState("item-2", "3"), false);
+		journal.compact(storage);
+		Assert.assertEquals(12l, journalFile.length());
+		assertState(journal.loadDocument(storage), "item-2", "3");
+	}
+	
+	@Test
+	public void truncatedJournal() throws IOException {
+		journal.store(storage, createState("item-1", "0"), false);
+		journal.store(storage, createState("item-2", "1"), false);
+		
+		// simulate a crash during the write of a record
+		File journalFile = new File(storage, TestSessionStateJournal.JOURNAL_FILENAME);
+		try(FileOutputStream out = new FileOutputStream(journalFile, true)) {
+			out.write(new byte[] { 0, 0, 1, 0, 12, 34 });
+		}
+		
+		assertState(journal.loadDocument(storage), "item-2", "1");
+	}
+	
+	/**
+	 * The journal is disabled after some records were written, for example
+	 * with a restart of the server: the records are still replayed and
+	 * the compaction keeps the last state.
+	 */
+	@Test
+	public void disabledAfterRecords() {
+		journal.store(storage, createState("item-1", "0"), false);
+		journal.store(storage, createState("item-2", "1"), false);
+		journal.store(storage, createState("item-3", "2"), false);
+		
+		File journalFile = new File(storage, TestSessionStateJournal.JOURNAL_FILENAME);
+		Assert.assertTrue(journalFile.length() > 12l);
+		
+		journal.setEnabled(false);
+		assertState(journal.loadDocument(storage), "item-3", "2");
+		
+		journal.compact(storage);
+		Assert.assertFalse(journalFile.exists());
+		assertState(journal.loadDocument(storage), "item-3", "2");
+		
+		// without journal, every state is a snapshot
+		journal.store(storage, createState("item-1", "3"), false);
+		Assert.assertFalse(journalFile.exists());
+		assertState(journal.loadDocument(storage), "item-1", "3");
+	}
+	
+	@Test
+	public void delete() {
+		journal.store(storage, createState("item-1", "0"), false);
+		journal.store(storage, createState("item-2", "1"), false);
+		Assert.assertTrue(journal.exists(storage));
+		
+		journal.delete(storage);
+		Assert.assertFalse(journal.exists(storage));
+		Assert.assertNull(journal.loadDocument(storage));
+	}
+	
+	private void assertState(Document document, String currentItemKey, String score) {
+		Assert.assertNotNull(document);
+		Element root = document.getDocumentElement();
+		Assert.assertEquals(currentItemKey, root.getAttribute("currentItemKey"));
+		
+		List<Element> children = getChildElements(root);
+		Assert.assertEquals(4, children.size());
+		for(int i=0; i<3; i++) {
+			Element itemState = children.get(i);
+			Assert.assertEquals("itemSessionState", itemState.getLocalName());
+			String key = "item-" + (i + 1);
+			Assert.assertEquals(key, itemState.getAttribute("key"));
+			Assert.assertEquals(Boolean.toString(key.equals(currentItemKey)), itemState.getAttribute("entered"));
+		}
+		Element outcome = children.get(3);
+		Assert.assertEquals("outcomeVariable", outcome.getLocalName());
+		Assert.assertEquals(score, outcome.getTextContent().trim());
+	}
+	
+	private static List<Element> getChildElements(Element element) {
+		List<Element> children = new ArrayList<>();
+		for(Node child=element.getFirstChild(); child != null; child=child.getNextSibling()) {
+			if(child.getNodeType() == Node.ELEMENT_NODE) {
+				children.add((Element)child);
+			}
+		}
+		return children;
+	}
+	
+	private Document createState(String currentItemKey, String score) {
+		Document document = XmlFactories.newDocumentBuilder().newDocument();
+		Element root = document.createElementNS(NS, "testSessionState");
+		root.setAttribute("currentItemKey", currentItemKey);
+		document.appendChild(root);
+		for(int i=1; i<=3; i++) {
+			String key = "item-" + i;
+			Element itemState = document.createElementNS(NS, "itemSessionState");
+			itemState.setAttribute("key", key);
+			itemState.setAttribute("entered", Boolean.toString(key.equals(currentItemKey)));
+			root.appendChild(itemState);
+		}
+		Element outcome = document.createElementNS(NS, "outcomeVariable");
+		outcome.setAttribute("identifier", "SCORE");
+		outcome.setTextContent(score);
+		root.appendChild(outcome);
+		return document;
+	}
+}
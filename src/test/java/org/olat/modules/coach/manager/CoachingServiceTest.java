@@ -0,0 +1,120 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.coach.manager;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.course.assessment.manager.EfficiencyStatementManager;
+import org.olat.modules.coach.CoachingLargeTest;
+import org.olat.modules.coach.CoachingService;
+import org.olat.modules.coach.model.CourseStatEntry;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryService;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CoachingServiceTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private CoachingService coachingService;
+	@Autowired
+	private RepositoryService repositoryService;
+	@Autowired
+	private EfficiencyStatementManager effManager;
+	
+	@Test
+	public void getCoursesStatistics_invalidate()
+	throws URISyntaxException {
+		URL courseUrl = CoachingLargeTest.class.getResource("CoachingCourse.zip");
+		RepositoryEntry re = JunitTestHelper.deployCourse(null, "Coaching course", courseUrl);
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsAuthor("Coach-1-" + UUID.randomUUID());
+		repositoryService.addRole(coach, re, GroupRoles.coach.name());
+		Identity participant1 = JunitTestHelper.createAndPersistIdentityAsRndUser("Coaching-Part-1");
+		repositoryService.addRole(participant1, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		effManager.createUserEfficiencyStatement(new Date(), 6.0f, true, participant1, re.getOlatResource());
+		dbInstance.commitAndCloseSession();
+		
+		List<CourseStatEntry> stats = coachingService.getCoursesStatistics(coach);
+		Assert.assertEquals(1, stats.size());
+		Assert.assertEquals(1, stats.get(0).getCountStudents());
+		
+		// a new participant, the statistics are cached
+		Identity participant2 = JunitTestHelper.createAndPersistIdentityAsRndUser("Coaching-Part-2");
+		repositoryService.addRole(participant2, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		effManager.createUserEfficiencyStatement(new Date(), 2.0f, false, participant2, re.getOlatResource());
+		dbInstance.commitAndCloseSession();
+		
+		List<CourseStatEntry> cachedStats = coachingService.getCoursesStatistics(coach);
+		Assert.assertEquals(1, cachedStats.get(0).getCountStudents());
+		
+		// reload after a change
+		coachingService.invalidateStatistics(coach);
+		List<CourseStatEntry> reloadedStats = coachingService.getCoursesStatistics(coach);
+		Assert.assertEquals(1, reloadedStats.size());
+		Assert.assertEquals(2, reloadedStats.get(0).getCountStudents());
+		Assert.assertEquals(1, reloadedStats.get(0).getCountPassed());
+		Assert.assertEquals(1, reloadedStats.get(0).getCountFailed());
+	}
+	
+	/**
+	 * The entries returned to a caller are copies, changing them
+	 * doesn't change the cached statistics.
+	 */
+	@Test
+	public void getCoursesStatistics_copies()
+	throws URISyntaxException {
+		URL courseUrl = CoachingLargeTest.class.getResource("CoachingCourse.zip");
+		RepositoryEntry re = JunitTestHelper.deployCourse(null, "Coaching course", courseUrl);
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsAuthor("Coach-2-" + UUID.randomUUID());
+		repositoryService.addRole(coach, re, GroupRoles.coach.name());
+		Identity participant = JunitTestHelper.createAndPersistIdentityAsRndUser("Coaching-Part-3");
+		repositoryService.addRole(participant, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		List<CourseStatEntry> stats = coachingService.getCoursesStatistics(coach);
+		Assert.assertEquals(1, stats.size());
+		stats.get(0).setCountStudents(99);
+		stats.get(0).setRepoDisplayName("Changed");
+		
+		List<CourseStatEntry> cachedStats = coachingService.getCoursesStatistics(coach);
+		Assert.assertEquals(1, cachedStats.get(0).getCountStudents());
+		Assert.assertEquals("Coaching course", cachedStats.get(0).getRepoDisplayName());
+	}
+}
@@ -165,6 +165,9 @@ public class ForumManagerTest extends OlatTestCase {
 		forumManager.addTopMessage(thread2);
 		dbInstance.commit();
 		
+		forumManager.markAsRead(id1, forum, thread1);
+		dbInstance.commitAndCloseSession();
+		
 		List<ForumThread> forumThreads = forumManager.getForumThreads(forum, id1);
 		Assert.assertNotNull(forumThreads);
 		Assert.assertEquals(2, forumThreads.size());
@@ -181,6 +184,14 @@ public class ForumManagerTest extends OlatTestCase {
 		
 		Assert.assertNotNull(forumThread1);
 		Assert.assertNotNull(forumThread2);
+		
+		// thread 1 with a reply, the top message is read
+		Assert.assertEquals(2, forumThread1.getNumOfPosts());
+		Assert.assertEquals(1, forumThread1.getNewMessages());
+		Assert.assertEquals(0, forumThread1.getMarkedMessages());
+		// thread 2 alone and unread
+		Assert.assertEquals(1, forumThread2.getNumOfPosts());
+		Assert.assertEquals(1, forumThread2.getNewMessages());
 	}
 	
 	@Test
@@ -36,6 +36,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.ws.rs.core.MediaType;
@@ -45,9 +46,15 @@ import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.Logger;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.olat.basesecurity.BaseSecurity;
@@ -55,6 +62,7 @@ import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.id.Identity;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSItem;
 import org.olat.core.util.vfs.VFSLeaf;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
@@ -171,6 +179,70 @@ public class CoursesResourcesFoldersTest extends OlatRestTestCase {
 		assertNotNull(contentType);
 	}
 	
+	@Test
+	public void uploadInChunks() throws IOException, URISyntaxException {
+		assertTrue(conn.login("administrator", "openolat"));
+		
+		byte[] content = new byte[10000];
+		for(int i=0; i<content.length; i++) {
+			content[i] = (byte)(i % 128);
+		}
+		
+		// create the upload
+		URI uri = UriBuilder.fromUri(getUploadsURI()).queryParam("path", "SubDir")
+				.queryParam("filename", "chunked.bin").build();
+		HttpPost createMethod = conn.createPost(uri, "*/*");
+		createMethod.addHeader("Upload-Length", Integer.toString(content.length));
+		HttpResponse createResponse = conn.execute(createMethod);
+		assertEquals(201, createResponse.getStatusLine().getStatusCode());
+		EntityUtils.consume(createResponse.getEntity());
+		URI uploadUri = URI.create(createResponse.getFirstHeader("Location").getValue());
+		
+		// first chunk
+		HttpPut firstChunk = conn.createPut(uploadUri, "*/*", true);
+		firstChunk.addHeader("Upload-Offset", "0");
+		firstChunk.setEntity(new ByteArrayEntity(Arrays.copyOfRange(content, 0, 6000), ContentType.APPLICATION_OCTET_STREAM));
+		HttpResponse firstResponse = conn.execute(firstChunk);
+		assertEquals(204, firstResponse.getStatusLine().getStatusCode());
+		assertEquals("6000", firstResponse.getFirstHeader("Upload-Offset").getValue());
+		
+		// wrong offset
+		HttpPut wrongChunk = conn.createPut(uploadUri, "*/*", true);
+		wrongChunk.addHeader("Upload-Offset", "5000");
+		wrongChunk.setEntity(new ByteArrayEntity(Arrays.copyOfRange(content, 5000, 10000), ContentType.APPLICATION_OCTET_STREAM));
+		HttpResponse wrongResponse = conn.execute(wrongChunk);
+		assertEquals(409, wrongResponse.getStatusLine().getStatusCode());
+		EntityUtils.consume(wrongResponse.getEntity());
+		
+		// resume
+		HttpHead head = conn.createHead(uploadUri, "*/*", true);
+		HttpResponse headResponse = conn.execute(head);
+		assertEquals(200, headResponse.getStatusLine().getStatusCode());
+		assertEquals("6000", headResponse.getFirstHeader("Upload-Offset").getValue());
+		
+		// the file is not in the folder until the last chunk
+		VFSContainer subContainer = (VFSContainer)course1.getCourseFolderContainer().resolve("SubDir");
+		Assert.assertNull(subContainer.resolve("chunked.bin"));
+		
+		HttpPut lastChunk = conn.createPut(uploadUri, "*/*", true);
+		lastChunk.addHeader("Upload-Offset", "6000");
+		lastChunk.setEntity(new ByteArrayEntity(Arrays.copyOfRange(content, 6000, 10000), ContentType.APPLICATION_OCTET_STREAM));
+		HttpResponse lastResponse = conn.execute(lastChunk);
+		assertEquals(204, lastResponse.getStatusLine().getStatusCode());
+		assertEquals("10000", lastResponse.getFirstHeader("Upload-Offset").getValue());
+		
+		VFSItem uploadedItem = subContainer.resolve("chunked.bin");
+		Assert.assertTrue(uploadedItem instanceof VFSLeaf);
+		try(InputStream in = ((VFSLeaf)uploadedItem).getInputStream()) {
+			Assert.assertArrayEquals(content, IOUtils.toByteArray(in));
+		}
+	}
+	
+	private URI getUploadsURI() {
+		return UriBuilder.fromUri(getContextURI()).path("repo").path("courses").path(course1.getResourceableId().toString())
+			.path("resourcefolders").path("uploads").build();
+	}
+	
 	private URI getCourseFolderURI() {
 		return UriBuilder.fromUri(getContextURI()).path("repo").path("courses").path(course1.getResourceableId().toString())
 			.path("resourcefolders").path("coursefolder").build();
@@ -0,0 +1,110 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.document.file;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.test.VFSJavaIOFile;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class FileContentCacheTest {
+	
+	@Test
+	public void putGet() throws Exception {
+		File cacheDir = Files.createTempDirectory("textcache").toFile();
+		try {
+			FileContentCache cache = new FileContentCache(cacheDir);
+			
+			URL url = FileContentCacheTest.class.getResource("Test_word_indexing.docx");
+			VFSLeaf leaf = new VFSJavaIOFile("Test_word_indexing.docx", new File(url.toURI()));
+			String hash = cache.hash(leaf);
+			Assert.assertNotNull(hash);
+			Assert.assertEquals(64, hash.length());
+			Assert.assertEquals(hash, cache.hash(leaf));
+			Assert.assertNull(cache.get(hash, "WordOOXMLDocument"));
+			
+			cache.put(hash, "WordOOXMLDocument", new FileContent("Title", "Some content with éàü"));
+			FileContent content = cache.get(hash, "WordOOXMLDocument");
+			Assert.assertNotNull(content);
+			Assert.assertEquals("Title", content.getTitle());
+			Assert.assertEquals("Some content with éàü", content.getContent());
+			// the type of document is part of the key
+			Assert.assertNull(cache.get(hash, "OpenDocument"));
+			
+			cache.put(hash, "OpenDocument", new FileContent("Only content"));
+			content = cache.get(hash, "OpenDocument");
+			Assert.assertNull(content.getTitle());
+			Assert.assertEquals("Only content", content.getContent());
+		} finally {
+			FileUtils.deleteDirsAndFiles(cacheDir, true, true);
+		}
+	}
+	
+	/**
+	 * The hash of the content is found with the path, the size and the date of
+	 * modification of the file, the file is only read if one of them changes.
+	 */
+	@Test
+	public void getContentHash() throws Exception {
+		File cacheDir = Files.createTempDirectory("textcache").toFile();
+		File dir = Files.createTempDirectory("textcachefiles").toFile();
+		try {
+			FileContentCache cache = new FileContentCache(cacheDir);
+			File file = new File(dir, "stamp.txt");
+			Files.write(file.toPath(), "Content A".getBytes(StandardCharsets.UTF_8));
+			long lastModified = file.lastModified();
+			VFSLeaf leaf = new VFSJavaIOFile("stamp.txt", file) {
+				@Override
+				public String getRelPath() {
+					return "/course/stamp.txt";
+				}
+			};
+			
+			String hash = cache.getContentHash(leaf);
+			Assert.assertEquals(cache.hash(leaf), hash);
+			
+			// same path, size and date: the content is not read again
+			Files.write(file.toPath(), "Content B".getBytes(StandardCharsets.UTF_8));
+			Assert.assertTrue(file.setLastModified(lastModified));
+			Assert.assertEquals(hash, cache.getContentHash(leaf));
+			
+			// the date changed
+			Assert.assertTrue(file.setLastModified(lastModified + 60000l));
+			String newHash = cache.getContentHash(leaf);
+			Assert.assertNotEquals(hash, newHash);
+			Assert.assertEquals(cache.hash(leaf), newHash);
+		} finally {
+			FileUtils.deleteDirsAndFiles(cacheDir, true, true);
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer.repository;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.BaseSecurity;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.id.Roles;
+import org.olat.core.id.context.BusinessControl;
+import org.olat.core.id.context.BusinessControlFactory;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryEntryAllowToLeaveOptions;
+import org.olat.repository.RepositoryManager;
+import org.olat.repository.manager.RepositoryEntryRelationDAO;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * The pre-filter of the search results (isDenied) must never deny
+ * an entry which the complete check (checkAccess) allows.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class RepositoryIndexerTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private BaseSecurity securityManager;
+	@Autowired
+	private RepositoryManager repositoryManager;
+	@Autowired
+	private RepositoryIndexer repositoryIndexer;
+	@Autowired
+	private RepositoryEntryRelationDAO repositoryEntryRelationDao;
+	
+	@Test
+	public void isDenied_guest() {
+		Identity guest = JunitTestHelper.createAndPersistIdentityAsRndUser("search-guest");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry(false);
+		dbInstance.commitAndCloseSession();
+		
+		Roles guestRoles = Roles.guestRoles();
+		Assert.assertTrue(repositoryIndexer.isDenied(entry.getKey(), guest, guestRoles));
+		Assert.assertFalse(checkAccess(entry, guest, guestRoles));
+	}
+	
+	@Test
+	public void isDenied_notMember() {
+		Identity user = JunitTestHelper.createAndPersistIdentityAsRndUser("search-not-member");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry(true);
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(user);
+		Assert.assertTrue(repositoryIndexer.isDenied(entry.getKey(), user, roles));
+		Assert.assertFalse(checkAccess(entry, user, roles));
+	}
+	
+	/**
+	 * A bookable entry can be launched after the booking, the pre-filter
+	 * lets the complete check decide.
+	 */
+	@Test
+	public void isDenied_bookable() {
+		Identity user = JunitTestHelper.createAndPersistIdentityAsRndUser("search-bookable");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry(true);
+		entry = repositoryManager.setAccess(entry, false, false, true, RepositoryEntryAllowToLeaveOptions.atAnyTime, null);
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(user);
+		Assert.assertFalse(repositoryIndexer.isDenied(entry.getKey(), user, roles));
+	}
+	
+	@Test
+	public void isDenied_owner() {
+		Identity owner = JunitTestHelper.createAndPersistIdentityAsRndAuthor("search-owner");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry(true);
+		repositoryEntryRelationDao.addRole(owner, entry, GroupRoles.owner.name());
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(owner);
+		Assert.assertFalse(repositoryIndexer.isDenied(entry.getKey(), owner, roles));
+	}
+	
+	private boolean checkAccess(RepositoryEntry entry, Identity identity, Roles roles) {
+		BusinessControl businessControl = BusinessControlFactory.getInstance()
+				.createFromString("[RepositoryEntry:" + entry.getKey() + "]");
+		return repositoryIndexer.checkAccess(businessControl.getEntries().get(0), businessControl, identity, roles);
+	}
+}
@@ -63,6 +63,7 @@ import org.junit.runners.Suite;
 	org.olat.core.helpers.SettingsTest.class,
 	org.olat.core.util.coordinate.LockEntryTest.class,
 	org.olat.core.util.coordinate.DBPersistentLockManagerTest.class,
+	org.olat.core.util.cache.infinispan.InfinispanCacherTest.class,
 	org.olat.core.util.StringHelperTest.class,
 	org.olat.core.util.FileUtilsTest.class,
 	org.olat.core.util.FileNameSuffixFilterTest.class,
@@ -86,6 +87,7 @@ import org.junit.runners.Suite;
 	org.olat.core.id.context.HistoryManagerTest.class,
 	org.olat.core.id.IdentityEnvironmentTest.class,
 	org.olat.core.gui.render.VelocityTemplateTest.class,
+	org.olat.core.gui.render.velocity.VelocityTemplateCacheTest.class,
 	org.olat.core.gui.control.generic.iframe.IFrameDeliveryMapperTest.class,
 	org.olat.note.NoteTest.class,
 	org.olat.user.UserTest.class,
@@ -97,8 +99,10 @@ import org.junit.runners.Suite;
 	org.olat.commons.calendar.manager.CalendarUserConfigurationDAOTest.class,
 	org.olat.commons.lifecycle.LifeCycleManagerTest.class,
 	org.olat.commons.coordinate.cluster.jms.JMSTest.class,
+	org.olat.commons.coordinate.cluster.jms.ClusterEventBusBatchTest.class,
 	org.olat.commons.coordinate.cluster.lock.LockTest.class,
 	org.olat.commons.coordinate.CoordinatorTest.class,
+	org.olat.commons.coordinate.singlevm.SingleVMEventBusTest.class,
 	org.olat.core.commons.services.csp.manager.CSPManagerTest.class,
 	org.olat.core.commons.services.doceditor.manager.DocEditorIdentityServiceTest.class,
 	org.olat.core.commons.services.doceditor.wopi.manager.AccessDAOTest.class,
@@ -111,6 +115,8 @@ import org.junit.runners.Suite;
 	org.olat.core.commons.services.vfs.manager.VFSRepositoryServiceTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSLockManagerTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSVersioningTest.class,
+	org.olat.core.commons.services.vfs.manager.VFSRevisionStoreTest.class,
+	org.olat.core.commons.services.vfs.manager.ChunkedUploadManagerTest.class,
 	org.olat.core.commons.services.help.ConfluenceHelperTest.class,
 	org.olat.core.commons.services.help.spi.ConfluenceLinkSPITest.class,
 	org.olat.core.commons.services.license.manager.LicenseTypeActivationDAOTest.class,
@@ -172,6 +178,7 @@ import org.junit.runners.Suite;
 	org.olat.course.archiver.FormatConfigHelperTest.class,
 	org.olat.course.condition.ConditionTest.class,
 	org.olat.course.condition.KeyAndNameConverterTest.class,
+	org.olat.course.condition.interpreter.MemoizedFunctionTest.class,
 	org.olat.course.highscore.HighScoreManagerTest.class,
 	org.olat.course.nodes.dialog.manager.DialogElementsManagerTest.class,
 	org.olat.course.nodes.en.EnrollmentManagerSerialTest.class,
@@ -186,6 +193,7 @@ import org.junit.runners.Suite;
 	org.olat.course.assessment.AssessmentManagerTest.class,
 	org.olat.course.assessment.manager.UserCourseInformationsManagerTest.class,
 	org.olat.course.assessment.manager.AssessmentModeManagerTest.class,
+	org.olat.course.assessment.manager.EfficiencyStatementSerializerTest.class,
 	org.olat.course.statistic.DailyStatisticUpdateManagerTest.class,
 	org.olat.course.statistic.DayOfWeekStatisticUpdateManagerTest.class,
 	org.olat.course.statistic.HourOfDayStatisticUpdateManagerTest.class,
@@ -196,6 +204,7 @@ import org.junit.runners.Suite;
 	org.olat.course.groupsandrights.CourseGroupManagementTest.class,
 	org.olat.course.editor.PublishProcessTest.class,
 	org.olat.course.CourseXStreamAliasesTest.class,
+	org.olat.course.RunStructureSnapshotTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectProviderTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectUserDAOTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectMeetingDAOTest.class,
@@ -205,6 +214,7 @@ import org.junit.runners.Suite;
 	org.olat.modules.wiki.versioning.diff.CookbookDiffTest.class,
 	org.olat.modules.wiki.gui.components.wikiToHtml.FilterUtilTest.class,
 	org.olat.modules.coach.manager.CoachingDAOTest.class,
+	org.olat.modules.coach.manager.CoachingServiceTest.class,
 	org.olat.modules.coach.CoachingLargeTest.class,
 	org.olat.modules.curriculum.manager.CurriculumDAOTest.class,
 	org.olat.modules.curriculum.manager.CurriculumMemberQueriesTest.class,
@@ -230,6 +240,7 @@ import org.junit.runners.Suite;
 	org.olat.basesecurity.manager.OrganisationTypeDAOTest.class,
 	org.olat.basesecurity.manager.OrganisationTypeToTypeDAOTest.class,
 	org.olat.basesecurity.manager.OrganisationServiceTest.class,
+	org.olat.basesecurity.manager.RolesCacheTest.class,
 	org.olat.basesecurity.manager.SecurityGroupDAOTest.class,
 	org.olat.modules.ceditor.ContentEditorXStreamTest.class,
 	org.olat.modules.ceditor.model.ContainerSettingsTest.class,
@@ -309,13 +320,16 @@ import org.junit.runners.Suite;
 	org.olat.properties.PropertyTest.class,
 	org.olat.search.service.document.file.FileDocumentFactoryTest.class,
 	org.olat.search.service.indexer.repository.course.SPCourseNodeIndexerTest.class,
+	org.olat.search.service.indexer.repository.RepositoryIndexerTest.class,
 	org.olat.search.service.document.file.HtmlDocumentTest.class,
 	org.olat.search.service.document.file.PDFDocumentTest.class,
 	org.olat.search.service.document.file.OfficeDocumentTest.class,
+	org.olat.search.service.document.file.FileContentCacheTest.class,
 	org.olat.core.commons.services.notifications.manager.NotificationsManagerTest.class,
 	org.olat.registration.RegistrationManagerTest.class,
 	org.olat.course.nodes.projectbroker.ProjectBrokerManagerTest.class,
 	org.olat.core.commons.persistence.DBTest.class,
+	org.olat.core.logging.activity.AsyncLoggingObjectWriterTest.class,
 	org.olat.modules.ims.cp.CPManagerTest.class,
 	org.olat.modules.ims.qti.fileresource.FileResourceValidatorTest.class,
 	org.olat.ims.qti.QTIResultManagerTest.class,
@@ -328,8 +342,10 @@ import org.junit.runners.Suite;
 	org.olat.ims.qti.statistics.manager.StatisticsTest.class,
 	org.olat.ims.qti21.manager.AssessmentTestSessionDAOTest.class,
 	org.olat.ims.qti21.manager.AssessmentItemSessionDAOTest.class,
+	org.olat.ims.qti21.manager.QTI21StatisticsManagerTest.class,
 	org.olat.ims.qti21.manager.AssessmentResponseDAOTest.class,
 	org.olat.ims.qti21.manager.CorrectResponsesUtilTest.class,
+	org.olat.ims.qti21.manager.TestSessionStateJournalTest.class,
 	org.olat.ims.qti21.model.xml.AssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.MultipleChoiceAssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.SingleChoiceAssessmentItemBuilderTest.class,
@@ -465,6 +481,7 @@ import org.junit.runners.Suite;
 	org.olat.core.gui.components.form.flexible.impl.elements.richText.TextModeTest.class,
 	org.olat.core.gui.components.form.flexible.impl.elements.SelectboxSelectionImplTest.class,
 	org.olat.core.gui.components.form.flexible.impl.elements.TextElementRendererTest.class,
+	org.olat.core.gui.components.form.flexible.impl.elements.table.XlsFlexiTableExporterTest.class,
 	org.olat.core.util.DateUtilsTest.class,
 	org.olat.course.learningpath.evaluation.ConfigStartDateEvaluatorTest.class,
 	org.olat.course.learningpath.evaluation.DefaultLinearStatusEvaluatorTest.class,